@@ -0,0 +1,85 @@
+package com.seuservidor.primeleagueclans.benchmarks;
+
+import com.seuservidor.primeleagueclans.PrimeLeagueClans;
+import com.seuservidor.primeleagueclans.managers.ClanManager;
+import com.seuservidor.primeleagueclans.managers.DatabaseManager;
+import com.seuservidor.primeleagueclans.managers.PlayerSessionManager;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.PluginDescriptionFile;
+
+import java.io.File;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Plugin montado fora do servidor: configuração vazia (valores padrão de cada chave) e sem modo
+ * debug. Só os managers usados pelos caminhos medidos são criados.
+ *
+ * Sem pasta de dados não há banco de dados. Com pasta de dados o plugin é inicializado como o
+ * Bukkit faria (logger e pasta), e o DatabaseManager usa o SQLite dessa pasta; ele só é conectado
+ * quando o benchmark chamar {@code initialize()}.
+ */
+final class BenchPlugin extends PrimeLeagueClans {
+    private final FileConfiguration config = new YamlConfiguration();
+    private ClanManager clanManager;
+    private PlayerSessionManager sessionManager;
+    private DatabaseManager databaseManager;
+
+    BenchPlugin() {
+        this.clanManager = new ClanManager(this);
+        this.sessionManager = new PlayerSessionManager(this);
+    }
+
+    BenchPlugin(File dataFolder) {
+        initialize(null, StubServer.server(serverLogger()),
+            new PluginDescriptionFile("PrimeLeagueClans", "bench", PrimeLeagueClans.class.getName()),
+            dataFolder, null, BenchPlugin.class.getClassLoader());
+        this.clanManager = new ClanManager(this);
+        this.sessionManager = new PlayerSessionManager(this);
+        this.databaseManager = new DatabaseManager(this);
+    }
+
+    @Override
+    public FileConfiguration getConfig() {
+        return config;
+    }
+
+    @Override
+    public ClanManager getClanManager() {
+        return clanManager;
+    }
+
+    @Override
+    public PlayerSessionManager getSessionManager() {
+        return sessionManager;
+    }
+
+    @Override
+    public DatabaseManager getDatabaseManager() {
+        return databaseManager;
+    }
+
+    @Override
+    public Logger getPluginLogger() {
+        return getLogger();
+    }
+
+    @Override
+    public boolean isDebugMode() {
+        return false;
+    }
+
+    // Só avisos e erros chegam ao console, para não misturar os logs de conexão com os resultados
+    private static Logger serverLogger() {
+        Logger logger = Logger.getLogger("PrimeLeagueClans-Bench");
+        if (logger.getHandlers().length == 0) {
+            ConsoleHandler handler = new ConsoleHandler();
+            handler.setLevel(Level.WARNING);
+            logger.addHandler(handler);
+            logger.setUseParentHandlers(false);
+        }
+        return logger;
+    }
+}
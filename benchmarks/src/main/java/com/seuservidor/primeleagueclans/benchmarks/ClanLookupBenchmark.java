@@ -0,0 +1,87 @@
+package com.seuservidor.primeleagueclans.benchmarks;
+
+import com.seuservidor.primeleagueclans.managers.ClanManager;
+import com.seuservidor.primeleagueclans.managers.PlayerSessionManager;
+import com.seuservidor.primeleagueclans.models.Clan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas feitas a cada mensagem de chat e a cada golpe entre jogadores.
+ *
+ * O estado é compartilhado entre as threads: rodar com {@code -t N} mede N leitores concorrentes
+ * sobre os mesmos índices. Com {@code -prof gc} o JMH mostra também a alocação por operação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ClanLookupBenchmark {
+    @Param({ "1000", "10000", "100000" })
+    public int clans;
+
+    @Param({ "10", "50" })
+    public int membersPerClan;
+
+    private ClanPopulation population;
+    private ClanManager clanManager;
+    private PlayerSessionManager sessionManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        population = ClanPopulation.build(clans, membersPerClan, 3, 42L);
+        clanManager = population.clanManager;
+        sessionManager = population.plugin.getSessionManager();
+    }
+
+    @Benchmark
+    public Clan getPlayerClan(Cursor cursor) {
+        return clanManager.getPlayerClan(population.sampleMembers[cursor.next()]);
+    }
+
+    @Benchmark
+    public Clan getPlayerClanWithoutClan(Cursor cursor) {
+        return clanManager.getPlayerClan(population.sampleClanless[cursor.next()]);
+    }
+
+    @Benchmark
+    public boolean hasClan(Cursor cursor) {
+        return clanManager.hasClan(population.sampleMembers[cursor.next()]);
+    }
+
+    @Benchmark
+    public Clan getClanByTag(Cursor cursor) {
+        return clanManager.getClanByTag(population.sampleTags[cursor.next()]);
+    }
+
+    @Benchmark
+    public Clan sessionClan(Cursor cursor) {
+        return sessionManager.getSession(population.samplePlayers[cursor.next()]).getClan();
+    }
+
+    @Benchmark
+    public boolean clanIsMember(Cursor cursor) {
+        int i = cursor.next();
+        return population.sampleMemberClans[i].isMember(population.sampleMembers[i]);
+    }
+
+    @Benchmark
+    public boolean clanIsAllyByName(Cursor cursor) {
+        int i = cursor.next();
+        return population.sampleFirst[i].isAlly(population.sampleSecond[i].getName());
+    }
+}
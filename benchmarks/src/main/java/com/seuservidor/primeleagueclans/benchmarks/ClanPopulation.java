@@ -0,0 +1,107 @@
+package com.seuservidor.primeleagueclans.benchmarks;
+
+import com.seuservidor.primeleagueclans.managers.ClanManager;
+import com.seuservidor.primeleagueclans.models.Clan;
+import org.bukkit.entity.Player;
+
+import java.util.SplittableRandom;
+
+/**
+ * População sintética de clãs carregada nos índices de um ClanManager real.
+ *
+ * Os nomes de jogador têm maiúsculas, como no servidor, para que o custo de normalizar a chave
+ * apareça nas medições. As amostras são sorteadas uma vez; os benchmarks só percorrem os arrays.
+ */
+final class ClanPopulation {
+    static final int SAMPLES = 1 << 14;
+    static final int SAMPLE_MASK = SAMPLES - 1;
+
+    final BenchPlugin plugin;
+    final ClanManager clanManager;
+    final Clan[] clans;
+
+    // Pares alinhados: sampleMembers[i] é membro de sampleMemberClans[i]
+    final String[] sampleMembers = new String[SAMPLES];
+    final Clan[] sampleMemberClans = new Clan[SAMPLES];
+    final Player[] samplePlayers = new Player[SAMPLES];
+    final String[] sampleClanless = new String[SAMPLES];
+    final String[] sampleTags = new String[SAMPLES];
+    // Pares de clãs para as checagens de aliança
+    final Clan[] sampleFirst = new Clan[SAMPLES];
+    final Clan[] sampleSecond = new Clan[SAMPLES];
+
+    private ClanPopulation(int clanCount) {
+        this.plugin = new BenchPlugin();
+        this.clanManager = plugin.getClanManager();
+        this.clans = new Clan[clanCount];
+    }
+
+    /**
+     * @param clanCount Quantidade de clãs
+     * @param membersPerClan Membros por clã, incluindo o líder
+     * @param alliesPerClan Aliados e inimigos declarados por clã
+     */
+    static ClanPopulation build(int clanCount, int membersPerClan, int alliesPerClan, long seed) {
+        ClanPopulation population = new ClanPopulation(clanCount);
+        SplittableRandom random = new SplittableRandom(seed);
+        ClanManager clanManager = population.clanManager;
+
+        for (int i = 0; i < clanCount; i++) {
+            Clan clan = new Clan(clanName(i), clanTag(i), playerName(i, 0));
+            clan.setId("clan-" + i);
+            // Relações declaradas antes de o clã entrar nos índices, como no carregamento do banco
+            for (int r = 0; r < alliesPerClan && clanCount > 1; r++) {
+                clan.addAlly(clanName(random.nextInt(clanCount)));
+                clan.addEnemy(clanName(random.nextInt(clanCount)));
+            }
+            population.clans[i] = clanManager.cacheClan(clan);
+
+            for (int m = 0; m < membersPerClan; m++) {
+                clanManager.moveMember(playerName(i, m), clan.getId());
+            }
+        }
+
+        for (int s = 0; s < SAMPLES; s++) {
+            int clanIndex = random.nextInt(clanCount);
+            String member = playerName(clanIndex, random.nextInt(membersPerClan));
+            population.sampleMembers[s] = member;
+            population.sampleMemberClans[s] = population.clans[clanIndex];
+            population.samplePlayers[s] = StubPlayers.player(member);
+            population.sampleClanless[s] = "Visitante_" + random.nextInt(Integer.MAX_VALUE);
+            population.sampleTags[s] = clanTag(random.nextInt(clanCount)).toLowerCase();
+            population.sampleFirst[s] = population.clans[random.nextInt(clanCount)];
+            population.sampleSecond[s] = population.clans[random.nextInt(clanCount)];
+        }
+        return population;
+    }
+
+    /**
+     * Clã ainda sem ID, como sai do banco: membros com o nome em maiúsculas e relações por nome.
+     *
+     * @param index Posição do clã na população
+     * @param clanCount Tamanho da população, para sortear aliados e inimigos
+     */
+    static Clan newClan(int index, int clanCount, int membersPerClan, int alliesPerClan, SplittableRandom random) {
+        Clan clan = new Clan(clanName(index), clanTag(index), playerName(index, 0));
+        for (int m = 1; m < membersPerClan; m++) {
+            clan.addMember(playerName(index, m));
+        }
+        for (int r = 0; r < alliesPerClan && clanCount > 1; r++) {
+            clan.addAlly(clanName(random.nextInt(clanCount)));
+            clan.addEnemy(clanName(random.nextInt(clanCount)));
+        }
+        return clan;
+    }
+
+    static String clanName(int index) {
+        return "Clan" + index;
+    }
+
+    static String clanTag(int index) {
+        return "T" + Integer.toString(index, 36).toUpperCase();
+    }
+
+    static String playerName(int clanIndex, int memberIndex) {
+        return "Player_" + clanIndex + "_" + memberIndex;
+    }
+}
@@ -0,0 +1,69 @@
+package com.seuservidor.primeleagueclans.benchmarks;
+
+import com.seuservidor.primeleagueclans.managers.RelationMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checagem de fogo amigo pela RelationMatrix contra a checagem por nome no Clan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class ClanRelationBenchmark {
+    @Param({ "1000", "10000", "100000" })
+    public int clans;
+
+    private ClanPopulation population;
+    private RelationMatrix relations;
+    private int[] firstSlots;
+    private int[] secondSlots;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        population = ClanPopulation.build(clans, 1, 3, 42L);
+        relations = population.clanManager.getRelations();
+        firstSlots = new int[ClanPopulation.SAMPLES];
+        secondSlots = new int[ClanPopulation.SAMPLES];
+        for (int i = 0; i < ClanPopulation.SAMPLES; i++) {
+            firstSlots[i] = relations.slotOf(population.sampleFirst[i]);
+            secondSlots[i] = relations.slotOf(population.sampleSecond[i]);
+        }
+        // Montar a matriz fora da medição
+        relations.isAlly(firstSlots[0], secondSlots[0]);
+    }
+
+    @Benchmark
+    public boolean matrixIsAlly(Cursor cursor) {
+        int i = cursor.next();
+        return relations.isAlly(firstSlots[i], secondSlots[i]);
+    }
+
+    @Benchmark
+    public boolean matrixIsEnemy(Cursor cursor) {
+        int i = cursor.next();
+        return relations.isEnemy(firstSlots[i], secondSlots[i]);
+    }
+
+    @Benchmark
+    public boolean nameIsAlly(Cursor cursor) {
+        int i = cursor.next();
+        return population.sampleFirst[i].isAlly(population.sampleSecond[i].getName())
+            || population.sampleSecond[i].isAlly(population.sampleFirst[i].getName());
+    }
+}
@@ -0,0 +1,85 @@
+package com.seuservidor.primeleagueclans.benchmarks;
+
+import com.seuservidor.primeleagueclans.managers.ClanManager;
+import com.seuservidor.primeleagueclans.managers.PlayerSessionManager;
+import com.seuservidor.primeleagueclans.models.Clan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitores de chat e combate concorrendo com um escritor que troca jogadores de clã.
+ *
+ * Cada troca muda a versão dos índices, então as leituras por sessão medem também o custo de
+ * remontar sessões invalidadas.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ConcurrentLookupBenchmark {
+    @Param({ "1000", "10000", "100000" })
+    public int clans;
+
+    private ClanPopulation population;
+    private ClanManager clanManager;
+    private PlayerSessionManager sessionManager;
+    private int moves;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        population = ClanPopulation.build(clans, 50, 3, 42L);
+        clanManager = population.clanManager;
+        sessionManager = population.plugin.getSessionManager();
+    }
+
+    @Benchmark
+    @Group("index")
+    @GroupThreads(3)
+    public Clan indexReader(Cursor cursor) {
+        return clanManager.getPlayerClan(population.sampleMembers[cursor.next()]);
+    }
+
+    @Benchmark
+    @Group("index")
+    @GroupThreads(1)
+    public Clan indexWriter() {
+        return moveOne();
+    }
+
+    @Benchmark
+    @Group("session")
+    @GroupThreads(3)
+    public Clan sessionReader(Cursor cursor) {
+        return sessionManager.getSession(population.samplePlayers[cursor.next()]).getClan();
+    }
+
+    @Benchmark
+    @Group("session")
+    @GroupThreads(1)
+    public Clan sessionWriter() {
+        return moveOne();
+    }
+
+    // Só a thread escritora do grupo chama
+    private Clan moveOne() {
+        int i = moves++ & ClanPopulation.SAMPLE_MASK;
+        Clan target = population.clans[i % population.clans.length];
+        return clanManager.moveMember(population.sampleMembers[i], target.getId());
+    }
+}
@@ -0,0 +1,17 @@
+package com.seuservidor.primeleagueclans.benchmarks;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Posição de cada thread nas amostras da população; threads diferentes começam em pontos
+ * diferentes para não lerem sempre as mesmas chaves.
+ */
+@State(Scope.Thread)
+public class Cursor {
+    private int position = (int) Thread.currentThread().getId() * 7919;
+
+    int next() {
+        return position++ & ClanPopulation.SAMPLE_MASK;
+    }
+}
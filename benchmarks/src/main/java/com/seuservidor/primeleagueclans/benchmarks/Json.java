@@ -0,0 +1,110 @@
+package com.seuservidor.primeleagueclans.benchmarks;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Serialização mínima para os relatórios dos benchmarks: mapas, listas, textos, números e
+ * booleanos. Os mapas devem ser ordenados (LinkedHashMap) para que relatórios de commits
+ * diferentes possam ser comparados com um diff.
+ */
+final class Json {
+    private Json() {
+    }
+
+    static String write(Object value) {
+        StringBuilder out = new StringBuilder();
+        write(out, value, 0);
+        return out.append('\n').toString();
+    }
+
+    private static void write(StringBuilder out, Object value, int depth) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Map) {
+            writeObject(out, (Map<?, ?>) value, depth);
+        } else if (value instanceof List) {
+            writeArray(out, (List<?>) value, depth);
+        } else if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            out.append(Double.isNaN(number) || Double.isInfinite(number) ? "null" : String.format(Locale.ROOT, "%.3f", number));
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else {
+            writeString(out, value.toString());
+        }
+    }
+
+    private static void writeObject(StringBuilder out, Map<?, ?> map, int depth) {
+        if (map.isEmpty()) {
+            out.append("{}");
+            return;
+        }
+        out.append("{\n");
+        Iterator<? extends Map.Entry<?, ?>> entries = map.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<?, ?> entry = entries.next();
+            indent(out, depth + 1);
+            writeString(out, String.valueOf(entry.getKey()));
+            out.append(": ");
+            write(out, entry.getValue(), depth + 1);
+            out.append(entries.hasNext() ? ",\n" : "\n");
+        }
+        indent(out, depth);
+        out.append('}');
+    }
+
+    private static void writeArray(StringBuilder out, List<?> list, int depth) {
+        if (list.isEmpty()) {
+            out.append("[]");
+            return;
+        }
+        out.append("[\n");
+        for (int i = 0; i < list.size(); i++) {
+            indent(out, depth + 1);
+            write(out, list.get(i), depth + 1);
+            out.append(i < list.size() - 1 ? ",\n" : "\n");
+        }
+        indent(out, depth);
+        out.append(']');
+    }
+
+    private static void writeString(StringBuilder out, String text) {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    private static void indent(StringBuilder out, int depth) {
+        for (int i = 0; i < depth; i++) {
+            out.append("  ");
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.seuservidor.primeleagueclans.benchmarks;
+
+import com.seuservidor.primeleagueclans.managers.ClanManager;
+import com.seuservidor.primeleagueclans.managers.DatabaseManager;
+import com.seuservidor.primeleagueclans.models.Clan;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Medição dos caminhos de persistência do DatabaseManager sobre um SQLite em arquivo temporário.
+ *
+ * O banco é semeado com {@code --clans} clãs de {@code --members} membros pelo mesmo
+ * {@code saveClan} usado pelo plugin. Depois são medidos: a inicialização a frio (pool novo e
+ * {@code ClanManager.loadClans}, como no onEnable), a leitura completa com o pool já aquecido,
+ * quatro tipos de salvamento, {@code createClan} e {@code deleteClan}. Para cada operação o
+ * relatório traz percentis de latência, operações por segundo e comandos SQL por operação.
+ *
+ * As operações rodam em sequência em uma única thread, como a thread de escrita da ClanSaveQueue.
+ * O resultado é gravado em JSON para comparar execuções de commits diferentes.
+ */
+public final class PersistenceBenchmark {
+    private PersistenceBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        StatementCounter.install();
+
+        File dataFolder = options.dir != null ? new File(options.dir) : Files.createTempDirectory("primeleagueclans-persistence").toFile();
+        if (new File(dataFolder, "clans.db").exists()) {
+            throw new IllegalArgumentException("A pasta " + dataFolder + " já contém um clans.db; use uma pasta vazia");
+        }
+
+        Map<String, Object> report = Reports.header("persistence");
+        report.put("parameters", options.toMap());
+
+        try {
+            report.put("seed", seed(dataFolder, options));
+            run(dataFolder, options, report);
+        } finally {
+            if (options.dir == null && !options.keep) {
+                Reports.deleteRecursively(dataFolder);
+            }
+        }
+
+        File out = Reports.write(report, options.out);
+        System.out.println("Relatório gravado em " + out.getAbsolutePath());
+    }
+
+    /**
+     * Grava a população inicial, um clã por transação, e fecha o pool.
+     */
+    private static Map<String, Object> seed(File dataFolder, Options options) throws SQLException {
+        BenchPlugin plugin = new BenchPlugin(dataFolder);
+        DatabaseManager databaseManager = open(plugin);
+        SplittableRandom random = new SplittableRandom(options.seed);
+        Operation seed = new Operation();
+
+        try {
+            for (int i = 0; i < options.clans; i++) {
+                Clan clan = ClanPopulation.newClan(i, options.clans, options.members, options.allies, random);
+                seed.measure(() -> databaseManager.saveClan(clan));
+            }
+        } finally {
+            databaseManager.close();
+        }
+
+        Map<String, Object> result = seed.toMap();
+        result.put("databaseBytes", databaseBytes(dataFolder));
+        print("seed", seed);
+        return result;
+    }
+
+    private static void run(File dataFolder, Options options, Map<String, Object> report) throws SQLException {
+        Operation open = new Operation();
+        Operation loadClans = new Operation();
+        BenchPlugin plugin = null;
+
+        // Cada rodada monta um plugin novo: pool sem conexões e índices vazios, como após um restart
+        for (int round = 0; round < options.coldStarts; round++) {
+            if (plugin != null) {
+                plugin.getDatabaseManager().close();
+            }
+            BenchPlugin current = new BenchPlugin(dataFolder);
+            open.measure(() -> {
+                current.getDatabaseManager().initialize();
+                return current.getDatabaseManager().getConnectionPool() != null;
+            });
+            loadClans.measure(() -> {
+                current.getClanManager().loadClans();
+                return current.getClanManager().getClans().size() == options.clans;
+            });
+            plugin = current;
+        }
+
+        Map<String, Object> coldStart = new LinkedHashMap<>();
+        coldStart.put("open", open.toMap());
+        coldStart.put("loadClans", loadClans.toMap());
+        report.put("coldStart", coldStart);
+        print("cold-start open", open);
+        print("cold-start loadClans", loadClans);
+
+        DatabaseManager databaseManager = plugin.getDatabaseManager();
+        try {
+            report.put("operations", operations(plugin.getClanManager(), databaseManager, options));
+        } finally {
+            databaseManager.close();
+        }
+    }
+
+    private static Map<String, Object> operations(ClanManager clanManager, DatabaseManager databaseManager, Options options) {
+        Map<String, Object> operations = new LinkedHashMap<>();
+        List<Clan> clans = new ArrayList<>(clanManager.getClans().values());
+        SplittableRandom random = new SplittableRandom(options.seed + 1);
+
+        Operation loadWarm = new Operation();
+        for (int i = 0; i < options.coldStarts; i++) {
+            loadWarm.measure(() -> databaseManager.getAllClans().size() == options.clans);
+        }
+        operations.put("getAllClans", loadWarm.toMap());
+        print("getAllClans", loadWarm);
+
+        // Cada salvamento altera um clã sorteado e grava; a entrada trocada é desfeita no salvamento
+        // seguinte do mesmo clã, para o tamanho das tabelas não crescer durante a medição
+        Map<Clan, String> recruits = new HashMap<>();
+        Map<Clan, String> allies = new HashMap<>();
+        int[] sequence = new int[1];
+
+        operations.put("saveClan-columns", saves("saveClan-columns", clans, random, options, databaseManager,
+            clan -> clan.addPoints(1)));
+        operations.put("saveClan-members", saves("saveClan-members", clans, random, options, databaseManager, clan -> {
+            String recruit = "Recruta_" + sequence[0]++;
+            clan.removeMember(recruits.put(clan, recruit));
+            clan.addMember(recruit);
+        }));
+        operations.put("saveClan-allies", saves("saveClan-allies", clans, random, options, databaseManager, clan -> {
+            String ally = ClanPopulation.clanName(random.nextInt(options.clans));
+            String previous = allies.put(clan, ally);
+            if (previous != null) {
+                clan.removeAlly(previous);
+            }
+            clan.addAlly(ally);
+        }));
+        operations.put("saveClan-full", saves("saveClan-full", clans, random, options, databaseManager,
+            clan -> clan.markDirty(Clan.DIRTY_ALL)));
+
+        Operation create = new Operation();
+        Operation delete = new Operation();
+        List<String> created = new ArrayList<>(options.creates);
+        for (int i = 0; i < options.creates; i++) {
+            Clan clan = new Clan("Novo" + i, "N" + Integer.toString(i, 36).toUpperCase(), "Fundador_" + i);
+            create.measure(() -> {
+                String id = databaseManager.createClan(clan);
+                clan.setId(id);
+                return id != null;
+            });
+            // Registro do líder como membro, feito pelo ClanManager logo após o createClan
+            if (clan.getId() != null) {
+                clan.clearDirty(Clan.DIRTY_COLUMNS);
+                databaseManager.saveClan(clan);
+                created.add(clan.getId());
+            }
+        }
+        for (String id : created) {
+            delete.measure(() -> databaseManager.deleteClan(id));
+        }
+        operations.put("createClan", create.toMap());
+        operations.put("deleteClan", delete.toMap());
+        print("createClan", create);
+        print("deleteClan", delete);
+        return operations;
+    }
+
+    private static Map<String, Object> saves(String name, List<Clan> clans, SplittableRandom random, Options options,
+                                             DatabaseManager databaseManager, Mutation mutation) {
+        Operation operation = new Operation();
+        for (int i = 0; i < options.warmup + options.saves; i++) {
+            Clan clan = clans.get(random.nextInt(clans.size()));
+            mutation.apply(clan);
+            if (i < options.warmup) {
+                databaseManager.saveClan(clan);
+            } else {
+                operation.measure(() -> databaseManager.saveClan(clan));
+            }
+        }
+        print(name, operation);
+        return operation.toMap();
+    }
+
+    private static DatabaseManager open(BenchPlugin plugin) throws SQLException {
+        DatabaseManager databaseManager = plugin.getDatabaseManager();
+        databaseManager.initialize();
+        if (databaseManager.getConnectionPool() == null) {
+            throw new SQLException("Não foi possível abrir o banco em " + plugin.getDataFolder());
+        }
+        return databaseManager;
+    }
+
+    private static void print(String name, Operation operation) {
+        System.out.println(String.format("%-22s %7d ops  p50 %9.1f us  p99 %9.1f us  max %9.1f us  %9.1f ops/s  %5.2f cmds/op",
+            name, operation.count, operation.percentileMicros(0.50), operation.percentileMicros(0.99),
+            operation.percentileMicros(1.0), operation.opsPerSecond(), operation.perOperation(operation.statements.executions)));
+    }
+
+    private static long databaseBytes(File dataFolder) {
+        long bytes = 0;
+        for (String name : new String[] { "clans.db", "clans.db-wal" }) {
+            bytes += new File(dataFolder, name).length();
+        }
+        return bytes;
+    }
+
+    private interface Call {
+        boolean run() throws SQLException;
+    }
+
+    private interface Mutation {
+        void apply(Clan clan);
+    }
+
+    /**
+     * Latências e comandos SQL acumulados de uma operação.
+     */
+    private static final class Operation {
+        private long[] latencies = new long[256];
+        private int count;
+        private int failures;
+        private long totalNanos;
+        private StatementCounter.Counts statements = new StatementCounter.Counts(0, 0, 0, 0);
+
+        void measure(Call call) {
+            StatementCounter.Counts before = StatementCounter.snapshot();
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                ok = call.run();
+            } catch (SQLException e) {
+                ok = false;
+            }
+            long elapsed = System.nanoTime() - start;
+            statements = statements.plus(StatementCounter.snapshot().minus(before));
+
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = elapsed;
+            totalNanos += elapsed;
+            if (!ok) {
+                failures++;
+            }
+        }
+
+        double percentileMicros(double percentile) {
+            if (count == 0) {
+                return Double.NaN;
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile * count);
+            return sorted[Math.max(0, Math.min(count, rank) - 1)] / 1000.0;
+        }
+
+        double opsPerSecond() {
+            return totalNanos > 0 ? count * 1_000_000_000.0 / totalNanos : Double.NaN;
+        }
+
+        double perOperation(long total) {
+            return count > 0 ? (double) total / count : Double.NaN;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("count", count);
+            map.put("failures", failures);
+            map.put("totalMs", totalNanos / 1_000_000.0);
+            map.put("meanUs", count > 0 ? totalNanos / 1000.0 / count : Double.NaN);
+            map.put("p50Us", percentileMicros(0.50));
+            map.put("p90Us", percentileMicros(0.90));
+            map.put("p99Us", percentileMicros(0.99));
+            map.put("p999Us", percentileMicros(0.999));
+            map.put("maxUs", percentileMicros(1.0));
+            map.put("opsPerSecond", opsPerSecond());
+
+            Map<String, Object> perOperation = new LinkedHashMap<>();
+            perOperation.put("prepared", perOperation(statements.prepared));
+            perOperation.put("executions", perOperation(statements.executions));
+            perOperation.put("batchedRows", perOperation(statements.batchedRows));
+            perOperation.put("commits", perOperation(statements.commits));
+            map.put("statementsPerOperation", perOperation);
+            return map;
+        }
+    }
+
+    /**
+     * Parâmetros no formato {@code --nome=valor}.
+     */
+    private static final class Options {
+        int clans = 1000;
+        int members = 20;
+        int allies = 2;
+        int saves = 2000;
+        int warmup = 200;
+        int creates = 200;
+        int coldStarts = 5;
+        long seed = 42L;
+        String dir;
+        String out;
+        boolean keep;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (!arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Parâmetro inválido: " + arg);
+                }
+                int separator = arg.indexOf('=');
+                String key = separator > 0 ? arg.substring(2, separator) : arg.substring(2);
+                String value = separator > 0 ? arg.substring(separator + 1) : "true";
+                switch (key) {
+                    case "clans":
+                        options.clans = positive(key, value);
+                        break;
+                    case "members":
+                        options.members = positive(key, value);
+                        break;
+                    case "allies":
+                        options.allies = Integer.parseInt(value);
+                        break;
+                    case "saves":
+                        options.saves = positive(key, value);
+                        break;
+                    case "warmup":
+                        options.warmup = Integer.parseInt(value);
+                        break;
+                    case "creates":
+                        options.creates = Integer.parseInt(value);
+                        break;
+                    case "cold-starts":
+                        options.coldStarts = positive(key, value);
+                        break;
+                    case "seed":
+                        options.seed = Long.parseLong(value);
+                        break;
+                    case "dir":
+                        options.dir = value;
+                        break;
+                    case "out":
+                        options.out = value;
+                        break;
+                    case "keep":
+                        options.keep = Boolean.parseBoolean(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Parâmetro desconhecido: --" + key);
+                }
+            }
+            return options;
+        }
+
+        private static int positive(String key, String value) {
+            int number = Integer.parseInt(value);
+            if (number <= 0) {
+                throw new IllegalArgumentException("--" + key + " deve ser maior que zero");
+            }
+            return number;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("clans", clans);
+            map.put("members", members);
+            map.put("allies", allies);
+            map.put("saves", saves);
+            map.put("warmup", warmup);
+            map.put("creates", creates);
+            map.put("coldStarts", coldStarts);
+            map.put("seed", seed);
+            return map;
+        }
+    }
+}
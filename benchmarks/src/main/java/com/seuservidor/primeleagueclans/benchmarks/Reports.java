@@ -0,0 +1,113 @@
+package com.seuservidor.primeleagueclans.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Cabeçalho e gravação dos relatórios JSON dos medidores que rodam fora do JMH: data, commit e
+ * ambiente, para que execuções de commits diferentes possam ser comparadas.
+ */
+final class Reports {
+    private Reports() {
+    }
+
+    /**
+     * @return Relatório novo, já com o nome do medidor, a data, o commit e o ambiente
+     */
+    static Map<String, Object> header(String benchmark) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("benchmark", benchmark);
+        report.put("timestamp", timestamp());
+        report.putAll(gitRevision());
+        report.put("environment", environment());
+        return report;
+    }
+
+    /**
+     * Grava o relatório em {@code out}, ou em {@code target/<nome>/<nome>-<commit>-<data>.json}.
+     *
+     * @return Arquivo gravado
+     */
+    static File write(Map<String, Object> report, String out) throws IOException {
+        String benchmark = String.valueOf(report.get("benchmark"));
+        File file = out != null ? new File(out)
+            : new File("target/" + benchmark, benchmark + "-" + report.get("commit") + "-" + fileTimestamp() + ".json");
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        Files.write(file.toPath(), Json.write(report).getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        if (!file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    private static Map<String, Object> gitRevision() {
+        Map<String, Object> revision = new LinkedHashMap<>();
+        String commit = git("rev-parse", "--short", "HEAD");
+        String status = git("status", "--porcelain", "--untracked-files=no");
+        revision.put("commit", commit != null ? commit : "desconhecido");
+        revision.put("dirtyTree", status != null && !status.isEmpty());
+        return revision;
+    }
+
+    private static String git(String... args) {
+        String[] command = new String[args.length + 1];
+        command[0] = "git";
+        System.arraycopy(args, 0, command, 1, args.length);
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            try (InputStream in = process.getInputStream()) {
+                byte[] buffer = new byte[1024];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    output.write(buffer, 0, read);
+                }
+            }
+            return process.waitFor() == 0 ? new String(output.toByteArray(), StandardCharsets.UTF_8).trim() : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static Map<String, Object> environment() {
+        Map<String, Object> environment = new LinkedHashMap<>();
+        environment.put("java", System.getProperty("java.version"));
+        environment.put("vm", System.getProperty("java.vm.name"));
+        environment.put("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+        environment.put("processors", Runtime.getRuntime().availableProcessors());
+        return environment;
+    }
+
+    private static String timestamp() {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(new Date());
+    }
+
+    private static String fileTimestamp() {
+        return new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+    }
+}
@@ -0,0 +1,772 @@
+package com.seuservidor.primeleagueclans.benchmarks;
+
+import br.com.devpaulo.legendchat.api.events.ChatMessageEvent;
+import com.seuservidor.primeleagueclans.managers.ClanManager;
+import com.seuservidor.primeleagueclans.managers.DatabaseManager;
+import com.seuservidor.primeleagueclans.metrics.SqlProfiler;
+import com.seuservidor.primeleagueclans.metrics.TimingStats;
+import com.seuservidor.primeleagueclans.models.Clan;
+import org.bukkit.Bukkit;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityDamageEvent.DamageCause;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.PluginEnableEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Teste de carga de ponta a ponta: o plugin inteiro roda sobre um servidor simulado
+ * ({@link SimServer}) e um SQLite em pasta temporária, recebendo tráfego sorteado de entradas,
+ * saídas, chat, golpes, mortes, blocos e comandos {@code /clan}, nas taxas pedidas.
+ *
+ * O banco é semeado com {@code --clans} clãs antes do onEnable, que roda como no servidor: lê
+ * a configuração, registra comandos e listeners e agenda o carregamento dos clãs. Cada tick
+ * simulado roda as tarefas síncronas vencidas e dispara os eventos do tick na thread principal;
+ * o chat é disparado em outra thread, como o chat assíncrono do Bukkit.
+ *
+ * O relatório traz a latência de cada handler, de cada subcomando e das tarefas agendadas, e o
+ * tempo de thread principal gasto pelo plugin em cada tick.
+ */
+public final class ServerSimulator {
+    private static final int TICKS_PER_SECOND = 20;
+    private static final long TICK_NANOS = 50_000_000L;
+    // Tentativas de sortear um jogador que possa executar o subcomando antes de usar o info
+    private static final int ACTOR_DRAWS = 32;
+    // Primeiro caractere das tags novas; as tags da população semeada começam com T
+    private static final String TAG_FIRST = "ABCDEFGHIJKLMNOPQRSUVWXYZ";
+
+    private final Options options;
+    private final SimServer server;
+    private final SimPlugin plugin;
+    private final PluginCommand clanCommand;
+    private final SplittableRandom random;
+    private final ExecutorService chatThread;
+
+    private final List<SimPlayer> online = new ArrayList<>();
+    private final List<SimPlayer> offline = new ArrayList<>();
+    private final Map<SimPlayer, Integer> onlineIndex = new HashMap<>();
+    private final List<String> seededClans = new ArrayList<>();
+    private final List<SimPlayer> invited = new ArrayList<>();
+    private final String[] commandNames;
+    private final int[] commandWeights;
+    private int createdClans;
+    private long startTick;
+
+    private final LatencyHistogram tickTime = new LatencyHistogram();
+    private final Map<String, CommandStats> commands = new TreeMap<>();
+    private final Map<String, Long> traffic = new LinkedHashMap<>();
+    private long overBudgetTicks;
+
+    private ServerSimulator(Options options, SimServer server, SimPlugin plugin) {
+        this.options = options;
+        this.server = server;
+        this.plugin = plugin;
+        this.clanCommand = server.getCommand("clan");
+        this.random = new SplittableRandom(options.seed + 1);
+        this.chatThread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Chat Thread");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        String[] entries = options.commandMix.split(",");
+        this.commandNames = new String[entries.length];
+        this.commandWeights = new int[entries.length];
+        int total = 0;
+        for (int i = 0; i < entries.length; i++) {
+            String[] entry = entries[i].trim().split(":");
+            commandNames[i] = entry[0].toLowerCase(Locale.ROOT);
+            total += entry.length > 1 ? Integer.parseInt(entry[1]) : 1;
+            commandWeights[i] = total;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+
+        File dataFolder = options.dir != null ? new File(options.dir) : Files.createTempDirectory("primeleagueclans-simulator").toFile();
+        if (new File(dataFolder, "clans.db").exists()) {
+            throw new IllegalArgumentException("A pasta " + dataFolder + " já contém um clans.db; use uma pasta vazia");
+        }
+
+        Map<String, Object> report = Reports.header("simulator");
+        report.put("parameters", options.toMap());
+
+        try {
+            copyResource("config.yml", dataFolder);
+            copyResource("messages.yml", dataFolder);
+            seed(dataFolder, options);
+
+            SimServer server = new SimServer(serverLogger());
+            Bukkit.setServer(server.getServer());
+            SimPlugin plugin = new SimPlugin(server.getServer(), dataFolder);
+            server.setPlugin(plugin);
+
+            ServerSimulator simulator = new ServerSimulator(options, server, plugin);
+            simulator.run(report);
+        } finally {
+            if (options.dir == null && !options.keep) {
+                Reports.deleteRecursively(dataFolder);
+            }
+        }
+
+        File out = Reports.write(report, options.out);
+        System.out.println("Relatório gravado em " + out.getAbsolutePath());
+    }
+
+    /**
+     * Grava a população inicial pelo DatabaseManager do plugin, antes de o servidor existir.
+     */
+    private static void seed(File dataFolder, Options options) throws Exception {
+        BenchPlugin seeder = new BenchPlugin(dataFolder);
+        DatabaseManager databaseManager = seeder.getDatabaseManager();
+        databaseManager.initialize();
+        SplittableRandom random = new SplittableRandom(options.seed);
+        try {
+            for (int i = 0; i < options.clans; i++) {
+                databaseManager.saveClan(ClanPopulation.newClan(i, options.clans, options.members, options.allies, random));
+            }
+        } finally {
+            databaseManager.close();
+        }
+    }
+
+    private void run(Map<String, Object> report) throws InterruptedException {
+        report.put("startup", startup());
+
+        // Membros dos clãs semeados e visitantes sem clã, todos começando offline
+        for (int i = 0; i < options.clans; i++) {
+            seededClans.add(ClanPopulation.clanName(i));
+            for (int m = 0; m < options.members; m++) {
+                offline.add(server.newPlayer(ClanPopulation.playerName(i, m)));
+            }
+        }
+        for (int v = 0; v < options.visitors; v++) {
+            offline.add(server.newPlayer("Visitante_" + v));
+        }
+        for (int i = 0; i < options.players && !offline.isEmpty(); i++) {
+            join(offline.get(random.nextInt(offline.size())));
+        }
+
+        long tick = startTick;
+        for (int i = 0; i < options.warmup; i++) {
+            tick(++tick);
+        }
+        drainChat();
+        resetStatistics();
+
+        long ticks = (long) options.duration * TICKS_PER_SECOND;
+        long start = System.nanoTime();
+        for (long i = 0; i < ticks; i++) {
+            tick(++tick);
+        }
+        drainChat();
+        long elapsed = System.nanoTime() - start;
+
+        chatThread.shutdown();
+        // Antes do onDisable, para o salvamento final não entrar na conta
+        Map<String, Object> sql = sqlStatistics();
+        long shutdownStart = System.nanoTime();
+        plugin.onDisable();
+        long shutdownNanos = System.nanoTime() - shutdownStart;
+        server.getScheduler().shutdown();
+
+        Map<String, Object> tickReport = tickTime.toMap();
+        tickReport.put("ticks", ticks);
+        tickReport.put("overBudget", overBudgetTicks);
+        tickReport.put("wallSeconds", elapsed / 1e9);
+        report.put("tick", tickReport);
+        report.put("traffic", new LinkedHashMap<>(traffic));
+        report.put("handlers", server.getEventBus().statistics());
+        report.put("commands", commandStatistics());
+        report.put("sql", sql);
+
+        Map<String, Object> scheduler = new LinkedHashMap<>();
+        scheduler.put("sync", server.getScheduler().getSyncTasks().toMap());
+        scheduler.put("async", server.getScheduler().getAsyncTasks().toMap());
+        scheduler.put("failures", server.getScheduler().getFailures());
+        report.put("scheduler", scheduler);
+
+        Map<String, Object> delivery = new LinkedHashMap<>();
+        delivery.put("playerMessages", server.getMessages());
+        delivery.put("broadcasts", server.getBroadcasts());
+        delivery.put("onlineAtEnd", online.size());
+        delivery.put("clansAtEnd", plugin.getClanManager().getClans().size());
+        report.put("delivery", delivery);
+        report.put("shutdownMs", shutdownNanos / 1e6);
+
+        printSummary(ticks, elapsed, shutdownNanos);
+    }
+
+    /**
+     * Ativa o plugin e avança os ticks até o carregamento tardio dos clãs terminar.
+     */
+    private Map<String, Object> startup() {
+        long start = System.nanoTime();
+        plugin.onEnable();
+        long enableNanos = System.nanoTime() - start;
+        if (server.getEventBus().isPluginDisabled()) {
+            throw new IllegalStateException("O plugin se desativou durante o onEnable; veja o log acima");
+        }
+        server.getEventBus().callEvent(new PluginEnableEvent(plugin));
+
+        ClanManager clanManager = plugin.getClanManager();
+        long tick = 0;
+        long taskNanos = 0;
+        while (clanManager.getClans().size() < options.clans && tick < 10L * TICKS_PER_SECOND) {
+            taskNanos += server.getScheduler().runDueTasks(++tick);
+        }
+        if (clanManager.getClans().size() < options.clans) {
+            throw new IllegalStateException("Só " + clanManager.getClans().size() + " de " + options.clans + " clãs foram carregados");
+        }
+        startTick = tick;
+
+        Map<String, Object> startup = new LinkedHashMap<>();
+        startup.put("onEnableMs", enableNanos / 1e6);
+        startup.put("loadTicks", tick);
+        startup.put("loadTasksMs", taskNanos / 1e6);
+        startup.put("clans", clanManager.getClans().size());
+        System.out.println(String.format("onEnable %.1f ms, %d clãs carregados em %d ticks (%.1f ms de tarefas)",
+            enableNanos / 1e6, clanManager.getClans().size(), tick, taskNanos / 1e6));
+        return startup;
+    }
+
+    /**
+     * Um tick do servidor: tarefas vencidas e depois os eventos sorteados para o tick. O tempo de
+     * thread principal do tick é o que o plugin gastou nessas chamadas.
+     */
+    private void tick(long tick) throws InterruptedException {
+        long tickStart = System.nanoTime();
+        long pluginNanos = server.getScheduler().runDueTasks(tick);
+
+        for (int i = occurrences(options.quits); i > 0 && online.size() > 1; i--) {
+            pluginNanos += quit(online.get(random.nextInt(online.size())));
+        }
+        for (int i = occurrences(options.joins); i > 0 && !offline.isEmpty(); i--) {
+            pluginNanos += join(offline.get(random.nextInt(offline.size())));
+        }
+        for (int i = occurrences(options.hits); i > 0; i--) {
+            pluginNanos += hit();
+        }
+        for (int i = occurrences(options.kills); i > 0; i--) {
+            pluginNanos += kill();
+        }
+        for (int i = occurrences(options.breaks); i > 0; i--) {
+            pluginNanos += fire("break", new BlockBreakEvent(null, randomOnline().getPlayer()));
+        }
+        for (int i = occurrences(options.places); i > 0; i--) {
+            pluginNanos += fire("place", new BlockPlaceEvent(null, null, null, null, randomOnline().getPlayer(), true));
+        }
+        for (int i = occurrences(options.commands); i > 0; i--) {
+            pluginNanos += command(pickCommand());
+        }
+        for (int i = occurrences(options.chat); i > 0; i--) {
+            chat(randomOnline());
+        }
+
+        tickTime.record(pluginNanos);
+        if (pluginNanos > TICK_NANOS) {
+            overBudgetTicks++;
+        }
+
+        if (options.realtime) {
+            long remaining = TICK_NANOS - (System.nanoTime() - tickStart);
+            if (remaining > 0) {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            }
+        }
+    }
+
+    private long join(SimPlayer player) {
+        offline.remove(player);
+        onlineIndex.put(player, online.size());
+        online.add(player);
+        server.join(player);
+        return fire("join", new PlayerJoinEvent(player.getPlayer(), player.getName() + " entrou no jogo"));
+    }
+
+    private long quit(SimPlayer player) {
+        // O jogador ainda aparece online durante o evento, como no Bukkit
+        long nanos = fire("quit", new PlayerQuitEvent(player.getPlayer(), player.getName() + " saiu do jogo"));
+        server.quit(player);
+
+        int index = onlineIndex.remove(player);
+        SimPlayer last = online.remove(online.size() - 1);
+        if (last != player) {
+            online.set(index, last);
+            onlineIndex.put(last, index);
+        }
+        offline.add(player);
+        return nanos;
+    }
+
+    private long hit() {
+        SimPlayer attacker = randomOnline();
+        SimPlayer victim = randomOnline();
+        return fire("hit", new EntityDamageByEntityEvent(attacker.getPlayer(), victim.getPlayer(), DamageCause.ENTITY_ATTACK, 4));
+    }
+
+    private long kill() {
+        SimPlayer killer = randomOnline();
+        SimPlayer victim = randomOnline();
+        victim.setKiller(killer != victim ? killer.getPlayer() : null);
+        try {
+            return fire("kill", new PlayerDeathEvent(victim.getPlayer(), new ArrayList<ItemStack>(), 0,
+                victim.getName() + " foi morto por " + killer.getName()));
+        } finally {
+            victim.setKiller(null);
+        }
+    }
+
+    private long fire(String type, Event event) {
+        traffic.merge(type, 1L, Long::sum);
+        long start = System.nanoTime();
+        server.getEventBus().callEvent(event);
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * O chat do Bukkit e depois o do LegendChat, na thread de chat. Os destinatários ficam vazios:
+     * os handlers do plugin só leem o remetente, o formato e as tags.
+     */
+    private void chat(SimPlayer sender) {
+        traffic.merge("chat", 1L, Long::sum);
+        String message = "mensagem " + random.nextInt(1000);
+        chatThread.execute(() -> {
+            server.getEventBus().callEvent(new AsyncPlayerChatEvent(true, sender.getPlayer(), message, new HashSet<Player>()));
+            HashMap<String, String> tags = new HashMap<>();
+            tags.put("clan", "");
+            server.getEventBus().callEvent(new ChatMessageEvent(null, sender.getPlayer(), message,
+                "{clan}{sender}: {msg}", "{clan}{sender}: {msg}", "<%1$s> %2$s", new HashSet<Player>(), tags, false));
+        });
+    }
+
+    private long command(String subcommand) {
+        CommandStats stats = commands.computeIfAbsent("/clan " + subcommand, name -> new CommandStats());
+        Invocation invocation = invocation(subcommand);
+        if (invocation == null) {
+            // Ninguém online pode executar o subcomando agora; o info mantém a taxa de comandos
+            stats.fallbacks++;
+            subcommand = "info";
+            stats = commands.computeIfAbsent("/clan info", name -> new CommandStats());
+            invocation = new Invocation(randomOnline(), new String[] { "info" });
+        }
+
+        traffic.merge("command", 1L, Long::sum);
+        long start = System.nanoTime();
+        try {
+            clanCommand.execute(invocation.sender.getPlayer(), "clan", invocation.args);
+        } catch (RuntimeException e) {
+            stats.failures++;
+            if (stats.failures == 1) {
+                plugin.getLogger().log(Level.WARNING, "/clan " + subcommand + " lançou uma exceção", e);
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        stats.latency.record(nanos);
+        return nanos;
+    }
+
+    /**
+     * Sorteia quem executa o subcomando e com quais argumentos, de forma que o caminho executado
+     * seja o de sucesso sempre que possível.
+     *
+     * @return null se nenhum jogador online pode executá-lo agora
+     */
+    private Invocation invocation(String subcommand) {
+        ClanManager clanManager = plugin.getClanManager();
+        switch (subcommand) {
+            case "criar": {
+                SimPlayer founder = randomOnline(player -> !clanManager.hasClan(player.getName()));
+                if (founder == null) {
+                    return null;
+                }
+                String tag = nextTag(clanManager);
+                return new Invocation(founder, new String[] { "criar", "Sim" + createdClans, tag });
+            }
+            case "convidar": {
+                int maxMembers = plugin.getConfig().getInt("clan.max-members", 10);
+                SimPlayer leader = randomOnline(player -> {
+                    Clan clan = clanManager.getPlayerClan(player.getName());
+                    return clan != null && clan.isLeader(player.getName()) && clan.getMembers().size() < maxMembers;
+                });
+                SimPlayer target = randomOnline(player -> !clanManager.hasClan(player.getName()) && !clanManager.hasInvite(player.getName()));
+                if (leader == null || target == null) {
+                    return null;
+                }
+                invited.add(target);
+                return new Invocation(leader, new String[] { "convidar", target.getName() });
+            }
+            case "entrar": {
+                // Convites aceitos, expirados ou de quem saiu do servidor deixam a lista aqui
+                invited.removeIf(player -> !player.isOnline() || !clanManager.hasInvite(player.getName()));
+                if (invited.isEmpty()) {
+                    return null;
+                }
+                SimPlayer player = invited.remove(random.nextInt(invited.size()));
+                Clan clan = clanManager.getClanById(clanManager.getInvite(player.getName()));
+                return clan != null ? new Invocation(player, new String[] { "entrar", clan.getTag() }) : null;
+            }
+            case "sair": {
+                SimPlayer member = randomOnline(player -> {
+                    Clan clan = clanManager.getPlayerClan(player.getName());
+                    return clan != null && !clan.isLeader(player.getName());
+                });
+                return member != null ? new Invocation(member, new String[] { "sair" }) : null;
+            }
+            case "deletar": {
+                // Só clãs criados na simulação, para a população semeada não encolher
+                SimPlayer leader = randomOnline(player -> {
+                    Clan clan = clanManager.getPlayerClan(player.getName());
+                    return clan != null && clan.isLeader(player.getName()) && clan.getName().startsWith("Sim");
+                });
+                return leader != null ? new Invocation(leader, new String[] { "deletar" }) : null;
+            }
+            case "info": {
+                SimPlayer player = randomOnline();
+                return clanManager.hasClan(player.getName())
+                    ? new Invocation(player, new String[] { "info" })
+                    : new Invocation(player, new String[] { "info", seededClans.get(random.nextInt(seededClans.size())) });
+            }
+            default:
+                return new Invocation(randomOnline(), new String[] { subcommand });
+        }
+    }
+
+    private String nextTag(ClanManager clanManager) {
+        String tag;
+        do {
+            int sequence = createdClans++;
+            tag = TAG_FIRST.charAt(sequence % TAG_FIRST.length())
+                + String.format("%2s", Integer.toString(sequence / TAG_FIRST.length() % (36 * 36), 36)).replace(' ', '0');
+            tag = tag.toUpperCase(Locale.ROOT);
+        } while (clanManager.getClanByTag(tag) != null);
+        return tag;
+    }
+
+    private String pickCommand() {
+        int draw = random.nextInt(commandWeights[commandWeights.length - 1]);
+        for (int i = 0; i < commandWeights.length; i++) {
+            if (draw < commandWeights[i]) {
+                return commandNames[i];
+            }
+        }
+        return commandNames[commandNames.length - 1];
+    }
+
+    private SimPlayer randomOnline() {
+        return online.get(random.nextInt(online.size()));
+    }
+
+    private SimPlayer randomOnline(Predicate<SimPlayer> filter) {
+        for (int i = 0; i < ACTOR_DRAWS; i++) {
+            SimPlayer player = randomOnline();
+            if (filter.test(player)) {
+                return player;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Quantos eventos de uma taxa por segundo caem neste tick; a fração vira sorteio.
+     */
+    private int occurrences(double perSecond) {
+        double perTick = perSecond / TICKS_PER_SECOND;
+        int count = (int) perTick;
+        if (random.nextDouble() < perTick - count) {
+            count++;
+        }
+        return count;
+    }
+
+    private void drainChat() throws InterruptedException {
+        try {
+            chatThread.submit(() -> { }).get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("A thread de chat não esvaziou a fila", e);
+        }
+    }
+
+    private void resetStatistics() {
+        tickTime.reset();
+        commands.clear();
+        traffic.clear();
+        overBudgetTicks = 0;
+        server.getEventBus().resetStatistics();
+        server.getScheduler().resetStatistics();
+        server.resetStatistics();
+        plugin.getPerformanceMonitor().getSqlProfiler().reset();
+    }
+
+    private Map<String, Object> commandStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        for (Map.Entry<String, CommandStats> entry : commands.entrySet()) {
+            Map<String, Object> command = entry.getValue().latency.toMap();
+            command.put("failures", entry.getValue().failures);
+            command.put("fallbacks", entry.getValue().fallbacks);
+            statistics.put(entry.getKey(), command);
+        }
+        return statistics;
+    }
+
+    /**
+     * Modelos de comando SQL medidos pelo SqlProfiler do plugin, do maior para o menor tempo total.
+     */
+    private Map<String, Object> sqlStatistics() {
+        SqlProfiler profiler = plugin.getPerformanceMonitor().getSqlProfiler();
+        Map<String, Object> templates = new LinkedHashMap<>();
+        for (SqlProfiler.SqlStats entry : profiler.getTop(Integer.MAX_VALUE)) {
+            TimingStats timing = entry.getTiming();
+            Map<String, Object> template = new LinkedHashMap<>();
+            template.put("count", timing.getCount());
+            template.put("rows", entry.getRows());
+            template.put("errors", entry.getErrors());
+            template.put("totalMs", timing.getTotalNanos() / 1e6);
+            template.put("meanUs", timing.getAverageNanos() / 1000.0);
+            template.put("p50Us", timing.getPercentileNanos(0.50) / 1000.0);
+            template.put("p99Us", timing.getPercentileNanos(0.99) / 1000.0);
+            template.put("maxUs", timing.getMaxNanos() / 1000.0);
+            templates.put(entry.getTemplate(), template);
+        }
+
+        Map<String, Object> sql = new LinkedHashMap<>();
+        sql.put("slowThresholdMs", profiler.getSlowThresholdNanos() / 1e6);
+        sql.put("slowStatements", profiler.getSlowCount());
+        sql.put("templates", templates);
+        return sql;
+    }
+
+    private void printSummary(long ticks, long elapsed, long shutdownNanos) {
+        System.out.println(String.format("%d ticks em %.1f s; thread principal por tick: p50 %.1f us, p99 %.1f us, máx %.1f us; %d ticks acima de 50 ms",
+            ticks, elapsed / 1e9, tickTime.percentile(0.50) / 1000.0, tickTime.percentile(0.99) / 1000.0,
+            tickTime.percentile(1.0) / 1000.0, overBudgetTicks));
+        System.out.println("Tráfego: " + traffic);
+        for (Map.Entry<String, Object> entry : server.getEventBus().statistics().entrySet()) {
+            printLine(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<String, Object> entry : commandStatistics().entrySet()) {
+            printLine(entry.getKey(), entry.getValue());
+        }
+        for (SqlProfiler.SqlStats entry : plugin.getPerformanceMonitor().getSqlProfiler().getTop(5)) {
+            System.out.println("SQL " + SqlProfiler.describe(entry, 100));
+        }
+        System.out.println(String.format("onDisable %.1f ms", shutdownNanos / 1e6));
+    }
+
+    private static void printLine(String name, Object statistics) {
+        Map<?, ?> map = (Map<?, ?>) statistics;
+        if ((Long) map.get("count") == 0) {
+            return;
+        }
+        System.out.println(String.format("%-46s %8d  p50 %9.1f us  p99 %9.1f us  max %9.1f us",
+            name, (Long) map.get("count"), (Double) map.get("p50Us"), (Double) map.get("p99Us"), (Double) map.get("maxUs")));
+    }
+
+    // A configuração padrão do plugin, que o saveResource gravaria na primeira ativação
+    private static void copyResource(String name, File dataFolder) throws Exception {
+        dataFolder.mkdirs();
+        try (InputStream in = SimPlugin.resource(name).openStream()) {
+            Files.copy(in, new File(dataFolder, name).toPath());
+        }
+    }
+
+    // Só avisos e erros do plugin chegam ao console, para não misturar o log do onEnable com os resultados
+    private static Logger serverLogger() {
+        Logger logger = Logger.getLogger("PrimeLeagueClans-Simulator");
+        ConsoleHandler handler = new ConsoleHandler();
+        handler.setLevel(Level.WARNING);
+        logger.addHandler(handler);
+        logger.setUseParentHandlers(false);
+        return logger;
+    }
+
+    private static final class Invocation {
+        final SimPlayer sender;
+        final String[] args;
+
+        Invocation(SimPlayer sender, String[] args) {
+            this.sender = sender;
+            this.args = args;
+        }
+    }
+
+    private static final class CommandStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        long failures;
+        long fallbacks;
+    }
+
+    /**
+     * Parâmetros no formato {@code --nome=valor}; as taxas são eventos por segundo simulado.
+     */
+    private static final class Options {
+        int clans = 200;
+        int members = 10;
+        int allies = 2;
+        int visitors = 300;
+        int players = 300;
+        int duration = 60;
+        int warmup = 200;
+        double joins = 1;
+        double quits = 1;
+        double chat = 20;
+        double hits = 60;
+        double kills = 1;
+        double breaks = 40;
+        double places = 40;
+        double commands = 4;
+        String commandMix = "info:40,ajuda:5,criar:10,convidar:20,entrar:15,sair:5,deletar:5";
+        boolean realtime;
+        long seed = 42L;
+        String dir;
+        String out;
+        boolean keep;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (!arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Parâmetro inválido: " + arg);
+                }
+                int separator = arg.indexOf('=');
+                String key = separator > 0 ? arg.substring(2, separator) : arg.substring(2);
+                String value = separator > 0 ? arg.substring(separator + 1) : "true";
+                switch (key) {
+                    case "clans":
+                        options.clans = positive(key, value);
+                        break;
+                    case "members":
+                        options.members = positive(key, value);
+                        break;
+                    case "allies":
+                        options.allies = Integer.parseInt(value);
+                        break;
+                    case "visitors":
+                        options.visitors = Integer.parseInt(value);
+                        break;
+                    case "players":
+                        options.players = positive(key, value);
+                        break;
+                    case "duration":
+                        options.duration = positive(key, value);
+                        break;
+                    case "warmup":
+                        options.warmup = Integer.parseInt(value);
+                        break;
+                    case "joins":
+                        options.joins = rate(key, value);
+                        break;
+                    case "quits":
+                        options.quits = rate(key, value);
+                        break;
+                    case "chat":
+                        options.chat = rate(key, value);
+                        break;
+                    case "hits":
+                        options.hits = rate(key, value);
+                        break;
+                    case "kills":
+                        options.kills = rate(key, value);
+                        break;
+                    case "breaks":
+                        options.breaks = rate(key, value);
+                        break;
+                    case "places":
+                        options.places = rate(key, value);
+                        break;
+                    case "commands":
+                        options.commands = rate(key, value);
+                        break;
+                    case "command-mix":
+                        options.commandMix = value;
+                        break;
+                    case "realtime":
+                        options.realtime = Boolean.parseBoolean(value);
+                        break;
+                    case "seed":
+                        options.seed = Long.parseLong(value);
+                        break;
+                    case "dir":
+                        options.dir = value;
+                        break;
+                    case "out":
+                        options.out = value;
+                        break;
+                    case "keep":
+                        options.keep = Boolean.parseBoolean(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Parâmetro desconhecido: --" + key);
+                }
+            }
+            return options;
+        }
+
+        private static int positive(String key, String value) {
+            int number = Integer.parseInt(value);
+            if (number <= 0) {
+                throw new IllegalArgumentException("--" + key + " deve ser maior que zero");
+            }
+            return number;
+        }
+
+        private static double rate(String key, String value) {
+            double number = Double.parseDouble(value);
+            if (number < 0) {
+                throw new IllegalArgumentException("--" + key + " não pode ser negativo");
+            }
+            return number;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("clans", clans);
+            map.put("members", members);
+            map.put("allies", allies);
+            map.put("visitors", visitors);
+            map.put("players", players);
+            map.put("duration", duration);
+            map.put("warmup", warmup);
+            map.put("joins", joins);
+            map.put("quits", quits);
+            map.put("chat", chat);
+            map.put("hits", hits);
+            map.put("kills", kills);
+            map.put("breaks", breaks);
+            map.put("places", places);
+            map.put("commands", commands);
+            map.put("commandMix", commandMix);
+            map.put("realtime", realtime);
+            map.put("seed", seed);
+            return map;
+        }
+    }
+}
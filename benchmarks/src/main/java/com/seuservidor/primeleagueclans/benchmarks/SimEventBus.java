@@ -0,0 +1,221 @@
+package com.seuservidor.primeleagueclans.benchmarks;
+
+import com.seuservidor.primeleagueclans.metrics.TimedEventExecutor;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * PluginManager do servidor simulado. Registra os handlers como o Bukkit (prioridade,
+ * ignoreCancelled), tanto por {@code registerEvents} quanto por {@code registerEvent} com um
+ * executor, e mede cada handler em separado a cada evento disparado.
+ *
+ * Os eventos são entregues aos handlers registrados para a classe exata do evento, que é como
+ * os listeners do plugin se registram.
+ */
+final class SimEventBus implements InvocationHandler {
+    // Exceções de handler registradas no log; as demais só são contadas
+    private static final int LOGGED_FAILURES = 10;
+
+    private final Logger logger;
+    private final PluginManager proxy;
+    private final Map<Class<?>, List<Handler>> handlers = new ConcurrentHashMap<>();
+    private final Map<String, Handler> handlersByName = new ConcurrentHashMap<>();
+    private final LongAdder loggedFailures = new LongAdder();
+    private volatile Plugin plugin;
+    private volatile boolean pluginDisabled;
+
+    SimEventBus(Logger logger) {
+        this.logger = logger;
+        this.proxy = (PluginManager) Proxy.newProxyInstance(SimEventBus.class.getClassLoader(),
+            new Class<?>[] { PluginManager.class }, this);
+    }
+
+    PluginManager getPluginManager() {
+        return proxy;
+    }
+
+    void setPlugin(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * @return Se o plugin pediu para ser desativado, como o onEnable faz quando falha
+     */
+    boolean isPluginDisabled() {
+        return pluginDisabled;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "registerEvents":
+                register((Listener) args[0]);
+                return null;
+            case "registerEvent": {
+                // (evento, listener, prioridade, executor, plugin[, ignoreCancelled])
+                Class<?> eventClass = (Class<?>) args[0];
+                Listener listener = (Listener) args[1];
+                EventExecutor executor = (EventExecutor) args[3];
+                String name = executor instanceof TimedEventExecutor
+                    ? ((TimedEventExecutor) executor).getName()
+                    : listener.getClass().getSimpleName() + "." + eventClass.getSimpleName();
+                boolean ignoreCancelled = args.length > 5 && (Boolean) args[5];
+                add(eventClass, new Handler(name, listener, executor, ((EventPriority) args[2]).ordinal(), ignoreCancelled));
+                return null;
+            }
+            case "callEvent":
+                callEvent((Event) args[0]);
+                return null;
+            case "getPlugin":
+                return plugin != null && plugin.getName().equalsIgnoreCase((String) args[0]) ? plugin : null;
+            case "isPluginEnabled":
+                return args[0] instanceof String
+                    ? plugin != null && plugin.getName().equalsIgnoreCase((String) args[0]) && !pluginDisabled
+                    : args[0] == plugin && !pluginDisabled;
+            case "getPlugins":
+                return plugin != null ? new Plugin[] { plugin } : new Plugin[0];
+            case "disablePlugin":
+                pluginDisabled = true;
+                return null;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "SimEventBus";
+            default:
+                return StubPlayers.defaultValue(method.getReturnType());
+        }
+    }
+
+    /**
+     * Entrega o evento aos handlers na ordem de prioridade, medindo cada um.
+     */
+    void callEvent(Event event) {
+        List<Handler> list = handlers.get(event.getClass());
+        if (list == null) {
+            return;
+        }
+
+        for (Handler handler : list) {
+            if (handler.ignoreCancelled && event instanceof Cancellable && ((Cancellable) event).isCancelled()) {
+                continue;
+            }
+
+            long start = System.nanoTime();
+            try {
+                handler.executor.execute(handler.listener, event);
+            } catch (EventException e) {
+                handler.failures.increment();
+                if (loggedFailures.sum() < LOGGED_FAILURES) {
+                    loggedFailures.increment();
+                    logger.log(Level.WARNING, "Handler " + handler.name + " lançou uma exceção", e.getCause());
+                }
+            } finally {
+                handler.latency.record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    void resetStatistics() {
+        for (Handler handler : handlersByName.values()) {
+            handler.latency.reset();
+            handler.failures.reset();
+        }
+    }
+
+    /**
+     * @return Latência e falhas de cada handler que recebeu eventos, por nome
+     */
+    Map<String, Object> statistics() {
+        List<Handler> all = new ArrayList<>(handlersByName.values());
+        all.sort(Comparator.comparing(handler -> handler.name));
+
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        for (Handler handler : all) {
+            if (handler.latency.getCount() == 0) {
+                continue;
+            }
+            Map<String, Object> entry = handler.latency.toMap();
+            entry.put("failures", handler.failures.sum());
+            statistics.put(handler.name, entry);
+        }
+        return statistics;
+    }
+
+    private void register(Listener listener) {
+        for (Method method : listener.getClass().getDeclaredMethods()) {
+            EventHandler annotation = method.getAnnotation(EventHandler.class);
+            if (annotation == null || method.getParameterTypes().length != 1
+                || !Event.class.isAssignableFrom(method.getParameterTypes()[0])) {
+                continue;
+            }
+
+            // Listeners declarados como classes internas privadas também são chamados pelo Bukkit
+            method.setAccessible(true);
+            String name = listener.getClass().getSimpleName() + "." + method.getName();
+            EventExecutor executor = (target, event) -> {
+                try {
+                    method.invoke(target, event);
+                } catch (InvocationTargetException e) {
+                    throw new EventException(e.getCause());
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+            add(method.getParameterTypes()[0], new Handler(name, listener, executor,
+                annotation.priority().ordinal(), annotation.ignoreCancelled()));
+        }
+    }
+
+    private void add(Class<?> eventClass, Handler handler) {
+        handlersByName.put(handler.name, handler);
+
+        List<Handler> list = handlers.computeIfAbsent(eventClass, type -> new CopyOnWriteArrayList<>());
+        list.add(handler);
+        // Ordenação estável: mesma prioridade mantém a ordem de registro
+        List<Handler> sorted = new ArrayList<>(list);
+        sorted.sort(Comparator.comparingInt(h -> h.priority));
+        handlers.put(eventClass, new CopyOnWriteArrayList<>(sorted));
+    }
+
+    private static final class Handler {
+        final String name;
+        final Listener listener;
+        final EventExecutor executor;
+        final int priority;
+        final boolean ignoreCancelled;
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder failures = new LongAdder();
+
+        Handler(String name, Listener listener, EventExecutor executor, int priority, boolean ignoreCancelled) {
+            this.name = name;
+            this.listener = listener;
+            this.executor = executor;
+            this.priority = priority;
+            this.ignoreCancelled = ignoreCancelled;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.seuservidor.primeleagueclans.benchmarks;
+
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Jogador do servidor simulado. Guarda o estado que os listeners e comandos consultam (online,
+ * matador da última morte) e conta as mensagens recebidas em vez de entregá-las.
+ *
+ * Tem todas as permissões de jogador comum e nenhuma administrativa.
+ */
+final class SimPlayer implements InvocationHandler {
+    private final String name;
+    private final int entityId;
+    private final Server server;
+    private final LongAdder messages;
+    private final Player player;
+    private volatile boolean online;
+    private volatile Player killer;
+
+    SimPlayer(String name, int entityId, Server server, LongAdder messages) {
+        this.name = name;
+        this.entityId = entityId;
+        this.server = server;
+        this.messages = messages;
+        this.player = (Player) Proxy.newProxyInstance(SimPlayer.class.getClassLoader(), new Class<?>[] { Player.class }, this);
+    }
+
+    Player getPlayer() {
+        return player;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    boolean isOnline() {
+        return online;
+    }
+
+    void setOnline(boolean online) {
+        this.online = online;
+    }
+
+    void setKiller(Player killer) {
+        this.killer = killer;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getName":
+            case "getDisplayName":
+            case "getPlayerListName":
+                return name;
+            case "isOnline":
+                return online;
+            case "getPlayer":
+                return online ? player : null;
+            case "hasPlayedBefore":
+                return true;
+            case "getKiller":
+                return killer;
+            case "getEntityId":
+                return entityId;
+            case "getServer":
+                return server;
+            case "sendMessage":
+                messages.increment();
+                return null;
+            case "hasPermission":
+                return !String.valueOf(args[0]).contains(".admin");
+            case "isPermissionSet":
+                return false;
+            case "isOp":
+                return false;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "SimPlayer{" + name + "}";
+            default:
+                return StubPlayers.defaultValue(method.getReturnType());
+        }
+    }
+}
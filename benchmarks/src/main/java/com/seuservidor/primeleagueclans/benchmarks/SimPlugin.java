@@ -0,0 +1,45 @@
+package com.seuservidor.primeleagueclans.benchmarks;
+
+import com.seuservidor.primeleagueclans.PrimeLeagueClans;
+import org.bukkit.Server;
+import org.bukkit.plugin.InvalidDescriptionException;
+import org.bukkit.plugin.PluginDescriptionFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Enumeration;
+
+/**
+ * O plugin completo, sem nenhum método sobrescrito, inicializado como o Bukkit faria: descrição
+ * lida do plugin.yml, pasta de dados e servidor. O onEnable e o onDisable são os do plugin.
+ */
+final class SimPlugin extends PrimeLeagueClans {
+    SimPlugin(Server server, File dataFolder) throws IOException, InvalidDescriptionException {
+        initialize(null, server, description(), dataFolder, null, SimPlugin.class.getClassLoader());
+    }
+
+    /**
+     * Recurso empacotado junto com o plugin.yml do plugin. Os jars do Vault e do LegendChat no
+     * classpath também têm plugin.yml e config.yml, então o nome sozinho não basta.
+     */
+    static URL resource(String name) throws IOException, InvalidDescriptionException {
+        Enumeration<URL> candidates = SimPlugin.class.getClassLoader().getResources("plugin.yml");
+        while (candidates.hasMoreElements()) {
+            URL candidate = candidates.nextElement();
+            try (InputStream in = candidate.openStream()) {
+                if (PrimeLeagueClans.class.getName().equals(new PluginDescriptionFile(in).getMain())) {
+                    return new URL(candidate, name);
+                }
+            }
+        }
+        throw new IOException("plugin.yml do PrimeLeagueClans não encontrado no classpath");
+    }
+
+    private static PluginDescriptionFile description() throws IOException, InvalidDescriptionException {
+        try (InputStream in = resource("plugin.yml").openStream()) {
+            return new PluginDescriptionFile(in);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.seuservidor.primeleagueclans.benchmarks;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Agendador do servidor simulado, com a semântica do agendador do Bukkit: tarefas síncronas rodam
+ * na thread principal quando o simulador avança o tick, e tarefas assíncronas rodam em um pool de
+ * threads. Atrasos e períodos são contados em ticks simulados.
+ */
+final class SimScheduler implements InvocationHandler {
+    private final Logger logger;
+    private final BukkitScheduler proxy;
+    private final AtomicInteger ids = new AtomicInteger();
+    private final Map<Integer, Task> tasks = new ConcurrentHashMap<>();
+    // Fila por tick de vencimento; tarefas assíncronas também agendam tarefas síncronas
+    private final PriorityQueue<Task> queue = new PriorityQueue<>((a, b) ->
+        a.due != b.due ? Long.compare(a.due, b.due) : Integer.compare(a.id, b.id));
+    private final ExecutorService async;
+    private volatile long currentTick;
+
+    private final LatencyHistogram syncTasks = new LatencyHistogram();
+    private final LatencyHistogram asyncTasks = new LatencyHistogram();
+    private final LongAdder failures = new LongAdder();
+
+    SimScheduler(Logger logger) {
+        this.logger = logger;
+        this.proxy = (BukkitScheduler) Proxy.newProxyInstance(SimScheduler.class.getClassLoader(),
+            new Class<?>[] { BukkitScheduler.class }, this);
+        AtomicInteger threads = new AtomicInteger();
+        this.async = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "Sim Scheduler Async #" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    BukkitScheduler getScheduler() {
+        return proxy;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        switch (name) {
+            case "runTask":
+            case "runTaskLater":
+            case "runTaskTimer":
+            case "scheduleSyncDelayedTask":
+            case "scheduleSyncRepeatingTask":
+            case "runTaskAsynchronously":
+            case "runTaskLaterAsynchronously":
+            case "runTaskTimerAsynchronously":
+            case "scheduleAsyncDelayedTask":
+            case "scheduleAsyncRepeatingTask": {
+                boolean sync = !name.contains("Async");
+                long delay = args.length > 2 ? (Long) args[2] : 0L;
+                long period = args.length > 3 ? (Long) args[3] : -1L;
+                Task task = schedule((Plugin) args[0], (Runnable) args[1], sync, delay, period);
+                return method.getReturnType() == int.class ? (Object) task.id : task;
+            }
+            case "callSyncMethod": {
+                FutureTask<Object> future = new FutureTask<>(castCallable(args[1]));
+                schedule((Plugin) args[0], future, true, 0L, -1L);
+                return future;
+            }
+            case "cancelTask":
+                cancel((Integer) args[0]);
+                return null;
+            case "cancelTasks":
+            case "cancelAllTasks":
+                for (Integer id : new ArrayList<>(tasks.keySet())) {
+                    cancel(id);
+                }
+                return null;
+            case "isQueued":
+                return tasks.containsKey((Integer) args[0]);
+            case "isCurrentlyRunning":
+                return false;
+            case "getActiveWorkers":
+            case "getPendingTasks":
+                return new ArrayList<>();
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "SimScheduler";
+            default:
+                throw new UnsupportedOperationException("Agendador simulado não implementa " + name);
+        }
+    }
+
+    /**
+     * Avança para o tick informado e roda, na thread atual, as tarefas síncronas vencidas.
+     *
+     * @return Tempo gasto nas tarefas síncronas, em nanossegundos
+     */
+    long runDueTasks(long tick) {
+        currentTick = tick;
+        long spent = 0L;
+        while (true) {
+            Task task;
+            synchronized (queue) {
+                task = queue.peek();
+                if (task == null || task.due > tick) {
+                    break;
+                }
+                queue.poll();
+            }
+            if (task.cancelled) {
+                continue;
+            }
+
+            if (task.period > 0) {
+                enqueue(task, tick + task.period);
+            } else {
+                tasks.remove(task.id);
+            }
+
+            if (task.sync) {
+                spent += run(task, syncTasks);
+            } else {
+                async.execute(() -> run(task, asyncTasks));
+            }
+        }
+        return spent;
+    }
+
+    /**
+     * Espera as tarefas assíncronas em andamento e desliga o pool.
+     */
+    void shutdown() {
+        async.shutdown();
+        try {
+            async.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void resetStatistics() {
+        syncTasks.reset();
+        asyncTasks.reset();
+        failures.reset();
+    }
+
+    LatencyHistogram getSyncTasks() {
+        return syncTasks;
+    }
+
+    LatencyHistogram getAsyncTasks() {
+        return asyncTasks;
+    }
+
+    long getFailures() {
+        return failures.sum();
+    }
+
+    int getQueuedCount() {
+        return tasks.size();
+    }
+
+    private Task schedule(Plugin owner, Runnable runnable, boolean sync, long delay, long period) {
+        Task task = new Task(ids.incrementAndGet(), owner, runnable, sync, period);
+        tasks.put(task.id, task);
+        if (!sync && delay <= 0) {
+            // Como no Bukkit, a tarefa assíncrona sem atraso começa imediatamente
+            if (period <= 0) {
+                tasks.remove(task.id);
+            } else {
+                enqueue(task, currentTick + period);
+            }
+            async.execute(() -> run(task, asyncTasks));
+        } else {
+            enqueue(task, currentTick + Math.max(1L, delay));
+        }
+        return task;
+    }
+
+    private void enqueue(Task task, long due) {
+        synchronized (queue) {
+            task.due = due;
+            queue.add(task);
+        }
+    }
+
+    private void cancel(int id) {
+        Task task = tasks.remove(id);
+        if (task != null) {
+            task.cancelled = true;
+        }
+    }
+
+    private long run(Task task, LatencyHistogram histogram) {
+        long start = System.nanoTime();
+        try {
+            task.runnable.run();
+        } catch (Throwable e) {
+            failures.increment();
+            logger.log(Level.WARNING, "Tarefa " + task.id + " do plugin " + task.owner.getName() + " lançou uma exceção", e);
+        }
+        long elapsed = System.nanoTime() - start;
+        histogram.record(elapsed);
+        return elapsed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Callable<Object> castCallable(Object callable) {
+        return (Callable<Object>) callable;
+    }
+
+    private final class Task implements BukkitTask {
+        private final int id;
+        private final Plugin owner;
+        private final Runnable runnable;
+        private final boolean sync;
+        private final long period;
+        private long due;
+        private volatile boolean cancelled;
+
+        Task(int id, Plugin owner, Runnable runnable, boolean sync, long period) {
+            this.id = id;
+            this.owner = owner;
+            this.runnable = runnable;
+            this.sync = sync;
+            this.period = period;
+        }
+
+        @Override
+        public int getTaskId() {
+            return id;
+        }
+
+        @Override
+        public Plugin getOwner() {
+            return owner;
+        }
+
+        @Override
+        public boolean isSync() {
+            return sync;
+        }
+
+        @Override
+        public void cancel() {
+            SimScheduler.this.cancel(id);
+        }
+    }
+}
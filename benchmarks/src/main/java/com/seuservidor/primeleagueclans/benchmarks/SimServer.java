@@ -0,0 +1,190 @@
+package com.seuservidor.primeleagueclans.benchmarks;
+
+import org.bukkit.Server;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Servidor Bukkit simulado: jogadores online, agendador, PluginManager e comandos do plugin.
+ * Mensagens a jogadores e broadcasts só são contados.
+ *
+ * A thread que cria o servidor é a thread principal, como a do servidor real.
+ */
+final class SimServer implements InvocationHandler {
+    private final Logger logger;
+    private final Server proxy;
+    private final Thread mainThread = Thread.currentThread();
+    private final SimScheduler scheduler;
+    private final SimEventBus eventBus;
+    private final Map<String, SimPlayer> online = new ConcurrentHashMap<>();
+    private final Map<String, PluginCommand> commands = new ConcurrentHashMap<>();
+    private final AtomicInteger entityIds = new AtomicInteger();
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder broadcasts = new LongAdder();
+
+    SimServer(Logger logger) {
+        this.logger = logger;
+        this.proxy = (Server) Proxy.newProxyInstance(SimServer.class.getClassLoader(), new Class<?>[] { Server.class }, this);
+        this.scheduler = new SimScheduler(logger);
+        this.eventBus = new SimEventBus(logger);
+    }
+
+    Server getServer() {
+        return proxy;
+    }
+
+    SimScheduler getScheduler() {
+        return scheduler;
+    }
+
+    SimEventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Registra o plugin e os comandos do plugin.yml com o plugin como dono, como o Bukkit faz ao
+     * carregá-lo.
+     */
+    void setPlugin(Plugin plugin) {
+        eventBus.setPlugin(plugin);
+        for (String name : plugin.getDescription().getCommands().keySet()) {
+            commands.put(name.toLowerCase(Locale.ROOT), newCommand(name, plugin));
+        }
+    }
+
+    PluginCommand getCommand(String name) {
+        return commands.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @return Jogador novo, ainda offline; o evento de entrada é disparado pelo simulador
+     */
+    SimPlayer newPlayer(String name) {
+        return new SimPlayer(name, entityIds.incrementAndGet(), proxy, messages);
+    }
+
+    void join(SimPlayer player) {
+        player.setOnline(true);
+        online.put(player.getName().toLowerCase(Locale.ROOT), player);
+    }
+
+    void quit(SimPlayer player) {
+        online.remove(player.getName().toLowerCase(Locale.ROOT));
+        player.setOnline(false);
+    }
+
+    int getOnlineCount() {
+        return online.size();
+    }
+
+    long getMessages() {
+        return messages.sum();
+    }
+
+    long getBroadcasts() {
+        return broadcasts.sum();
+    }
+
+    void resetStatistics() {
+        messages.reset();
+        broadcasts.reset();
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getOnlinePlayers": {
+                SimPlayer[] players = online.values().toArray(new SimPlayer[0]);
+                Player[] result = new Player[players.length];
+                for (int i = 0; i < players.length; i++) {
+                    result[i] = players[i].getPlayer();
+                }
+                return result;
+            }
+            case "getPlayer":
+                return args[0] instanceof String ? matchPlayer((String) args[0]) : null;
+            case "getPlayerExact": {
+                SimPlayer player = online.get(((String) args[0]).toLowerCase(Locale.ROOT));
+                return player != null ? player.getPlayer() : null;
+            }
+            case "getOfflinePlayer": {
+                if (!(args[0] instanceof String)) {
+                    return null;
+                }
+                SimPlayer player = online.get(((String) args[0]).toLowerCase(Locale.ROOT));
+                return player != null ? player.getPlayer() : newPlayer((String) args[0]).getPlayer();
+            }
+            case "getScheduler":
+                return scheduler.getScheduler();
+            case "getPluginManager":
+                return eventBus.getPluginManager();
+            case "getPluginCommand":
+                return getCommand((String) args[0]);
+            case "getLogger":
+                return logger;
+            case "isPrimaryThread":
+                return Thread.currentThread() == mainThread;
+            case "broadcastMessage":
+                broadcasts.increment();
+                return online.size();
+            case "getName":
+                return "PrimeLeagueClans-Simulator";
+            case "getVersion":
+            case "getBukkitVersion":
+                return "1.5.2-R1.0";
+            case "getMaxPlayers":
+                return Integer.MAX_VALUE;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "SimServer";
+            default:
+                return StubPlayers.defaultValue(method.getReturnType());
+        }
+    }
+
+    // Mesma regra do Bukkit: nome exato, senão o único jogador cujo nome começa com o texto
+    private Player matchPlayer(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        SimPlayer exact = online.get(lower);
+        if (exact != null) {
+            return exact.getPlayer();
+        }
+
+        SimPlayer found = null;
+        int delta = Integer.MAX_VALUE;
+        for (SimPlayer player : online.values()) {
+            String candidate = player.getName().toLowerCase(Locale.ROOT);
+            if (candidate.startsWith(lower) && candidate.length() - lower.length() < delta) {
+                found = player;
+                delta = candidate.length() - lower.length();
+            }
+        }
+        return found != null ? found.getPlayer() : null;
+    }
+
+    // O construtor de PluginCommand é protegido; o Bukkit o chama ao ler o plugin.yml
+    private static PluginCommand newCommand(String name, Plugin owner) {
+        try {
+            Constructor<PluginCommand> constructor = PluginCommand.class.getDeclaredConstructor(String.class, Plugin.class);
+            constructor.setAccessible(true);
+            return constructor.newInstance(name, owner);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Não foi possível criar o comando " + name, e);
+        }
+    }
+}
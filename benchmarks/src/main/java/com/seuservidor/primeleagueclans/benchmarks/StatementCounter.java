@@ -0,0 +1,162 @@
+package com.seuservidor.primeleagueclans.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Driver JDBC que envolve o driver do SQLite e conta o que passa pelas conexões: comandos
+ * preparados, execuções (um {@code executeBatch} conta como uma), linhas enviadas em lote e
+ * commits. Instalado no lugar do driver original, vale para as conexões abertas pelo
+ * ConnectionPool sem nenhuma mudança no plugin.
+ */
+final class StatementCounter implements Driver {
+    private static final String SQLITE_URL = "jdbc:sqlite:";
+
+    private static final LongAdder prepared = new LongAdder();
+    private static final LongAdder executions = new LongAdder();
+    private static final LongAdder batchedRows = new LongAdder();
+    private static final LongAdder commits = new LongAdder();
+    private static boolean installed;
+
+    private final Driver delegate;
+
+    private StatementCounter(Driver delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Troca o driver do SQLite registrado no DriverManager por um contador. Deve ser chamado antes
+     * de o DatabaseManager abrir o pool.
+     */
+    static synchronized void install() throws SQLException {
+        if (installed) {
+            return;
+        }
+
+        Driver sqlite = null;
+        for (Driver driver : Collections.list(DriverManager.getDrivers())) {
+            if (driver.acceptsURL(SQLITE_URL)) {
+                if (sqlite == null) {
+                    sqlite = driver;
+                }
+                DriverManager.deregisterDriver(driver);
+            }
+        }
+        if (sqlite == null) {
+            throw new SQLException("Driver JDBC do SQLite não encontrado no classpath");
+        }
+
+        DriverManager.registerDriver(new StatementCounter(sqlite));
+        installed = true;
+    }
+
+    static Counts snapshot() {
+        return new Counts(prepared.sum(), executions.sum(), batchedRows.sum(), commits.sum());
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        Connection connection = delegate.connect(url, info);
+        return connection != null ? wrap(Connection.class, connection) : null;
+    }
+
+    @Override
+    public boolean acceptsURL(String url) throws SQLException {
+        return delegate.acceptsURL(url);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException {
+        return delegate.getPropertyInfo(url, info);
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return delegate.getMajorVersion();
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return delegate.getMinorVersion();
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return delegate.jdbcCompliant();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    private static <T> T wrap(Class<T> type, final Object target) {
+        return type.cast(Proxy.newProxyInstance(StatementCounter.class.getClassLoader(), new Class<?>[] { type },
+            (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                count(method);
+                // Comandos criados pela conexão também são envolvidos, no tipo que o método declara
+                if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                    return wrap(method.getReturnType(), result);
+                }
+                return result;
+            }));
+    }
+
+    private static void count(Method method) {
+        String name = method.getName();
+        if (name.startsWith("execute")) {
+            executions.increment();
+        } else if (name.equals("addBatch")) {
+            batchedRows.increment();
+        } else if (name.startsWith("prepare")) {
+            prepared.increment();
+        } else if (name.equals("commit")) {
+            commits.increment();
+        }
+    }
+
+    /**
+     * Contadores acumulados desde a instalação; a diferença entre dois instantes dá o custo de uma operação.
+     */
+    static final class Counts {
+        final long prepared;
+        final long executions;
+        final long batchedRows;
+        final long commits;
+
+        Counts(long prepared, long executions, long batchedRows, long commits) {
+            this.prepared = prepared;
+            this.executions = executions;
+            this.batchedRows = batchedRows;
+            this.commits = commits;
+        }
+
+        Counts minus(Counts other) {
+            return new Counts(prepared - other.prepared, executions - other.executions,
+                batchedRows - other.batchedRows, commits - other.commits);
+        }
+
+        Counts plus(Counts other) {
+            return new Counts(prepared + other.prepared, executions + other.executions,
+                batchedRows + other.batchedRows, commits + other.commits);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.seuservidor.primeleagueclans.benchmarks;
+
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Jogadores falsos para os benchmarks: só o nome e o estado online respondem, o resto devolve o
+ * valor padrão do tipo. Nenhum servidor Bukkit é necessário.
+ */
+final class StubPlayers {
+    private StubPlayers() {
+    }
+
+    static Player player(final String name) {
+        return (Player) Proxy.newProxyInstance(StubPlayers.class.getClassLoader(), new Class<?>[] { Player.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getName":
+                    case "getDisplayName":
+                    case "getPlayerListName":
+                        return name;
+                    case "isOnline":
+                        return true;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return "StubPlayer{" + name + "}";
+                    default:
+                        return defaultValue(method.getReturnType());
+                }
+            });
+    }
+
+    static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,35 @@
+package com.seuservidor.primeleagueclans.benchmarks;
+
+import org.bukkit.Server;
+
+import java.lang.reflect.Proxy;
+import java.util.logging.Logger;
+
+/**
+ * Servidor falso para os benchmarks: responde apenas o logger, o resto devolve o valor padrão do
+ * tipo. Sem agendador, então só caminhos que não agendam tarefas podem ser medidos com ele.
+ */
+final class StubServer {
+    private StubServer() {
+    }
+
+    static Server server(final Logger logger) {
+        return (Server) Proxy.newProxyInstance(StubServer.class.getClassLoader(), new Class<?>[] { Server.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getLogger":
+                        return logger;
+                    case "getName":
+                        return "PrimeLeagueClans-Bench";
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return "StubServer";
+                    default:
+                        return StubPlayers.defaultValue(method.getReturnType());
+                }
+            });
+    }
+}
@@ -10,6 +10,9 @@ import com.seuservidor.primeleagueclans.managers.ClanManager;
 import com.seuservidor.primeleagueclans.managers.DatabaseManager;
 import com.seuservidor.primeleagueclans.managers.LogManager;
 import com.seuservidor.primeleagueclans.managers.ClientLogManager;
+import com.seuservidor.primeleagueclans.managers.PlayerSessionManager;
+import com.seuservidor.primeleagueclans.managers.EloManager;
+import com.seuservidor.primeleagueclans.managers.XpAccumulator;
 import net.milkbowl.vault.economy.Economy;
 import com.seuservidor.primeleagueclans.comandos.ComandoClan;
 import com.seuservidor.primeleagueclans.listeners.PlayerListener;
@@ -18,6 +21,7 @@ import com.seuservidor.primeleagueclans.listeners.EconomyListener;
 import com.seuservidor.primeleagueclans.listeners.CombatListener;
 import com.seuservidor.primeleagueclans.listeners.ChatListener;
 import com.seuservidor.primeleagueclans.listeners.DataIntegrityListener;
+import com.seuservidor.primeleagueclans.metrics.PerformanceMonitor;
 import com.seuservidor.primeleagueclans.utils.MessageUtils;
 import java.sql.SQLException;
 import com.seuservidor.primeleagueclans.api.IClanAPI;
@@ -28,7 +32,9 @@ import com.seuservidor.primeleagueclans.api.DisplayAPIAdapter;
 import com.seuservidor.primeleagueclans.api.ClanAPIProvider;
 import com.seuservidor.primeleagueclans.models.Clan;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.Listener;
 import com.seuservidor.primeleagueclans.comandos.ComandoElo;
 
@@ -40,6 +46,11 @@ public class PrimeLeagueClans extends JavaPlugin {
     private File messagesFile;
     private Logger logger;
     private ClanManager clanManager;
+    private PlayerSessionManager sessionManager;
+    private EloManager eloManager;
+    private XpAccumulator xpAccumulator;
+    private CombatListener combatListener;
+    private PerformanceMonitor performanceMonitor;
     private DatabaseManager databaseManager;
     private LogManager logManager;
     private ClientLogManager clientLogManager;
@@ -67,6 +78,10 @@ public class PrimeLeagueClans extends JavaPlugin {
         MessageUtils.init(this);
         logger.info("MessageUtils inicializado com sucesso!");
         
+        // Monitor de desempenho antes dos listeners, que são registrados por ele
+        performanceMonitor = new PerformanceMonitor(this);
+        performanceMonitor.start();
+        
         try {
             // Inicializar managers
             logger.info("Inicializando managers...");
@@ -88,95 +103,10 @@ public class PrimeLeagueClans extends JavaPlugin {
                 if (clanManager != null) {
                     getLogger().info("Verificando integridade dos dados de clãs...");
                     
-                    // Executar verificação de cada jogador online
+                    // Conferir cada jogador online com o banco em segundo plano
                     for (Player player : getServer().getOnlinePlayers()) {
-                        String playerName = player.getName();
-                        getLogger().info("Verificando e sincronizando dados do jogador: " + playerName);
-                        
-                        // Verificar no cache
-                        Clan playerClan = clanManager.getPlayerClan(playerName);
-                        String playerClanId = clanManager.getPlayerClans().get(playerName.toLowerCase());
-                        
-                        // Verificação no banco de dados direto
-                        try {
-                            String dbClanId = getDatabaseManager().getPlayerClanId(playerName);
-                            
-                            if (dbClanId != null) {
-                                // Jogador tem clã no banco
-                                if (playerClanId == null) {
-                                    // Mas não no cache - sincronizar
-                                    getLogger().info("Jogador " + playerName + " tem clã no banco (ID: " + dbClanId + ") mas não no cache, sincronizando...");
-                                    
-                                    // Buscar clã pelo ID
-                                    Clan clan = clanManager.getClanById(dbClanId);
-                                    if (clan == null) {
-                                        // Tentar carregar do banco
-                                        clan = getDatabaseManager().getClan(dbClanId);
-                                        if (clan != null) {
-                                            // Adicionar ao cache
-                                            clanManager.getClans().put(dbClanId, clan);
-                                        }
-                                    }
-                                    
-                                    if (clan != null) {
-                                        // Adicionar jogador ao clã e ao mapa
-                                        clan.addMember(playerName);
-                                        clanManager.getPlayerClans().put(playerName.toLowerCase(), dbClanId);
-                                        getLogger().info("Jogador " + playerName + " sincronizado com o clã " + clan.getName());
-                                    }
-                                } else if (!dbClanId.equals(playerClanId)) {
-                                    // Está em clãs diferentes no banco e no cache - usar o do banco
-                                    getLogger().warning("Jogador " + playerName + " está em clãs diferentes no banco (ID: " + dbClanId + 
-                                                      ") e no cache (ID: " + playerClanId + "), sincronizando com o banco...");
-                                    
-                                    // Remover do clã atual no cache
-                                    Clan currentClan = clanManager.getClanById(playerClanId);
-                                    if (currentClan != null) {
-                                        currentClan.removeMember(playerName);
-                                    }
-                                    
-                                    // Adicionar ao clã correto
-                                    Clan correctClan = clanManager.getClanById(dbClanId);
-                                    if (correctClan == null) {
-                                        correctClan = getDatabaseManager().getClan(dbClanId);
-                                        if (correctClan != null) {
-                                            clanManager.getClans().put(dbClanId, correctClan);
-                                        }
-                                    }
-                                    
-                                    if (correctClan != null) {
-                                        correctClan.addMember(playerName);
-                                        clanManager.getPlayerClans().put(playerName.toLowerCase(), dbClanId);
-                                        getLogger().info("Jogador " + playerName + " re-sincronizado com o clã " + correctClan.getName());
-                                    }
-                                } else {
-                                    // Os IDs são iguais, verificar se está na lista de membros
-                                    Clan clan = clanManager.getClanById(dbClanId);
-                                    if (clan != null && !clan.isMember(playerName)) {
-                                        clan.addMember(playerName);
-                                        getLogger().info("Jogador " + playerName + " adicionado à lista de membros do clã " + clan.getName());
-                                    }
-                                }
-                            } else if (playerClanId != null) {
-                                // Jogador tem clã no cache mas não no banco - usar o banco como fonte verdadeira
-                                getLogger().warning("Jogador " + playerName + " tem clã no cache (ID: " + playerClanId + 
-                                                  ") mas não no banco, removendo do cache...");
-                                
-                                // Remover do clã no cache
-                                Clan clan = clanManager.getClanById(playerClanId);
-                                if (clan != null) {
-                                    clan.removeMember(playerName);
-                                }
-                                
-                                // Remover do mapa de jogadores para clãs
-                                clanManager.getPlayerClans().remove(playerName.toLowerCase());
-                            }
-                        } catch (Exception e) {
-                            getLogger().severe("Erro ao sincronizar dados do jogador " + playerName + ": " + e.getMessage());
-                            if (isDebugMode()) {
-                                e.printStackTrace();
-                            }
-                        }
+                        clanManager.getPresence().playerJoined(player);
+                        sessionManager.reconcileAsync(player);
                     }
                     
                     clanManager.checkDataIntegrity();
@@ -196,9 +126,29 @@ public class PrimeLeagueClans extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        if (performanceMonitor != null) {
+            performanceMonitor.shutdown();
+        }
+        
         // Salvar dados
         saveData();
         
+        // Gravar os logs ainda na fila de escrita
+        if (logManager != null) {
+            logManager.close();
+        }
+        if (clientLogManager != null) {
+            clientLogManager.close();
+        }
+        
+        // Fechar o pool: a thread de manutenção e as conexões ociosas sobreviveriam a um /reload
+        if (databaseManager != null) {
+            databaseManager.close();
+        }
+        if (performanceMonitor != null) {
+            performanceMonitor.getSqlProfiler().close();
+        }
+        
         logger.info("PrimeLeagueClans foi desativado com sucesso!");
     }
 
@@ -247,6 +197,9 @@ public class PrimeLeagueClans extends JavaPlugin {
             
             // Inicializar clan manager antes do banco de dados
             this.clanManager = new ClanManager(this);
+            this.sessionManager = new PlayerSessionManager(this);
+            this.xpAccumulator = new XpAccumulator(this);
+            this.xpAccumulator.start();
             logger.info("Clan manager inicializado com sucesso! Instance: " + this.clanManager);
             
             // Inicializar adaptadores de API depois do ClanManager
@@ -291,6 +244,17 @@ public class PrimeLeagueClans extends JavaPlugin {
                 this.databaseManager.initialize();
                 logger.info("Database manager inicializado com sucesso sem carregar clãs!");
                 
+                // Iniciar a fila de salvamento em segundo plano
+                clanManager.getSaveQueue().start();
+                
+                // Carregar o elo dos jogadores (migra o elo.yml antigo na primeira vez)
+                this.eloManager = new EloManager(this);
+                if (!this.eloManager.load()) {
+                    // Sem o elo do banco, gravar o que mudasse em memória sobrescreveria os jogadores
+                    this.eloManager = null;
+                    logger.warning("Sistema de elo desativado até o próximo reinício");
+                }
+                
                 // Agora carregue os clãs explicitamente após o database manager estar totalmente inicializado
                 getServer().getScheduler().scheduleSyncDelayedTask(this, new Runnable() {
                     @Override
@@ -374,26 +338,29 @@ public class PrimeLeagueClans extends JavaPlugin {
     }
 
     private void registerEvents() {
+        // Cada handler é registrado com um executor medido pelo monitor de desempenho
+        
         // Registrar eventos de jogador
-        getServer().getPluginManager().registerEvents(new PlayerListener(this), this);
+        performanceMonitor.registerEvents(new PlayerListener(this));
         
         // Registrar eventos de clã
-        getServer().getPluginManager().registerEvents(new ClanListener(this), this);
+        performanceMonitor.registerEvents(new ClanListener(this));
         
         // Registrar eventos de economia
-        getServer().getPluginManager().registerEvents(new EconomyListener(this), this);
+        performanceMonitor.registerEvents(new EconomyListener(this));
         
         // Registrar eventos de combate
-        getServer().getPluginManager().registerEvents(new CombatListener(this), this);
+        this.combatListener = new CombatListener(this);
+        performanceMonitor.registerEvents(combatListener);
 
         // Registrar eventos de chat
-        getServer().getPluginManager().registerEvents(new ChatListener(this), this);
+        performanceMonitor.registerEvents(new ChatListener(this));
         
         // Registrar eventos de integridade de dados
-        getServer().getPluginManager().registerEvents(new DataIntegrityListener(this), this);
+        performanceMonitor.registerEvents(new DataIntegrityListener(this));
         
         // Registrar listener para sincronização imediata de clãs
-        getServer().getPluginManager().registerEvents(new PlayerSyncListener(), this);
+        performanceMonitor.registerEvents(new PlayerSyncListener());
         
         if (isDebugMode()) {
             getLogger().info("[Debug] Eventos registrados com sucesso!");
@@ -418,6 +385,18 @@ public class PrimeLeagueClans extends JavaPlugin {
             logger.info("[Debug] Total de mapeamentos jogador->clã: " + clanManager.getPlayerClans().size());
         }
         
+        // Aplicar o XP acumulado antes de gravar os clãs
+        if (xpAccumulator != null) {
+            xpAccumulator.shutdown();
+        }
+        
+        // Esvaziar a fila de salvamento antes do salvamento geral
+        clanManager.getSaveQueue().shutdown();
+        
+        if (eloManager != null) {
+            eloManager.shutdown();
+        }
+        
         databaseManager.saveAll();
         
         if (debugMode) {
@@ -449,6 +428,26 @@ public class PrimeLeagueClans extends JavaPlugin {
         return databaseManager;
     }
 
+    public PlayerSessionManager getSessionManager() {
+        return sessionManager;
+    }
+
+    public EloManager getEloManager() {
+        return eloManager;
+    }
+
+    public XpAccumulator getXpAccumulator() {
+        return xpAccumulator;
+    }
+
+    public CombatListener getCombatListener() {
+        return combatListener;
+    }
+
+    public PerformanceMonitor getPerformanceMonitor() {
+        return performanceMonitor;
+    }
+
     public LogManager getLogManager() {
         return logManager;
     }
@@ -483,103 +482,40 @@ public class PrimeLeagueClans extends JavaPlugin {
     }
 
     /**
-     * Sincroniza os dados de clã de um jogador com o banco de dados
-     * Este método é chamado quando um jogador entra no servidor ou quando há necessidade de sincronizar
-     * com urgência os dados do clã.
+     * Sincroniza os dados de clã de um jogador com o banco de dados.
+     * A consulta roda em segundo plano e as correções são aplicadas na thread principal.
      * 
      * @param player O jogador a ser sincronizado
      */
     public void sincronizarJogadorClan(Player player) {
-        if (player == null || clanManager == null || databaseManager == null) {
+        if (player == null || sessionManager == null) {
             return;
         }
         
-        String playerName = player.getName();
-        
-        try {
-            // Verificar se o jogador tem clã no banco de dados
-            String dbClanId = databaseManager.getPlayerClanId(playerName);
-            
-            if (dbClanId != null) {
-                // Jogador tem clã no banco de dados
-                if (isDebugMode()) {
-                    getLogger().info("Sincronização rápida: Jogador " + playerName + " tem clã no banco de dados (ID: " + dbClanId + ")");
-                }
-                
-                // Verificar se o clã está no cache
-                Clan clan = clanManager.getClanById(dbClanId);
-                
-                if (clan == null) {
-                    // Clã não está no cache, carregar do banco
-                    if (isDebugMode()) {
-                        getLogger().info("Sincronização rápida: Carregando clã do banco de dados para " + playerName);
-                    }
-                    
-                    clan = databaseManager.getClan(dbClanId);
-                    
-                    if (clan != null) {
-                        // Clã encontrado no banco, adicionar ao cache
-                        clanManager.getClans().put(dbClanId, clan);
-                    }
-                }
-                
-                if (clan != null) {
-                    // Verificar se o jogador está na lista de membros
-                    if (!clan.isMember(playerName)) {
-                        if (isDebugMode()) {
-                            getLogger().info("Sincronização rápida: Adicionando " + playerName + " à lista de membros do clã " + clan.getName());
-                        }
-                        clan.addMember(playerName);
-                    }
-                    
-                    // Verificar mapeamento jogador-clã
-                    String playerClanId = clanManager.getPlayerClans().get(playerName.toLowerCase());
-                    
-                    if (playerClanId == null || !playerClanId.equals(dbClanId)) {
-                        // Atualizar mapeamento
-                        if (isDebugMode()) {
-                            getLogger().info("Sincronização rápida: Atualizando mapeamento de " + playerName + " para clã " + clan.getName());
-                        }
-                        clanManager.getPlayerClans().put(playerName.toLowerCase(), dbClanId);
-                    }
-                }
-            } else {
-                // Jogador não tem clã no banco, verificar se está no cache
-                String playerClanId = clanManager.getPlayerClans().get(playerName.toLowerCase());
-                
-                if (playerClanId != null) {
-                    // Remover do cache, já que o banco é a fonte verdadeira
-                    if (isDebugMode()) {
-                        getLogger().info("Sincronização rápida: Removendo " + playerName + " do mapa de clãs (não existe no banco)");
-                    }
-                    
-                    Clan clan = clanManager.getClanById(playerClanId);
-                    if (clan != null) {
-                        clan.removeMember(playerName);
-                    }
-                    
-                    clanManager.getPlayerClans().remove(playerName.toLowerCase());
-                }
-            }
-        } catch (Exception e) {
-            getLogger().warning("Erro ao sincronizar dados do jogador " + playerName + ": " + e.getMessage());
-            if (isDebugMode()) {
-                e.printStackTrace();
-            }
-        }
+        sessionManager.reconcileAsync(player);
     }
     
     /**
      * Listener que sincroniza os dados do clã quando um jogador entra no servidor
      */
     private class PlayerSyncListener implements Listener {
+        @EventHandler(priority = EventPriority.LOWEST)
+        public void onPlayerJoinPresence(PlayerJoinEvent event) {
+            // Registrar presença antes dos outros listeners de entrada
+            clanManager.getPresence().playerJoined(event.getPlayer());
+        }
+        
         @EventHandler
         public void onPlayerJoin(PlayerJoinEvent event) {
             // Sincronizar dados de clã imediatamente ao entrar
-            Player player = event.getPlayer();
-            getServer().getScheduler().runTaskAsynchronously(PrimeLeagueClans.this, () -> {
-                sincronizarJogadorClan(player);
-            });
+            sincronizarJogadorClan(event.getPlayer());
+        }
+        
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onPlayerQuit(PlayerQuitEvent event) {
+            // Por último: os avisos de saída ainda alcançam o próprio jogador e o clã dele
+            clanManager.getPresence().playerQuit(event.getPlayer());
+            sessionManager.removeSession(event.getPlayer().getName());
         }
     }
 } 
\ No newline at end of file
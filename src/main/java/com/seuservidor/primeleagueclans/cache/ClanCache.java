@@ -4,90 +4,158 @@ import com.seuservidor.primeleagueclans.PrimeLeagueClans;
 import com.seuservidor.primeleagueclans.models.Clan;
 import org.bukkit.configuration.file.FileConfiguration;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache limitado de clãs lidos do banco de dados, indexado pelo ID do clã.
+ *
+ * Só é usado até os índices do ClanManager serem carregados: depois disso todo clã está nos
+ * índices e nenhuma consulta chega ao banco. Por isso é apenas um mapa em ordem de acesso (LRU)
+ * protegido pelo próprio monitor, com remoção do mais antigo em O(1) quando passa de
+ * {@code cache.max-size}. A validade ({@code cache.expire-time}) é calculada uma vez na inserção.
+ */
 public class ClanCache {
     private final PrimeLeagueClans plugin;
-    private final Map<String, CachedClan> cache;
-    private final long expireTime;
+    private final boolean enabled;
     private final int maxSize;
+    private final long expireNanos;
+
+    private final Map<String, CachedClan> cache;
+
+    // Estatísticas
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
 
     public ClanCache(PrimeLeagueClans plugin) {
         this.plugin = plugin;
-        this.cache = new ConcurrentHashMap<>();
-        
+
         FileConfiguration config = plugin.getConfig();
-        this.expireTime = config.getLong("cache.expire-time", 300) * 1000; // Converter para milissegundos
-        this.maxSize = config.getInt("cache.max-size", 1000);
+        this.enabled = config.getBoolean("cache.enabled", true);
+        this.maxSize = Math.max(1, config.getInt("cache.max-size", 1000));
+        this.expireNanos = TimeUnit.SECONDS.toNanos(Math.max(1L, config.getLong("cache.expire-time", 300)));
+        this.cache = new LinkedHashMap<String, CachedClan>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedClan> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                evictionCount.increment();
+                return true;
+            }
+        };
     }
 
-    public Clan getClan(String name) {
-        CachedClan cachedClan = cache.get(name);
-        if (cachedClan != null && !cachedClan.isExpired()) {
-            return cachedClan.getClan();
+    /**
+     * Obtém um clã do cache.
+     *
+     * @param id ID do clã
+     * @return Clã em cache, ou null se ausente ou expirado
+     */
+    public Clan getClan(String id) {
+        if (!enabled || id == null) {
+            return null;
+        }
+
+        synchronized (cache) {
+            CachedClan entry = cache.get(id);
+            if (entry == null) {
+                missCount.increment();
+                return null;
+            }
+            if (System.nanoTime() - entry.expiresAt > 0) {
+                cache.remove(id);
+                expiredCount.increment();
+                missCount.increment();
+                return null;
+            }
+            hitCount.increment();
+            return entry.clan;
         }
-        return null;
     }
 
+    /**
+     * Coloca um clã no cache. Com o cache cheio, o clã usado há mais tempo sai.
+     *
+     * @param clan Clã lido do banco de dados
+     */
     public void putClan(Clan clan) {
-        if (cache.size() >= maxSize) {
-            removeExpiredEntries();
-            if (cache.size() >= maxSize) {
-                removeOldestEntry();
-            }
+        if (!enabled || clan == null || clan.getId() == null) {
+            return;
+        }
+
+        synchronized (cache) {
+            cache.put(clan.getId(), new CachedClan(clan, System.nanoTime() + expireNanos));
         }
-        cache.put(clan.getName(), new CachedClan(clan));
     }
 
-    public void removeClan(String name) {
-        cache.remove(name);
+    public void removeClan(String id) {
+        if (id == null) {
+            return;
+        }
+
+        synchronized (cache) {
+            cache.remove(id);
+        }
     }
 
     public void clear() {
-        cache.clear();
-    }
+        synchronized (cache) {
+            cache.clear();
+        }
 
-    private void removeExpiredEntries() {
-        cache.entrySet().removeIf(entry -> entry.getValue().isExpired());
+        if (plugin.isDebugMode()) {
+            plugin.getLogger().info("[Debug] Cache de clãs limpo (acertos: " + getHitCount() + ", falhas: " + getMissCount() + ")");
+        }
     }
 
-    private void removeOldestEntry() {
-        String oldestKey = null;
-        long oldestTime = Long.MAX_VALUE;
+    public boolean isEnabled() {
+        return enabled;
+    }
 
-        for (Map.Entry<String, CachedClan> entry : cache.entrySet()) {
-            if (entry.getValue().getTimestamp() < oldestTime) {
-                oldestTime = entry.getValue().getTimestamp();
-                oldestKey = entry.getKey();
-            }
+    public int getSize() {
+        synchronized (cache) {
+            return cache.size();
         }
+    }
 
-        if (oldestKey != null) {
-            cache.remove(oldestKey);
-        }
+    public int getMaxSize() {
+        return maxSize;
     }
 
-    private static class CachedClan {
-        private final Clan clan;
-        private final long timestamp;
+    public long getHitCount() {
+        return hitCount.sum();
+    }
 
-        public CachedClan(Clan clan) {
-            this.clan = clan;
-            this.timestamp = System.currentTimeMillis();
-        }
+    public long getMissCount() {
+        return missCount.sum();
+    }
 
-        public Clan getClan() {
-            return clan;
-        }
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
 
-        public long getTimestamp() {
-            return timestamp;
-        }
+    public long getExpiredCount() {
+        return expiredCount.sum();
+    }
+
+    public double getHitRate() {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
 
-        public boolean isExpired() {
-            return System.currentTimeMillis() - timestamp > PrimeLeagueClans.getInstance().getConfig().getLong("cache.expire-time", 300) * 1000;
+    private static class CachedClan {
+        private final Clan clan;
+        private final long expiresAt;
+
+        CachedClan(Clan clan, long expiresAt) {
+            this.clan = clan;
+            this.expiresAt = expiresAt;
         }
     }
-} 
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.seuservidor.primeleagueclans.comandos;
 
+import com.seuservidor.primeleagueclans.models.PlayerSession;
 import org.bukkit.command.CommandSender;
 import java.util.List;
 
@@ -17,6 +18,18 @@ public interface Comando {
      */
     void executar(CommandSender sender, String[] args);
     
+    /**
+     * Executa o comando com o contexto de clã do jogador já resolvido pelo gerenciador,
+     * sem consultas ao banco de dados. Por padrão ignora a sessão.
+     * 
+     * @param sender O emissor do comando (jogador ou console)
+     * @param args Os argumentos do comando
+     * @param sessao Sessão do jogador, ou null quando o emissor não é um jogador
+     */
+    default void executar(CommandSender sender, String[] args, PlayerSession sessao) {
+        executar(sender, args);
+    }
+    
     /**
      * Retorna o nome principal do comando.
      * 
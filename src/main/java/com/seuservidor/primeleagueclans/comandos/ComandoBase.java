@@ -4,6 +4,7 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.ChatColor;
 import com.seuservidor.primeleagueclans.PrimeLeagueClans;
+import com.seuservidor.primeleagueclans.models.PlayerSession;
 import com.seuservidor.primeleagueclans.utils.MessageUtils;
 
 import java.util.ArrayList;
@@ -106,6 +107,19 @@ public abstract class ComandoBase implements Comando {
         return null;
     }
     
+    /**
+     * Obtém a sessão atual do emissor, para comandos chamados sem passar pelo gerenciador.
+     * 
+     * @param sender O emissor do comando
+     * @return A sessão do jogador ou null se não for um jogador
+     */
+    protected PlayerSession getSessao(CommandSender sender) {
+        if (sender instanceof Player) {
+            return plugin.getSessionManager().getSession((Player) sender);
+        }
+        return null;
+    }
+    
     /**
      * Envia uma mensagem do arquivo de mensagens para o sender.
      * 
@@ -1,25 +1,20 @@
 package com.seuservidor.primeleagueclans.comandos;
 
 import com.seuservidor.primeleagueclans.PrimeLeagueClans;
+import com.seuservidor.primeleagueclans.managers.EloManager;
+import com.seuservidor.primeleagueclans.models.EloStats;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class ComandoElo implements CommandExecutor {
     private final PrimeLeagueClans plugin;
-    private final File eloFile;
-    private FileConfiguration eloConfig;
 
     // Badges padrão do sistema
     private final Map<String, String> defaultBadges = new HashMap<String, String>() {{
@@ -45,35 +40,15 @@ public class ComandoElo implements CommandExecutor {
 
     public ComandoElo(PrimeLeagueClans plugin) {
         this.plugin = plugin;
-        this.eloFile = new File(plugin.getDataFolder(), "elo.yml");
-        loadEloConfig();
-    }
-
-    private void loadEloConfig() {
-        if (!eloFile.exists()) {
-            try {
-                eloFile.getParentFile().mkdirs();
-                eloFile.createNewFile();
-                eloConfig = YamlConfiguration.loadConfiguration(eloFile);
-                eloConfig.createSection("players");
-                saveEloConfig();
-            } catch (IOException e) {
-                plugin.getLogger().severe("Erro ao criar arquivo elo.yml: " + e.getMessage());
-            }
-        }
-        eloConfig = YamlConfiguration.loadConfiguration(eloFile);
-    }
-
-    private void saveEloConfig() {
-        try {
-            eloConfig.save(eloFile);
-        } catch (IOException e) {
-            plugin.getLogger().severe("Erro ao salvar elo.yml: " + e.getMessage());
-        }
     }
 
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (plugin.getEloManager() == null) {
+            sender.sendMessage(ChatColor.RED + "O sistema de elo está indisponível no momento.");
+            return true;
+        }
+
         if (args.length == 0) {
             if (!(sender instanceof Player)) {
                 sender.sendMessage(ChatColor.RED + "Este comando só pode ser usado por jogadores!");
@@ -197,58 +172,19 @@ public class ComandoElo implements CommandExecutor {
                 sender.sendMessage(ChatColor.RED + "Jogador " + playerName + " não encontrado!");
                 return;
             }
-            
-            String playerNameConfig = playerName.toLowerCase();
-            int elo = eloConfig.getInt("players." + playerNameConfig + ".elo", 1000);
-            int kills = eloConfig.getInt("players." + playerNameConfig + ".stats.kills", 0);
-            int deaths = eloConfig.getInt("players." + playerNameConfig + ".stats.deaths", 0);
-            int wins = eloConfig.getInt("players." + playerNameConfig + ".stats.wins", 0);
-            int losses = eloConfig.getInt("players." + playerNameConfig + ".stats.losses", 0);
-            
-            String currentRank = getRankFromElo(elo);
-            String badge = defaultBadges.get(currentRank);
-            
-            // Cabeçalho
-            sender.sendMessage("");
-            sender.sendMessage(ChatColor.GOLD + "⚔ Estatísticas de " + playerName + " " + badge);
-            sender.sendMessage(ChatColor.GRAY + "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
-            
-            // Elo e Rank
-            sender.sendMessage(ChatColor.YELLOW + "➤ Rank: " + ChatColor.WHITE + currentRank.substring(0, 1).toUpperCase() + currentRank.substring(1) + " " + badge);
-            sender.sendMessage(ChatColor.YELLOW + "➤ Pontos: " + ChatColor.WHITE + elo);
-            
-            // Próximo rank
-            int nextRankElo = getNextRankElo(elo);
-            if (nextRankElo != -1) {
-                int pontosRestantes = nextRankElo - elo;
-                sender.sendMessage(ChatColor.YELLOW + "➤ Próximo rank: " + ChatColor.WHITE + pontosRestantes + " pontos restantes");
-            } else {
-                sender.sendMessage(ChatColor.YELLOW + "➤ Rank máximo atingido!");
-            }
-            
-            // Estatísticas
-            sender.sendMessage("");
-            sender.sendMessage(ChatColor.YELLOW + "Estatísticas de Combate:");
-            sender.sendMessage(ChatColor.GRAY + "• Kills: " + ChatColor.WHITE + kills);
-            sender.sendMessage(ChatColor.GRAY + "• Deaths: " + ChatColor.WHITE + deaths);
-            sender.sendMessage(ChatColor.GRAY + "• K/D: " + ChatColor.WHITE + String.format("%.2f", deaths == 0 ? kills : (double) kills / deaths));
-            
-            sender.sendMessage("");
-            sender.sendMessage(ChatColor.YELLOW + "Estatísticas de Partidas:");
-            sender.sendMessage(ChatColor.GRAY + "• Vitórias: " + ChatColor.WHITE + wins);
-            sender.sendMessage(ChatColor.GRAY + "• Derrotas: " + ChatColor.WHITE + losses);
-            sender.sendMessage(ChatColor.GRAY + "• W/L: " + ChatColor.WHITE + String.format("%.2f", losses == 0 ? wins : (double) wins / losses));
-            
-            sender.sendMessage(ChatColor.GRAY + "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
-            return;
         }
 
-        String playerNameConfig = player.getName().toLowerCase();
-        int elo = eloConfig.getInt("players." + playerNameConfig + ".elo", 1000);
-        int kills = eloConfig.getInt("players." + playerNameConfig + ".stats.kills", 0);
-        int deaths = eloConfig.getInt("players." + playerNameConfig + ".stats.deaths", 0);
-        int wins = eloConfig.getInt("players." + playerNameConfig + ".stats.wins", 0);
-        int losses = eloConfig.getInt("players." + playerNameConfig + ".stats.losses", 0);
+        EloManager eloManager = plugin.getEloManager();
+        EloStats stats = eloManager.getStats(playerName);
+        if (stats == null) {
+            stats = new EloStats(player != null ? player.getName() : playerName);
+        }
+
+        int elo = stats.getElo();
+        int kills = stats.getKills();
+        int deaths = stats.getDeaths();
+        int wins = stats.getWins();
+        int losses = stats.getLosses();
         
         String currentRank = getRankFromElo(elo);
         String badge = defaultBadges.get(currentRank);
@@ -262,6 +198,12 @@ public class ComandoElo implements CommandExecutor {
         sender.sendMessage(ChatColor.YELLOW + "➤ Rank: " + ChatColor.WHITE + currentRank.substring(0, 1).toUpperCase() + currentRank.substring(1) + " " + badge);
         sender.sendMessage(ChatColor.YELLOW + "➤ Pontos: " + ChatColor.WHITE + elo);
         
+        // Posição no ranking geral
+        int position = eloManager.getRank(playerName);
+        if (position > 0) {
+            sender.sendMessage(ChatColor.YELLOW + "➤ Posição: " + ChatColor.WHITE + "#" + position + " de " + eloManager.getRankedCount());
+        }
+        
         // Próximo rank
         int nextRankElo = getNextRankElo(elo);
         if (nextRankElo != -1) {
@@ -288,59 +230,22 @@ public class ComandoElo implements CommandExecutor {
     }
 
     private void showTopElo(CommandSender sender) {
-        if (!eloConfig.contains("players") || eloConfig.getConfigurationSection("players").getKeys(false).isEmpty()) {
-            sender.sendMessage(ChatColor.GOLD + "=== Top 10 Elo ===");
-            sender.sendMessage(ChatColor.YELLOW + "Nenhum jogador encontrado.");
-            return;
-        }
-
-        Map<String, Integer> playerElos = new HashMap<>();
-        
-        for (String playerNameConfig : eloConfig.getConfigurationSection("players").getKeys(false)) {
-            // Ignora entradas que parecem ser UUIDs ou hashes (mais de 16 caracteres)
-            if (playerNameConfig.length() > 16) {
-                continue;
-            }
-            
-            int elo = eloConfig.getInt("players." + playerNameConfig + ".elo", 1000);
-            
-            // Tenta encontrar o jogador para pegar o nome com case correto
-            Player player = getPlayer(playerNameConfig);
-            String correctName = playerNameConfig;
-            
-            if (player != null) {
-                correctName = player.getName(); // Pega o nome com case correto
-            } else {
-                // Se o jogador estiver offline, tenta pegar o nome correto do OfflinePlayer
-                OfflinePlayer offlinePlayer = getOfflinePlayer(playerNameConfig);
-                if (offlinePlayer != null && offlinePlayer.hasPlayedBefore()) {
-                    correctName = offlinePlayer.getName();
-                }
-            }
-            
-            playerElos.put(correctName, elo);
-        }
-        
-        if (playerElos.isEmpty()) {
+        // O ranking já está ordenado: os 10 primeiros saem sem ordenar nem consultar jogadores offline
+        List<EloStats> top = plugin.getEloManager().getTop(10);
+        if (top.isEmpty()) {
             sender.sendMessage(ChatColor.GOLD + "=== Top 10 Elo ===");
             sender.sendMessage(ChatColor.YELLOW + "Nenhum jogador encontrado.");
             return;
         }
 
-        List<Map.Entry<String, Integer>> sortedElos = playerElos.entrySet()
-            .stream()
-            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-            .limit(10)
-            .collect(Collectors.toList());
-
         sender.sendMessage("");
         sender.sendMessage(ChatColor.GOLD + "⚔ Top 10 Jogadores");
         sender.sendMessage(ChatColor.GRAY + "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
 
         int position = 1;
-        for (Map.Entry<String, Integer> entry : sortedElos) {
-            String playerName = entry.getKey(); // Nome já está com o case correto
-            int elo = entry.getValue();
+        for (EloStats entry : top) {
+            String playerName = entry.getName(); // Nome com o case visto quando o jogador esteve online
+            int elo = entry.getElo();
             String rank = getRankFromElo(elo);
             String badge = defaultBadges.get(rank);
             
@@ -407,16 +312,12 @@ public class ComandoElo implements CommandExecutor {
 
         try {
             int eloToAdd = Integer.parseInt(amount);
-            String playerNameConfig = player.getName().toLowerCase();
-            int currentElo = eloConfig.getInt("players." + playerNameConfig + ".elo", 1000);
-            String oldRank = getRankFromElo(currentElo);
+            EloManager eloManager = plugin.getEloManager();
+            String oldRank = getRankFromElo(eloManager.getElo(player.getName()));
             
-            int newElo = currentElo + eloToAdd;
+            int newElo = eloManager.addElo(player.getName(), eloToAdd);
             String newRank = getRankFromElo(newElo);
 
-            eloConfig.set("players." + playerNameConfig + ".elo", newElo);
-            saveEloConfig();
-
             sender.sendMessage(ChatColor.GREEN + "Adicionado " + eloToAdd + " pontos de elo para " + playerName);
             player.sendMessage(ChatColor.GREEN + "Você recebeu " + eloToAdd + " pontos de elo!");
             
@@ -449,13 +350,11 @@ public class ComandoElo implements CommandExecutor {
 
         try {
             int newElo = Integer.parseInt(amount);
-            String playerNameConfig = player.getName().toLowerCase();
-            int oldElo = eloConfig.getInt("players." + playerNameConfig + ".elo", 1000);
-            String oldRank = getRankFromElo(oldElo);
+            EloManager eloManager = plugin.getEloManager();
+            String oldRank = getRankFromElo(eloManager.getElo(player.getName()));
             String newRank = getRankFromElo(newElo);
 
-            eloConfig.set("players." + playerNameConfig + ".elo", newElo);
-            saveEloConfig();
+            eloManager.setElo(player.getName(), newElo);
 
             sender.sendMessage(ChatColor.GREEN + "Elo de " + playerName + " definido para " + newElo);
             player.sendMessage(ChatColor.GREEN + "Seu elo foi definido para " + newElo);
@@ -481,13 +380,7 @@ public class ComandoElo implements CommandExecutor {
             return;
         }
 
-        String playerNameConfig = player.getName().toLowerCase();
-        eloConfig.set("players." + playerNameConfig + ".elo", 1000);
-        eloConfig.set("players." + playerNameConfig + ".stats.kills", 0);
-        eloConfig.set("players." + playerNameConfig + ".stats.deaths", 0);
-        eloConfig.set("players." + playerNameConfig + ".stats.wins", 0);
-        eloConfig.set("players." + playerNameConfig + ".stats.losses", 0);
-        saveEloConfig();
+        plugin.getEloManager().reset(player.getName());
 
         sender.sendMessage(ChatColor.GREEN + "Estatísticas de " + playerName + " resetadas");
         player.sendMessage(ChatColor.GREEN + "Suas estatísticas foram resetadas");
@@ -506,9 +399,8 @@ public class ComandoElo implements CommandExecutor {
             return;
         }
 
-        String playerNameConfig = player.getName().toLowerCase();
         int requiredElo = rankRanges.get(rankName);
-        int playerElo = eloConfig.getInt("players." + playerNameConfig + ".elo", 1000);
+        int playerElo = plugin.getEloManager().getElo(player.getName());
         
         if (playerElo < requiredElo) {
             sender.sendMessage(ChatColor.RED + "O jogador precisa ter pelo menos " + requiredElo + 
@@ -517,8 +409,7 @@ public class ComandoElo implements CommandExecutor {
         }
 
         String badge = defaultBadges.get(rankName);
-        eloConfig.set("players." + playerNameConfig + ".badge", badge);
-        saveEloConfig();
+        plugin.getEloManager().setBadge(player.getName(), badge);
 
         sender.sendMessage(ChatColor.GREEN + "Rank de " + playerName + " definido para " + 
                          rankName.substring(0, 1).toUpperCase() + rankName.substring(1) + " " + badge);
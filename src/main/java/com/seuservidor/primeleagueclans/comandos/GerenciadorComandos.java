@@ -8,7 +8,8 @@ import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 
 import com.seuservidor.primeleagueclans.PrimeLeagueClans;
-import com.seuservidor.primeleagueclans.models.Clan;
+import com.seuservidor.primeleagueclans.metrics.PerformanceMonitor;
+import com.seuservidor.primeleagueclans.models.PlayerSession;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -84,16 +85,20 @@ public class GerenciadorComandos implements CommandExecutor, TabCompleter {
     
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
-        // Verificar e sincronizar dados de clã antes de processar o comando
-        if (sender instanceof Player) {
+        // Contexto de clã do jogador resolvido em memória; a conferência com o banco é assíncrona
+        PlayerSession sessao = null;
+        if (sender instanceof Player && plugin.getSessionManager() != null) {
             Player player = (Player) sender;
-            sincronizarDadosClan(player);
+            sessao = plugin.getSessionManager().getSession(player);
+            if (!sessao.isReconciled()) {
+                plugin.getSessionManager().reconcileAsync(player);
+            }
         }
 
         if (args.length == 0) {
             // Se não houver argumentos, executar o comando de ajuda
             if (comandoAjuda != null) {
-                comandoAjuda.executar(sender, args);
+                comandoAjuda.executar(sender, args, sessao);
                 return true;
             }
             // Caso não tenha comando de ajuda, exibir mensagem padrão
@@ -107,7 +112,7 @@ public class GerenciadorComandos implements CommandExecutor, TabCompleter {
         if (subComando == null) {
             // Comando não encontrado, executar ajuda
             if (comandoAjuda != null) {
-                comandoAjuda.executar(sender, args);
+                comandoAjuda.executar(sender, args, sessao);
             } else {
                 sender.sendMessage(ChatColor.RED + "Comando não encontrado. Use /clan ajuda para ver os comandos disponíveis.");
             }
@@ -130,13 +135,22 @@ public class GerenciadorComandos implements CommandExecutor, TabCompleter {
         String[] subArgs = new String[args.length - 1];
         System.arraycopy(args, 1, subArgs, 0, args.length - 1);
         
+        // Tempo do subcomando, só com o monitor de desempenho ligado
+        PerformanceMonitor monitor = plugin.getPerformanceMonitor();
+        boolean medir = monitor != null && monitor.isEnabled();
+        long inicio = medir ? System.nanoTime() : 0L;
+        
         try {
             // Executar o subcomando
-            subComando.executar(sender, subArgs);
+            subComando.executar(sender, subArgs, sessao);
         } catch (Exception e) {
             sender.sendMessage(ChatColor.RED + "Ocorreu um erro ao executar o comando: " + e.getMessage());
             plugin.getLogger().severe("Erro ao executar comando '" + subComandoNome + "': " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            if (medir) {
+                monitor.record(monitor.getStats("/clan " + subComando.getNome()), System.nanoTime() - inicio);
+            }
         }
         
         return true;
@@ -167,112 +181,4 @@ public class GerenciadorComandos implements CommandExecutor, TabCompleter {
         
         return new ArrayList<>();
     }
-
-    /**
-     * Sincroniza os dados de clã do jogador antes de processar comandos.
-     * Este método resolve inconsistências no mapeamento jogador-clã após reload.
-     */
-    private void sincronizarDadosClan(Player player) {
-        String playerName = player.getName();
-        
-        // Obter o ClanManager
-        if (plugin.getClanManager() == null) {
-            return;
-        }
-        
-        // Verificação rápida para jogadores já sincronizados
-        boolean jogadorJaSincronizado = false;
-        
-        // Verificar status no cache
-        try {
-            // Verificar se o jogador está no banco de dados
-            String clanId = plugin.getClanManager().getPlayerClans().get(playerName.toLowerCase());
-            
-            // Se tiver ID de clã no mapa
-            if (clanId != null) {
-                // Verificar se o clã existe
-                Clan clan = plugin.getClanManager().getClanById(clanId);
-                if (clan != null) {
-                    // Garantir que o jogador esteja na lista de membros
-                    if (!clan.isMember(playerName)) {
-                        clan.addMember(playerName);
-                        if (plugin.isDebugMode()) {
-                            plugin.getLogger().info("[Debug] Sincronização: Adicionando " + playerName + " à lista de membros do clã " + clan.getName());
-                        }
-                    } else {
-                        jogadorJaSincronizado = true;
-                    }
-                } else {
-                    // Verificação direta no banco de dados sem atrasos
-                    String dbClanId = plugin.getDatabaseManager().getPlayerClanId(playerName);
-                    if (dbClanId != null) {
-                        // Obter o clã do banco de dados
-                        Clan dbClan = plugin.getDatabaseManager().getClan(dbClanId);
-                        if (dbClan != null) {
-                            // Adicionar ao cache
-                            plugin.getClanManager().getClans().put(dbClanId, dbClan);
-                            plugin.getClanManager().getPlayerClans().put(playerName.toLowerCase(), dbClanId);
-                            if (plugin.isDebugMode()) {
-                                plugin.getLogger().info("[Debug] Sincronização: Carregando clã " + dbClan.getName() + " do banco de dados para o jogador " + playerName);
-                            }
-                        }
-                    } else {
-                        // Clã não existe, remover entrada do jogador
-                        plugin.getClanManager().getPlayerClans().remove(playerName.toLowerCase());
-                        if (plugin.isDebugMode()) {
-                            plugin.getLogger().info("[Debug] Sincronização: Removendo " + playerName + " do mapa de jogadores, clã inexistente");
-                        }
-                    }
-                }
-            } else if (!jogadorJaSincronizado) {
-                // Verificação direta no banco de dados
-                String dbClanId = plugin.getDatabaseManager().getPlayerClanId(playerName);
-                if (dbClanId != null) {
-                    // Jogador tem clã no banco mas não no cache
-                    Clan clan = plugin.getClanManager().getClanById(dbClanId);
-                    if (clan == null) {
-                        // Carregar clã do banco de dados
-                        clan = plugin.getDatabaseManager().getClan(dbClanId);
-                        if (clan != null) {
-                            // Adicionar clã ao cache
-                            plugin.getClanManager().getClans().put(dbClanId, clan);
-                        }
-                    }
-                    
-                    if (clan != null) {
-                        // Adicionar ao mapa e lista de membros
-                        plugin.getClanManager().getPlayerClans().put(playerName.toLowerCase(), dbClanId);
-                        if (!clan.isMember(playerName)) {
-                            clan.addMember(playerName);
-                        }
-                        if (plugin.isDebugMode()) {
-                            plugin.getLogger().info("[Debug] Sincronização: Jogador " + playerName + " adicionado ao mapa e ao clã " + clan.getName() + " do banco de dados");
-                        }
-                    }
-                } else {
-                    // Verificar se o jogador está como membro em algum clã
-                    boolean encontrado = false;
-                    for (Clan clan : plugin.getClanManager().getClans().values()) {
-                        if (clan.isMember(playerName)) {
-                            // Jogador encontrado em um clã, adicionar ao mapa
-                            plugin.getClanManager().getPlayerClans().put(playerName.toLowerCase(), clan.getId());
-                            if (plugin.isDebugMode()) {
-                                plugin.getLogger().info("[Debug] Sincronização: Adicionando " + playerName + " ao mapa de jogadores para o clã " + clan.getName());
-                            }
-                            encontrado = true;
-                            break;
-                        }
-                    }
-                    
-                    if (!encontrado && plugin.isDebugMode()) {
-                        plugin.getLogger().info("[Debug] Sincronização: Jogador " + playerName + " não está em nenhum clã");
-                    }
-                }
-            }
-        } catch (Exception e) {
-            if (plugin.isDebugMode()) {
-                plugin.getLogger().warning("[Debug] Erro ao sincronizar dados de clã para " + playerName + ": " + e.getMessage());
-            }
-        }
-    }
-} 
\ No newline at end of file
+}
@@ -4,6 +4,7 @@ import com.seuservidor.primeleagueclans.PrimeLeagueClans;
 import com.seuservidor.primeleagueclans.comandos.ComandoBase;
 import com.seuservidor.primeleagueclans.managers.ClanManager;
 import com.seuservidor.primeleagueclans.models.Clan;
+import com.seuservidor.primeleagueclans.models.PlayerSession;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
@@ -28,6 +29,11 @@ public class ComandoConvidar extends ComandoBase {
 
     @Override
     public void executar(CommandSender sender, String[] args) {
+        executar(sender, args, getSessao(sender));
+    }
+
+    @Override
+    public void executar(CommandSender sender, String[] args, PlayerSession sessao) {
         Player player = getJogador(sender);
         if (player == null) return;
         
@@ -38,7 +44,7 @@ public class ComandoConvidar extends ComandoBase {
         }
         
         ClanManager clanManager = plugin.getClanManager();
-        Clan clan = clanManager.getPlayerClan(player.getName());
+        Clan clan = sessao.getClan();
         
         // Verificar se o jogador está em um clã
         if (clan == null) {
@@ -4,6 +4,7 @@ import com.seuservidor.primeleagueclans.PrimeLeagueClans;
 import com.seuservidor.primeleagueclans.comandos.ComandoBase;
 import com.seuservidor.primeleagueclans.managers.ClanManager;
 import com.seuservidor.primeleagueclans.models.Clan;
+import com.seuservidor.primeleagueclans.models.PlayerSession;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -29,13 +30,18 @@ public class ComandoCriar extends ComandoBase {
 
     @Override
     public void executar(CommandSender sender, String[] args) {
+        executar(sender, args, getSessao(sender));
+    }
+
+    @Override
+    public void executar(CommandSender sender, String[] args, PlayerSession sessao) {
         Player player = getJogador(sender);
         if (player == null) return;
         
         ClanManager clanManager = plugin.getClanManager();
         
         // Verificar se o jogador já está em um clã
-        if (clanManager.hasClan(player.getName())) {
+        if (sessao.hasClan()) {
             enviarMensagem(sender, "clan.already-in-clan");
             return;
         }
@@ -112,7 +118,7 @@ public class ComandoCriar extends ComandoBase {
             enviarMensagem(sender, "clan.created", name);
             
             // Log
-            plugin.getLogManager().logClanCreation(player.getName(), clan.getName());
+            plugin.getLogManager().logClanCreation(clan.getName(), player.getName());
             
             // Broadcast global se configurado
             if (plugin.getConfig().getBoolean("broadcast.clan-created", true)) {
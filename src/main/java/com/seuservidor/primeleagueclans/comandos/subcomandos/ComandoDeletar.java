@@ -4,7 +4,7 @@ import com.seuservidor.primeleagueclans.PrimeLeagueClans;
 import com.seuservidor.primeleagueclans.comandos.ComandoBase;
 import com.seuservidor.primeleagueclans.managers.ClanManager;
 import com.seuservidor.primeleagueclans.models.Clan;
-import org.bukkit.Bukkit;
+import com.seuservidor.primeleagueclans.models.PlayerSession;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -25,11 +25,16 @@ public class ComandoDeletar extends ComandoBase {
 
     @Override
     public void executar(CommandSender sender, String[] args) {
+        executar(sender, args, getSessao(sender));
+    }
+
+    @Override
+    public void executar(CommandSender sender, String[] args, PlayerSession sessao) {
         Player player = getJogador(sender);
         if (player == null) return;
         
         ClanManager clanManager = plugin.getClanManager();
-        Clan clan = clanManager.getPlayerClan(player.getName());
+        Clan clan = sessao.getClan();
         
         // Verificar se o jogador está em um clã
         if (clan == null) {
@@ -49,12 +54,7 @@ public class ComandoDeletar extends ComandoBase {
             String deleteMessage = plugin.getMessages().getString("clan.deleted", "")
                     .replace("<clan>", clanName);
             
-            for (String member : clan.getMembers()) {
-                Player memberPlayer = Bukkit.getPlayer(member);
-                if (memberPlayer != null) {
-                    memberPlayer.sendMessage(ChatColor.translateAlternateColorCodes('&', deleteMessage));
-                }
-            }
+            clanManager.getPresence().sendMessage(clan, ChatColor.translateAlternateColorCodes('&', deleteMessage));
             
             // Log
             plugin.getLogManager().log("clan.deleted", clanName, player.getName());
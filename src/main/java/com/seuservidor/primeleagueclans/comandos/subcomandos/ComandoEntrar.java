@@ -4,7 +4,7 @@ import com.seuservidor.primeleagueclans.PrimeLeagueClans;
 import com.seuservidor.primeleagueclans.comandos.ComandoBase;
 import com.seuservidor.primeleagueclans.managers.ClanManager;
 import com.seuservidor.primeleagueclans.models.Clan;
-import org.bukkit.Bukkit;
+import com.seuservidor.primeleagueclans.models.PlayerSession;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -28,13 +28,18 @@ public class ComandoEntrar extends ComandoBase {
 
     @Override
     public void executar(CommandSender sender, String[] args) {
+        executar(sender, args, getSessao(sender));
+    }
+
+    @Override
+    public void executar(CommandSender sender, String[] args, PlayerSession sessao) {
         Player player = getJogador(sender);
         if (player == null) return;
         
         ClanManager clanManager = plugin.getClanManager();
         
         // Verificar se o jogador já está em um clã
-        if (clanManager.hasClan(player.getName())) {
+        if (sessao.hasClan()) {
             enviarMensagem(sender, "clan.already-in-clan");
             return;
         }
@@ -72,7 +77,6 @@ public class ComandoEntrar extends ComandoBase {
         
         try {
             // Adicionar jogador ao clã
-            clan.addMember(player.getName());
             clanManager.addMember(clan.getId(), player.getName());
             
             // Remover convite
@@ -119,12 +123,8 @@ public class ComandoEntrar extends ComandoBase {
                         .replace("/%player%/", player.getName())
                         .replace("/player/", player.getName());
                     
-                    for (String member : clan.getMembers()) {
-                        Player memberPlayer = Bukkit.getPlayer(member);
-                        if (memberPlayer != null && !memberPlayer.getName().equals(player.getName())) {
-                            memberPlayer.sendMessage(ChatColor.translateAlternateColorCodes('&', mensagemMembro));
-                        }
-                    }
+                    plugin.getClanManager().getPresence().sendMessage(clan,
+                        ChatColor.translateAlternateColorCodes('&', mensagemMembro), player);
                 }
             } catch (Exception e) {
                 plugin.getLogger().warning("Erro ao notificar membros sobre novo membro: " + e.getMessage());
@@ -159,7 +159,7 @@ public class ComandoEntrar extends ComandoBase {
             plugin.getLogManager().logMemberJoin(clan.getName(), player.getName());
             
             // Salvar alterações
-            plugin.getDatabaseManager().saveClan(clan);
+            plugin.getClanManager().saveClan(clan);
         } catch (Exception e) {
             enviarMensagem(sender, "command-error");
             plugin.getLogger().severe("Erro ao adicionar jogador ao clã: " + e.getMessage());
@@ -4,6 +4,7 @@ import com.seuservidor.primeleagueclans.PrimeLeagueClans;
 import com.seuservidor.primeleagueclans.comandos.ComandoBase;
 import com.seuservidor.primeleagueclans.managers.ClanManager;
 import com.seuservidor.primeleagueclans.models.Clan;
+import com.seuservidor.primeleagueclans.models.PlayerSession;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -27,6 +28,11 @@ public class ComandoInfo extends ComandoBase {
 
     @Override
     public void executar(CommandSender sender, String[] args) {
+        executar(sender, args, getSessao(sender));
+    }
+
+    @Override
+    public void executar(CommandSender sender, String[] args, PlayerSession sessao) {
         ClanManager clanManager = plugin.getClanManager();
         Clan clan;
         
@@ -45,8 +51,7 @@ public class ComandoInfo extends ComandoBase {
             }
         } else if (sender instanceof Player) {
             // Se não foi especificado um clã, usar o clã do jogador
-            Player player = (Player) sender;
-            clan = clanManager.getPlayerClan(player.getName());
+            clan = sessao != null ? sessao.getClan() : null;
             
             if (clan == null) {
                 enviarMensagem(sender, "clan.not-in-clan");
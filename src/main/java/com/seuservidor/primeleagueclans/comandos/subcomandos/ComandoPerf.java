@@ -0,0 +1,146 @@
+package com.seuservidor.primeleagueclans.comandos.subcomandos;
+
+import com.seuservidor.primeleagueclans.PrimeLeagueClans;
+import com.seuservidor.primeleagueclans.comandos.ComandoBase;
+import com.seuservidor.primeleagueclans.listeners.CombatListener;
+import com.seuservidor.primeleagueclans.managers.ClanSaveQueue;
+import com.seuservidor.primeleagueclans.metrics.PerformanceMonitor;
+import com.seuservidor.primeleagueclans.metrics.SqlProfiler;
+import com.seuservidor.primeleagueclans.metrics.TimingStats;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Comando administrativo que mostra onde o plugin gasta tempo: thread principal por tick,
+ * listeners e subcomandos mais custosos, comandos SQL, combate e fila de salvamento.
+ *
+ * Uso: /clan perf [ligar|desligar|limpar]
+ */
+public class ComandoPerf extends ComandoBase {
+    private static final String PERMISSAO = "primeleagueclans.admin.perf";
+    private static final int TOP = 10;
+    private static final int TOP_SQL = 5;
+    private static final int SQL_LENGTH = 60;
+
+    /**
+     * Construtor.
+     *
+     * @param plugin Instância do plugin
+     */
+    public ComandoPerf(PrimeLeagueClans plugin) {
+        super(plugin, "perf", false);
+    }
+
+    @Override
+    public boolean temPermissao(CommandSender sender) {
+        return sender.hasPermission(PERMISSAO);
+    }
+
+    @Override
+    public void executar(CommandSender sender, String[] args) {
+        PerformanceMonitor monitor = plugin.getPerformanceMonitor();
+        if (monitor == null) {
+            sender.sendMessage(ChatColor.RED + "O monitor de desempenho está indisponível no momento.");
+            return;
+        }
+
+        if (args.length > 0) {
+            switch (args[0].toLowerCase()) {
+                case "ligar":
+                    monitor.setEnabled(true);
+                    sender.sendMessage(ChatColor.GREEN + "Monitor de desempenho ligado.");
+                    return;
+                case "desligar":
+                    monitor.setEnabled(false);
+                    sender.sendMessage(ChatColor.YELLOW + "Monitor de desempenho desligado; as medições foram mantidas.");
+                    return;
+                case "limpar":
+                    monitor.reset();
+                    sender.sendMessage(ChatColor.GREEN + "Medições de desempenho zeradas.");
+                    return;
+                default:
+                    sender.sendMessage(ChatColor.RED + "Uso: " + getUso());
+                    return;
+            }
+        }
+
+        mostrarRelatorio(sender, monitor);
+    }
+
+    private void mostrarRelatorio(CommandSender sender, PerformanceMonitor monitor) {
+        String desde = new SimpleDateFormat("dd/MM HH:mm").format(new Date(monitor.getSince()));
+        sender.sendMessage(ChatColor.GOLD + "=== Desempenho do PrimeLeagueClans (desde " + desde + ") ===");
+        sender.sendMessage(ChatColor.YELLOW + "Monitor: " + (monitor.isEnabled()
+            ? ChatColor.GREEN + "ligado"
+            : ChatColor.RED + "desligado" + ChatColor.GRAY + " (/clan perf ligar)"));
+
+        TimingStats tick = monitor.getTickStats();
+        if (tick.getCount() > 0) {
+            sender.sendMessage(ChatColor.YELLOW + "Thread principal por tick: " + ChatColor.WHITE
+                + "média " + PerformanceMonitor.formatNanos(tick.getAverageNanos())
+                + ", p99 " + PerformanceMonitor.formatNanos(tick.getPercentileNanos(0.99))
+                + ", máx " + PerformanceMonitor.formatNanos(tick.getMaxNanos())
+                + ChatColor.GRAY + " (" + tick.getCount() + " ticks)");
+        }
+
+        List<TimingStats> top = monitor.getTop(TOP);
+        if (top.isEmpty()) {
+            sender.sendMessage(ChatColor.GRAY + "Nenhuma medição registrada.");
+        } else {
+            sender.sendMessage(ChatColor.YELLOW + "Mais custosos (tempo total):");
+            int posicao = 1;
+            for (TimingStats entry : top) {
+                sender.sendMessage(ChatColor.GOLD + " " + posicao++ + ". " + ChatColor.WHITE + PerformanceMonitor.describe(entry));
+            }
+        }
+
+        SqlProfiler sql = monitor.getSqlProfiler();
+        List<SqlProfiler.SqlStats> topSql = sql.getTop(TOP_SQL);
+        if (!topSql.isEmpty()) {
+            sender.sendMessage(ChatColor.YELLOW + "SQL mais custoso (tempo total):");
+            int posicao = 1;
+            for (SqlProfiler.SqlStats entry : topSql) {
+                sender.sendMessage(ChatColor.GOLD + " " + posicao++ + ". " + ChatColor.WHITE + SqlProfiler.describe(entry, SQL_LENGTH));
+            }
+        }
+        if (sql.getSlowThresholdNanos() > 0 && sql.getSlowCount() > 0) {
+            sender.sendMessage(ChatColor.YELLOW + "Comandos SQL lentos: " + ChatColor.WHITE + sql.getSlowCount()
+                + " acima de " + PerformanceMonitor.formatNanos(sql.getSlowThresholdNanos()) + ChatColor.GRAY + " (slow-queries.log)");
+        }
+
+        // Contadores próprios do combate, medidos mesmo com o monitor desligado
+        CombatListener combate = plugin.getCombatListener();
+        if (combate != null) {
+            sender.sendMessage(ChatColor.YELLOW + "Combate: " + ChatColor.WHITE
+                + combate.getDamageEvents() + " golpes (média " + PerformanceMonitor.formatNanos(combate.getAverageDamageNanos()) + "), "
+                + combate.getDeathEvents() + " mortes (média " + PerformanceMonitor.formatNanos(combate.getAverageDeathNanos()) + ")");
+        }
+
+        ClanSaveQueue fila = plugin.getClanManager() != null ? plugin.getClanManager().getSaveQueue() : null;
+        if (fila != null) {
+            sender.sendMessage(ChatColor.YELLOW + "Fila de salvamento: " + ChatColor.WHITE
+                + fila.getSavesRequested() + " pedidos, " + fila.getSavesExecuted() + " gravações, "
+                + fila.getSavesFailed() + " falhas, " + fila.getPendingCount() + " pendentes");
+        }
+    }
+
+    @Override
+    public List<String> getAutoCompletar(CommandSender sender, String[] args) {
+        if (args.length == 1) {
+            List<String> sugestoes = new ArrayList<>();
+            for (String opcao : Arrays.asList("ligar", "desligar", "limpar")) {
+                if (opcao.startsWith(args[0].toLowerCase())) {
+                    sugestoes.add(opcao);
+                }
+            }
+            return sugestoes;
+        }
+        return super.getAutoCompletar(sender, args);
+    }
+}
@@ -4,7 +4,7 @@ import com.seuservidor.primeleagueclans.PrimeLeagueClans;
 import com.seuservidor.primeleagueclans.comandos.ComandoBase;
 import com.seuservidor.primeleagueclans.managers.ClanManager;
 import com.seuservidor.primeleagueclans.models.Clan;
-import org.bukkit.Bukkit;
+import com.seuservidor.primeleagueclans.models.PlayerSession;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -25,11 +25,16 @@ public class ComandoSair extends ComandoBase {
 
     @Override
     public void executar(CommandSender sender, String[] args) {
+        executar(sender, args, getSessao(sender));
+    }
+
+    @Override
+    public void executar(CommandSender sender, String[] args, PlayerSession sessao) {
         Player player = getJogador(sender);
         if (player == null) return;
         
         ClanManager clanManager = plugin.getClanManager();
-        Clan clan = clanManager.getPlayerClan(player.getName());
+        Clan clan = sessao.getClan();
         
         // Verificar se o jogador está em um clã
         if (clan == null) {
@@ -47,7 +52,7 @@ public class ComandoSair extends ComandoBase {
         String clanName = clan.getName();
         String clanTag = clan.getTag();
         try {
-            clan.removeMember(player.getName());
+            // Sai da lista de membros e do mapa de jogadores de uma vez
             clanManager.removePlayerClan(player.getName());
             
             // Notificar o jogador com a tag do clã
@@ -65,18 +70,13 @@ public class ComandoSair extends ComandoBase {
             String memberLeftMessage = plugin.getMessages().getString("clan.member-left", "")
                     .replace("<player>", player.getName());
             
-            for (String member : clan.getMembers()) {
-                Player memberPlayer = Bukkit.getPlayer(member);
-                if (memberPlayer != null) {
-                    memberPlayer.sendMessage(ChatColor.translateAlternateColorCodes('&', memberLeftMessage));
-                }
-            }
+            plugin.getClanManager().getPresence().sendMessage(clan, ChatColor.translateAlternateColorCodes('&', memberLeftMessage));
             
             // Log
             plugin.getLogManager().log("clan.member-left", clanName, player.getName());
             
             // Salvar alterações
-            plugin.getDatabaseManager().saveClan(clan);
+            plugin.getClanManager().saveClan(clan);
         } catch (Exception e) {
             enviarMensagem(sender, "command-error");
             plugin.getLogger().severe("Erro ao remover jogador do clã: " + e.getMessage());
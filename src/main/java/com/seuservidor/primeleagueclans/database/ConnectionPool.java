@@ -0,0 +1,340 @@
+package com.seuservidor.primeleagueclans.database;
+
+import com.seuservidor.primeleagueclans.PrimeLeagueClans;
+import com.seuservidor.primeleagueclans.metrics.PerformanceMonitor;
+import com.seuservidor.primeleagueclans.metrics.SqlProfiler;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool de conexões JDBC para SQLite e MySQL.
+ *
+ * O número de conexões emprestadas é limitado por {@code database.pool.max-size}; quem pede uma
+ * conexão com o pool cheio espera até {@code database.pool.borrow-timeout} milissegundos. As
+ * conexões ociosas são validadas em segundo plano a cada {@code database.pool.validation-interval}
+ * segundos, e conexões presas por mais de {@code database.pool.leak-threshold} segundos são
+ * reportadas como possível vazamento.
+ *
+ * As conexões entregues são proxies: {@code close()} devolve a conexão física ao pool. Os comandos
+ * criados por elas são medidos pelo {@link SqlProfiler} do monitor de desempenho, quando ativo.
+ */
+public class ConnectionPool {
+    private static final int VALIDATION_TIMEOUT = 2; // segundos
+
+    private final PrimeLeagueClans plugin;
+    private final String name;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final List<String> initStatements;
+
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final SqlProfiler profiler;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<Connection> idle = new LinkedBlockingDeque<>();
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    // Estatísticas
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong discardedCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+
+    public ConnectionPool(PrimeLeagueClans plugin, String name, String url, String username, String password, List<String> initStatements) {
+        FileConfiguration config = plugin.getConfig();
+        this.plugin = plugin;
+        this.name = name;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.initStatements = initStatements != null ? new ArrayList<>(initStatements) : new ArrayList<String>();
+        this.maxSize = Math.max(1, config.getInt("database.pool.max-size", 4));
+        this.borrowTimeoutMillis = Math.max(1L, config.getLong("database.pool.borrow-timeout", 5000));
+        this.leakThresholdMillis = Math.max(1L, config.getLong("database.pool.leak-threshold", 30)) * 1000L;
+        long validationInterval = Math.max(1L, config.getLong("database.pool.validation-interval", 30));
+        PerformanceMonitor monitor = plugin.getPerformanceMonitor();
+        this.profiler = monitor != null && monitor.getSqlProfiler().isEnabled() ? monitor.getSqlProfiler() : null;
+
+        this.permits = new Semaphore(maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "PrimeLeagueClans-Pool-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::validateIdle, validationInterval, validationInterval, TimeUnit.SECONDS);
+        this.housekeeper.scheduleWithFixedDelay(this::detectLeaks, leakThresholdMillis, leakThresholdMillis / 2, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Empresta uma conexão do pool. A conexão deve ser fechada (try-with-resources) para voltar ao pool.
+     *
+     * @return Conexão pronta para uso, com auto-commit ativo
+     * @throws SQLException Se o pool estiver fechado, esgotado além do tempo limite ou não conseguir conectar
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Pool de conexões " + name + " está fechado");
+        }
+
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLTimeoutException("Tempo esgotado aguardando conexão do pool " + name +
+                    " (" + maxSize + " conexões em uso)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido aguardando conexão do pool " + name, e);
+        }
+
+        try {
+            Connection physical = idle.pollFirst();
+            if (physical == null) {
+                physical = createConnection();
+            }
+
+            Lease lease = new Lease(physical);
+            leases.add(lease);
+            borrowCount.incrementAndGet();
+            return lease.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Fecha todas as conexões ociosas e impede novos empréstimos. Conexões ainda emprestadas
+     * são fechadas quando devolvidas.
+     */
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+
+        Connection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            closeQuietly(connection);
+        }
+
+        if (!leases.isEmpty()) {
+            plugin.getLogger().warning("Pool " + name + " fechado com " + leases.size() + " conexões ainda emprestadas");
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getActiveCount() {
+        return leases.size();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    public long getDiscardedCount() {
+        return discardedCount.get();
+    }
+
+    public long getLeakCount() {
+        return leakCount.get();
+    }
+
+    private Connection createConnection() throws SQLException {
+        Connection connection = username != null
+            ? DriverManager.getConnection(url, username, password)
+            : DriverManager.getConnection(url);
+
+        if (!initStatements.isEmpty()) {
+            try (Statement stmt = connection.createStatement()) {
+                for (String sql : initStatements) {
+                    stmt.execute(sql);
+                }
+            } catch (SQLException e) {
+                closeQuietly(connection);
+                throw e;
+            }
+        }
+
+        createdCount.incrementAndGet();
+        if (plugin.isDebugMode()) {
+            plugin.getLogger().info("[Debug] Nova conexão criada no pool " + name + " (total criadas: " + createdCount.get() + ")");
+        }
+        return connection;
+    }
+
+    private void release(Lease lease) {
+        leases.remove(lease);
+        Connection physical = lease.physical;
+
+        try {
+            boolean reusable = !closed && !physical.isClosed();
+            if (reusable && !physical.getAutoCommit()) {
+                // Transação esquecida aberta: descartar o que não foi confirmado
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+
+            if (reusable && idle.size() < maxSize) {
+                idle.offerFirst(physical);
+            } else {
+                discard(physical);
+            }
+        } catch (SQLException e) {
+            discard(physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void validateIdle() {
+        int count = idle.size();
+        for (int i = 0; i < count; i++) {
+            // Retirar do fim (as mais antigas) e devolver ao fim, sem disputar com empréstimos pelo início
+            Connection connection = idle.pollLast();
+            if (connection == null) {
+                return;
+            }
+
+            boolean valid;
+            try {
+                valid = connection.isValid(VALIDATION_TIMEOUT);
+            } catch (SQLException e) {
+                valid = false;
+            }
+
+            if (valid && !closed) {
+                idle.offerLast(connection);
+            } else {
+                discard(connection);
+                if (plugin.isDebugMode()) {
+                    plugin.getLogger().info("[Debug] Conexão ociosa inválida descartada do pool " + name);
+                }
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        long now = System.currentTimeMillis();
+        for (Lease lease : leases) {
+            if (!lease.leakReported && now - lease.borrowedAt > leakThresholdMillis) {
+                lease.leakReported = true;
+                leakCount.incrementAndGet();
+                plugin.getLogger().warning("Possível vazamento de conexão no pool " + name + ": emprestada há " +
+                    ((now - lease.borrowedAt) / 1000L) + "s pela thread " + lease.threadName);
+                if (lease.origin != null) {
+                    StringBuilder trace = new StringBuilder("[Debug] Origem do empréstimo:");
+                    for (StackTraceElement element : lease.origin) {
+                        trace.append("\n    at ").append(element);
+                    }
+                    plugin.getLogger().warning(trace.toString());
+                }
+            }
+        }
+    }
+
+    private void discard(Connection connection) {
+        discardedCount.incrementAndGet();
+        closeQuietly(connection);
+    }
+
+    private void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // Conexão já inutilizada
+        }
+    }
+
+    /**
+     * Empréstimo de uma conexão física, entregue ao chamador como proxy.
+     */
+    private class Lease implements InvocationHandler {
+        private final Connection physical;
+        private final Connection proxy;
+        private final long borrowedAt = System.currentTimeMillis();
+        private final String threadName = Thread.currentThread().getName();
+        // A pilha de chamadas só é capturada em modo debug para não pesar em cada empréstimo
+        private final StackTraceElement[] origin = plugin.isDebugMode() ? new Throwable().getStackTrace() : null;
+        private final AtomicBoolean returned = new AtomicBoolean();
+        private volatile boolean leakReported;
+
+        Lease(Connection physical) {
+            this.physical = physical;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + name + "]";
+                default:
+                    if (returned.get()) {
+                        throw new SQLException("Conexão já devolvida ao pool " + name);
+                    }
+                    try {
+                        Object result = method.invoke(physical, args);
+                        if (profiler != null && result instanceof Statement) {
+                            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                            return ProfiledStatement.wrap(profiler, method.getReturnType(), (Statement) result, sql);
+                        }
+                        return result;
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -6,13 +6,14 @@ import org.bukkit.configuration.file.FileConfiguration;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 public class DatabaseManager {
     private final PrimeLeagueClans plugin;
     private final String type;
-    private Connection connection;
+    private ConnectionPool pool;
     private final String tablePrefix;
 
     public DatabaseManager(PrimeLeagueClans plugin) {
@@ -45,12 +46,13 @@ public class DatabaseManager {
         String password = config.getString("database.mysql.password");
 
         String url = String.format("jdbc:mysql://%s:%d/%s", host, port, database);
-        connection = DriverManager.getConnection(url, username, password);
+        pool = new ConnectionPool(plugin, "mysql", url, username, password, null);
     }
 
     private void initializeSQLite() throws SQLException {
         String url = "jdbc:sqlite:" + plugin.getDataFolder() + "/database.db";
-        connection = DriverManager.getConnection(url);
+        pool = new ConnectionPool(plugin, "sqlite", url, null, null,
+            Arrays.asList("PRAGMA journal_mode=WAL", "PRAGMA busy_timeout=5000"));
     }
 
     private void createTables() throws SQLException {
@@ -120,7 +122,8 @@ public class DatabaseManager {
             ")", tablePrefix, tablePrefix
         );
 
-        try (Statement stmt = connection.createStatement()) {
+        try (Connection connection = pool.getConnection();
+             Statement stmt = connection.createStatement()) {
             // Executar criação das tabelas
             stmt.execute(createClansTable);
             if (plugin.isDebugMode()) {
@@ -178,7 +181,8 @@ public class DatabaseManager {
                 tablePrefix
             );
 
-            try (PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            try (Connection connection = pool.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
                 stmt.setString(1, clan.getName());
                 stmt.setString(2, clan.getTag());
                 stmt.setString(3, clan.getLeader());
@@ -204,16 +208,16 @@ public class DatabaseManager {
                         }
                         
                         // Salvar membros
-                        saveClanMembers(clan);
+                        saveClanMembers(connection, clan);
                         
                         // Salvar aliados
                         for (String ally : clan.getAllies()) {
-                            insertAlly(clan.getId(), ally);
+                            insertAlly(connection, clan.getId(), ally);
                         }
                         
                         // Salvar inimigos
                         for (String enemy : clan.getEnemies()) {
-                            insertEnemy(clan.getId(), enemy);
+                            insertEnemy(connection, clan.getId(), enemy);
                         }
                         
                         return true;
@@ -229,7 +233,7 @@ public class DatabaseManager {
         return false;
     }
 
-    private void saveClanMembers(Clan clan) throws SQLException {
+    private void saveClanMembers(Connection connection, Clan clan) throws SQLException {
         if (plugin.isDebugMode()) {
             plugin.getLogger().info("[Debug] Iniciando salvamento de membros para o clã " + clan.getName());
             plugin.getLogger().info("[Debug] ID do clã: " + clan.getId());
@@ -286,7 +290,7 @@ public class DatabaseManager {
         }
     }
 
-    private void insertAlly(String clanId, String allyClanName) throws SQLException {
+    private void insertAlly(Connection connection, String clanId, String allyClanName) throws SQLException {
         String sql = String.format(
             "INSERT INTO %sallies (clan_id, ally_clan_name) VALUES (?, ?)",
             tablePrefix
@@ -302,7 +306,7 @@ public class DatabaseManager {
         }
     }
 
-    private void insertEnemy(String clanId, String enemyClanName) throws SQLException {
+    private void insertEnemy(Connection connection, String clanId, String enemyClanName) throws SQLException {
         String sql = String.format(
             "INSERT INTO %senemies (clan_id, enemy_clan_name) VALUES (?, ?)",
             tablePrefix
@@ -318,7 +322,7 @@ public class DatabaseManager {
         }
     }
 
-    private void deleteMembers(String clanId) throws SQLException {
+    private void deleteMembers(Connection connection, String clanId) throws SQLException {
         String sql = String.format("DELETE FROM %smembers WHERE clan_id = ?", tablePrefix);
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, Integer.parseInt(clanId));
@@ -330,7 +334,7 @@ public class DatabaseManager {
         }
     }
 
-    private void deleteAllies(String clanId) throws SQLException {
+    private void deleteAllies(Connection connection, String clanId) throws SQLException {
         String sql = String.format("DELETE FROM %sallies WHERE clan_id = ?", tablePrefix);
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, Integer.parseInt(clanId));
@@ -342,7 +346,7 @@ public class DatabaseManager {
         }
     }
 
-    private void deleteEnemies(String clanId) throws SQLException {
+    private void deleteEnemies(Connection connection, String clanId) throws SQLException {
         String sql = String.format("DELETE FROM %senemies WHERE clan_id = ?", tablePrefix);
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, Integer.parseInt(clanId));
@@ -366,7 +370,8 @@ public class DatabaseManager {
                 tablePrefix
             );
 
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            try (Connection connection = pool.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
                 stmt.setString(1, clan.getName());
                 stmt.setString(2, clan.getTag());
                 stmt.setString(3, clan.getLeader());
@@ -386,19 +391,19 @@ public class DatabaseManager {
                 }
 
                 // Atualizar membros
-                deleteMembers(clan.getId());
-                saveClanMembers(clan);
+                deleteMembers(connection, clan.getId());
+                saveClanMembers(connection, clan);
 
                 // Atualizar aliados
-                deleteAllies(clan.getId());
+                deleteAllies(connection, clan.getId());
                 for (String ally : clan.getAllies()) {
-                    insertAlly(clan.getId(), ally);
+                    insertAlly(connection, clan.getId(), ally);
                 }
 
                 // Atualizar inimigos
-                deleteEnemies(clan.getId());
+                deleteEnemies(connection, clan.getId());
                 for (String enemy : clan.getEnemies()) {
-                    insertEnemy(clan.getId(), enemy);
+                    insertEnemy(connection, clan.getId(), enemy);
                 }
             }
         } catch (SQLException e) {
@@ -416,7 +421,8 @@ public class DatabaseManager {
             }
 
             String sql = String.format("DELETE FROM %sclans WHERE id = ?", tablePrefix);
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            try (Connection connection = pool.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
                 stmt.setInt(1, Integer.parseInt(clanId));
                 int affectedRows = stmt.executeUpdate();
                 
@@ -436,7 +442,8 @@ public class DatabaseManager {
         List<Clan> clanList = new ArrayList<>();
         try {
             String sql = String.format("SELECT * FROM %sclans", tablePrefix);
-            try (PreparedStatement stmt = connection.prepareStatement(sql);
+            try (Connection connection = pool.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql);
                  ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     Clan clan = new Clan(
@@ -459,13 +466,13 @@ public class DatabaseManager {
                     }
                     
                     // Carregar membros
-                    loadMembers(clan);
+                    loadMembers(connection, clan);
                     
                     // Carregar aliados
-                    loadAllies(clan);
+                    loadAllies(connection, clan);
                     
                     // Carregar inimigos
-                    loadEnemies(clan);
+                    loadEnemies(connection, clan);
                     
                     clanList.add(clan);
                 }
@@ -479,7 +486,7 @@ public class DatabaseManager {
         return clanList;
     }
 
-    private void loadMembers(Clan clan) throws SQLException {
+    private void loadMembers(Connection connection, Clan clan) throws SQLException {
         if (plugin.isDebugMode()) {
             plugin.getLogger().info("[Debug] Carregando membros do clã " + clan.getName() + " (ID: " + clan.getId() + ")");
         }
@@ -540,7 +547,7 @@ public class DatabaseManager {
         }
     }
 
-    private void loadAllies(Clan clan) throws SQLException {
+    private void loadAllies(Connection connection, Clan clan) throws SQLException {
         String sql = String.format("SELECT * FROM %sallies WHERE clan_id = ?", tablePrefix);
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, Integer.parseInt(clan.getId()));
@@ -552,7 +559,7 @@ public class DatabaseManager {
         }
     }
 
-    private void loadEnemies(Clan clan) throws SQLException {
+    private void loadEnemies(Connection connection, Clan clan) throws SQLException {
         String sql = String.format("SELECT * FROM %senemies WHERE clan_id = ?", tablePrefix);
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, Integer.parseInt(clan.getId()));
@@ -565,12 +572,9 @@ public class DatabaseManager {
     }
 
     public void close() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            plugin.getPluginLogger().severe("Erro ao fechar conexão com o banco de dados: " + e.getMessage());
+        if (pool != null) {
+            pool.close();
+            pool = null;
         }
     }
 
@@ -592,17 +596,10 @@ public class DatabaseManager {
     public void saveAll() {
         if (plugin.isDebugMode()) {
             plugin.getLogger().info("[Debug] Iniciando salvamento de todos os clãs no banco de dados");
-            try {
-                plugin.getLogger().info("[Debug] Estado da conexão: " + (connection != null && !connection.isClosed()));
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Erro ao verificar estado da conexão: " + e.getMessage());
-                if (plugin.isDebugMode()) {
-                    e.printStackTrace();
-                }
-            }
+            plugin.getLogger().info("[Debug] Estado da conexão: " + (pool != null));
         }
 
-        if (connection == null) {
+        if (pool == null) {
             plugin.getLogger().severe("Conexão com banco de dados não inicializada");
             return;
         }
@@ -638,14 +635,7 @@ public class DatabaseManager {
 
         if (plugin.isDebugMode()) {
             plugin.getLogger().info("[Debug] Processo de salvamento concluído");
-            try {
-                plugin.getLogger().info("[Debug] Estado final da conexão: " + (connection != null && !connection.isClosed()));
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Erro ao verificar estado final da conexão: " + e.getMessage());
-                if (plugin.isDebugMode()) {
-                    e.printStackTrace();
-                }
-            }
+            plugin.getLogger().info("[Debug] Conexões no pool - ativas: " + pool.getActiveCount() + ", ociosas: " + pool.getIdleCount());
         }
     }
 } 
\ No newline at end of file
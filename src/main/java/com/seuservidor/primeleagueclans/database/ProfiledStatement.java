@@ -0,0 +1,202 @@
+package com.seuservidor.primeleagueclans.database;
+
+import com.seuservidor.primeleagueclans.metrics.SqlProfiler;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Decorador de Statement, PreparedStatement e CallableStatement que mede cada execução no
+ * {@link SqlProfiler}.
+ *
+ * Em consultas, o tempo e as linhas incluem a leitura do ResultSet, porque o SQLite só percorre
+ * as linhas a cada {@code next()}; a medição é fechada quando o ResultSet se esgota ou é fechado,
+ * ou quando o comando é executado de novo ou fechado.
+ */
+class ProfiledStatement implements InvocationHandler {
+    private final SqlProfiler profiler;
+    private final Statement physical;
+    private final SqlProfiler.SqlStats prepared;
+    // Modelo do primeiro addBatch(String) de um Statement simples
+    private SqlProfiler.SqlStats batch;
+    private Query open;
+
+    private ProfiledStatement(SqlProfiler profiler, Statement physical, SqlProfiler.SqlStats prepared) {
+        this.profiler = profiler;
+        this.physical = physical;
+        this.prepared = prepared;
+    }
+
+    /**
+     * @param type Interface devolvida pela conexão (Statement, PreparedStatement ou CallableStatement)
+     * @param sql SQL do comando preparado, ou null para um Statement simples
+     */
+    static Statement wrap(SqlProfiler profiler, Class<?> type, Statement physical, String sql) {
+        ProfiledStatement handler = new ProfiledStatement(profiler, physical, sql != null ? profiler.statsFor(sql, false) : null);
+        return (Statement) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "execute":
+            case "executeQuery":
+            case "executeUpdate":
+            case "executeLargeUpdate":
+            case "executeBatch":
+                return execute(method, args);
+            case "addBatch":
+                if (batch == null && args != null && args.length == 1 && args[0] instanceof String) {
+                    batch = profiler.statsFor((String) args[0], true);
+                }
+                break;
+            case "clearBatch":
+                batch = null;
+                break;
+            case "close":
+                finishQuery();
+                break;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                break;
+        }
+        return call(physical, method, args);
+    }
+
+    private Object execute(Method method, Object[] args) throws Throwable {
+        finishQuery();
+
+        SqlProfiler.SqlStats entry;
+        if (args != null && args.length > 0 && args[0] instanceof String) {
+            entry = profiler.statsFor((String) args[0], true);
+        } else if (batch != null && method.getName().equals("executeBatch")) {
+            entry = batch;
+            batch = null;
+        } else {
+            entry = prepared;
+        }
+        if (entry == null) {
+            return call(physical, method, args);
+        }
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = call(physical, method, args);
+        } catch (Throwable t) {
+            profiler.record(entry, System.nanoTime() - start, 0L, true);
+            throw t;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (result instanceof ResultSet) {
+            open = new Query(entry, elapsed, (ResultSet) result);
+            return open.proxy;
+        }
+        profiler.record(entry, elapsed, rows(result), false);
+        return result;
+    }
+
+    private void finishQuery() {
+        if (open != null) {
+            open.finish(false);
+            open = null;
+        }
+    }
+
+    private static long rows(Object result) {
+        if (result instanceof Integer || result instanceof Long) {
+            return Math.max(0L, ((Number) result).longValue());
+        }
+        long rows = 0L;
+        if (result instanceof int[]) {
+            // Valores negativos são SUCCESS_NO_INFO ou EXECUTE_FAILED
+            for (int count : (int[]) result) {
+                rows += Math.max(0, count);
+            }
+        } else if (result instanceof long[]) {
+            for (long count : (long[]) result) {
+                rows += Math.max(0L, count);
+            }
+        }
+        return rows;
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * ResultSet de uma consulta ainda não medida: soma o tempo gasto em {@code next()} e as linhas lidas.
+     */
+    private class Query implements InvocationHandler {
+        private final SqlProfiler.SqlStats entry;
+        private final ResultSet physical;
+        private final ResultSet proxy;
+        private long nanos;
+        private long rows;
+        private boolean finished;
+
+        Query(SqlProfiler.SqlStats entry, long nanos, ResultSet physical) {
+            this.entry = entry;
+            this.nanos = nanos;
+            this.physical = physical;
+            this.proxy = (ResultSet) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{ResultSet.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    if (finished) {
+                        return call(physical, method, args);
+                    }
+                    long start = System.nanoTime();
+                    boolean hasRow;
+                    try {
+                        hasRow = (Boolean) call(physical, method, args);
+                    } catch (Throwable t) {
+                        nanos += System.nanoTime() - start;
+                        finish(true);
+                        throw t;
+                    }
+                    nanos += System.nanoTime() - start;
+                    if (hasRow) {
+                        rows++;
+                    } else {
+                        finish(false);
+                    }
+                    return hasRow;
+                case "close":
+                    finish(false);
+                    return call(physical, method, args);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return call(physical, method, args);
+            }
+        }
+
+        void finish(boolean failed) {
+            if (!finished) {
+                finished = true;
+                profiler.record(entry, nanos, rows, failed);
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.seuservidor.primeleagueclans.events;
+
+import com.seuservidor.primeleagueclans.models.Clan;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Disparado na thread principal quando um clã sobe de nível.
+ *
+ * O XP de blocos é aplicado em lotes pelo XpAccumulator, então um único evento pode cobrir
+ * vários níveis de uma vez.
+ */
+public class ClanLevelUpEvent extends Event {
+    private static final HandlerList handlers = new HandlerList();
+
+    private final Clan clan;
+    private final int oldLevel;
+    private final int newLevel;
+
+    public ClanLevelUpEvent(Clan clan, int oldLevel, int newLevel) {
+        this.clan = clan;
+        this.oldLevel = oldLevel;
+        this.newLevel = newLevel;
+    }
+
+    public Clan getClan() {
+        return clan;
+    }
+
+    public int getOldLevel() {
+        return oldLevel;
+    }
+
+    public int getNewLevel() {
+        return newLevel;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return handlers;
+    }
+
+    public static HandlerList getHandlerList() {
+        return handlers;
+    }
+}
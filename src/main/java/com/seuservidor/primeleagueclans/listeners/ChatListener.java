@@ -3,6 +3,7 @@ package com.seuservidor.primeleagueclans.listeners;
 import br.com.devpaulo.legendchat.api.events.ChatMessageEvent;
 import com.seuservidor.primeleagueclans.PrimeLeagueClans;
 import com.seuservidor.primeleagueclans.models.Clan;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 
@@ -16,22 +17,23 @@ public class ChatListener implements Listener {
     @EventHandler
     public void onChat(ChatMessageEvent event) {
         if (event.getTags().contains("clan")) {
-            String playerName = event.getSender().getName();
-            Clan clan = plugin.getClanManager().getPlayerClan(playerName);
+            Player sender = event.getSender();
+            Clan clan = plugin.getSessionManager().getSession(sender).getClan();
             
             if (clan != null) {
-                String clanTag = String.format("&7[&6%s&7]&r", clan.getTag());
+                // Tag renderizada uma vez por clã; aqui só é lida
+                String clanTag = clan.getChatTag().getLegendChatTag();
                 event.setTagValue("clan", clanTag);
                 
                 if (plugin.isDebugMode()) {
-                    plugin.getLogger().info("[Debug] Tag do clã definida para " + playerName + ": " + clanTag);
+                    plugin.getLogger().info("[Debug] Tag do clã definida para " + sender.getName() + ": " + clanTag);
                 }
             } else {
                 // Se o jogador não tem clã, não mostrar nada
                 event.setTagValue("clan", "");
                 
                 if (plugin.isDebugMode()) {
-                    plugin.getLogger().info("[Debug] Jogador " + playerName + " não tem clã");
+                    plugin.getLogger().info("[Debug] Jogador " + sender.getName() + " não tem clã");
                 }
             }
         }
@@ -1,86 +1,135 @@
 package com.seuservidor.primeleagueclans.listeners;
 
 import com.seuservidor.primeleagueclans.PrimeLeagueClans;
+import com.seuservidor.primeleagueclans.managers.PlayerSessionManager;
+import com.seuservidor.primeleagueclans.managers.RelationMatrix;
 import com.seuservidor.primeleagueclans.models.Clan;
+import com.seuservidor.primeleagueclans.models.PlayerSession;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
-import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
 
+/**
+ * Único ponto de processamento de combate entre jogadores.
+ *
+ * Cada evento resolve os clãs do atacante e da vítima uma única vez, pelas sessões, e aplica as
+ * regras de {@code combat.*} em uma passada. Alianças e inimizades vêm da RelationMatrix, pelo
+ * índice de clã guardado em cada sessão. O tempo gasto por evento fica disponível nos contadores
+ * abaixo.
+ */
 public class CombatListener implements Listener {
     private final PrimeLeagueClans plugin;
 
+    private final boolean preventAllyDamage;
+    private final int killXp;
+    private final int enemyKillXp;
+    private final int deathXp;
+    private final boolean countSameClanKills;
+
+    // Acessados apenas na thread principal
+    private long damageEvents;
+    private long damageNanos;
+    private long deathEvents;
+    private long deathNanos;
+
     public CombatListener(PrimeLeagueClans plugin) {
         this.plugin = plugin;
+        this.preventAllyDamage = plugin.getConfig().getBoolean("combat.prevent-ally-damage", true);
+        this.killXp = plugin.getConfig().getInt("combat.kill-xp", 10);
+        this.enemyKillXp = plugin.getConfig().getInt("combat.enemy-kill-xp", 20);
+        this.deathXp = plugin.getConfig().getInt("combat.death-xp", 0);
+        this.countSameClanKills = plugin.getConfig().getBoolean("combat.count-same-clan-kills", false);
     }
 
-    @EventHandler
+    @EventHandler(ignoreCancelled = true)
     public void onEntityDamageByEntity(EntityDamageByEntityEvent event) {
-        if (!(event.getEntity() instanceof Player) || !(event.getDamager() instanceof Player)) {
+        if (!preventAllyDamage || !(event.getEntity() instanceof Player) || !(event.getDamager() instanceof Player)) {
             return;
         }
 
+        long start = System.nanoTime();
         Player victim = (Player) event.getEntity();
         Player attacker = (Player) event.getDamager();
 
-        Clan victimClan = plugin.getClanManager().getPlayerClan(victim.getName());
-        Clan attackerClan = plugin.getClanManager().getPlayerClan(attacker.getName());
+        PlayerSessionManager sessions = plugin.getSessionManager();
+        int victimSlot = sessions.getSession(victim).getClanSlot();
+        int attackerSlot = victimSlot != RelationMatrix.NO_SLOT ? sessions.getSession(attacker).getClanSlot() : RelationMatrix.NO_SLOT;
 
         // Cancelar dano entre aliados
-        if (victimClan != null && attackerClan != null) {
-            if (victimClan.isAlly(attackerClan)) {
-                event.setCancelled(true);
-                attacker.sendMessage(ChatColor.RED + "Você não pode atacar aliados!");
-            }
+        if (attackerSlot != victimSlot && plugin.getClanManager().getRelations().isAlly(victimSlot, attackerSlot)) {
+            event.setCancelled(true);
+            attacker.sendMessage(ChatColor.RED + "Você não pode atacar aliados!");
         }
+
+        damageEvents++;
+        damageNanos += System.nanoTime() - start;
     }
 
     @EventHandler
-    public void onEntityDeath(EntityDeathEvent event) {
-        if (!(event.getEntity() instanceof Player)) {
-            return;
-        }
-
-        Player victim = (Player) event.getEntity();
+    public void onPlayerDeath(PlayerDeathEvent event) {
+        long start = System.nanoTime();
+        Player victim = event.getEntity();
         Player killer = victim.getKiller();
 
+        // Mortes sem um jogador como assassino (ambiente, monstros) não contam para os clãs
         if (killer == null) {
+            deathEvents++;
+            deathNanos += System.nanoTime() - start;
             return;
         }
 
-        Clan killerClan = plugin.getClanManager().getPlayerClan(killer.getName());
-        Clan victimClan = plugin.getClanManager().getPlayerClan(victim.getName());
+        PlayerSession victimSession = plugin.getSessionManager().getSession(victim);
+        Clan victimClan = victimSession.getClan();
 
-        // Adicionar kills e XP para o clã do assassino
-        if (killerClan != null) {
-            killerClan.addKills(1);
-            killerClan.addXp(plugin.getConfig().getInt("combat.kill-xp", 10));
+        // Morte para o clã da vítima
+        if (victimClan != null) {
+            victimClan.addDeaths(1);
+            if (deathXp != 0) {
+                plugin.getXpAccumulator().add(victimClan, deathXp);
+            }
+        }
 
-            // Bônus de XP por matar membro de clã inimigo
-            if (victimClan != null && killerClan.isEnemy(victimClan)) {
-                killerClan.addXp(plugin.getConfig().getInt("combat.enemy-kill-xp", 20));
+        if (killer != victim) {
+            PlayerSession killerSession = plugin.getSessionManager().getSession(killer);
+            Clan killerClan = killerSession.getClan();
+            if (killerClan != null && (countSameClanKills || killerClan != victimClan)) {
+                int xp = killXp;
+                // Bônus de XP por matar membro de clã inimigo
+                if (plugin.getClanManager().getRelations().isEnemy(killerSession.getClanSlot(), victimSession.getClanSlot())) {
+                    xp += enemyKillXp;
+                }
+
+                killerClan.addKills(1);
+                plugin.getXpAccumulator().add(killerClan, xp);
             }
         }
+
+        deathEvents++;
+        deathNanos += System.nanoTime() - start;
     }
 
-    @EventHandler
-    public void onPlayerDeath(PlayerDeathEvent event) {
-        Player victim = event.getEntity();
-        Player killer = victim.getKiller();
+    public long getDamageEvents() {
+        return damageEvents;
+    }
 
-        if (killer == null) {
-            return;
-        }
+    public long getDeathEvents() {
+        return deathEvents;
+    }
 
-        Clan killerClan = plugin.getClanManager().getPlayerClan(killer.getName());
-        Clan victimClan = plugin.getClanManager().getPlayerClan(victim.getName());
+    /**
+     * @return Tempo médio, em nanossegundos, gasto por evento de dano entre jogadores
+     */
+    public long getAverageDamageNanos() {
+        return damageEvents == 0 ? 0 : damageNanos / damageEvents;
+    }
 
-        // Adicionar morte para o clã da vítima
-        if (victimClan != null) {
-            victimClan.addDeaths(1);
-        }
+    /**
+     * @return Tempo médio, em nanossegundos, gasto por morte de jogador
+     */
+    public long getAverageDeathNanos() {
+        return deathEvents == 0 ? 0 : deathNanos / deathEvents;
     }
-} 
\ No newline at end of file
+}
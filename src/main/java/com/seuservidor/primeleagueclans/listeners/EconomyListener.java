@@ -1,13 +1,11 @@
 package com.seuservidor.primeleagueclans.listeners;
 
 import com.seuservidor.primeleagueclans.PrimeLeagueClans;
-import com.seuservidor.primeleagueclans.models.Clan;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
-import org.bukkit.event.player.PlayerQuitEvent;
 
 public class EconomyListener implements Listener {
     private final PrimeLeagueClans plugin;
@@ -26,15 +24,4 @@ public class EconomyListener implements Listener {
             plugin.getEconomy().depositPlayer(player.getName(), initialBalance);
         }
     }
-
-    @EventHandler
-    public void onPlayerQuit(PlayerQuitEvent event) {
-        Player player = event.getPlayer();
-        Clan clan = plugin.getClanManager().getPlayerClan(player.getName());
-        
-        if (clan != null) {
-            // Salvar dados do clã
-            plugin.getClanManager().saveClan(clan);
-        }
-    }
 } 
\ No newline at end of file
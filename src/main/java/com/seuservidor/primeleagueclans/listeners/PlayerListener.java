@@ -36,35 +36,13 @@ public class PlayerListener implements Listener {
         }
         
         if (clanId == null) {
-            if (plugin.isDebugMode()) {
-                plugin.getLogger().info("[Debug] Jogador " + playerName + " não está em nenhum clã mapeado. Procurando no banco de dados...");
-            }
-            
-            // Tentar encontrar o jogador nos clãs carregados
-            Clan playerClan = null;
-            for (Clan clan : plugin.getClanManager().getClans().values()) {
-                if (clan.isMember(playerName)) {
-                    playerClan = clan;
-                    clanId = clan.getId();
-                    
-                    // Atualizar o mapeamento
-                    plugin.getClanManager().setPlayerClan(playerName, clanId);
-                    
-                    if (plugin.isDebugMode()) {
-                        plugin.getLogger().info("[Debug] Jogador " + playerName + " encontrado no clã " + clan.getName());
-                        plugin.getLogger().info("[Debug] Atualizando mapeamento playerClans: " + playerName + " -> " + clanId);
-                    }
-                    break;
-                }
-            }
+            // O índice reverso é autoritativo; só consulta o banco se ainda não foi carregado
+            Clan playerClan = plugin.getClanManager().resolveUnmappedPlayer(playerName);
             
-            // Adicionar ao mapa de verificação para garantir que o jogador seja adicionado ao clã corretamente
-            if (playerClan != null) {
-                plugin.getClanManager().getPlayerClans().put(playerName, clanId);
-                
-                if (plugin.isDebugMode()) {
-                    plugin.getLogger().info("[Debug] Mapeamento atualizado: " + playerName + " -> " + clanId);
-                }
+            if (plugin.isDebugMode()) {
+                plugin.getLogger().info(playerClan != null
+                    ? "[Debug] Jogador " + playerName + " encontrado no clã " + playerClan.getName()
+                    : "[Debug] Jogador " + playerName + " não está em nenhum clã");
             }
         } else {
             // Jogador está em um clã, verificar se o clã está carregado
@@ -83,7 +61,7 @@ public class PlayerListener implements Listener {
                     }
                     
                     // Adicionar o jogador como membro do clã
-                    clan.addMember(playerName);
+                    plugin.getClanManager().moveMember(playerName, clanId);
                     
                     // Salvar o clã para atualizar as informações no banco de dados
                     plugin.getClanManager().saveClan(clan);
@@ -129,13 +107,18 @@ public class PlayerListener implements Listener {
                 }
                 
                 // Remover do mapeamento já que o clã não existe
-                plugin.getClanManager().getPlayerClans().remove(playerName);
+                plugin.getClanManager().unmapPlayer(playerName);
                 
                 if (plugin.isDebugMode()) {
                     plugin.getLogger().info("[Debug] Removido mapeamento inválido para o jogador " + playerName);
                 }
             }
         }
+        
+        // Jogadores migrados do elo.yml ficaram com o nome em minúsculas no ranking
+        if (plugin.getEloManager() != null) {
+            plugin.getEloManager().updateName(player);
+        }
     }
 
     @EventHandler(priority = EventPriority.MONITOR)
@@ -155,7 +138,7 @@ public class PlayerListener implements Listener {
         if (clan != null) {
             // Garantir que os dados do jogador estejam corretos
             if (!clan.isMember(playerName)) {
-                clan.addMember(playerName);
+                plugin.getClanManager().moveMember(playerName, clan.getId());
                 
                 if (plugin.isDebugMode()) {
                     plugin.getLogger().info("[Debug] Correção: Jogador " + playerName + " adicionado como membro do clã " + 
@@ -163,34 +146,36 @@ public class PlayerListener implements Listener {
                 }
             }
             
-            // Salvar o estado do jogador antes de sair
-            plugin.getClanManager().saveClan(clan);
+            // Salvar o estado do jogador; saídas do mesmo clã próximas no tempo viram uma única gravação
+            plugin.getClanManager().getSaveQueue().enqueueDebounced(clan);
             
             if (plugin.isDebugMode()) {
-                plugin.getLogger().info("[Debug] Dados do clã para " + playerName + " salvos antes da desconexão");
+                plugin.getLogger().info("[Debug] Salvamento do clã de " + playerName + " agendado após a desconexão");
                 plugin.getLogger().info("[Debug] Mapeamento atual: " + plugin.getClanManager().getPlayerClans());
                 plugin.getLogger().info("[Debug] Jogador realmente no mapa: " + plugin.getClanManager().getPlayerClans().containsKey(playerName));
             }
             
             // Notificar outros membros do clã
-            clan.broadcastMessage(ChatColor.YELLOW + player.getName() + " saiu do servidor.");
+            plugin.getClanManager().getPresence().sendMessage(clan, ChatColor.YELLOW + player.getName() + " saiu do servidor.", player);
+        }
+        
+        // O histórico em memória só vale enquanto o jogador está online
+        if (plugin.getClientLogManager() != null) {
+            plugin.getClientLogManager().evict(player.getName());
         }
     }
 
     @EventHandler
     public void onPlayerChat(AsyncPlayerChatEvent event) {
         Player player = event.getPlayer();
-        String playerName = player.getName().toLowerCase();
-        Clan clan = plugin.getClanManager().getPlayerClan(playerName);
+        Clan clan = plugin.getSessionManager().getSession(player).getClan();
         
         if (clan != null) {
-            // Formatar mensagem com tag do clã
-            String format = event.getFormat();
-            format = format.replace("%s", "[" + clan.getTag() + "] %s");
-            event.setFormat(format);
+            // Formatar mensagem com tag do clã; o formato traduzido fica guardado na tag renderizada
+            event.setFormat(clan.getChatTag().applyToFormat(event.getFormat()));
             
             if (plugin.isDebugMode()) {
-                plugin.getLogger().info("[Debug] Formato de chat modificado para jogador " + playerName + 
+                plugin.getLogger().info("[Debug] Formato de chat modificado para jogador " + player.getName() + 
                     " com tag de clã: " + clan.getTag());
             }
         }
@@ -0,0 +1,517 @@
+package com.seuservidor.primeleagueclans.logging;
+
+import com.seuservidor.primeleagueclans.PrimeLeagueClans;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Escritor assíncrono de arquivos de log.
+ *
+ * Quem registra uma linha apenas a coloca em uma fila circular limitada; uma única thread drena a
+ * fila em lotes e grava por um FileChannel mantido aberto, com um buffer de bytes reaproveitado.
+ * A thread acorda a cada {@code logging.async.flush-interval} milissegundos, ou antes se a fila
+ * passar da metade. Com a fila cheia a linha é descartada, ou, com
+ * {@code logging.async.block-when-full}, o produtor espera até {@code flush-interval} por espaço.
+ *
+ * A política de fsync ({@code logging.async.fsync}) pode ser {@code none} (fica a cargo do
+ * sistema operacional), {@code batch} (a cada lote gravado) ou {@code interval} (no máximo a cada
+ * {@code logging.async.fsync-interval} milissegundos).
+ *
+ * Linhas enfileiradas com um anexo são informadas ao {@link Listener}, na thread de escrita, com o
+ * deslocamento em bytes em que foram gravadas. Os deslocamentos se referem ao arquivo atual e
+ * perdem o sentido após uma rotação.
+ */
+public class AsyncLogWriter {
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final long BACKPRESSURE_PARK = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    public enum FsyncPolicy { NONE, BATCH, INTERVAL }
+
+    private final PrimeLeagueClans plugin;
+    private final String name;
+    private final File file;
+    private final long maxSize;
+    private final int maxFiles;
+
+    private final LogRingBuffer<Object> ring;
+    private final int wakeThreshold;
+    private final long flushIntervalNanos;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final boolean blockWhenFull;
+
+    // Estado de E/S: acessado apenas com ioLock (thread consumidora, shutdown ou withFileClosed)
+    private final ReentrantLock ioLock = new ReentrantLock();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    private FileChannel channel;
+    private long position;
+    private long lastFsync;
+    private boolean pendingFsync;
+
+    private volatile Listener listener;
+    private volatile Thread consumer;
+    private volatile boolean running;
+
+    // Estatísticas
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong backpressureCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong fsyncCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+
+    /**
+     * @param name Nome curto usado na thread e nas mensagens de erro
+     * @param file Arquivo de destino, aberto em modo append
+     * @param maxSize Tamanho em bytes a partir do qual o arquivo é rotacionado, ou 0 para nunca rotacionar
+     * @param maxFiles Quantidade de arquivos antigos mantidos na rotação
+     */
+    public AsyncLogWriter(PrimeLeagueClans plugin, String name, File file, long maxSize, int maxFiles) {
+        FileConfiguration config = plugin.getConfig();
+        this.plugin = plugin;
+        this.name = name;
+        this.file = file;
+        this.maxSize = maxSize;
+        this.maxFiles = Math.max(1, maxFiles);
+
+        this.ring = new LogRingBuffer<>(Math.max(64, config.getInt("logging.async.buffer-size", 8192)));
+        this.wakeThreshold = ring.capacity() / 2;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, config.getLong("logging.async.flush-interval", 200)));
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, config.getLong("logging.async.fsync-interval", 1000)));
+        this.blockWhenFull = config.getBoolean("logging.async.block-when-full", false);
+
+        FsyncPolicy policy;
+        try {
+            policy = FsyncPolicy.valueOf(config.getString("logging.async.fsync", "interval").toUpperCase());
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Política de fsync inválida em logging.async.fsync, usando 'interval'");
+            policy = FsyncPolicy.INTERVAL;
+        }
+        this.fsyncPolicy = policy;
+    }
+
+    /**
+     * Define quem será avisado das linhas gravadas com anexo. Deve ser chamado antes de {@link #start()}.
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Abre o arquivo e inicia a thread de escrita.
+     */
+    public void start() {
+        if (running) {
+            return;
+        }
+
+        ioLock.lock();
+        try {
+            openChannel();
+        } finally {
+            ioLock.unlock();
+        }
+
+        running = true;
+        Thread thread = new Thread(this::runConsumer, "PrimeLeagueClans-Log-" + name);
+        thread.setDaemon(true);
+        consumer = thread;
+        thread.start();
+    }
+
+    /**
+     * Enfileira uma linha para gravação. O separador de linha é acrescentado pelo escritor.
+     *
+     * @param line Linha já formatada
+     * @return false se a linha foi descartada por falta de espaço
+     */
+    public boolean append(String line) {
+        return append(line, null);
+    }
+
+    /**
+     * Enfileira uma linha acompanhada de um anexo, repassado ao {@link Listener} quando a linha for gravada.
+     *
+     * @param line Linha já formatada
+     * @param attachment Dados associados à linha, ou null
+     * @return false se a linha foi descartada por falta de espaço
+     */
+    public boolean append(String line, Object attachment) {
+        if (line == null) {
+            return true;
+        }
+
+        Object element = attachment != null ? new Tagged(line, attachment) : line;
+        if (!ring.offer(element)) {
+            if (!blockWhenFull || !running || !waitForSpace(element)) {
+                droppedCount.incrementAndGet();
+                return false;
+            }
+        }
+
+        if (ring.size() >= wakeThreshold) {
+            Thread thread = consumer;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Aguarda até que tudo o que foi enfileirado antes da chamada tenha sido gravado.
+     *
+     * @param timeoutMillis Tempo máximo de espera
+     * @return true se a fila esvaziou dentro do prazo
+     */
+    public boolean awaitDrain(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Thread thread = consumer;
+        while (ring.size() > 0) {
+            if (thread == null || !running) {
+                drainBatch();
+                return ring.size() == 0;
+            }
+            if (System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        // A última linha pode ter saído da fila e ainda estar sendo gravada
+        ioLock.lock();
+        ioLock.unlock();
+        return true;
+    }
+
+    /**
+     * Executa uma operação sobre o arquivo com o canal fechado, depois de gravar as linhas pendentes.
+     * Usado para limpar ou reescrever o arquivo sem competir com a thread de escrita.
+     *
+     * @param task Operação a executar
+     */
+    public void withFileClosed(FileTask task) throws IOException {
+        awaitDrain(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) * 5);
+        ioLock.lock();
+        try {
+            writeBuffer();
+            closeChannel();
+            try {
+                task.run(file);
+            } finally {
+                openChannel();
+            }
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /**
+     * Para a thread de escrita, grava o que ainda estiver na fila e fecha o arquivo.
+     */
+    public void shutdown() {
+        Thread thread = consumer;
+        running = false;
+        consumer = null;
+
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(5000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        drainBatch();
+
+        ioLock.lock();
+        try {
+            if (channel != null && pendingFsync) {
+                fsync();
+            }
+            closeChannel();
+        } finally {
+            ioLock.unlock();
+        }
+
+        if (droppedCount.get() > 0) {
+            plugin.getLogger().warning("Log " + name + ": " + droppedCount.get() + " linhas descartadas por fila cheia");
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public int getPendingCount() {
+        return ring.size();
+    }
+
+    public int getCapacity() {
+        return ring.capacity();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getBackpressureCount() {
+        return backpressureCount.get();
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    public long getFsyncCount() {
+        return fsyncCount.get();
+    }
+
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    private boolean waitForSpace(Object element) {
+        backpressureCount.incrementAndGet();
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        Thread thread = consumer;
+        while (running && System.nanoTime() - deadline < 0) {
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+            LockSupport.parkNanos(BACKPRESSURE_PARK);
+            if (ring.offer(element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void runConsumer() {
+        while (running) {
+            if (drainBatch() == 0) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+
+            if (fsyncPolicy == FsyncPolicy.INTERVAL && pendingFsync) {
+                ioLock.lock();
+                try {
+                    if (System.nanoTime() - lastFsync >= fsyncIntervalNanos) {
+                        fsync();
+                    }
+                } finally {
+                    ioLock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Drena a fila e grava o lote. Chamado pela thread consumidora ou, depois que ela parou, no shutdown.
+     *
+     * @return Quantidade de linhas gravadas
+     */
+    private int drainBatch() {
+        ioLock.lock();
+        try {
+            if (channel == null) {
+                return 0;
+            }
+
+            int count = 0;
+            Object element;
+            while ((element = ring.poll()) != null) {
+                if (element instanceof Tagged) {
+                    Tagged tagged = (Tagged) element;
+                    encode(tagged.line, tagged.attachment);
+                } else {
+                    encode((String) element, null);
+                }
+                count++;
+            }
+
+            if (count > 0) {
+                writeBuffer();
+                Listener current = listener;
+                if (current != null) {
+                    current.onBatchWritten();
+                }
+                writtenCount.addAndGet(count);
+                batchCount.incrementAndGet();
+                pendingFsync = true;
+                if (fsyncPolicy == FsyncPolicy.BATCH) {
+                    fsync();
+                }
+            }
+            return count;
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    private void encode(String line, Object attachment) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length + LINE_SEPARATOR.length;
+
+        if (maxSize > 0 && position + buffer.position() + length > maxSize && position + buffer.position() > 0) {
+            writeBuffer();
+            rotate();
+        }
+
+        if (length > buffer.remaining()) {
+            writeBuffer();
+        }
+
+        Listener current = listener;
+        if (attachment != null && current != null) {
+            current.onLineWritten(attachment, position + buffer.position(), bytes.length);
+        }
+
+        if (length > buffer.capacity()) {
+            // Linha maior que o buffer: gravar direto
+            write(ByteBuffer.wrap(bytes));
+            write(ByteBuffer.wrap(LINE_SEPARATOR));
+            return;
+        }
+
+        buffer.put(bytes).put(LINE_SEPARATOR);
+    }
+
+    private void writeBuffer() {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        write(buffer);
+        buffer.clear();
+    }
+
+    private void write(ByteBuffer source) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            while (source.hasRemaining()) {
+                position += channel.write(source);
+            }
+        } catch (IOException e) {
+            source.position(source.limit());
+            reportError("Erro ao escrever no arquivo de log", e);
+        }
+    }
+
+    private void fsync() {
+        try {
+            if (channel != null) {
+                channel.force(false);
+                fsyncCount.incrementAndGet();
+            }
+        } catch (IOException e) {
+            reportError("Erro ao sincronizar arquivo de log com o disco", e);
+        }
+        pendingFsync = false;
+        lastFsync = System.nanoTime();
+    }
+
+    private void rotate() {
+        closeChannel();
+
+        File oldest = new File(file.getPath() + "." + maxFiles);
+        if (oldest.exists()) {
+            oldest.delete();
+        }
+        for (int i = maxFiles - 1; i > 0; i--) {
+            File current = new File(file.getPath() + "." + i);
+            if (current.exists()) {
+                current.renameTo(new File(file.getPath() + "." + (i + 1)));
+            }
+        }
+        file.renameTo(new File(file.getPath() + ".1"));
+
+        openChannel();
+    }
+
+    private void openChannel() {
+        try {
+            File parent = file.getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            position = channel.size();
+        } catch (IOException e) {
+            channel = null;
+            reportError("Erro ao abrir arquivo de log", e);
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            reportError("Erro ao fechar arquivo de log", e);
+        }
+        channel = null;
+    }
+
+    private void reportError(String message, IOException e) {
+        // Só a primeira falha vai para o console (todas em modo debug), para não inundar o log do servidor
+        if (errorCount.getAndIncrement() == 0 || plugin.isDebugMode()) {
+            plugin.getLogger().severe(message + " " + file.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recebe, na thread de escrita, a posição das linhas gravadas com anexo.
+     */
+    public interface Listener {
+        /**
+         * @param attachment Anexo passado em {@link #append(String, Object)}
+         * @param offset Deslocamento da linha no arquivo, em bytes
+         * @param length Tamanho da linha em bytes, sem o separador
+         */
+        void onLineWritten(Object attachment, long offset, int length);
+
+        /**
+         * Chamado depois que um lote foi gravado no arquivo.
+         */
+        void onBatchWritten();
+    }
+
+    private static final class Tagged {
+        private final String line;
+        private final Object attachment;
+
+        Tagged(String line, Object attachment) {
+            this.line = line;
+            this.attachment = attachment;
+        }
+    }
+
+    /**
+     * Operação executada sobre o arquivo enquanto o canal está fechado.
+     */
+    public interface FileTask {
+        void run(File file) throws IOException;
+    }
+}
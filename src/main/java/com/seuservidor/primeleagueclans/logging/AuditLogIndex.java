@@ -0,0 +1,504 @@
+package com.seuservidor.primeleagueclans.logging;
+
+import com.seuservidor.primeleagueclans.PrimeLeagueClans;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Índice do log de auditoria de clãs, gravado em um arquivo ao lado do log ({@code .idx}).
+ *
+ * Cada linha do log é gravada com o clã e o jogador envolvidos; o AsyncLogWriter informa o
+ * deslocamento em que ela foi parar e o índice guarda, por clã e por jogador, a lista de
+ * deslocamentos em ordem de gravação. Consultas fazem busca binária pelo intervalo de tempo e leem
+ * do log apenas as linhas da página pedida.
+ *
+ * O arquivo de índice só recebe um registro depois que a linha correspondente foi gravada no log.
+ * Ao carregar, registros que apontam além do fim do log são descartados e linhas do log ainda não
+ * indexadas (por exemplo, após uma queda do servidor) são indexadas a partir do fim do último
+ * registro, sem reler o início do arquivo.
+ */
+public class AuditLogIndex implements AsyncLogWriter.Listener {
+    // [data] [clã] [jogador] mensagem
+    private static final Pattern LINE_PATTERN = Pattern.compile("^\\[([^\\]]{19})\\] \\[([^\\]]*)\\] \\[([^\\]]*)\\] ");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String NONE = "-";
+
+    private final PrimeLeagueClans plugin;
+    private final File logFile;
+    private final File indexFile;
+    private final Map<String, Postings> byClan = new ConcurrentHashMap<>();
+    private final Map<String, Postings> byPlayer = new ConcurrentHashMap<>();
+
+    // Acessados apenas na thread de escrita do log (ou antes dela iniciar)
+    private final List<Record> pending = new ArrayList<>();
+    private DataOutputStream out;
+
+    public AuditLogIndex(PrimeLeagueClans plugin, File logFile, File indexFile) {
+        this.plugin = plugin;
+        this.logFile = logFile;
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * Formata uma linha do log no formato reconhecido pelo índice.
+     */
+    public static String formatLine(String date, String clanName, String player, String message) {
+        return "[" + date + "] [" + field(clanName) + "] [" + field(player) + "] " + message;
+    }
+
+    /**
+     * Carrega o índice do disco e indexa o trecho final do log que ainda não estiver nele.
+     * Deve ser chamado antes de o escritor do log ser iniciado.
+     */
+    public void load() {
+        long logLength = logFile.length();
+        long indexedEnd = 0L;
+        long validIndexBytes = 0L;
+        int loaded = 0;
+
+        if (indexFile.exists()) {
+            try (CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+                 DataInputStream in = new DataInputStream(counter)) {
+                while (true) {
+                    Record record;
+                    try {
+                        record = Record.read(in);
+                    } catch (EOFException e) {
+                        break; // Fim do arquivo, ou registro incompleto de uma gravação interrompida
+                    }
+                    if (record.offset + record.length > logLength) {
+                        break;
+                    }
+                    publish(record);
+                    indexedEnd = record.offset + record.length;
+                    validIndexBytes = counter.count;
+                    loaded++;
+                }
+            } catch (IOException e) {
+                plugin.getLogger().warning("Erro ao ler o índice de logs, ele será refeito a partir do ponto válido: " + e.getMessage());
+            }
+        }
+
+        try {
+            if (indexFile.exists() && indexFile.length() != validIndexBytes) {
+                try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.WRITE)) {
+                    channel.truncate(validIndexBytes);
+                }
+            }
+            openOutput();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Erro ao abrir o índice de logs: " + e.getMessage());
+        }
+
+        int recovered = indexTail(indexedEnd, logLength);
+
+        if (plugin.isDebugMode()) {
+            plugin.getLogger().info("[Debug] Índice de logs carregado: " + loaded + " registros, " + recovered + " linhas recuperadas do log");
+        }
+    }
+
+    @Override
+    public void onLineWritten(Object attachment, long offset, int length) {
+        if (attachment instanceof Entry) {
+            Entry entry = (Entry) attachment;
+            pending.add(new Record(offset, length, entry.timestamp, key(entry.clanName), key(entry.player)));
+        }
+    }
+
+    @Override
+    public void onBatchWritten() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // As linhas já estão no log: agora podem ser indexadas e ficar visíveis às consultas
+        for (Record record : pending) {
+            append(record);
+            publish(record);
+        }
+        pending.clear();
+        flushOutput();
+    }
+
+    /**
+     * Apaga o índice. Deve ser chamado com o log fechado (AsyncLogWriter.withFileClosed).
+     */
+    public void reset() {
+        pending.clear();
+        byClan.clear();
+        byPlayer.clear();
+        closeOutput();
+        if (indexFile.exists()) {
+            indexFile.delete();
+        }
+        try {
+            openOutput();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Erro ao recriar o índice de logs: " + e.getMessage());
+        }
+    }
+
+    public void close() {
+        closeOutput();
+    }
+
+    /**
+     * Consulta os logs de um clã.
+     *
+     * @param clanName Nome do clã (sem diferenciar maiúsculas)
+     * @param from Início do intervalo, em milissegundos desde a época (inclusivo)
+     * @param to Fim do intervalo, em milissegundos desde a época (inclusivo)
+     * @param page Página, começando em 1 com as entradas mais recentes
+     * @param pageSize Entradas por página
+     */
+    public LogPage queryClan(String clanName, long from, long to, int page, int pageSize) {
+        String key = key(clanName);
+        return query(key != null ? byClan.get(key) : null, from, to, page, pageSize);
+    }
+
+    /**
+     * Consulta os logs de um jogador. Os parâmetros seguem {@link #queryClan}.
+     */
+    public LogPage queryPlayer(String player, long from, long to, int page, int pageSize) {
+        String key = key(player);
+        return query(key != null ? byPlayer.get(key) : null, from, to, page, pageSize);
+    }
+
+    private LogPage query(Postings postings, long from, long to, int page, int pageSize) {
+        page = Math.max(1, page);
+        pageSize = Math.max(1, pageSize);
+        if (postings == null) {
+            return new LogPage(Collections.<String>emptyList(), 0, page, pageSize);
+        }
+
+        long[] offsets;
+        int[] lengths;
+        int total;
+        synchronized (postings) {
+            int start = postings.lowerBound(from);
+            int end = to == Long.MAX_VALUE ? postings.size : postings.lowerBound(to + 1);
+            total = Math.max(0, end - start);
+
+            // Páginas contadas a partir das entradas mais recentes
+            int pageEnd = end - (page - 1) * pageSize;
+            int pageStart = Math.max(start, pageEnd - pageSize);
+            if (pageEnd <= start) {
+                return new LogPage(Collections.<String>emptyList(), total, page, pageSize);
+            }
+            offsets = Arrays.copyOfRange(postings.offsets, pageStart, pageEnd);
+            lengths = Arrays.copyOfRange(postings.lengths, pageStart, pageEnd);
+        }
+
+        List<String> lines = new ArrayList<>(offsets.length);
+        try (FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ)) {
+            for (int i = offsets.length - 1; i >= 0; i--) {
+                ByteBuffer buffer = ByteBuffer.allocate(lengths[i]);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, offsets[i] + buffer.position()) < 0) {
+                        break;
+                    }
+                }
+                lines.add(new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("Erro ao ler logs: " + e.getMessage());
+        }
+        return new LogPage(lines, total, page, pageSize);
+    }
+
+    private int indexTail(long start, long logLength) {
+        if (start >= logLength) {
+            return 0;
+        }
+
+        int count = 0;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(logFile))) {
+            long skipped = 0L;
+            while (skipped < start) {
+                long n = in.skip(start - skipped);
+                if (n <= 0) {
+                    return 0;
+                }
+                skipped += n;
+            }
+            ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+            long lineStart = start;
+            long position = start;
+            int b;
+            while ((b = in.read()) != -1) {
+                position++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+
+                byte[] bytes = line.toByteArray();
+                int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+                Record record = parse(new String(bytes, 0, length, StandardCharsets.UTF_8), lineStart, length);
+                if (record != null) {
+                    append(record);
+                    publish(record);
+                    count++;
+                }
+                line.reset();
+                lineStart = position;
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Erro ao indexar o final do log: " + e.getMessage());
+        }
+        flushOutput();
+        return count;
+    }
+
+    private Record parse(String line, long offset, int length) {
+        Matcher matcher = LINE_PATTERN.matcher(line);
+        if (!matcher.find()) {
+            return null; // Linha em formato antigo, sem clã e jogador
+        }
+        try {
+            long timestamp = LocalDateTime.parse(matcher.group(1), DATE_FORMAT)
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            return new Record(offset, length, timestamp, key(matcher.group(2)), key(matcher.group(3)));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private void publish(Record record) {
+        if (record.clanKey != null) {
+            byClan.computeIfAbsent(record.clanKey, k -> new Postings()).add(record);
+        }
+        if (record.playerKey != null) {
+            byPlayer.computeIfAbsent(record.playerKey, k -> new Postings()).add(record);
+        }
+    }
+
+    private void append(Record record) {
+        if (out == null) {
+            return;
+        }
+        try {
+            record.write(out);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Erro ao gravar o índice de logs: " + e.getMessage());
+            closeOutput();
+        }
+    }
+
+    private void openOutput() throws IOException {
+        File parent = indexFile.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile, true)));
+    }
+
+    private void flushOutput() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.flush();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Erro ao gravar o índice de logs: " + e.getMessage());
+        }
+    }
+
+    private void closeOutput() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // O índice é refeito a partir do log se estiver incompleto
+        }
+        out = null;
+    }
+
+    private static String field(String value) {
+        return value == null || value.isEmpty() ? NONE : value.replace(']', ')');
+    }
+
+    private static String key(String value) {
+        if (value == null || value.isEmpty() || NONE.equals(value)) {
+            return null;
+        }
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Dados de uma linha do log, passados como anexo ao AsyncLogWriter.
+     */
+    public static final class Entry {
+        private final long timestamp;
+        private final String clanName;
+        private final String player;
+
+        public Entry(long timestamp, String clanName, String player) {
+            this.timestamp = timestamp;
+            this.clanName = clanName;
+            this.player = player;
+        }
+    }
+
+    /**
+     * Página de resultado de uma consulta, da entrada mais recente para a mais antiga.
+     */
+    public static final class LogPage {
+        private final List<String> lines;
+        private final int total;
+        private final int page;
+        private final int pageSize;
+
+        LogPage(List<String> lines, int total, int page, int pageSize) {
+            this.lines = lines;
+            this.total = total;
+            this.page = page;
+            this.pageSize = pageSize;
+        }
+
+        public List<String> getLines() {
+            return lines;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getPage() {
+            return page;
+        }
+
+        public int getPageCount() {
+            return (total + pageSize - 1) / pageSize;
+        }
+    }
+
+    private static final class Record {
+        private final long offset;
+        private final int length;
+        private final long timestamp;
+        private final String clanKey;
+        private final String playerKey;
+
+        Record(long offset, int length, long timestamp, String clanKey, String playerKey) {
+            this.offset = offset;
+            this.length = length;
+            this.timestamp = timestamp;
+            this.clanKey = clanKey;
+            this.playerKey = playerKey;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeLong(offset);
+            out.writeInt(length);
+            out.writeLong(timestamp);
+            out.writeUTF(clanKey != null ? clanKey : "");
+            out.writeUTF(playerKey != null ? playerKey : "");
+        }
+
+        static Record read(DataInputStream in) throws IOException {
+            long offset = in.readLong();
+            int length = in.readInt();
+            long timestamp = in.readLong();
+            String clanKey = in.readUTF();
+            String playerKey = in.readUTF();
+            return new Record(offset, length, timestamp,
+                clanKey.isEmpty() ? null : clanKey, playerKey.isEmpty() ? null : playerKey);
+        }
+    }
+
+    /**
+     * Deslocamentos de um clã ou jogador em ordem de gravação. Os horários guardados nunca diminuem,
+     * mesmo que o relógio do sistema volte, para a busca binária continuar válida.
+     */
+    private static final class Postings {
+        private long[] offsets = new long[8];
+        private int[] lengths = new int[8];
+        private long[] times = new long[8];
+        private int size;
+
+        synchronized void add(Record record) {
+            if (size == offsets.length) {
+                int capacity = size << 1;
+                offsets = Arrays.copyOf(offsets, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                times = Arrays.copyOf(times, capacity);
+            }
+            offsets[size] = record.offset;
+            lengths[size] = record.length;
+            times[size] = size > 0 ? Math.max(times[size - 1], record.timestamp) : record.timestamp;
+            size++;
+        }
+
+        // Primeira posição com horário >= time; chamado com o monitor do objeto
+        int lowerBound(long time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (times[mid] < time) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            int read = super.read(buffer, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+}
@@ -4,23 +4,19 @@ import com.seuservidor.primeleagueclans.PrimeLeagueClans;
 import org.bukkit.configuration.file.FileConfiguration;
 
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.logging.Level;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.logging.Logger;
 
 public class LogManager {
     private final PrimeLeagueClans plugin;
     private final Logger logger;
-    private final File logFile;
-    private final SimpleDateFormat dateFormat;
+    private final AsyncLogWriter writer;
+    // DateTimeFormatter é thread-safe: ações podem ser registradas fora da thread principal
+    private final DateTimeFormatter dateFormat;
     private final String logFormat;
     private final boolean logToConsole;
     private final boolean logToFile;
-    private final long maxLogSize;
-    private final int maxLogFiles;
 
     public LogManager(PrimeLeagueClans plugin) {
         this.plugin = plugin;
@@ -29,33 +25,33 @@ public class LogManager {
         FileConfiguration config = plugin.getConfig();
         this.logToConsole = config.getBoolean("logging.log-to-console", true);
         this.logToFile = config.getBoolean("logging.log-to-file", true);
-        this.maxLogSize = config.getLong("logging.max-log-size", 10) * 1024 * 1024; // Converter MB para bytes
-        this.maxLogFiles = config.getInt("logging.max-log-files", 5);
+        long maxLogSize = config.getLong("logging.max-log-size", 10) * 1024 * 1024; // Converter MB para bytes
+        int maxLogFiles = config.getInt("logging.max-log-files", 5);
         this.logFormat = config.getString("logging.log-format", "[%date%] %action% - %player%: %details%");
         
-        this.dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        this.dateFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
         
         if (logToFile) {
-            this.logFile = new File(plugin.getDataFolder(), "logs/clan.log");
-            createLogFile();
+            this.writer = new AsyncLogWriter(plugin, "clan", new File(plugin.getDataFolder(), "logs/clan.log"), maxLogSize, maxLogFiles);
+            this.writer.start();
         } else {
-            this.logFile = null;
+            this.writer = null;
         }
     }
 
-    private void createLogFile() {
-        try {
-            if (!logFile.getParentFile().exists()) {
-                logFile.getParentFile().mkdirs();
-            }
-            if (!logFile.exists()) {
-                logFile.createNewFile();
-            }
-        } catch (IOException e) {
-            logger.severe("Erro ao criar arquivo de log: " + e.getMessage());
+    /**
+     * Grava as linhas pendentes e fecha o arquivo de log. Chamado no onDisable.
+     */
+    public void close() {
+        if (writer != null) {
+            writer.shutdown();
         }
     }
 
+    public AsyncLogWriter getWriter() {
+        return writer;
+    }
+
     public void log(String action, String player, String details) {
         String message = formatLog(action, player, details);
         
@@ -63,8 +59,8 @@ public class LogManager {
             logger.info(message);
         }
         
-        if (logToFile && logFile != null) {
-            writeToFile(message);
+        if (writer != null) {
+            writer.append(message);
         }
     }
 
@@ -75,62 +71,19 @@ public class LogManager {
             logger.severe(message);
         }
         
-        if (logToFile && logFile != null) {
-            writeToFile("[ERROR] " + message);
+        if (writer != null) {
+            writer.append("[ERROR] " + message);
         }
     }
 
     private String formatLog(String action, String player, String details) {
         return logFormat
-            .replace("%date%", dateFormat.format(new Date()))
+            .replace("%date%", dateFormat.format(LocalDateTime.now()))
             .replace("%action%", action)
             .replace("%player%", player)
             .replace("%details%", details);
     }
 
-    private void writeToFile(String message) {
-        try {
-            if (logFile.length() >= maxLogSize) {
-                rotateLogFiles();
-            }
-            
-            try (FileWriter writer = new FileWriter(logFile, true)) {
-                writer.write(message + System.lineSeparator());
-            }
-        } catch (IOException e) {
-            logger.severe("Erro ao escrever no arquivo de log: " + e.getMessage());
-        }
-    }
-
-    private void rotateLogFiles() {
-        try {
-            // Renomear arquivo atual para .1
-            File oldFile = new File(logFile.getPath() + ".1");
-            if (oldFile.exists()) {
-                oldFile.delete();
-            }
-            logFile.renameTo(oldFile);
-            
-            // Criar novo arquivo de log
-            logFile.createNewFile();
-            
-            // Rotacionar arquivos antigos
-            for (int i = maxLogFiles - 1; i > 0; i--) {
-                File currentFile = new File(logFile.getPath() + "." + i);
-                File nextFile = new File(logFile.getPath() + "." + (i + 1));
-                
-                if (currentFile.exists()) {
-                    if (nextFile.exists()) {
-                        nextFile.delete();
-                    }
-                    currentFile.renameTo(nextFile);
-                }
-            }
-        } catch (IOException e) {
-            logger.severe("Erro ao rotacionar arquivos de log: " + e.getMessage());
-        }
-    }
-
     public void logClanCreation(String player, String clanName) {
         log("Criação de Clã", player, "Criou o clã " + clanName);
     }
@@ -0,0 +1,71 @@
+package com.seuservidor.primeleagueclans.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fila circular limitada, sem travas, para vários produtores e um único consumidor.
+ *
+ * Produtores reservam uma posição com CAS em {@code tail} e só então publicam o elemento; o
+ * consumidor trata uma posição reservada mas ainda não publicada como fila vazia e tenta de novo
+ * na próxima rodada. O consumidor limpa a posição antes de avançar {@code head}, então um produtor
+ * nunca sobrescreve um elemento que ainda não foi lido.
+ */
+final class LogRingBuffer<E> {
+    private final AtomicReferenceArray<E> slots;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    LogRingBuffer(int requestedCapacity) {
+        int size = Integer.highestOneBit(Math.max(2, requestedCapacity) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.capacity = size;
+        this.mask = size - 1;
+    }
+
+    /**
+     * Insere um elemento. Pode ser chamado por qualquer thread.
+     *
+     * @return false se a fila estiver cheia
+     */
+    boolean offer(E element) {
+        long position;
+        do {
+            position = tail.get();
+            if (position - head.get() >= capacity) {
+                return false;
+            }
+        } while (!tail.compareAndSet(position, position + 1));
+
+        slots.lazySet((int) position & mask, element);
+        return true;
+    }
+
+    /**
+     * Remove o próximo elemento. Só pode ser chamado pela thread consumidora.
+     *
+     * @return O elemento, ou null se não houver nenhum publicado
+     */
+    E poll() {
+        long position = head.get();
+        int index = (int) position & mask;
+        E element = slots.get(index);
+        if (element == null) {
+            return null;
+        }
+
+        slots.lazySet(index, null);
+        head.lazySet(position + 1);
+        return element;
+    }
+
+    int size() {
+        return (int) Math.max(0L, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -1,9 +1,9 @@
 package com.seuservidor.primeleagueclans.managers;
 
 import com.seuservidor.primeleagueclans.PrimeLeagueClans;
+import com.seuservidor.primeleagueclans.cache.ClanCache;
 import com.seuservidor.primeleagueclans.models.Clan;
 import com.seuservidor.primeleagueclans.utils.MessageUtils;
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
@@ -12,25 +12,60 @@ import org.bukkit.entity.Player;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Cache de clãs e do mapeamento jogador -> clã.
+ *
+ * Os índices são lidos sem trava por qualquer thread (chat assíncrono, sincronização de jogadores).
+ * Toda escrita que envolve mais de um índice, ou os membros de um clã junto com o mapa de jogadores,
+ * passa por {@code indexLock} e segue sempre a mesma ordem: o clã entra no cache antes dos jogadores
+ * serem mapeados para ele, e os jogadores são desmapeados antes do clã sair. Assim um leitor pode ver
+ * um estado anterior ou posterior, mas nunca um jogador mapeado para um clã que não está no cache.
+ */
 public class ClanManager {
     private static ClanManager instance;
     private final PrimeLeagueClans plugin;
     private final Map<String, Clan> clans;
     private final Map<String, String> playerClans;
     private final Map<String, InviteInfo> invites; // player -> InviteInfo
+    // Índices secundários: nome/tag em minúsculo -> ID do clã
+    private final Map<String, String> clansByName;
+    private final Map<String, String> clansByTag;
+    // Jogadores confirmados sem clã pelo banco enquanto o índice reverso ainda não é autoritativo
+    private final Set<String> knownClanless = ConcurrentHashMap.newKeySet();
+    // Verdadeiro depois que playerClans foi montado a partir do banco inteiro; a partir daí,
+    // um jogador fora do mapa não tem clã
+    private volatile boolean indexLoaded;
+    // Incrementada a cada escrita nos índices; sessões de jogador guardam a versão em que foram montadas
+    private final AtomicLong indexVersion = new AtomicLong();
+    private final Object indexLock = new Object();
+    private final ClanSaveQueue saveQueue;
+    // Clãs lidos do banco por ID que ainda não estão nos índices
+    private final ClanCache clanCache;
+    // Alianças e inimizades dos clãs dos índices, por índice inteiro de clã
+    private final RelationMatrix relations = new RelationMatrix();
+    // Membros online por clã, para mensagens ao clã
+    private final OnlinePresence presence = new OnlinePresence(this);
     private final long INVITE_EXPIRATION_TIME = 30 * 1000; // 30 segundos em milissegundos
 
     public ClanManager(PrimeLeagueClans plugin) {
         this.plugin = plugin;
-        this.clans = new HashMap<>();
-        this.playerClans = new HashMap<>();
-        this.invites = new HashMap<>();
+        this.clans = new ConcurrentHashMap<>();
+        this.playerClans = new ConcurrentHashMap<>();
+        this.invites = new ConcurrentHashMap<>();
+        this.clansByName = new ConcurrentHashMap<>();
+        this.clansByTag = new ConcurrentHashMap<>();
+        this.saveQueue = new ClanSaveQueue(plugin);
+        this.clanCache = new ClanCache(plugin);
         instance = this;
         
         if (plugin.isDebugMode()) {
@@ -42,6 +77,22 @@ public class ClanManager {
         return instance;
     }
 
+    public ClanCache getClanCache() {
+        return clanCache;
+    }
+
+    public RelationMatrix getRelations() {
+        return relations;
+    }
+
+    public OnlinePresence getPresence() {
+        return presence;
+    }
+
+    public ClanSaveQueue getSaveQueue() {
+        return saveQueue;
+    }
+
     // String getClanByPlayer para exportar nome do clã (compatibilidade com outros plugins)
     public String getClanName(String playerName) {
         if (playerName == null) {
@@ -83,9 +134,10 @@ public class ClanManager {
                     if (plugin.isDebugMode()) {
                         plugin.getLogger().info("[Debug] Jogador " + playerName + " estava no mapa playerClans mas não na lista de membros do clã " + clan.getName() + ". Corrigindo...");
                     }
-                    clan.addMember(playerName);
-                    // Salvar essa correção imediatamente no banco de dados
-                    saveClan(clan);
+                    if (repairMembership(playerName, clanId)) {
+                        // Salvar essa correção imediatamente no banco de dados
+                        saveClan(clan);
+                    }
                 }
                 playerClan = clan;
                 if (plugin.isDebugMode()) {
@@ -95,58 +147,15 @@ public class ClanManager {
                 if (plugin.isDebugMode()) {
                     plugin.getLogger().warning("[Debug] Jogador " + playerName + " está associado a um clã inexistente (ID: " + clanId + "). Limpando associação...");
                 }
-                playerClans.remove(playerKey);
+                // Só remove se ninguém remapeou o jogador nesse meio tempo
+                playerClans.remove(playerKey, clanId);
             }
         }
         
-        // Se não encontramos no mapa, verificar se o jogador está como membro em algum clã
+        // Fora do mapa: o índice reverso responde sozinho depois do carregamento; antes disso
+        // o banco é consultado uma única vez por jogador
         if (playerClan == null) {
-            for (Clan clan : clans.values()) {
-                if (clan.isMember(playerName)) {
-                    // O jogador está na lista de membros mas não no mapa playerClans
-                    if (plugin.isDebugMode()) {
-                        plugin.getLogger().info("[Debug] Jogador " + playerName + " encontrado na lista de membros do clã " + clan.getName() + " mas não no mapa playerClans. Corrigindo...");
-                    }
-                    playerClans.put(playerKey, clan.getId());
-                    playerClan = clan;
-                    break;
-                }
-            }
-        }
-        
-        // Verificação no banco de dados se ainda não encontramos (em caso de dessincronização total)
-        if (playerClan == null && plugin.getDatabaseManager() != null) {
-            try {
-                // Verificar no banco de dados diretamente
-                String dbClanId = plugin.getDatabaseManager().getPlayerClanId(playerName);
-                if (dbClanId != null) {
-                    // O jogador está no banco de dados, mas não está no cache
-                    plugin.getLogger().warning("Jogador " + playerName + " encontrado no banco de dados mas não no cache. Sincronizando...");
-                    
-                    // Verificar se o clã existe no cache
-                    Clan clan = clans.get(dbClanId);
-                    if (clan == null) {
-                        // O clã não está no cache, tentar carregar do banco
-                        plugin.getLogger().warning("Clã " + dbClanId + " não está no cache. Tentando carregar do banco...");
-                        clan = plugin.getDatabaseManager().getClan(dbClanId);
-                        if (clan != null) {
-                            // Adicionar o clã ao cache
-                            clans.put(dbClanId, clan);
-                        }
-                    }
-                    
-                    if (clan != null) {
-                        // Adicionar o jogador à lista de membros
-                        clan.addMember(playerName);
-                        // Adicionar ao mapa playerClans
-                        playerClans.put(playerKey, dbClanId);
-                        playerClan = clan;
-                        plugin.getLogger().info("Jogador " + playerName + " re-sincronizado com o clã " + clan.getName());
-                    }
-                }
-            } catch (Exception e) {
-                plugin.getLogger().warning("Erro ao verificar clã do jogador " + playerName + " no banco de dados: " + e.getMessage());
-            }
+            playerClan = resolveUnmappedPlayer(playerName);
         }
         
         boolean hasClan = playerClan != null;
@@ -181,12 +190,185 @@ public class ClanManager {
         return "";
     }
 
+    /**
+     * Visão somente leitura do cache de clãs (ID -> clã). Para alterar, use {@link #cacheClan},
+     * {@link #moveMember}, {@link #unmapPlayer} ou {@link #deleteClan}.
+     */
     public Map<String, Clan> getClans() {
-        return clans;
+        return Collections.unmodifiableMap(clans);
     }
 
+    /**
+     * Visão somente leitura do mapa jogador (minúsculo) -> ID do clã.
+     */
     public Map<String, String> getPlayerClans() {
-        return playerClans;
+        return Collections.unmodifiableMap(playerClans);
+    }
+
+    /**
+     * Versão atual dos índices. Muda sempre que um clã entra ou sai do cache ou um jogador
+     * muda de clã; quem guarda dados derivados dos índices compara a versão para saber se
+     * precisa recalculá-los.
+     */
+    public long getIndexVersion() {
+        return indexVersion.get();
+    }
+
+    /**
+     * Coloca o clã no cache, a menos que já exista outro com o mesmo ID.
+     *
+     * @param clan Clã com ID definido
+     * @return O clã que está no cache após a chamada
+     */
+    public Clan cacheClan(Clan clan) {
+        if (clan == null || clan.getId() == null) {
+            return null;
+        }
+        synchronized (indexLock) {
+            Clan existing = clans.putIfAbsent(clan.getId(), clan);
+            if (existing != null) {
+                return existing;
+            }
+            indexNameAndTag(clan);
+            relations.register(clan);
+            indexVersion.incrementAndGet();
+            return clan;
+        }
+    }
+
+    private static String normalize(String key) {
+        return key != null ? key.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private void indexNameAndTag(Clan clan) {
+        if (clan.getName() != null) {
+            clansByName.put(normalize(clan.getName()), clan.getId());
+        }
+        if (clan.getTag() != null) {
+            clansByTag.put(normalize(clan.getTag()), clan.getId());
+        }
+    }
+
+    private void unindexNameAndTag(Clan clan) {
+        if (clan.getName() != null) {
+            clansByName.remove(normalize(clan.getName()), clan.getId());
+        }
+        if (clan.getTag() != null) {
+            clansByTag.remove(normalize(clan.getTag()), clan.getId());
+        }
+    }
+
+    /**
+     * Associa o jogador ao clã, retirando-o do clã anterior se for outro. A lista de membros dos
+     * dois clãs e o mapa de jogadores mudam juntos; um leitor sem trava vê o jogador no clã antigo
+     * ou no novo, nunca em nenhum.
+     *
+     * @param playerName Nome do jogador
+     * @param clanId ID de um clã já presente no cache
+     * @return Clã anterior do jogador, ou null se não havia outro
+     */
+    public Clan moveMember(String playerName, String clanId) {
+        String playerKey = playerName.toLowerCase();
+        synchronized (indexLock) {
+            Clan clan = clans.get(clanId);
+            if (clan == null) {
+                return null;
+            }
+
+            // Primeiro entra no novo clã, depois o mapa aponta para ele, por fim sai do antigo
+            clan.addMember(playerName);
+            String previousId = playerClans.put(playerKey, clanId);
+            knownClanless.remove(playerKey);
+            indexVersion.incrementAndGet();
+            if (previousId == null || previousId.equals(clanId)) {
+                return null;
+            }
+
+            Clan previous = clans.get(previousId);
+            if (previous != null) {
+                previous.removeMember(playerName);
+            }
+            return previous;
+        }
+    }
+
+    /**
+     * Recoloca o jogador na lista de membros do clã para o qual ele está mapeado, desde que o
+     * mapeamento não tenha mudado desde a leitura feita sem trava.
+     */
+    private boolean repairMembership(String playerName, String clanId) {
+        synchronized (indexLock) {
+            Clan clan = clans.get(clanId);
+            if (clan == null || !clanId.equals(playerClans.get(playerName.toLowerCase()))) {
+                return false;
+            }
+            clan.addMember(playerName);
+            indexVersion.incrementAndGet();
+            return true;
+        }
+    }
+
+    /**
+     * Resolve o clã de um jogador que não está em playerClans. Depois do carregamento o índice é
+     * autoritativo e a resposta é null sem nenhum acesso ao banco. Antes disso o banco é consultado,
+     * e um resultado "sem clã" fica em cache até o jogador entrar em um clã ou o índice ser carregado.
+     *
+     * @param playerName Nome do jogador
+     * @return Clã do jogador, ou null se ele não tem clã
+     */
+    public Clan resolveUnmappedPlayer(String playerName) {
+        String playerKey = playerName.toLowerCase();
+        if (indexLoaded || knownClanless.contains(playerKey) || plugin.getDatabaseManager() == null) {
+            return null;
+        }
+
+        try {
+            String dbClanId = plugin.getDatabaseManager().getPlayerClanId(playerName);
+            if (dbClanId == null) {
+                knownClanless.add(playerKey);
+                return null;
+            }
+
+            // O jogador está no banco de dados, mas não está no cache
+            plugin.getLogger().warning("Jogador " + playerName + " encontrado no banco de dados mas não no cache. Sincronizando...");
+            Clan clan = clans.get(dbClanId);
+            if (clan == null) {
+                clan = fetchClan(dbClanId);
+                if (clan == null) {
+                    return null;
+                }
+                clan = cacheClan(clan);
+            }
+
+            moveMember(playerName, dbClanId);
+            plugin.getLogger().info("Jogador " + playerName + " re-sincronizado com o clã " + clan.getName());
+            return clan;
+        } catch (Exception e) {
+            plugin.getLogger().warning("Erro ao verificar clã do jogador " + playerName + " no banco de dados: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Desfaz a associação do jogador com o clã, sem checar liderança nem salvar. Usado pelas
+     * rotinas de sincronização quando o banco de dados diz que o jogador não tem clã.
+     *
+     * @param playerName Nome do jogador
+     * @return Clã do qual o jogador saiu, ou null
+     */
+    public Clan unmapPlayer(String playerName) {
+        String playerKey = playerName.toLowerCase();
+        synchronized (indexLock) {
+            String clanId = playerClans.remove(playerKey);
+            Clan clan = clanId != null ? clans.get(clanId) : null;
+            if (clan != null) {
+                clan.removeMember(playerName);
+            }
+            if (clanId != null) {
+                indexVersion.incrementAndGet();
+            }
+            return clan;
+        }
     }
 
     public void setPlayerClan(String playerName, String clanId) {
@@ -197,8 +379,6 @@ public class ClanManager {
             return;
         }
         
-        String playerKey = playerName.toLowerCase();
-        
         // Verificar se o clã existe
         Clan clan = clans.get(clanId);
         if (clan == null) {
@@ -208,16 +388,11 @@ public class ClanManager {
             return;
         }
         
-        // Verificar se o jogador já está na lista de membros do clã
-        if (!clan.isMember(playerName)) {
-            if (plugin.isDebugMode()) {
-                plugin.getLogger().info("[Debug] Adicionando jogador " + playerName + " à lista de membros do clã " + clan.getName());
-            }
-            clan.addMember(playerName);
+        // Adicionar à lista de membros e ao mapa playerClans de uma vez
+        if (plugin.isDebugMode() && !clan.isMember(playerName)) {
+            plugin.getLogger().info("[Debug] Adicionando jogador " + playerName + " à lista de membros do clã " + clan.getName());
         }
-        
-        // Adicionar ao mapa playerClans
-        playerClans.put(playerKey, clanId);
+        moveMember(playerName, clanId);
         
         if (plugin.isDebugMode()) {
             plugin.getLogger().info("[Debug] Jogador " + playerName + " foi associado ao clã " + clan.getName() + " (ID: " + clanId + ")");
@@ -250,12 +425,7 @@ public class ClanManager {
         Clan clan = clans.get(clanId);
         if (clan != null) {
             String formattedMessage = String.format(message, (Object[]) args);
-            for (String member : clan.getMembers()) {
-                Player player = Bukkit.getPlayer(member);
-                if (player != null && player.isOnline()) {
-                    player.sendMessage(ChatColor.translateAlternateColorCodes('&', formattedMessage));
-                }
-            }
+            presence.sendMessage(clan, ChatColor.translateAlternateColorCodes('&', formattedMessage));
         }
     }
 
@@ -267,14 +437,24 @@ public class ClanManager {
 
     public void renameClan(Clan clan, String newName) {
         if (clan != null) {
-            clan.setName(newName);
+            synchronized (indexLock) {
+                // Novo nome entra no índice antes do antigo sair
+                String oldName = clan.getName();
+                clan.setName(newName);
+                if (clan.getId() != null && clans.get(clan.getId()) == clan) {
+                    clansByName.put(normalize(newName), clan.getId());
+                    if (oldName != null && !normalize(oldName).equals(normalize(newName))) {
+                        clansByName.remove(normalize(oldName), clan.getId());
+                    }
+                    relations.clanRenamed(clan);
+                    indexVersion.incrementAndGet();
+                }
+            }
             plugin.getDatabaseManager().updateClan(clan);
         }
     }
 
     public void clearCache() {
-        clans.clear();
-        playerClans.clear();
         invites.clear();
         loadClans();
     }
@@ -292,16 +472,14 @@ public class ClanManager {
                 return;
             }
             
-            // Limpar caches
-            clans.clear();
-            playerClans.clear();
-            
-            if (plugin.isDebugMode()) {
-                plugin.getLogger().info("[Debug] Cache limpo");
-            }
+            // Montar os novos índices fora do cache; leitores continuam vendo o estado anterior
+            // até a troca no final, em vez de caches vazios durante o carregamento
+            Map<String, Clan> loadedById = new HashMap<>();
+            Map<String, String> loadedPlayers = new HashMap<>();
             
             // Carregar clãs do banco de dados
-            List<Clan> loadedClans = plugin.getDatabaseManager().getAllClans();
+            // Falha de conexão interrompe o carregamento e mantém o cache atual
+            List<Clan> loadedClans = plugin.getDatabaseManager().loadAllClans();
             int count = 0;
             
             for (Clan clan : loadedClans) {
@@ -311,7 +489,7 @@ public class ClanManager {
                 }
                 
                 // Adicionar clã ao cache usando o ID exato do banco
-                clans.put(clan.getId(), clan);
+                loadedById.put(clan.getId(), clan);
                 
                 if (plugin.isDebugMode()) {
                     plugin.getLogger().info("[Debug] Clã " + clan.getName() + " adicionado ao cache com ID: " + clan.getId());
@@ -320,15 +498,15 @@ public class ClanManager {
                 // Adicionar membros ao cache de jogadores
                 for (String member : clan.getMembers()) {
                     String memberLower = member.toLowerCase();
-                    if (playerClans.containsKey(memberLower)) {
-                        String existingClanId = playerClans.get(memberLower);
+                    if (loadedPlayers.containsKey(memberLower)) {
+                        String existingClanId = loadedPlayers.get(memberLower);
                         if (!existingClanId.equals(clan.getId())) {
                             plugin.getLogger().warning("[Debug] Jogador " + member + " já está no clã " + existingClanId + ", removendo do clã " + clan.getName());
                             clan.removeMember(member);
                             continue;
                         }
                     }
-                    playerClans.put(memberLower, clan.getId());
+                    loadedPlayers.put(memberLower, clan.getId());
                     if (plugin.isDebugMode()) {
                         plugin.getLogger().info("[Debug] Membro " + member + " adicionado ao mapa playerClans com ID " + clan.getId());
                     }
@@ -337,13 +515,13 @@ public class ClanManager {
                 // Garantir que o líder esteja no mapa de jogadores
                 if (clan.getLeader() != null) {
                     String leaderLower = clan.getLeader().toLowerCase();
-                    if (!playerClans.containsKey(leaderLower)) {
-                        playerClans.put(leaderLower, clan.getId());
+                    if (!loadedPlayers.containsKey(leaderLower)) {
+                        loadedPlayers.put(leaderLower, clan.getId());
                         if (plugin.isDebugMode()) {
                             plugin.getLogger().info("[Debug] Líder " + clan.getLeader() + " adicionado ao mapa playerClans com ID " + clan.getId());
                         }
                     } else {
-                        String existingClanId = playerClans.get(leaderLower);
+                        String existingClanId = loadedPlayers.get(leaderLower);
                         if (!existingClanId.equals(clan.getId())) {
                             plugin.getLogger().warning("[Debug] Líder " + clan.getLeader() + " já está no clã " + existingClanId + ", removendo do clã " + clan.getName());
                             clan.setLeader(null);
@@ -356,17 +534,19 @@ public class ClanManager {
                 count++;
             }
             
+            replaceIndexes(loadedById, loadedPlayers);
+            
             if (plugin.isDebugMode()) {
                 plugin.getLogger().info("[Debug] Carregamento finalizado:");
                 plugin.getLogger().info("[Debug] - Total de clãs carregados: " + count);
-                plugin.getLogger().info("[Debug] - Mapeamento de jogadores para clãs: " + playerClans);
-                plugin.getLogger().info("[Debug] - IDs dos clãs carregados: " + clans.keySet());
+                plugin.getLogger().info("[Debug] - Mapeamento de jogadores para clãs: " + loadedPlayers);
+                plugin.getLogger().info("[Debug] - IDs dos clãs carregados: " + loadedById.keySet());
                 
                 // Verificar mapeamento de jogadores
-                for (Map.Entry<String, String> entry : playerClans.entrySet()) {
+                for (Map.Entry<String, String> entry : loadedPlayers.entrySet()) {
                     String player = entry.getKey();
                     String clanId = entry.getValue();
-                    Clan clan = clans.get(clanId);
+                    Clan clan = loadedById.get(clanId);
                     if (clan != null) {
                         plugin.getLogger().info("[Debug] Jogador " + player + " está no clã " + clan.getName() + " (ID: " + clanId + ")");
                     } else {
@@ -382,19 +562,72 @@ public class ClanManager {
         }
     }
 
+    /**
+     * Troca o conteúdo do cache pelos índices recém-carregados, na ordem que mantém os leitores
+     * consistentes: clãs novos entram, jogadores são remapeados e só então o que sumiu é removido.
+     */
+    private void replaceIndexes(Map<String, Clan> loadedClans, Map<String, String> loadedPlayers) {
+        Map<String, String> loadedNames = new HashMap<>();
+        Map<String, String> loadedTags = new HashMap<>();
+        for (Clan clan : loadedClans.values()) {
+            loadedNames.put(normalize(clan.getName()), clan.getId());
+            loadedTags.put(normalize(clan.getTag()), clan.getId());
+        }
+
+        synchronized (indexLock) {
+            clans.putAll(loadedClans);
+            clansByName.putAll(loadedNames);
+            clansByTag.putAll(loadedTags);
+            playerClans.putAll(loadedPlayers);
+            playerClans.keySet().retainAll(loadedPlayers.keySet());
+            clansByName.keySet().retainAll(loadedNames.keySet());
+            clansByTag.keySet().retainAll(loadedTags.keySet());
+            clans.keySet().retainAll(loadedClans.keySet());
+            knownClanless.clear();
+            // Clãs lidos avulsos do banco agora estão nos índices, possivelmente como outra instância
+            clanCache.clear();
+            relations.replaceAll(loadedClans.values());
+            indexLoaded = true;
+            indexVersion.incrementAndGet();
+        }
+    }
+
     public Clan getClanById(String id) {
         return clans.get(id);
     }
 
+    /**
+     * Obtém um clã pelo ID passando pelos índices, pelo cache de clãs e, por último, pelo banco de
+     * dados. O clã lido do banco fica no cache, mas não entra nos índices. Pode ser chamado fora da
+     * thread principal. Depois do carregamento todo clã está nos índices, então o cache só atende
+     * às consultas feitas antes disso.
+     *
+     * @param id ID do clã
+     * @return Clã encontrado, ou null se ele não existe
+     */
+    public Clan fetchClan(String id) {
+        if (id == null) {
+            return null;
+        }
+
+        Clan clan = clans.get(id);
+        if (clan == null) {
+            clan = clanCache.getClan(id);
+        }
+        if (clan == null && plugin.getDatabaseManager() != null) {
+            clan = plugin.getDatabaseManager().getClan(id);
+            clanCache.putClan(clan);
+        }
+        return clan;
+    }
+
     public Clan getClanByName(String name) {
         if (plugin.isDebugMode()) {
             plugin.getLogger().info("[Debug] Procurando clã por nome: " + name);
         }
         
-        Clan found = clans.values().stream()
-            .filter(clan -> clan.getName().equalsIgnoreCase(name))
-            .findFirst()
-            .orElse(null);
+        String clanId = name != null ? clansByName.get(normalize(name)) : null;
+        Clan found = clanId != null ? clans.get(clanId) : null;
             
         if (plugin.isDebugMode()) {
             if (found != null) {
@@ -412,10 +645,8 @@ public class ClanManager {
             plugin.getLogger().info("[Debug] Procurando clã por tag: " + tag);
         }
         
-        Clan found = clans.values().stream()
-            .filter(clan -> clan.getTag().equalsIgnoreCase(tag))
-            .findFirst()
-            .orElse(null);
+        String clanId = tag != null ? clansByTag.get(normalize(tag)) : null;
+        Clan found = clanId != null ? clans.get(clanId) : null;
             
         if (plugin.isDebugMode()) {
             if (found != null) {
@@ -498,8 +729,8 @@ public class ClanManager {
                     return;
                 }
                 
-                // Remover o jogador da lista de membros do clã
-                clan.removeMember(playerName);
+                // Remover o jogador da lista de membros do clã e do mapa de jogadores
+                unmapPlayer(playerName);
                 
                 // Registrar no log
                 plugin.getLogManager().log("clan.player-removed-map", clan.getName(), playerName);
@@ -517,8 +748,10 @@ public class ClanManager {
             }
         }
         
-        // Remover o jogador do mapa de jogadores para clãs
-        playerClans.remove(playerKey);
+        // Remover um mapeamento para clã inexistente, se houver
+        if (clanId != null) {
+            playerClans.remove(playerKey, clanId);
+        }
         
         // Remover possíveis convites
         invites.remove(playerKey);
@@ -529,11 +762,7 @@ public class ClanManager {
     }
 
     public void addMember(String clanId, String playerName) {
-        Clan clan = clans.get(clanId);
-        if (clan != null) {
-            clan.addMember(playerName);
-            playerClans.put(playerName.toLowerCase(), clanId);
-        }
+        moveMember(playerName, clanId);
     }
 
     public void removeMember(String clanId, String playerName) {
@@ -567,11 +796,8 @@ public class ClanManager {
                 plugin.getLogger().info("[Debug] Jogador está na lista de membros: " + clan.isMember(playerName));
             }
             
-            // Remover o jogador do clã
-            clan.removeMember(playerName);
-            
-            // Remover o jogador do mapa de jogadores para clãs
-            playerClans.remove(playerName.toLowerCase());
+            // Remover o jogador do clã e do mapa de jogadores para clãs
+            unmapPlayer(playerName);
             
             // Registrar no log
             plugin.getLogManager().log("clan.member-removed", clan.getName(), playerName);
@@ -594,8 +820,8 @@ public class ClanManager {
     public void setLeader(String clanId, String playerName) {
         Clan clan = clans.get(clanId);
         if (clan != null) {
+            moveMember(playerName, clanId);
             clan.setLeader(playerName);
-            playerClans.put(playerName.toLowerCase(), clanId);
         }
     }
 
@@ -658,10 +884,13 @@ public class ClanManager {
         }
         
         try {
-            plugin.getDatabaseManager().saveClan(clan);
+            // Com operações assíncronas ativas o clã apenas entra na fila de escrita
+            saveQueue.enqueue(clan);
             
             if (plugin.isDebugMode()) {
-                plugin.getLogger().info("[Debug] Clã salvo com sucesso no banco de dados");
+                plugin.getLogger().info(saveQueue.isAsync()
+                    ? "[Debug] Clã agendado na fila de salvamento"
+                    : "[Debug] Clã salvo com sucesso no banco de dados");
             }
         } catch (Exception e) {
             plugin.getLogger().severe("Erro ao salvar clã " + clan.getName() + ": " + e.getMessage());
@@ -696,18 +925,25 @@ public class ClanManager {
             return;
         }
 
-        // Remover do cache
-        clans.remove(clan.getId());
+        synchronized (indexLock) {
+            // Remover membros e líder do cache de jogadores antes do próprio clã
+            for (String member : clan.getMembers()) {
+                playerClans.remove(member.toLowerCase(), clan.getId());
+            }
+            if (clan.getLeader() != null) {
+                playerClans.remove(clan.getLeader().toLowerCase(), clan.getId());
+            }
 
-        // Remover membros do cache de jogadores
-        for (String member : clan.getMembers()) {
-            playerClans.remove(member.toLowerCase());
+            // Remover dos índices e do cache
+            unindexNameAndTag(clan);
+            clans.remove(clan.getId());
+            clanCache.removeClan(clan.getId());
+            relations.unregister(clan);
+            indexVersion.incrementAndGet();
         }
 
-        // Remover líder do cache de jogadores
-        if (clan.getLeader() != null) {
-            playerClans.remove(clan.getLeader().toLowerCase());
-        }
+        // Salvamentos ainda na fila recriariam linhas do clã apagado
+        saveQueue.remove(clan);
 
         // Deletar do banco de dados
         plugin.getDatabaseManager().deleteClan(clan.getId());
@@ -748,8 +984,12 @@ public class ClanManager {
             if (id != null) {
                 // Adicionar ao cache
                 clan.setId(id);
-                clans.put(id, clan);
-                playerClans.put(leader.toLowerCase(), id);
+                cacheClan(clan);
+                moveMember(leader, id);
+                
+                // A linha do clã já foi gravada; falta apenas o registro do líder como membro
+                clan.clearDirty(Clan.DIRTY_COLUMNS);
+                saveClan(clan);
                 
                 if (plugin.isDebugMode()) {
                     plugin.getLogger().info("[Debug] Clã criado com sucesso - ID: " + id);
@@ -790,83 +1030,88 @@ public class ClanManager {
         }
         
         try {
-            // Verificar jogadores que estão no mapa mas não no clã
-            List<String> playersToRemove = new ArrayList<>();
+            // A verificação altera os dois índices; segurar a trava de escrita durante toda ela
+            synchronized (indexLock) {
+                // Verificar jogadores que estão no mapa mas não no clã
+                List<String> playersToRemove = new ArrayList<>();
             
-            for (Map.Entry<String, String> entry : playerClans.entrySet()) {
-                String playerName = entry.getKey();
-                String clanId = entry.getValue();
+                for (Map.Entry<String, String> entry : playerClans.entrySet()) {
+                    String playerName = entry.getKey();
+                    String clanId = entry.getValue();
                 
-                Clan clan = clans.get(clanId);
-                if (clan == null) {
-                    if (plugin.isDebugMode()) {
-                        plugin.getLogger().warning("[Debug] Jogador " + playerName + " está mapeado para um clã inexistente (ID: " + clanId + ")");
+                    Clan clan = clans.get(clanId);
+                    if (clan == null) {
+                        if (plugin.isDebugMode()) {
+                            plugin.getLogger().warning("[Debug] Jogador " + playerName + " está mapeado para um clã inexistente (ID: " + clanId + ")");
+                        }
+                        playersToRemove.add(playerName);
+                        continue;
                     }
-                    playersToRemove.add(playerName);
-                    continue;
-                }
                 
-                if (!clan.isMember(playerName)) {
-                    if (plugin.isDebugMode()) {
-                        plugin.getLogger().warning("[Debug] Jogador " + playerName + " está mapeado para o clã " + clan.getName() + 
-                                                  " mas não está na lista de membros");
-                    }
+                    if (!clan.isMember(playerName)) {
+                        if (plugin.isDebugMode()) {
+                            plugin.getLogger().warning("[Debug] Jogador " + playerName + " está mapeado para o clã " + clan.getName() + 
+                                                      " mas não está na lista de membros");
+                        }
                     
-                    // Adicionar o jogador à lista de membros do clã
-                    clan.addMember(playerName);
-                    if (plugin.isDebugMode()) {
-                        plugin.getLogger().info("[Debug] Jogador " + playerName + " re-adicionado ao clã " + clan.getName());
+                        // Adicionar o jogador à lista de membros do clã
+                        clan.addMember(playerName);
+                        if (plugin.isDebugMode()) {
+                            plugin.getLogger().info("[Debug] Jogador " + playerName + " re-adicionado ao clã " + clan.getName());
+                        }
                     }
                 }
-            }
             
-            // Remover jogadores que estão mapeados para clãs inexistentes
-            for (String playerName : playersToRemove) {
-                playerClans.remove(playerName);
-                if (plugin.isDebugMode()) {
-                    plugin.getLogger().info("[Debug] Jogador " + playerName + " removido do mapa de jogadores para clãs");
+                // Remover jogadores que estão mapeados para clãs inexistentes
+                for (String playerName : playersToRemove) {
+                    playerClans.remove(playerName);
+                    if (plugin.isDebugMode()) {
+                        plugin.getLogger().info("[Debug] Jogador " + playerName + " removido do mapa de jogadores para clãs");
+                    }
                 }
-            }
             
-            // Verificar membros que estão no clã mas não no mapa
-            for (Clan clan : clans.values()) {
-                Set<String> membersToUpdate = new HashSet<>();
+                // Verificar membros que estão no clã mas não no mapa
+                for (Clan clan : clans.values()) {
+                    Set<String> membersToUpdate = new HashSet<>();
                 
-                for (String member : clan.getMembers()) {
-                    String memberKey = member.toLowerCase();
-                    String mappedClanId = playerClans.get(memberKey);
+                    for (String member : clan.getMembers()) {
+                        String memberKey = member.toLowerCase();
+                        String mappedClanId = playerClans.get(memberKey);
                     
-                    if (mappedClanId == null) {
-                        if (plugin.isDebugMode()) {
-                            plugin.getLogger().warning("[Debug] Membro " + member + " do clã " + clan.getName() + 
-                                                      " não está no mapa de jogadores para clãs");
+                        if (mappedClanId == null) {
+                            if (plugin.isDebugMode()) {
+                                plugin.getLogger().warning("[Debug] Membro " + member + " do clã " + clan.getName() + 
+                                                          " não está no mapa de jogadores para clãs");
+                            }
+                            membersToUpdate.add(memberKey);
+                        } else if (!mappedClanId.equals(clan.getId())) {
+                            if (plugin.isDebugMode()) {
+                                plugin.getLogger().warning("[Debug] Membro " + member + " do clã " + clan.getName() + 
+                                                          " está mapeado para outro clã (ID: " + mappedClanId + ")");
+                            }
+                            membersToUpdate.add(memberKey);
                         }
-                        membersToUpdate.add(memberKey);
-                    } else if (!mappedClanId.equals(clan.getId())) {
-                        if (plugin.isDebugMode()) {
-                            plugin.getLogger().warning("[Debug] Membro " + member + " do clã " + clan.getName() + 
-                                                      " está mapeado para outro clã (ID: " + mappedClanId + ")");
-                        }
-                        membersToUpdate.add(memberKey);
                     }
-                }
                 
-                // Atualizar mapeamento para membros não mapeados ou mapeados incorretamente
-                for (String member : membersToUpdate) {
-                    playerClans.put(member, clan.getId());
-                    if (plugin.isDebugMode()) {
-                        plugin.getLogger().info("[Debug] Mapeamento atualizado: " + member + " -> " + clan.getName() + 
-                                               " (ID: " + clan.getId() + ")");
+                    // Atualizar mapeamento para membros não mapeados ou mapeados incorretamente
+                    for (String member : membersToUpdate) {
+                        playerClans.put(member, clan.getId());
+                        if (plugin.isDebugMode()) {
+                            plugin.getLogger().info("[Debug] Mapeamento atualizado: " + member + " -> " + clan.getName() + 
+                                                   " (ID: " + clan.getId() + ")");
+                        }
                     }
                 }
-            }
             
-            // Se estamos no modo debug, mostrar o estado final
-            if (plugin.isDebugMode()) {
-                plugin.getLogger().info("[Debug] Verificação de integridade concluída.");
-                plugin.getLogger().info("[Debug] Estado final:");
-                plugin.getLogger().info("[Debug] - Total de clãs: " + clans.size());
-                plugin.getLogger().info("[Debug] - Total de jogadores mapeados: " + playerClans.size());
+                indexVersion.incrementAndGet();
+            
+                // Se estamos no modo debug, mostrar o estado final
+                if (plugin.isDebugMode()) {
+                    plugin.getLogger().info("[Debug] Verificação de integridade concluída.");
+                    plugin.getLogger().info("[Debug] Estado final:");
+                    plugin.getLogger().info("[Debug] - Total de clãs: " + clans.size());
+                    plugin.getLogger().info("[Debug] - Total de jogadores mapeados: " + playerClans.size());
+                }
             }
             
             // Salvar mudanças
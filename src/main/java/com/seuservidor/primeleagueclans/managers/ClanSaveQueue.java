@@ -0,0 +1,415 @@
+package com.seuservidor.primeleagueclans.managers;
+
+import com.seuservidor.primeleagueclans.PrimeLeagueClans;
+import com.seuservidor.primeleagueclans.models.Clan;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fila de persistência write-behind para clãs.
+ *
+ * Os salvamentos pedidos pela thread principal apenas marcam o clã como pendente;
+ * uma thread dedicada drena a fila em lotes de {@code performance.batch-size} clãs,
+ * {@code performance.save-delay} milissegundos depois de ela deixar de estar vazia, ou assim
+ * que o lote enche. Pedidos repetidos para o mesmo clã enquanto ele ainda está na fila são
+ * coalescidos em um único salvamento. {@code performance.save-interval} só limita essa espera.
+ *
+ * Salvamentos pedidos na saída de jogadores são adiados por {@code performance.quit-save-window}
+ * segundos a partir do primeiro pedido, para que várias saídas do mesmo clã (um reinício que
+ * desconecta todo mundo, por exemplo) virem uma única gravação. Como só a thread de escrita grava,
+ * um clã nunca tem dois salvamentos em andamento ao mesmo tempo.
+ *
+ * Clãs que já não estão registrados no ClanManager (deletados depois do pedido) são descartados
+ * em vez de gravados: o UPDATE não afetaria nenhuma linha e a diferença de membros e relações
+ * deixaria linhas órfãs.
+ */
+public class ClanSaveQueue {
+    private static final long RETRY_DELAY = 1000L; // espera mínima após falha, em milissegundos
+    private static final long SHUTDOWN_TIMEOUT = 10000L;
+
+    private final PrimeLeagueClans plugin;
+    private final boolean asyncEnabled;
+    private final int batchSize;
+    private final long saveIntervalMillis;
+    private final long saveDelayMillis;
+    private final long debounceMillis;
+
+    // Clãs pendentes em ordem de chegada; Clan não sobrescreve equals, então a chave é a própria instância
+    private final Set<Clan> pending = new LinkedHashSet<>();
+    // Salvamentos adiados -> instante em que vencem; o prazo é fixo, então a ordem de chegada é a de vencimento
+    private final Map<Clan, Long> debounced = new LinkedHashMap<>();
+    private final Object lock = new Object();
+    private boolean debounceTaskScheduled; // apenas no modo síncrono
+    private Clan saving; // clã sendo gravado pela thread de escrita
+    private long pendingSince; // instante em que a fila deixou de estar vazia
+
+    private final LongAdder savesRequested = new LongAdder();
+    private final LongAdder savesExecuted = new LongAdder();
+    private final LongAdder savesFailed = new LongAdder();
+
+    private Thread writerThread;
+    private volatile boolean running;
+
+    public ClanSaveQueue(PrimeLeagueClans plugin) {
+        this.plugin = plugin;
+        this.asyncEnabled = plugin.getConfig().getBoolean("performance.async-operations", true);
+        this.batchSize = Math.max(1, plugin.getConfig().getInt("performance.batch-size", 100));
+        this.saveIntervalMillis = Math.max(1L, plugin.getConfig().getLong("performance.save-interval", 300)) * 1000L;
+        this.saveDelayMillis = Math.min(saveIntervalMillis, Math.max(0L, plugin.getConfig().getLong("performance.save-delay", 500)));
+        this.debounceMillis = Math.max(0L, plugin.getConfig().getLong("performance.quit-save-window", 5)) * 1000L;
+    }
+
+    /**
+     * Inicia a thread de escrita. Sem efeito quando as operações assíncronas estão desativadas.
+     */
+    public void start() {
+        if (!asyncEnabled || running) {
+            return;
+        }
+
+        running = true;
+        writerThread = new Thread(this::runWriter, "PrimeLeagueClans-Writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+
+        if (plugin.isDebugMode()) {
+            plugin.getLogger().info("[Debug] Fila de salvamento iniciada (lote: " + batchSize + ", espera: " + saveDelayMillis + "ms)");
+        }
+    }
+
+    public boolean isAsync() {
+        return asyncEnabled && running;
+    }
+
+    /**
+     * Agenda o salvamento do clã. Se o clã já estiver pendente, o pedido é coalescido.
+     *
+     * @param clan Clã a ser salvo
+     */
+    public void enqueue(Clan clan) {
+        if (clan == null) {
+            return;
+        }
+        savesRequested.increment();
+
+        if (!isAsync()) {
+            // Como no modo assíncrono, o salvamento imediato cobre um adiado do mesmo clã
+            synchronized (lock) {
+                debounced.remove(clan);
+            }
+            saveNow(clan);
+            return;
+        }
+
+        synchronized (lock) {
+            // Um salvamento adiado do mesmo clã fica coberto por este
+            debounced.remove(clan);
+            boolean wasEmpty = pending.isEmpty();
+            boolean added = addPending(clan);
+            if (added && (wasEmpty || pending.size() >= batchSize)) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Agenda o salvamento do clã para daqui a {@code performance.quit-save-window} segundos.
+     * Pedidos para um clã que já está agendado, adiado ou não, não mudam nada.
+     *
+     * @param clan Clã a ser salvo
+     */
+    public void enqueueDebounced(Clan clan) {
+        if (clan == null) {
+            return;
+        }
+        savesRequested.increment();
+
+        boolean async = isAsync();
+        synchronized (lock) {
+            if (pending.contains(clan) || debounced.containsKey(clan)) {
+                return;
+            }
+            debounced.put(clan, System.currentTimeMillis() + debounceMillis);
+            if (async) {
+                // A thread de escrita recalcula quanto tempo pode esperar
+                lock.notifyAll();
+                return;
+            }
+            if (debounceTaskScheduled) {
+                return;
+            }
+            debounceTaskScheduled = true;
+        }
+
+        // Sem thread de escrita: gravar na thread principal quando a janela terminar
+        long delayTicks = Math.max(1L, debounceMillis / 50L);
+        plugin.getServer().getScheduler().runTaskLater(plugin, this::flushDebounced, delayTicks);
+    }
+
+    /**
+     * Retira o clã da fila, adiado ou não, e espera o fim de um salvamento dele já em andamento na
+     * thread de escrita. Chamado ao deletar o clã, depois de retirá-lo dos índices e antes de
+     * apagar as linhas do banco.
+     *
+     * @param clan Clã deletado
+     */
+    public void remove(Clan clan) {
+        if (clan == null) {
+            return;
+        }
+
+        synchronized (lock) {
+            while (saving == clan) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            pending.remove(clan);
+            debounced.remove(clan);
+        }
+    }
+
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size() + debounced.size();
+        }
+    }
+
+    /**
+     * @return Pedidos de salvamento recebidos, imediatos e adiados
+     */
+    public long getSavesRequested() {
+        return savesRequested.sum();
+    }
+
+    /**
+     * @return Gravações concluídas com sucesso no banco de dados
+     */
+    public long getSavesExecuted() {
+        return savesExecuted.sum();
+    }
+
+    public long getSavesFailed() {
+        return savesFailed.sum();
+    }
+
+    /**
+     * Para a thread de escrita e grava tudo o que ainda está pendente na thread chamadora.
+     * Chamado no onDisable, antes do salvamento geral.
+     */
+    public void shutdown() {
+        Thread thread = writerThread;
+        running = false;
+
+        if (thread != null) {
+            synchronized (lock) {
+                lock.notifyAll();
+            }
+            try {
+                thread.join(SHUTDOWN_TIMEOUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (thread.isAlive()) {
+                plugin.getLogger().warning("Thread de salvamento não terminou a tempo, gravando pendências na thread atual");
+            }
+            writerThread = null;
+        }
+
+        flush();
+    }
+
+    /**
+     * Grava de forma síncrona todos os clãs pendentes.
+     */
+    public void flush() {
+        List<Clan> remaining;
+        synchronized (lock) {
+            remaining = new ArrayList<>(pending);
+            remaining.addAll(debounced.keySet());
+            pending.clear();
+            debounced.clear();
+        }
+
+        if (plugin.isDebugMode() && !remaining.isEmpty()) {
+            plugin.getLogger().info("[Debug] Gravando " + remaining.size() + " clãs pendentes da fila de salvamento");
+        }
+
+        for (Clan clan : remaining) {
+            saveNow(clan);
+        }
+    }
+
+    private void runWriter() {
+        while (running) {
+            List<Clan> batch;
+            synchronized (lock) {
+                long deadline = System.currentTimeMillis() + saveIntervalMillis;
+                while (running && pending.size() < batchSize) {
+                    // Fila vazia: esperar um pedido; com pendências, só juntar pedidos próximos
+                    long due = pending.isEmpty() ? deadline : Math.min(deadline, pendingSince + saveDelayMillis);
+                    long wait = Math.min(due, nextDebounceDue()) - System.currentTimeMillis();
+                    if (wait <= 0) {
+                        break;
+                    }
+                    try {
+                        lock.wait(wait);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (!running) {
+                    // O restante é gravado por shutdown() na thread que desativa o plugin
+                    return;
+                }
+                promoteDueDebounced(System.currentTimeMillis());
+                batch = drain();
+            }
+
+            if (batch.isEmpty()) {
+                continue;
+            }
+
+            if (plugin.isDebugMode()) {
+                plugin.getLogger().info("[Debug] Gravando lote de " + batch.size() + " clãs");
+            }
+
+            boolean failed = false;
+            for (Clan clan : batch) {
+                synchronized (lock) {
+                    saving = clan;
+                }
+                boolean saved = false;
+                try {
+                    saved = saveNow(clan);
+                } finally {
+                    synchronized (lock) {
+                        saving = null;
+                        if (!saved) {
+                            failed = true;
+                            addPending(clan);
+                        }
+                        lock.notifyAll();
+                    }
+                }
+            }
+
+            if (failed) {
+                try {
+                    Thread.sleep(RETRY_DELAY);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void flushDebounced() {
+        List<Clan> due;
+        synchronized (lock) {
+            debounceTaskScheduled = false;
+            due = new ArrayList<>(debounced.keySet());
+            debounced.clear();
+        }
+
+        if (plugin.isDebugMode() && !due.isEmpty()) {
+            plugin.getLogger().info("[Debug] Gravando " + due.size() + " clãs com salvamento adiado");
+        }
+
+        for (Clan clan : due) {
+            saveNow(clan);
+        }
+    }
+
+    // Chamados com a trava da fila
+
+    private long nextDebounceDue() {
+        Iterator<Long> iterator = debounced.values().iterator();
+        return iterator.hasNext() ? iterator.next() : Long.MAX_VALUE;
+    }
+
+    private void promoteDueDebounced(long now) {
+        Iterator<Map.Entry<Clan, Long>> iterator = debounced.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Clan, Long> entry = iterator.next();
+            if (entry.getValue() > now) {
+                break;
+            }
+            addPending(entry.getKey());
+            iterator.remove();
+        }
+    }
+
+    private boolean addPending(Clan clan) {
+        if (pending.isEmpty()) {
+            pendingSince = System.currentTimeMillis();
+        }
+        return pending.add(clan);
+    }
+
+    private List<Clan> drain() {
+        List<Clan> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+        Iterator<Clan> iterator = pending.iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            batch.add(iterator.next());
+            iterator.remove();
+        }
+        return batch;
+    }
+
+    /**
+     * @return false se o clã foi deletado depois do pedido de salvamento
+     */
+    private boolean isRegistered(Clan clan) {
+        ClanManager clanManager = plugin.getClanManager();
+        return clanManager == null || clan.getId() == null || clanManager.getClanById(clan.getId()) == clan;
+    }
+
+    /**
+     * @return true se o clã foi gravado ou descartado por não existir mais; false se deve ser tentado de novo
+     */
+    private boolean saveNow(Clan clan) {
+        if (!isRegistered(clan)) {
+            if (plugin.isDebugMode()) {
+                plugin.getLogger().info("[Debug] Salvamento descartado: o clã " + clan.getName() + " foi deletado");
+            }
+            return true;
+        }
+
+        DatabaseManager databaseManager = plugin.getDatabaseManager();
+        if (databaseManager == null) {
+            plugin.getLogger().severe("DatabaseManager indisponível ao salvar o clã " + clan.getName());
+            return false;
+        }
+
+        try {
+            boolean saved = databaseManager.saveClan(clan);
+            if (saved) {
+                savesExecuted.increment();
+            } else {
+                savesFailed.increment();
+            }
+            return saved;
+        } catch (Exception e) {
+            savesFailed.increment();
+            // Uma modificação concorrente durante a leitura do clã apenas adia o salvamento
+            plugin.getLogger().warning("Erro ao salvar clã " + clan.getName() + " em segundo plano: " + e.getMessage());
+            if (plugin.isDebugMode()) {
+                e.printStackTrace();
+            }
+            return false;
+        }
+    }
+}
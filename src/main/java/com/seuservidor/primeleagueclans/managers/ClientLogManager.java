@@ -1,134 +1,91 @@
 package com.seuservidor.primeleagueclans.managers;
 
 import com.seuservidor.primeleagueclans.PrimeLeagueClans;
+import com.seuservidor.primeleagueclans.logging.AsyncLogWriter;
 import org.bukkit.entity.Player;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
+/**
+ * Logs de ações dos jogadores ({@code client_logs.txt}).
+ *
+ * As linhas são gravadas pelo AsyncLogWriter. Em memória, só os jogadores consultados têm um buffer
+ * circular com as últimas {@code MAX_LOGS_PER_PLAYER} linhas, preenchido na primeira consulta lendo o
+ * arquivo de trás para frente, e no máximo os últimos {@code TAIL_SCAN_LIMIT} bytes dele. Jogadores
+ * nunca consultados não ocupam memória, e o buffer é descartado quando o jogador sai. Nada é lido
+ * na inicialização.
+ */
 public class ClientLogManager {
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final long TAIL_SCAN_LIMIT = 4L * 1024 * 1024; // histórico mais antigo só no arquivo
+
     private final PrimeLeagueClans plugin;
     private final Logger logger;
     private final File clientLogFile;
-    private final SimpleDateFormat dateFormat;
-    private final Map<String, List<String>> playerLogs;
+    private final DateTimeFormatter dateFormat;
+    private final Map<String, LogBuffer> playerLogs;
+    private final AsyncLogWriter writer;
     private final int MAX_LOGS_PER_PLAYER = 100;
 
     public ClientLogManager(PrimeLeagueClans plugin) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
         this.clientLogFile = new File(plugin.getDataFolder(), "client_logs.txt");
-        this.dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        this.playerLogs = new HashMap<>();
-        
-        if (!clientLogFile.exists()) {
-            try {
-                clientLogFile.createNewFile();
-            } catch (IOException e) {
-                logger.severe("Não foi possível criar o arquivo de log do cliente: " + e.getMessage());
-            }
-        }
-        
-        loadExistingLogs();
+        this.dateFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        this.playerLogs = new ConcurrentHashMap<>();
+
+        this.writer = new AsyncLogWriter(plugin, "client", clientLogFile, 0L, 1);
+        this.writer.start();
     }
 
-    private void loadExistingLogs() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(clientLogFile))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("] ");
-                if (parts.length >= 2) {
-                    String playerName = parts[1].split(":")[0];
-                    playerLogs.computeIfAbsent(playerName, k -> new ArrayList<>()).add(line);
-                }
-            }
-        } catch (IOException e) {
-            logger.severe("Erro ao carregar logs existentes: " + e.getMessage());
-        }
+    /**
+     * Grava as linhas pendentes e fecha o arquivo. Chamado no onDisable.
+     */
+    public void close() {
+        writer.shutdown();
     }
 
     public void logClientMessage(Player player, String message) {
-        String timestamp = dateFormat.format(new Date());
-        String logMessage = String.format("[%s] %s: %s", timestamp, player.getName(), message);
-        
-        // Adicionar ao cache em memória
-        List<String> logs = playerLogs.computeIfAbsent(player.getName(), k -> new ArrayList<>());
-        logs.add(logMessage);
-        
-        // Manter apenas os últimos MAX_LOGS_PER_PLAYER logs
-        if (logs.size() > MAX_LOGS_PER_PLAYER) {
-            logs.remove(0);
-        }
-        
-        // Salvar no arquivo
-        try (FileWriter writer = new FileWriter(clientLogFile, true)) {
-            writer.write(logMessage + "\n");
-        } catch (IOException e) {
-            logger.severe("Erro ao escrever log do cliente: " + e.getMessage());
-        }
+        record(player.getName(), String.format("[%s] %s: %s", timestamp(), player.getName(), message));
     }
 
     public void logCommand(Player player, String command) {
-        String timestamp = dateFormat.format(new Date());
-        String logMessage = String.format("[%s] %s executou comando: %s", timestamp, player.getName(), command);
-        
-        // Adicionar ao cache em memória
-        List<String> logs = playerLogs.computeIfAbsent(player.getName(), k -> new ArrayList<>());
-        logs.add(logMessage);
-        
-        // Manter apenas os últimos MAX_LOGS_PER_PLAYER logs
-        if (logs.size() > MAX_LOGS_PER_PLAYER) {
-            logs.remove(0);
-        }
-        
-        // Salvar no arquivo
-        try (FileWriter writer = new FileWriter(clientLogFile, true)) {
-            writer.write(logMessage + "\n");
-        } catch (IOException e) {
-            logger.severe("Erro ao escrever log de comando: " + e.getMessage());
-        }
+        record(player.getName(), String.format("[%s] %s executou comando: %s", timestamp(), player.getName(), command));
     }
 
     public void logDatabaseOperation(Player player, String operation) {
-        String timestamp = dateFormat.format(new Date());
-        String logMessage = String.format("[%s] %s - Operação DB: %s", timestamp, player.getName(), operation);
-        
-        // Adicionar ao cache em memória
-        List<String> logs = playerLogs.computeIfAbsent(player.getName(), k -> new ArrayList<>());
-        logs.add(logMessage);
-        
-        // Manter apenas os últimos MAX_LOGS_PER_PLAYER logs
-        if (logs.size() > MAX_LOGS_PER_PLAYER) {
-            logs.remove(0);
-        }
-        
-        // Salvar no arquivo
-        try (FileWriter writer = new FileWriter(clientLogFile, true)) {
-            writer.write(logMessage + "\n");
-        } catch (IOException e) {
-            logger.severe("Erro ao escrever log de operação: " + e.getMessage());
-        }
+        record(player.getName(), String.format("[%s] %s - Operação DB: %s", timestamp(), player.getName(), operation));
     }
 
+    /**
+     * Últimas linhas do jogador. A primeira consulta de cada jogador espera a fila de escrita (até
+     * 1 s) e lê até {@code TAIL_SCAN_LIMIT} bytes do arquivo na thread chamadora: chame fora da thread
+     * principal, de preferência.
+     */
     public List<String> getPlayerLogs(String playerName) {
-        return new ArrayList<>(playerLogs.getOrDefault(playerName, new ArrayList<>()));
+        return loadedBuffer(playerName).last(MAX_LOGS_PER_PLAYER);
     }
 
     public List<String> getPlayerLogs(String playerName, int limit) {
-        List<String> logs = playerLogs.getOrDefault(playerName, new ArrayList<>());
-        int size = logs.size();
-        return new ArrayList<>(logs.subList(Math.max(0, size - limit), size));
+        return loadedBuffer(playerName).last(limit);
     }
 
     public List<String> getPlayerLogsForDay(String playerName, Date date) {
-        List<String> allLogs = playerLogs.getOrDefault(playerName, new ArrayList<>());
+        List<String> allLogs = getPlayerLogs(playerName);
         List<String> dayLogs = new ArrayList<>();
-        
+
         SimpleDateFormat dayFormat = new SimpleDateFormat("yyyy-MM-dd");
         String targetDay = dayFormat.format(date);
-        
+
         for (String log : allLogs) {
             try {
                 String logDate = log.substring(1, 11);
@@ -139,44 +96,223 @@ public class ClientLogManager {
                 logger.warning("Formato de log inválido: " + log);
             }
         }
-        
+
         return dayLogs;
     }
 
     public void clearPlayerLogs(String playerName) {
-        playerLogs.remove(playerName);
-        
-        // Reescrever arquivo sem os logs do jogador
-        try {
-            List<String> remainingLogs = new ArrayList<>();
-            try (BufferedReader reader = new BufferedReader(new FileReader(clientLogFile))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (!line.contains("] " + playerName + ":") && !line.contains("] " + playerName + " ")) {
-                        remainingLogs.add(line);
+        LogBuffer buffer = buffer(playerName);
+        synchronized (buffer) {
+            buffer.clear();
+            buffer.loaded = true;
+
+            // Reescrever arquivo sem os logs do jogador
+            try {
+                writer.withFileClosed(file -> {
+                    File temp = new File(file.getPath() + ".tmp");
+                    try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+                         BufferedWriter out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8))) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            if (!playerName.equalsIgnoreCase(playerOf(line))) {
+                                out.write(line);
+                                out.newLine();
+                            }
+                        }
                     }
+                    Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                });
+            } catch (IOException e) {
+                logger.severe("Erro ao limpar logs do jogador: " + e.getMessage());
+            }
+        }
+    }
+
+    public void clearAllLogs() {
+        try {
+            writer.withFileClosed(file -> {
+                playerLogs.clear();
+                if (file.exists()) {
+                    file.delete();
                 }
+            });
+        } catch (IOException e) {
+            logger.severe("Erro ao limpar todos os logs: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Descarta o buffer do jogador; a próxima consulta lê o arquivo de novo. Chamado na saída do jogador.
+     */
+    public void evict(String playerName) {
+        playerLogs.remove(playerName.toLowerCase());
+    }
+
+    private String timestamp() {
+        return dateFormat.format(LocalDateTime.now());
+    }
+
+    private void record(String playerName, String logMessage) {
+        // Sem buffer, a linha só vai para o arquivo. O compute ordena o append com a criação do
+        // buffer por uma consulta, que espera a fila de escrita antes de ler o arquivo
+        LogBuffer buffer = playerLogs.compute(playerName.toLowerCase(), (key, existing) -> {
+            if (existing == null) {
+                writer.append(logMessage);
+            }
+            return existing;
+        });
+        if (buffer == null) {
+            return;
+        }
+
+        // Enfileirar e guardar na mesma seção do buffer: uma carga do arquivo em andamento
+        // vê a linha no arquivo ou ela entra no buffer depois, nunca as duas coisas
+        synchronized (buffer) {
+            writer.append(logMessage);
+            if (buffer.loaded) {
+                buffer.add(logMessage);
+            }
+        }
+    }
+
+    private LogBuffer buffer(String playerName) {
+        return playerLogs.computeIfAbsent(playerName.toLowerCase(), k -> new LogBuffer(MAX_LOGS_PER_PLAYER));
+    }
+
+    private LogBuffer loadedBuffer(String playerName) {
+        LogBuffer buffer = buffer(playerName);
+        synchronized (buffer) {
+            if (!buffer.loaded) {
+                writer.awaitDrain(1000L);
+                buffer.fill(readTail(playerName, MAX_LOGS_PER_PLAYER));
+                buffer.loaded = true;
             }
-            
-            try (FileWriter writer = new FileWriter(clientLogFile)) {
-                for (String log : remainingLogs) {
-                    writer.write(log + "\n");
+        }
+        return buffer;
+    }
+
+    /**
+     * Lê o final do arquivo de trás para frente até encontrar {@code limit} linhas do jogador
+     * ou atingir {@code TAIL_SCAN_LIMIT} bytes.
+     *
+     * @return Linhas do jogador, da mais antiga para a mais recente
+     */
+    private List<String> readTail(String playerName, int limit) {
+        List<String> newestFirst = new ArrayList<>();
+        if (!clientLogFile.exists()) {
+            return newestFirst;
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(clientLogFile, "r")) {
+            long position = file.length();
+            long stop = Math.max(0L, position - TAIL_SCAN_LIMIT);
+            byte[] carry = new byte[0];
+
+            while (position > stop && newestFirst.size() < limit) {
+                int size = (int) Math.min(CHUNK_SIZE, position - stop);
+                position -= size;
+
+                // Bloco lido seguido do início de linha que sobrou do bloco anterior
+                byte[] block = new byte[size + carry.length];
+                file.seek(position);
+                file.readFully(block, 0, size);
+                System.arraycopy(carry, 0, block, size, carry.length);
+
+                int end = block.length;
+                for (int i = block.length - 1; i >= 0 && newestFirst.size() < limit; i--) {
+                    if (block[i] == '\n') {
+                        collect(block, i + 1, end, playerName, newestFirst);
+                        end = i;
+                    }
                 }
+                carry = Arrays.copyOf(block, end);
+            }
+
+            // A primeira linha do arquivo não tem quebra antes dela
+            if (position == 0 && newestFirst.size() < limit) {
+                collect(carry, 0, carry.length, playerName, newestFirst);
             }
         } catch (IOException e) {
-            logger.severe("Erro ao limpar logs do jogador: " + e.getMessage());
+            logger.severe("Erro ao carregar logs do jogador " + playerName + ": " + e.getMessage());
         }
+
+        Collections.reverse(newestFirst);
+        return newestFirst;
     }
 
-    public void clearAllLogs() {
-        playerLogs.clear();
-        if (clientLogFile.exists()) {
-            clientLogFile.delete();
-            try {
-                clientLogFile.createNewFile();
-            } catch (IOException e) {
-                logger.severe("Erro ao limpar todos os logs: " + e.getMessage());
+    private void collect(byte[] bytes, int start, int end, String playerName, List<String> lines) {
+        if (end > start && bytes[end - 1] == '\r') {
+            end--;
+        }
+        if (end <= start) {
+            return;
+        }
+
+        String line = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        if (playerName.equalsIgnoreCase(playerOf(line))) {
+            lines.add(line);
+        }
+    }
+
+    // "[data] jogador: ...", "[data] jogador executou comando: ..." ou "[data] jogador - Operação DB: ..."
+    private static String playerOf(String line) {
+        int start = line.indexOf("] ");
+        if (start < 0) {
+            return null;
+        }
+        start += 2;
+        int end = start;
+        while (end < line.length() && line.charAt(end) != ' ' && line.charAt(end) != ':') {
+            end++;
+        }
+        return line.substring(start, end);
+    }
+
+    /**
+     * Buffer circular de tamanho fixo com as linhas mais recentes de um jogador.
+     * Acessado apenas com o monitor do próprio buffer.
+     */
+    private static final class LogBuffer {
+        private final String[] entries;
+        private int start;
+        private int size;
+        private boolean loaded;
+
+        LogBuffer(int capacity) {
+            this.entries = new String[capacity];
+        }
+
+        synchronized void add(String line) {
+            if (size < entries.length) {
+                entries[(start + size) % entries.length] = line;
+                size++;
+            } else {
+                // Cheio: sobrescrever a mais antiga
+                entries[start] = line;
+                start = (start + 1) % entries.length;
+            }
+        }
+
+        synchronized void fill(List<String> oldestFirst) {
+            clear();
+            for (String line : oldestFirst) {
+                add(line);
+            }
+        }
+
+        synchronized void clear() {
+            Arrays.fill(entries, null);
+            start = 0;
+            size = 0;
+        }
+
+        synchronized List<String> last(int limit) {
+            int count = Math.max(0, Math.min(limit, size));
+            List<String> lines = new ArrayList<>(count);
+            for (int i = size - count; i < size; i++) {
+                lines.add(entries[(start + i) % entries.length]);
             }
+            return lines;
         }
     }
-} 
\ No newline at end of file
+}
@@ -1,7 +1,9 @@
 package com.seuservidor.primeleagueclans.managers;
 
 import com.seuservidor.primeleagueclans.PrimeLeagueClans;
+import com.seuservidor.primeleagueclans.database.ConnectionPool;
 import com.seuservidor.primeleagueclans.models.Clan;
+import com.seuservidor.primeleagueclans.models.EloStats;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
@@ -11,10 +13,11 @@ import java.lang.reflect.Field;
 import java.sql.*;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DatabaseManager {
     private final PrimeLeagueClans plugin;
-    private Connection connection;
+    private ConnectionPool pool;
     private final String type;
     private final String host;
     private final String database;
@@ -23,6 +26,20 @@ public class DatabaseManager {
     private final int port;
     private final String tablePrefix;
 
+    // Colunas da tabela de clãs na ordem do INSERT, associadas aos marcadores de alteração do Clan
+    private static final int[] CLAN_COLUMN_FLAGS = {
+        Clan.DIRTY_NAME, Clan.DIRTY_TAG, Clan.DIRTY_LEADER, Clan.DIRTY_LEVEL, Clan.DIRTY_XP,
+        Clan.DIRTY_POINTS, Clan.DIRTY_KILLS, Clan.DIRTY_DEATHS, Clan.DIRTY_BANK, Clan.DIRTY_DESCRIPTION
+    };
+    private static final String[] CLAN_COLUMN_NAMES = {
+        "name", "tag", "leader", "level", "xp", "points", "kills", "deaths", "bank", "description"
+    };
+
+    // Último estado gravado das relações de cada clã (ID do clã -> linhas), base da gravação por diferença
+    private final Map<String, Map<String, String>> persistedMembers = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> persistedAllies = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> persistedEnemies = new ConcurrentHashMap<>();
+
     public DatabaseManager(PrimeLeagueClans plugin) {
         this.plugin = plugin;
         this.type = plugin.getConfig().getString("database.type", "sqlite");
@@ -53,9 +70,11 @@ public class DatabaseManager {
             try {
                 Class.forName("org.sqlite.JDBC");
                 
-                // Configurar a conexão
-                connection = DriverManager.getConnection(url);
-                plugin.getLogger().info("Conectado ao banco de dados SQLite: " + dbFilePath);
+                // Configurar o pool de conexões; WAL permite leituras concorrentes com a escrita
+                // e o busy_timeout faz escritas simultâneas esperarem em vez de falhar
+                pool = new ConnectionPool(plugin, "clans", url, null, null,
+                    Arrays.asList("PRAGMA journal_mode=WAL", "PRAGMA busy_timeout=5000"));
+                plugin.getLogger().info("Conectado ao banco de dados SQLite: " + dbFilePath + " (pool de até " + pool.getMaxSize() + " conexões)");
                 
                 // Se for um novo banco de dados, criar as tabelas
                 if (isNewDatabase) {
@@ -80,9 +99,7 @@ public class DatabaseManager {
 
     public void reloadConnection() {
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
+            close();
             initialize();
         } catch (SQLException e) {
             plugin.getPluginLogger().severe("Erro ao recarregar conexão com banco de dados: " + e.getMessage());
@@ -111,7 +128,8 @@ public class DatabaseManager {
             ")", tablePrefix
         );
 
-        try (Statement stmt = connection.createStatement()) {
+        try (Connection connection = pool.getConnection();
+             Statement stmt = connection.createStatement()) {
             if (plugin.isDebugMode()) {
                 plugin.getLogger().info("[Debug] Criando tabela clans: " + createClansTable);
             }
@@ -131,7 +149,7 @@ public class DatabaseManager {
             
             if (plugin.isDebugMode()) {
                 plugin.getLogger().info("[Debug] Criando tabela members: " + createMembersTable);
-                plugin.getLogger().info("[Debug] Estado atual da conexão: " + (connection != null && !connection.isClosed()));
+                plugin.getLogger().info("[Debug] Conexões no pool - ativas: " + pool.getActiveCount() + ", ociosas: " + pool.getIdleCount());
             }
             
             stmt.execute(createMembersTable);
@@ -169,6 +187,24 @@ public class DatabaseManager {
                 ")", tablePrefix, tablePrefix
             ));
             
+            // Tabela de Elo dos jogadores
+            stmt.execute(String.format(
+                "CREATE TABLE IF NOT EXISTS %selo_players (" +
+                "player VARCHAR(32) NOT NULL PRIMARY KEY," +
+                "name VARCHAR(32) NOT NULL," +
+                "elo INTEGER NOT NULL DEFAULT 1000," +
+                "kills INTEGER DEFAULT 0," +
+                "deaths INTEGER DEFAULT 0," +
+                "wins INTEGER DEFAULT 0," +
+                "losses INTEGER DEFAULT 0," +
+                "badge VARCHAR(16)" +
+                ")", tablePrefix
+            ));
+            stmt.execute(String.format(
+                "CREATE INDEX IF NOT EXISTS %selo_players_elo ON %selo_players (elo DESC, player)",
+                tablePrefix, tablePrefix
+            ));
+            
             plugin.getLogger().info("Tabelas criadas/atualizadas com sucesso!");
         } catch (SQLException e) {
             plugin.getLogger().severe("Erro ao criar tabelas: " + e.getMessage());
@@ -182,7 +218,7 @@ public class DatabaseManager {
             return;
         }
         
-        if (connection == null) {
+        if (pool == null) {
             plugin.getLogger().severe("[ERRO-CRÍTICO] Conexão com banco de dados é null ao tentar carregar clãs");
             return;
         }
@@ -194,251 +230,257 @@ public class DatabaseManager {
         }
         
         plugin.getLogger().info("Iniciando carregamento de clãs do banco de dados");
-        plugin.getLogger().info("ClanManager atual: " + plugin.getClanManager());
 
-        try {
-            // Backup do estado atual antes de qualquer modificação
-            Map<String, Clan> oldClans = new HashMap<>();
-            Map<String, String> oldPlayerClans = new HashMap<>();
-            
-            if (plugin.getClanManager().getClans() != null) {
-                oldClans = new HashMap<>(plugin.getClanManager().getClans());
-            }
-            
-            if (plugin.getClanManager().getPlayerClans() != null) {
-                oldPlayerClans = new HashMap<>(plugin.getClanManager().getPlayerClans());
+        // O ClanManager lê tudo de uma vez por getAllClans() e monta o mapa de jogadores
+        long start = System.currentTimeMillis();
+        plugin.getClanManager().loadClans();
+        
+        plugin.getLogger().info("Total de clãs carregados: " + plugin.getClanManager().getClans().size() +
+            " em " + (System.currentTimeMillis() - start) + "ms");
+        plugin.getLogger().info("Total de mapeamentos jogador->clã: " + plugin.getClanManager().getPlayerClans().size());
+    }
+
+    /**
+     * Lê clãs e todas as suas relações com uma consulta por tabela, em vez de quatro consultas
+     * por clã. Cada tabela é lida uma única vez, ordenada por clan_id, e as linhas são encaixadas
+     * nos clãs já lidos em uma só passada.
+     *
+     * @param connection Conexão emprestada do pool
+     * @param clanId ID de um único clã, ou null para carregar todos
+     * @return Clãs carregados, na ordem dos IDs
+     */
+    private List<Clan> loadClansBulk(Connection connection, String clanId) throws SQLException {
+        String filter = clanId != null ? " WHERE clan_id = ?" : "";
+        Map<String, Clan> byId = new LinkedHashMap<>();
+
+        String query = String.format("SELECT * FROM %sclans%s ORDER BY id", tablePrefix, clanId != null ? " WHERE id = ?" : "");
+        try (PreparedStatement ps = connection.prepareStatement(query)) {
+            if (clanId != null) {
+                ps.setString(1, clanId);
             }
-            
-            plugin.getLogger().info("Estado atual antes do carregamento: " + oldClans.size() + " clãs");
-            
-            // Carregar os clãs do banco de dados
-            // Implementar o código de carregamento aqui
-            String query = String.format("SELECT * FROM %sclans", tablePrefix);
-            
-            try (PreparedStatement statement = connection.prepareStatement(query);
-                 ResultSet results = statement.executeQuery()) {
-                
-                while (results.next()) {
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
                     try {
-                        String id = results.getString("id");
-                        String name = results.getString("name");
-                        String tag = results.getString("tag");
-                        String leader = results.getString("leader");
-                        
-                        if (name != null && tag != null && leader != null) {
-                            Clan clan = new Clan(name, tag, leader);
-                            clan.setId(id);
-                            
-                            // Carregar membros do clã
-                            loadMembers(clan);
-                            
-                            // Adicionar o clã ao gerenciador
-                            plugin.getClanManager().getClans().put(id, clan);
-                            
-                            plugin.getLogger().info("Clã carregado: " + name + " com " + clan.getMembers().size() + " membros");
-                        } else {
-                            plugin.getLogger().warning("Clã com dados incompletos encontrado no banco de dados");
+                        Clan clan = readClanRow(rs);
+                        if (clan != null) {
+                            byId.put(clan.getId(), clan);
                         }
                     } catch (Exception e) {
-                        plugin.getLogger().warning("Erro ao processar um clã do banco: " + e.getMessage());
+                        plugin.getLogger().severe("Erro ao carregar clã do banco de dados: " + e.getMessage());
+                        if (plugin.isDebugMode()) {
+                            e.printStackTrace();
+                        }
                     }
                 }
             }
-            
-            // Verificação final
-            plugin.getLogger().info("Total de clãs carregados: " + plugin.getClanManager().getClans().size());
-            plugin.getLogger().info("Total de mapeamentos jogador->clã: " + plugin.getClanManager().getPlayerClans().size());
-            
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Erro SQL ao carregar clãs: " + e.getMessage());
-            if (plugin.isDebugMode()) {
-                e.printStackTrace();
-            }
-            throw e;
-        } catch (Exception e) {
-            plugin.getLogger().severe("Erro inesperado ao carregar clãs: " + e.getMessage());
-            if (plugin.isDebugMode()) {
-                e.printStackTrace();
-            }
         }
-    }
 
-    private void loadMembers(Clan clan) throws SQLException {
-        if (plugin.isDebugMode()) {
-            plugin.getLogger().info("[Debug] Carregando membros do clã " + clan.getName() + " (ID: " + clan.getId() + ")");
+        if (byId.isEmpty()) {
+            return new ArrayList<>();
         }
-        
-        String query = String.format("SELECT player, role FROM %smembers WHERE clan_id = ?", tablePrefix);
-        
-        boolean foundLeader = false;
-        
+
+        ClanCursor cursor = new ClanCursor(byId);
+        Map<String, Map<String, String>> members = new HashMap<>();
+        Map<String, Map<String, String>> allies = new HashMap<>();
+        Map<String, Map<String, String>> enemies = new HashMap<>();
+        for (String id : byId.keySet()) {
+            members.put(id, new HashMap<String, String>());
+            allies.put(id, new HashMap<String, String>());
+            enemies.put(id, new HashMap<String, String>());
+        }
+
+        // Membros. Uma falha aqui ou nas relações interrompe o carregamento: clãs sem membros deixariam
+        // os jogadores sem clã no índice reverso, e snapshots vazios estragariam a próxima gravação
+        query = String.format("SELECT clan_id, player, role FROM %smembers%s ORDER BY clan_id", tablePrefix, filter);
         try (PreparedStatement ps = connection.prepareStatement(query)) {
-            ps.setString(1, clan.getId());
+            if (clanId != null) {
+                ps.setString(1, clanId);
+            }
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
+                    Clan clan = cursor.get(rs.getString("clan_id"));
                     String player = rs.getString("player");
+                    if (clan == null || player == null) {
+                        continue;
+                    }
+
                     String role = rs.getString("role");
-                    
-                    if (player != null) {
-                        // Adicionar membro ao clã
-                        clan.addMember(player);
-                        
-                        // Adicionar membro ao mapa playerClans usando o método aprimorado
-                        plugin.getClanManager().setPlayerClan(player, clan.getId());
-                        
-                        // Se for líder, atualizar o líder do clã
-                        if (role != null && role.equals("leader")) {
-                            clan.setLeader(player);
-                            foundLeader = true;
-                            if (plugin.isDebugMode()) {
-                                plugin.getLogger().info("[Debug] Membro " + player + " carregado para o clã " + clan.getName() + " com cargo leader");
-                            }
-                        } else {
-                            if (plugin.isDebugMode()) {
-                                plugin.getLogger().info("[Debug] Membro " + player + " carregado para o clã " + clan.getName() + " com cargo " + (role != null ? role : "member"));
-                            }
-                        }
+                    members.get(clan.getId()).put(player, role != null ? role : "member");
+                    clan.addMember(player);
+
+                    if ("leader".equals(role)) {
+                        clan.setLeader(player);
+                    } else if ("subleader".equals(role)) {
+                        // Manter o cargo de sublíder, senão a próxima gravação o rebaixaria
+                        clan.addSubLeader(player);
                     }
                 }
             }
-        } catch (SQLException e) {
-            // Apenas registrar o erro, mas não interromper o carregamento
-            plugin.getLogger().warning("[Aviso] Erro ao carregar membros do clã " + clan.getName() + ": " + e.getMessage() +
-                ". Isso pode ser normal se a tabela ainda não existir.");
-            
-            if (plugin.isDebugMode()) {
-                e.printStackTrace();
-            }
-        }
-        
-        // Garantir que pelo menos o líder esteja na lista de membros
-        if (clan.getLeader() != null) {
-            clan.addMember(clan.getLeader());
-            plugin.getClanManager().setPlayerClan(clan.getLeader(), clan.getId());
-            if (plugin.isDebugMode()) {
-                plugin.getLogger().info("[Debug] Garantindo que o líder " + clan.getLeader() + " esteja na lista de membros do clã " + clan.getName());
-            }
-        } else if (!foundLeader && !clan.getMembers().isEmpty()) {
-            // Se não encontramos um líder, mas há membros, escolher o primeiro como líder
-            String newLeader = clan.getMembers().iterator().next();
-            clan.setLeader(newLeader);
-            if (plugin.isDebugMode()) {
-                plugin.getLogger().warning("[Debug] Clã " + clan.getName() + " não tinha líder. Definindo " + newLeader + " como novo líder.");
-            }
         }
-        
-        if (plugin.isDebugMode()) {
-            plugin.getLogger().info("[Debug] Total de membros carregados para o clã " + clan.getName() + ": " + clan.getMembers().size());
-            plugin.getLogger().info("[Debug] Membros: " + String.join(", ", clan.getMembers()));
-        }
-    }
 
-    private void loadAllies(Clan clan) throws SQLException {
-        if (plugin.isDebugMode()) {
-            plugin.getLogger().info("[Debug] Carregando aliados do clã " + clan.getName() + " (ID: " + clan.getId() + ")");
-        }
-        
-        String query = String.format(
-            "SELECT c.name FROM %sallies ca " +
-            "JOIN %sclans c ON ca.ally_clan_id = c.id " +
-            "WHERE ca.clan_id = ?",
-            tablePrefix, tablePrefix
-        );
-        
+        // Aliados e inimigos; LEFT JOIN para também trazer linhas gravadas com o nome do clã em vez do ID
+        loadRelationsBulk(connection, cursor, clanId, "allies", "ally_clan_id", allies, true);
+        loadRelationsBulk(connection, cursor, clanId, "enemies", "enemy_clan_id", enemies, false);
+
+        // Configurações
+        query = String.format("SELECT clan_id, setting_key, setting_value FROM %ssettings%s ORDER BY clan_id", tablePrefix, filter);
         try (PreparedStatement ps = connection.prepareStatement(query)) {
-            ps.setString(1, clan.getId());
+            if (clanId != null) {
+                ps.setString(1, clanId);
+            }
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    String allyName = rs.getString("name");
-                    if (allyName != null) {
-                        clan.addAlly(allyName);
-                        if (plugin.isDebugMode()) {
-                            plugin.getLogger().info("[Debug] Aliado " + allyName + " carregado para o clã " + clan.getName());
-                        }
+                    Clan clan = cursor.get(rs.getString("clan_id"));
+                    String key = rs.getString("setting_key");
+                    String value = rs.getString("setting_value");
+                    if (clan != null && key != null && value != null) {
+                        clan.setSetting(key, value);
                     }
                 }
             }
         } catch (SQLException e) {
-            // Apenas registrar o erro, mas não interromper o carregamento
-            plugin.getLogger().warning("[Aviso] Erro ao carregar aliados do clã " + clan.getName() + ": " + e.getMessage() +
-                ". Isso pode ser normal se a tabela ainda não existir ou não houver aliados.");
-            if (plugin.isDebugMode()) {
-                e.printStackTrace();
+            plugin.getLogger().warning("[Aviso] Erro ao carregar configurações dos clãs: " + e.getMessage());
+        }
+
+        for (Clan clan : byId.values()) {
+            // Garantir que pelo menos o líder esteja na lista de membros
+            if (clan.getLeader() != null) {
+                clan.addMember(clan.getLeader());
+            } else if (!clan.getMembers().isEmpty()) {
+                String newLeader = clan.getMembers().iterator().next();
+                clan.setLeader(newLeader);
+                if (plugin.isDebugMode()) {
+                    plugin.getLogger().warning("[Debug] Clã " + clan.getName() + " não tinha líder. Definindo " + newLeader + " como novo líder.");
+                }
             }
+
+            persistedMembers.put(clan.getId(), members.get(clan.getId()));
+            persistedAllies.put(clan.getId(), allies.get(clan.getId()));
+            persistedEnemies.put(clan.getId(), enemies.get(clan.getId()));
+
+            // Estado recém-lido do banco não tem alterações pendentes
+            clan.clearDirty();
         }
-        
+
         if (plugin.isDebugMode()) {
-            plugin.getLogger().info("[Debug] Total de aliados carregados para o clã " + clan.getName() + ": " + clan.getAllies().size());
+            plugin.getLogger().info("[Debug] Carregamento em lote: " + byId.size() + " clãs lidos em 5 consultas" +
+                (cursor.orphans > 0 ? " (" + cursor.orphans + " linhas de relação sem clã ignoradas)" : ""));
         }
+
+        return new ArrayList<>(byId.values());
     }
 
-    private void loadEnemies(Clan clan) throws SQLException {
-        if (plugin.isDebugMode()) {
-            plugin.getLogger().info("[Debug] Carregando inimigos do clã " + clan.getName() + " (ID: " + clan.getId() + ")");
-        }
-        
+    private void loadRelationsBulk(Connection connection, ClanCursor cursor, String clanId, String table, String column,
+                                   Map<String, Map<String, String>> snapshots, boolean ally) throws SQLException {
         String query = String.format(
-            "SELECT c.name FROM %senemies ce " +
-            "JOIN %sclans c ON ce.enemy_clan_id = c.id " +
-            "WHERE ce.clan_id = ?",
-            tablePrefix, tablePrefix
+            "SELECT r.clan_id, r.%s AS raw_value, c.name FROM %s%s r LEFT JOIN %sclans c ON r.%s = c.id%s ORDER BY r.clan_id",
+            column, tablePrefix, table, tablePrefix, column, clanId != null ? " WHERE r.clan_id = ?" : ""
         );
-        
         try (PreparedStatement ps = connection.prepareStatement(query)) {
-            ps.setString(1, clan.getId());
+            if (clanId != null) {
+                ps.setString(1, clanId);
+            }
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    String enemyName = rs.getString("name");
-                    if (enemyName != null) {
-                        clan.addEnemy(enemyName);
-                        if (plugin.isDebugMode()) {
-                            plugin.getLogger().info("[Debug] Inimigo " + enemyName + " carregado para o clã " + clan.getName());
-                        }
+                    Clan clan = cursor.get(rs.getString("clan_id"));
+                    String raw = rs.getString("raw_value");
+                    if (clan == null || raw == null) {
+                        continue;
+                    }
+
+                    String name = rs.getString("name");
+                    if (name == null) {
+                        name = raw;
+                    }
+                    snapshots.get(clan.getId()).put(name, raw);
+                    if (ally) {
+                        clan.addAlly(name);
+                    } else {
+                        clan.addEnemy(name);
                     }
                 }
             }
-        } catch (SQLException e) {
-            // Apenas registrar o erro, mas não interromper o carregamento
-            plugin.getLogger().warning("[Aviso] Erro ao carregar inimigos do clã " + clan.getName() + ": " + e.getMessage() +
-                ". Isso pode ser normal se a tabela ainda não existir ou não houver inimigos.");
-            if (plugin.isDebugMode()) {
-                e.printStackTrace();
-            }
         }
+    }
+
+    /**
+     * Monta o clã a partir da linha atual da tabela de clãs, ou retorna null se a linha for inválida.
+     */
+    private Clan readClanRow(ResultSet rs) throws SQLException {
+        // Obter dados básicos
+        String name = rs.getString("name");
+        String tag = rs.getString("tag");
+        String leader = rs.getString("leader");
         
-        if (plugin.isDebugMode()) {
-            plugin.getLogger().info("[Debug] Total de inimigos carregados para o clã " + clan.getName() + ": " + clan.getEnemies().size());
+        // Validar dados básicos
+        if (name == null || tag == null || leader == null) {
+            plugin.getLogger().warning("Dados inválidos encontrados no banco para clã. Name: " + name + ", Tag: " + tag + ", Leader: " + leader);
+            return null;
         }
-    }
 
-    private void loadSettings(Clan clan) throws SQLException {
-        if (plugin.isDebugMode()) {
-            plugin.getLogger().info("[Debug] Carregando configurações do clã " + clan.getName() + " (ID: " + clan.getId() + ")");
+        // Criar clã
+        Clan clan = new Clan(name, tag, leader);
+        clan.setId(String.valueOf(rs.getLong("id")));
+        
+        // Carregar dados numéricos com valores padrão seguros
+        clan.setBank(rs.getDouble("bank"));
+        clan.setPoints(rs.getInt("points"));
+        clan.setLevel(Math.max(1, rs.getInt("level"))); // Mínimo nível 1
+        clan.setXp(Math.max(0, rs.getInt("xp"))); // Mínimo 0 XP
+        clan.setKills(Math.max(0, rs.getInt("kills")));
+        clan.setDeaths(Math.max(0, rs.getInt("deaths")));
+        
+        // Carregar descrição (pode ser null)
+        String description = rs.getString("description");
+        clan.setDescription(description != null ? description : "");
+        
+        // Carregar timestamps com validação
+        long createdAt = rs.getLong("created_at");
+        long lastActivity = rs.getLong("last_activity");
+        
+        if (createdAt <= 0) {
+            createdAt = System.currentTimeMillis();
+            plugin.getLogger().warning("created_at inválido para o clã " + name + ", usando timestamp atual");
         }
         
-        String query = String.format(
-            "SELECT setting_key, setting_value FROM %ssettings WHERE clan_id = ?",
-            tablePrefix
-        );
+        if (lastActivity <= 0) {
+            lastActivity = System.currentTimeMillis();
+            plugin.getLogger().warning("last_activity inválido para o clã " + name + ", usando timestamp atual");
+        }
         
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
-            ps.setString(1, clan.getId());
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    String key = rs.getString("setting_key");
-                    String value = rs.getString("setting_value");
-                    if (key != null && value != null) {
-                        clan.setSetting(key, value);
-                        if (plugin.isDebugMode()) {
-                            plugin.getLogger().info("[Debug] Configuração carregada para o clã " + clan.getName() + ": " + key + " = " + value);
-                        }
-                    }
+        clan.setCreatedAt(createdAt);
+        clan.setLastActivity(lastActivity);
+        return clan;
+    }
+
+    /**
+     * Localiza o clã de cada linha de relação. Como as linhas vêm ordenadas por clan_id,
+     * o último clã encontrado evita a busca no mapa para as linhas seguintes do mesmo clã.
+     */
+    private static final class ClanCursor {
+        private final Map<String, Clan> byId;
+        private String lastId;
+        private Clan last;
+        private int orphans;
+
+        ClanCursor(Map<String, Clan> byId) {
+            this.byId = byId;
+        }
+
+        Clan get(String clanId) {
+            if (clanId == null) {
+                return null;
+            }
+            if (!clanId.equals(lastId)) {
+                lastId = clanId;
+                last = byId.get(clanId);
+                if (last == null) {
+                    orphans++;
                 }
+            } else if (last == null) {
+                orphans++;
             }
-        }
-        
-        if (plugin.isDebugMode()) {
-            plugin.getLogger().info("[Debug] Total de configurações carregadas para o clã " + clan.getName() + ": " + clan.getSettings().size());
+            return last;
         }
     }
 
@@ -452,12 +494,12 @@ public class DatabaseManager {
             plugin.getLogger().info("[Debug] Iniciando salvamento de todos os clãs no banco de dados");
         }
 
-        if (connection == null) {
+        if (pool == null) {
             plugin.getLogger().severe("Conexão com banco de dados não inicializada");
             try {
                 plugin.getLogger().warning("Tentando reconectar ao banco de dados...");
                 initialize();
-                if (connection == null) {
+                if (pool == null) {
                     plugin.getLogger().severe("Falha ao reconectar com o banco de dados");
                     return;
                 }
@@ -467,29 +509,6 @@ public class DatabaseManager {
             }
         }
         
-        // Verificar conexão com uma query simples
-        boolean connectionValid = false;
-        try {
-            Statement stmt = connection.createStatement();
-            ResultSet rs = stmt.executeQuery("SELECT 1");
-            connectionValid = rs.next();
-            rs.close();
-            stmt.close();
-        } catch (SQLException e) {
-            plugin.getLogger().warning("Conexão com o banco de dados parece inválida: " + e.getMessage());
-            connectionValid = false;
-        }
-        
-        if (!connectionValid) {
-            plugin.getLogger().warning("Conexão inválida durante salvamento, tentando reinicializar...");
-            try {
-                initialize();
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Erro ao reinicializar conexão: " + e.getMessage());
-                return;
-            }
-        }
-        
         // Verificar se ClanManager está disponível
         if (plugin.getClanManager() == null) {
             plugin.getLogger().severe("ClanManager é null ao tentar salvar dados");
@@ -540,153 +559,95 @@ public class DatabaseManager {
     }
 
     public List<Clan> getAllClans() {
-        List<Clan> clanList = new ArrayList<>();
-        
-        if (connection == null) {
-            plugin.getLogger().severe("Conexão com banco de dados é null ao tentar obter clãs");
-            return clanList;
-        }
-
         try {
-            String query = String.format("SELECT * FROM %sclans", tablePrefix);
-            try (PreparedStatement ps = connection.prepareStatement(query);
-                 ResultSet rs = ps.executeQuery()) {
-                
-                while (rs.next()) {
-                    try {
-                        // Obter dados básicos
-                        String name = rs.getString("name");
-                        String tag = rs.getString("tag");
-                        String leader = rs.getString("leader");
-                        
-                        // Validar dados básicos
-                        if (name == null || tag == null || leader == null) {
-                            plugin.getLogger().warning("Dados inválidos encontrados no banco para clã. Name: " + name + ", Tag: " + tag + ", Leader: " + leader);
-                            continue;
-                        }
-
-                        // Criar clã
-                        Clan clan = new Clan(name, tag, leader);
-                        
-                        // Definir ID
-                        String id = String.valueOf(rs.getLong("id"));
-                        clan.setId(id);
-                        
-                        // Carregar dados numéricos com valores padrão seguros
-                        clan.setBank(rs.getDouble("bank"));
-                        clan.setPoints(rs.getInt("points"));
-                        clan.setLevel(Math.max(1, rs.getInt("level"))); // Mínimo nível 1
-                        clan.setXp(Math.max(0, rs.getInt("xp"))); // Mínimo 0 XP
-                        clan.setKills(Math.max(0, rs.getInt("kills")));
-                        clan.setDeaths(Math.max(0, rs.getInt("deaths")));
-                        
-                        // Carregar descrição (pode ser null)
-                        String description = rs.getString("description");
-                        clan.setDescription(description != null ? description : "");
-                        
-                        // Carregar timestamps com validação
-                        long createdAt = rs.getLong("created_at");
-                        long lastActivity = rs.getLong("last_activity");
-                        
-                        if (createdAt <= 0) {
-                            createdAt = System.currentTimeMillis();
-                            plugin.getLogger().warning("created_at inválido para o clã " + name + ", usando timestamp atual");
-                        }
-                        
-                        if (lastActivity <= 0) {
-                            lastActivity = System.currentTimeMillis();
-                            plugin.getLogger().warning("last_activity inválido para o clã " + name + ", usando timestamp atual");
-                        }
-                        
-                        clan.setCreatedAt(createdAt);
-                        clan.setLastActivity(lastActivity);
-
-                        // Carregar dados relacionados de forma segura
-                        try {
-                            loadMembers(clan);
-                        } catch (Exception e) {
-                            plugin.getLogger().warning("Erro ao carregar membros do clã " + name + ": " + e.getMessage());
-                        }
-                        
-                        try {
-                            loadAllies(clan);
-                        } catch (Exception e) {
-                            plugin.getLogger().warning("Erro ao carregar aliados do clã " + name + ": " + e.getMessage());
-                        }
-                        
-                        try {
-                            loadEnemies(clan);
-                        } catch (Exception e) {
-                            plugin.getLogger().warning("Erro ao carregar inimigos do clã " + name + ": " + e.getMessage());
-                        }
-                        
-                        try {
-                            loadSettings(clan);
-                        } catch (Exception e) {
-                            plugin.getLogger().warning("Erro ao carregar configurações do clã " + name + ": " + e.getMessage());
-                        }
-
-                        // Adicionar à lista
-                        clanList.add(clan);
-                        
-                        if (plugin.isDebugMode()) {
-                            plugin.getLogger().info("Clã carregado com sucesso: " + name + " (ID: " + id + ")");
-                        }
-                    } catch (Exception e) {
-                        plugin.getLogger().severe("Erro ao carregar clã do banco de dados: " + e.getMessage());
-                        if (plugin.isDebugMode()) {
-                            e.printStackTrace();
-                        }
-                    }
-                }
-            }
+            return loadAllClans();
         } catch (SQLException e) {
             plugin.getLogger().severe("Erro ao executar query para carregar clãs: " + e.getMessage());
             if (plugin.isDebugMode()) {
                 e.printStackTrace();
             }
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Carrega todos os clãs, propagando falhas de conexão em vez de devolver uma lista vazia.
+     * Usado por quem precisa distinguir "nenhum clã" de "banco indisponível".
+     */
+    public List<Clan> loadAllClans() throws SQLException {
+        if (pool == null) {
+            throw new SQLException("Conexão com banco de dados não inicializada");
+        }
+
+        try (Connection connection = pool.getConnection()) {
+            List<Clan> clanList = loadClansBulk(connection, null);
+            if (plugin.isDebugMode()) {
+                for (Clan clan : clanList) {
+                    plugin.getLogger().info("Clã carregado com sucesso: " + clan.getName() + " (ID: " + clan.getId() + ")");
+                }
+            }
+            return clanList;
         }
-        
-        return clanList;
     }
 
     public boolean deleteClan(String id) {
+        // Relações primeiro, depois o clã, tudo na mesma transação
+        String[] statements = {
+            String.format("DELETE FROM %smembers WHERE clan_id = ?", tablePrefix),
+            String.format("DELETE FROM %sallies WHERE clan_id = ? OR ally_clan_id = ?", tablePrefix),
+            String.format("DELETE FROM %senemies WHERE clan_id = ? OR enemy_clan_id = ?", tablePrefix),
+            String.format("DELETE FROM %ssettings WHERE clan_id = ?", tablePrefix),
+            String.format("DELETE FROM %sclans WHERE id = ?", tablePrefix)
+        };
+
+        try (Connection connection = pool.getConnection()) {
+            return deleteClan(connection, id, statements);
+        } catch (SQLException e) {
+            plugin.getPluginLogger().severe("Erro ao deletar clan: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean deleteClan(Connection connection, String id, String[] statements) {
         try {
-            String sql = "DELETE FROM clans WHERE id = ?";
-            PreparedStatement stmt = connection.prepareStatement(sql);
-            stmt.setString(1, id);
-            stmt.executeUpdate();
-            
-            // Limpar dados relacionados
-            sql = "DELETE FROM clan_members WHERE clan_id = ?";
-            stmt = connection.prepareStatement(sql);
-            stmt.setString(1, id);
-            stmt.executeUpdate();
-            
-            sql = "DELETE FROM clan_allies WHERE clan_id = ? OR ally_id = ?";
-            stmt = connection.prepareStatement(sql);
-            stmt.setString(1, id);
-            stmt.setString(2, id);
-            stmt.executeUpdate();
-            
-            sql = "DELETE FROM clan_enemies WHERE clan_id = ? OR enemy_id = ?";
-            stmt = connection.prepareStatement(sql);
-            stmt.setString(1, id);
-            stmt.setString(2, id);
-            stmt.executeUpdate();
-            
-            sql = "DELETE FROM clan_settings WHERE clan_id = ?";
-            stmt = connection.prepareStatement(sql);
-            stmt.setString(1, id);
-            stmt.executeUpdate();
+            connection.setAutoCommit(false);
+            for (String sql : statements) {
+                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                    stmt.setString(1, id);
+                    if (sql.contains(" OR ")) {
+                        stmt.setString(2, id);
+                    }
+                    stmt.executeUpdate();
+                }
+            }
+            connection.commit();
             
+            persistedMembers.remove(id);
+            persistedAllies.remove(id);
+            persistedEnemies.remove(id);
             return true;
         } catch (SQLException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackEx) {
+                plugin.getLogger().severe("Erro ao fazer rollback: " + rollbackEx.getMessage());
+            }
             plugin.getPluginLogger().severe("Erro ao deletar clan: " + e.getMessage());
             return false;
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException autoCommitEx) {
+                plugin.getLogger().severe("Erro ao restaurar auto-commit: " + autoCommitEx.getMessage());
+            }
         }
     }
 
+    /**
+     * Salva o clã em uma transação, gravando apenas o que mudou. Pode ser chamado pela thread
+     * de escrita da {@link ClanSaveQueue}; salvamentos do mesmo clã são serializados para que
+     * a comparação com o último estado gravado não seja feita em paralelo.
+     */
     public boolean saveClan(Clan clan) {
         if (clan == null) {
             plugin.getLogger().severe("Tentativa de salvar clã null");
@@ -697,12 +658,12 @@ public class DatabaseManager {
             plugin.getLogger().info("[Debug] Iniciando salvamento do clã " + clan.getName());
         }
 
-        // Verificar conexão antes de tentar salvar
-        if (connection == null) {
+        // Sem verificação por salvamento: o pool valida as conexões ociosas em segundo plano
+        if (pool == null) {
             try {
                 plugin.getLogger().warning("Conexão com banco de dados nula, tentando reconectar...");
                 initialize();
-                if (connection == null) {
+                if (pool == null) {
                     plugin.getLogger().severe("Falha ao reconectar com o banco de dados");
                     return false;
                 }
@@ -712,369 +673,436 @@ public class DatabaseManager {
             }
         }
 
-        try {
-            // Verificar se a conexão está válida com uma query simples
-            boolean connectionValid = false;
-            try {
-                Statement stmt = connection.createStatement();
-                ResultSet rs = stmt.executeQuery("SELECT 1");
-                connectionValid = rs.next();
-                rs.close();
-                stmt.close();
+        synchronized (clan) {
+            try (Connection connection = pool.getConnection()) {
+                return saveClan(connection, clan);
             } catch (SQLException e) {
-                plugin.getLogger().warning("Conexão com o banco de dados parece inválida: " + e.getMessage());
-                connectionValid = false;
+                plugin.getLogger().severe("Erro ao salvar clã " + clan.getName() + ": " + e.getMessage());
+                if (plugin.isDebugMode()) {
+                    e.printStackTrace();
+                }
+                return false;
             }
-            
-            if (!connectionValid) {
-                plugin.getLogger().warning("Conexão inválida, tentando reconectar...");
-                initialize();
-                
-                // Verificar novamente após a reinicialização
-                try {
-                    Statement stmt = connection.createStatement();
-                    ResultSet rs = stmt.executeQuery("SELECT 1");
-                    connectionValid = rs.next();
-                    rs.close();
-                    stmt.close();
-                    
-                    if (!connectionValid) {
-                        plugin.getLogger().severe("Falha ao reconectar com o banco de dados");
-                        return false;
-                    }
-                } catch (SQLException e) {
-                    plugin.getLogger().severe("Falha ao verificar conexão após tentativa de reconexão: " + e.getMessage());
+        }
+    }
+
+    private boolean saveClan(Connection connection, Clan clan) throws SQLException {
+        boolean isUpdate = clan.getId() != null;
+
+        // Capturar e zerar os campos alterados; em caso de falha eles são devolvidos ao clã
+        int dirty = isUpdate ? clan.consumeDirty() : Clan.DIRTY_ALL;
+        if (dirty == 0) {
+            if (plugin.isDebugMode()) {
+                plugin.getLogger().info("[Debug] Clã " + clan.getName() + " sem alterações, nada a salvar");
+            }
+            return true;
+        }
+
+        // Usar um único bloco try-catch para todas as operações de banco de dados
+        // Isso garante que qualquer erro em uma operação será capturado e tratado
+        // Também permite que façamos rollback se necessário
+        try {
+            connection.setAutoCommit(false);
+
+            if (isUpdate) {
+                if ((dirty & Clan.DIRTY_COLUMNS) != 0 && !updateClanColumns(connection, clan, dirty)) {
+                    plugin.getLogger().severe("Falha ao salvar clã: nenhuma linha afetada");
+                    connection.rollback();
+                    clan.markDirty(dirty);
                     return false;
                 }
+            } else if (!insertClanRow(connection, clan)) {
+                connection.rollback();
+                return false;
             }
 
-            String sql;
-            boolean isUpdate = clan.getId() != null;
+            // Salvar apenas as relações que mudaram, pela diferença com o último estado gravado
+            Map<String, String> savedMembers = null;
+            Map<String, String> savedAllies = null;
+            Map<String, String> savedEnemies = null;
 
-            if (isUpdate) {
-                sql = String.format(
-                    "UPDATE %sclans SET " +
-                    "name = ?, tag = ?, leader = ?, level = ?, xp = ?, " +
-                    "points = ?, kills = ?, deaths = ?, bank = ?, " +
-                    "description = ?, last_activity = ? " +
-                    "WHERE id = ?",
-                    tablePrefix
-                );
-            } else {
-                sql = String.format(
-                    "INSERT INTO %sclans " +
-                    "(name, tag, leader, level, xp, points, kills, deaths, bank, description, created_at, last_activity) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
-                    tablePrefix
-                );
+            if ((dirty & Clan.DIRTY_MEMBERS) != 0) {
+                savedMembers = saveClanMembers(connection, clan);
             }
 
-            // Usar um único bloco try-catch para todas as operações de banco de dados
-            // Isso garante que qualquer erro em uma operação será capturado e tratado
-            // Também permite que façamos rollback se necessário
-            connection.setAutoCommit(false);
-            try {
-                try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-                    int index = 1;
-                    ps.setString(index++, clan.getName());
-                    ps.setString(index++, clan.getTag());
-                    ps.setString(index++, clan.getLeader().toLowerCase()); // Garantir que o líder seja minúsculo
-                    ps.setInt(index++, clan.getLevel());
-                    ps.setInt(index++, clan.getXp());
-                    ps.setInt(index++, clan.getPoints());
-                    ps.setInt(index++, clan.getKills());
-                    ps.setInt(index++, clan.getDeaths());
-                    ps.setDouble(index++, clan.getBank());
-                    ps.setString(index++, clan.getDescription());
-
-                    if (isUpdate) {
-                        ps.setLong(index++, System.currentTimeMillis());
-                        ps.setString(index, clan.getId());
-                    } else {
-                        ps.setLong(index++, System.currentTimeMillis());
-                        ps.setLong(index, System.currentTimeMillis());
-                    }
+            if ((dirty & Clan.DIRTY_ALLIES) != 0) {
+                savedAllies = saveClanRelations(connection, clan, clan.getAllies(), "allies", "ally_clan_id", persistedAllies);
+            }
 
-                    int affectedRows = ps.executeUpdate();
+            if ((dirty & Clan.DIRTY_ENEMIES) != 0) {
+                savedEnemies = saveClanRelations(connection, clan, clan.getEnemies(), "enemies", "enemy_clan_id", persistedEnemies);
+            }
 
-                    if (affectedRows == 0) {
-                        plugin.getLogger().severe("Falha ao salvar clã: nenhuma linha afetada");
-                        connection.rollback();
-                        return false;
-                    }
+            // Commit da transação
+            connection.commit();
 
-                    if (!isUpdate) {
-                        try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
-                            if (generatedKeys.next()) {
-                                String id = String.valueOf(generatedKeys.getLong(1));
-                                clan.setId(id);
-                                
-                                if (plugin.isDebugMode()) {
-                                    plugin.getLogger().info("[Debug] ID gerado para o clã " + clan.getName() + ": " + id);
-                                }
-                            } else {
-                                plugin.getLogger().severe("Falha ao obter ID gerado para o clã");
-                                connection.rollback();
-                                return false;
-                            }
-                        }
-                    }
-                }
+            // Só depois do commit o estado gravado passa a valer como base da próxima comparação
+            if (savedMembers != null) {
+                persistedMembers.put(clan.getId(), savedMembers);
+            }
+            if (savedAllies != null) {
+                persistedAllies.put(clan.getId(), savedAllies);
+            }
+            if (savedEnemies != null) {
+                persistedEnemies.put(clan.getId(), savedEnemies);
+            }
 
-                // Salvar membros
-                saveClanMembers(clan);
+            if (!isUpdate) {
+                clan.clearDirty();
+            }
 
-                // Salvar aliados
-                saveClanAllies(clan);
+            if (plugin.isDebugMode()) {
+                plugin.getLogger().info("[Debug] Clã " + clan.getName() + " salvo com sucesso (campos: " + Integer.toBinaryString(dirty) + ")");
+            }
 
-                // Salvar inimigos
-                saveClanEnemies(clan);
+            return true;
+        } catch (SQLException | RuntimeException e) {
+            // Rollback em caso de erro
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackEx) {
+                plugin.getLogger().severe("Erro ao fazer rollback: " + rollbackEx.getMessage());
+            }
+            if (isUpdate) {
+                clan.markDirty(dirty);
+            }
+            throw e; // Re-lançar para ser capturado pelo catch externo
+        } finally {
+            // Restaurar auto-commit
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException autoCommitEx) {
+                plugin.getLogger().severe("Erro ao restaurar auto-commit: " + autoCommitEx.getMessage());
+            }
+        }
+    }
 
-                // Commit da transação
-                connection.commit();
+    /**
+     * Atualiza somente as colunas da tabela de clãs marcadas como alteradas.
+     */
+    private boolean updateClanColumns(Connection connection, Clan clan, int dirty) throws SQLException {
+        StringBuilder sql = new StringBuilder("UPDATE ").append(tablePrefix).append("clans SET ");
+        for (int i = 0; i < CLAN_COLUMN_FLAGS.length; i++) {
+            if ((dirty & CLAN_COLUMN_FLAGS[i]) != 0) {
+                sql.append(CLAN_COLUMN_NAMES[i]).append(" = ?, ");
+            }
+        }
+        sql.append("last_activity = ? WHERE id = ?");
 
-                if (plugin.isDebugMode()) {
-                    plugin.getLogger().info("[Debug] Clã " + clan.getName() + " salvo com sucesso");
+        try (PreparedStatement ps = connection.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (int flag : CLAN_COLUMN_FLAGS) {
+                if ((dirty & flag) != 0) {
+                    bindClanColumn(ps, index++, flag, clan);
                 }
+            }
+            ps.setLong(index++, System.currentTimeMillis());
+            ps.setString(index, clan.getId());
+            return ps.executeUpdate() > 0;
+        }
+    }
 
-                return true;
-            } catch (SQLException e) {
-                // Rollback em caso de erro
-                try {
-                    connection.rollback();
-                } catch (SQLException rollbackEx) {
-                    plugin.getLogger().severe("Erro ao fazer rollback: " + rollbackEx.getMessage());
-                }
-                throw e; // Re-lançar para ser capturado pelo catch externo
-            } finally {
-                // Restaurar auto-commit
-                try {
-                    connection.setAutoCommit(true);
-                } catch (SQLException autoCommitEx) {
-                    plugin.getLogger().severe("Erro ao restaurar auto-commit: " + autoCommitEx.getMessage());
-                }
+    private boolean insertClanRow(Connection connection, Clan clan) throws SQLException {
+        String sql = String.format(
+            "INSERT INTO %sclans " +
+            "(name, tag, leader, level, xp, points, kills, deaths, bank, description, created_at, last_activity) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            tablePrefix
+        );
+
+        try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            int index = 1;
+            for (int flag : CLAN_COLUMN_FLAGS) {
+                bindClanColumn(ps, index++, flag, clan);
             }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Erro ao salvar clã " + clan.getName() + ": " + e.getMessage());
-            if (plugin.isDebugMode()) {
-                e.printStackTrace();
+            ps.setLong(index++, System.currentTimeMillis());
+            ps.setLong(index, System.currentTimeMillis());
+
+            if (ps.executeUpdate() == 0) {
+                plugin.getLogger().severe("Falha ao salvar clã: nenhuma linha afetada");
+                return false;
+            }
+
+            try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    String id = String.valueOf(generatedKeys.getLong(1));
+                    clan.setId(id);
+
+                    if (plugin.isDebugMode()) {
+                        plugin.getLogger().info("[Debug] ID gerado para o clã " + clan.getName() + ": " + id);
+                    }
+                    return true;
+                }
             }
-            return false;
         }
+
+        plugin.getLogger().severe("Falha ao obter ID gerado para o clã");
+        return false;
     }
 
-    private void saveClanMembers(Clan clan) throws SQLException {
-        if (plugin.isDebugMode()) {
-            plugin.getLogger().info("[Debug] Iniciando salvamento de membros para o clã " + clan.getName());
-            plugin.getLogger().info("[Debug] Total de membros a serem salvos: " + clan.getMembers().size());
-            plugin.getLogger().info("[Debug] Lista de membros: " + String.join(", ", clan.getMembers()));
+    private void bindClanColumn(PreparedStatement ps, int index, int flag, Clan clan) throws SQLException {
+        switch (flag) {
+            case Clan.DIRTY_NAME:
+                ps.setString(index, clan.getName());
+                break;
+            case Clan.DIRTY_TAG:
+                ps.setString(index, clan.getTag());
+                break;
+            case Clan.DIRTY_LEADER:
+                ps.setString(index, clan.getLeader().toLowerCase()); // Garantir que o líder seja minúsculo
+                break;
+            case Clan.DIRTY_LEVEL:
+                ps.setInt(index, clan.getLevel());
+                break;
+            case Clan.DIRTY_XP:
+                ps.setInt(index, clan.getXp());
+                break;
+            case Clan.DIRTY_POINTS:
+                ps.setInt(index, clan.getPoints());
+                break;
+            case Clan.DIRTY_KILLS:
+                ps.setInt(index, clan.getKills());
+                break;
+            case Clan.DIRTY_DEATHS:
+                ps.setInt(index, clan.getDeaths());
+                break;
+            case Clan.DIRTY_BANK:
+                ps.setDouble(index, clan.getBank());
+                break;
+            case Clan.DIRTY_DESCRIPTION:
+                ps.setString(index, clan.getDescription());
+                break;
+            default:
+                throw new IllegalArgumentException("Campo de clã desconhecido: " + flag);
         }
+    }
 
-        // Garantir que o líder está na lista de membros
-        Set<String> membersToSave = new HashSet<>(clan.getMembers());
+    /**
+     * Grava os membros do clã comparando com o último estado persistido: apenas entradas,
+     * saídas e mudanças de cargo geram comandos, todos em lote.
+     *
+     * @return Estado que passará a estar gravado após o commit (jogador -> cargo)
+     */
+    private Map<String, String> saveClanMembers(Connection connection, Clan clan) throws SQLException {
+        // Estado atual em memória, com nomes em minúsculo e o líder sempre presente
+        Map<String, String> target = new HashMap<>();
+        for (String member : new ArrayList<>(clan.getMembers())) {
+            if (member == null || member.isEmpty()) {
+                continue;
+            }
+            String memberLower = member.toLowerCase();
+            target.put(memberLower, getMemberRole(clan, memberLower));
+        }
         if (clan.getLeader() != null && !clan.getLeader().isEmpty()) {
-            membersToSave.add(clan.getLeader().toLowerCase());
+            target.put(clan.getLeader().toLowerCase(), "leader");
         }
 
-        // Garantir que todos os nomes estão em minúsculo
-        Set<String> normalizedMembers = new HashSet<>();
-        for (String member : membersToSave) {
-            normalizedMembers.add(member.toLowerCase());
+        Map<String, String> persisted = persistedMembers.get(clan.getId());
+        if (persisted == null) {
+            persisted = readPersistedMembers(connection, clan.getId());
         }
 
-        // Primeiro, remove todos os membros existentes
-        String deleteSql = String.format("DELETE FROM %smembers WHERE clan_id = ?", tablePrefix);
-        try (PreparedStatement ps = connection.prepareStatement(deleteSql)) {
-            ps.setString(1, clan.getId());
-            int deletedRows = ps.executeUpdate();
-            
-            if (plugin.isDebugMode()) {
-                plugin.getLogger().info("[Debug] Membros removidos: " + deletedRows);
+        List<String> toDelete = new ArrayList<>();
+        List<String> toInsert = new ArrayList<>();
+        List<String> toUpdate = new ArrayList<>();
+
+        for (String player : persisted.keySet()) {
+            if (!target.containsKey(player)) {
+                toDelete.add(player);
+            }
+        }
+        for (Map.Entry<String, String> entry : target.entrySet()) {
+            String persistedRole = persisted.get(entry.getKey());
+            if (persistedRole == null) {
+                toInsert.add(entry.getKey());
+            } else if (!persistedRole.equals(entry.getValue())) {
+                toUpdate.add(entry.getKey());
             }
         }
 
-        // Depois, insere os membros atuais
-        String insertSql = String.format(
-            "INSERT INTO %smembers (clan_id, player, role) VALUES (?, ?, ?)",
-            tablePrefix
-        );
-
-        if (plugin.isDebugMode()) {
-            plugin.getLogger().info("[Debug] Salvando " + normalizedMembers.size() + " membros normalizados");
+        if (!toDelete.isEmpty()) {
+            String sql = String.format("DELETE FROM %smembers WHERE clan_id = ? AND player = ?", tablePrefix);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (String player : toDelete) {
+                    ps.setString(1, clan.getId());
+                    ps.setString(2, player);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
         }
 
-        try (PreparedStatement ps = connection.prepareStatement(insertSql)) {
-            for (String member : normalizedMembers) {
-                if (member == null || member.isEmpty()) {
-                    continue;
+        if (!toInsert.isEmpty()) {
+            String sql = String.format("INSERT INTO %smembers (clan_id, player, role) VALUES (?, ?, ?)", tablePrefix);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (String player : toInsert) {
+                    ps.setString(1, clan.getId());
+                    ps.setString(2, player);
+                    ps.setString(3, target.get(player));
+                    ps.addBatch();
                 }
-                
-                String memberLower = member.toLowerCase();
-                boolean isLeader = clan.isLeader(memberLower);
-                boolean isSubLeader = clan.isSubLeader(memberLower);
-                String role = isLeader ? "leader" : (isSubLeader ? "subleader" : "member");
-                
-                ps.setString(1, clan.getId());
-                ps.setString(2, memberLower);
-                ps.setString(3, role);
-                
-                try {
-                    ps.executeUpdate();
-                    
-                    // Atualizar o mapeamento playerClans sempre com o nome em minúsculo
-                    if (plugin.getClanManager() != null) {
-                        plugin.getClanManager().getPlayerClans().put(memberLower, clan.getId());
-                    } else {
-                        plugin.getLogger().warning("ClanManager é nulo ao tentar atualizar mapeamento para " + memberLower);
-                    }
-                    
-                    if (plugin.isDebugMode()) {
-                        plugin.getLogger().info("[Debug] Membro " + memberLower + " salvo com sucesso (role: " + role + ")");
-                    }
-                } catch (SQLException e) {
-                    plugin.getLogger().severe("Erro ao salvar membro " + memberLower + " do clã " + clan.getName() + ": " + e.getMessage());
-                    if (plugin.isDebugMode()) {
-                        e.printStackTrace();
-                    }
-                    throw e; // Re-lançar para garantir que a transação seja revertida
+                ps.executeBatch();
+            }
+        }
+
+        if (!toUpdate.isEmpty()) {
+            String sql = String.format("UPDATE %smembers SET role = ? WHERE clan_id = ? AND player = ?", tablePrefix);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (String player : toUpdate) {
+                    ps.setString(1, target.get(player));
+                    ps.setString(2, clan.getId());
+                    ps.setString(3, player);
+                    ps.addBatch();
                 }
+                ps.executeBatch();
             }
         }
-        
+
         if (plugin.isDebugMode()) {
-            plugin.getLogger().info("[Debug] Salvamento de membros concluído para o clã " + clan.getName());
-            plugin.getLogger().info("[Debug] Verificando mapeamento playerClans após salvamento:");
-            
-            if (plugin.getClanManager() != null) {
-                for (String member : normalizedMembers) {
-                    String memberLower = member.toLowerCase();
-                    String clanId = plugin.getClanManager().getPlayerClans().get(memberLower);
-                    plugin.getLogger().info("[Debug] " + memberLower + " -> " + clanId);
-                    
-                    // Verificar se o mapeamento está correto
-                    if (!clan.getId().equals(clanId)) {
-                        plugin.getLogger().warning("Mapeamento incorreto para " + memberLower + ": esperado " + clan.getId() + ", obtido " + clanId);
-                        plugin.getClanManager().getPlayerClans().put(memberLower, clan.getId());
+            plugin.getLogger().info("[Debug] Membros do clã " + clan.getName() + " salvos - inseridos: " + toInsert.size() +
+                ", removidos: " + toDelete.size() + ", cargos atualizados: " + toUpdate.size());
+        }
+
+        return target;
+    }
+
+    private String getMemberRole(Clan clan, String member) {
+        if (clan.isLeader(member)) {
+            return "leader";
+        }
+        return clan.isSubLeader(member) ? "subleader" : "member";
+    }
+
+    private Map<String, String> readPersistedMembers(Connection connection, String clanId) throws SQLException {
+        Map<String, String> persisted = new HashMap<>();
+        String query = String.format("SELECT player, role FROM %smembers WHERE clan_id = ?", tablePrefix);
+        try (PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setString(1, clanId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String player = rs.getString("player");
+                    if (player != null) {
+                        String role = rs.getString("role");
+                        persisted.put(player, role != null ? role : "member");
                     }
                 }
-            } else {
-                plugin.getLogger().warning("ClanManager é nulo ao tentar verificar mapeamentos");
             }
         }
+        return persisted;
     }
 
-    private void saveClanAllies(Clan clan) throws SQLException {
-        String deleteSql = String.format("DELETE FROM %sallies WHERE clan_id = ?", tablePrefix);
-        try (PreparedStatement ps = connection.prepareStatement(deleteSql)) {
-            ps.setString(1, clan.getId());
-            ps.executeUpdate();
+    /**
+     * Grava aliados ou inimigos do clã aplicando apenas a diferença em relação ao último estado persistido.
+     *
+     * @return Estado que passará a estar gravado após o commit (valor no clã -> valor na coluna)
+     */
+    private Map<String, String> saveClanRelations(Connection connection, Clan clan, Set<String> current, String table, String column,
+                                                  Map<String, Map<String, String>> snapshots) throws SQLException {
+        Set<String> target = new HashSet<>(current);
+
+        Map<String, String> persisted = snapshots.get(clan.getId());
+        if (persisted == null) {
+            persisted = readPersistedRelations(connection, clan.getId(), table, column);
         }
 
-        if (!clan.getAllies().isEmpty()) {
-            String insertSql = String.format(
-                "INSERT INTO %sallies (clan_id, ally_clan_id) VALUES (?, ?)",
-                tablePrefix
-            );
+        Map<String, String> saved = new HashMap<>();
+        List<String> toDelete = new ArrayList<>();
+        for (Map.Entry<String, String> entry : persisted.entrySet()) {
+            if (target.contains(entry.getKey())) {
+                saved.put(entry.getKey(), entry.getValue());
+            } else {
+                toDelete.add(entry.getValue());
+            }
+        }
+
+        List<String> toInsert = new ArrayList<>();
+        for (String value : target) {
+            if (!persisted.containsKey(value)) {
+                toInsert.add(value);
+                saved.put(value, value);
+            }
+        }
 
-            try (PreparedStatement ps = connection.prepareStatement(insertSql)) {
-                for (String allyId : clan.getAllies()) {
+        if (!toDelete.isEmpty()) {
+            String sql = String.format("DELETE FROM %s%s WHERE clan_id = ? AND %s = ?", tablePrefix, table, column);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (String raw : toDelete) {
                     ps.setString(1, clan.getId());
-                    ps.setString(2, allyId);
+                    ps.setString(2, raw);
                     ps.addBatch();
                 }
                 ps.executeBatch();
             }
         }
-    }
-
-    private void saveClanEnemies(Clan clan) throws SQLException {
-        String deleteSql = String.format("DELETE FROM %senemies WHERE clan_id = ?", tablePrefix);
-        try (PreparedStatement ps = connection.prepareStatement(deleteSql)) {
-            ps.setString(1, clan.getId());
-            ps.executeUpdate();
-        }
 
-        if (!clan.getEnemies().isEmpty()) {
-            String insertSql = String.format(
-                "INSERT INTO %senemies (clan_id, enemy_clan_id) VALUES (?, ?)",
-                tablePrefix
-            );
-
-            try (PreparedStatement ps = connection.prepareStatement(insertSql)) {
-                for (String enemyId : clan.getEnemies()) {
+        if (!toInsert.isEmpty()) {
+            String sql = String.format("INSERT INTO %s%s (clan_id, %s) VALUES (?, ?)", tablePrefix, table, column);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (String value : toInsert) {
                     ps.setString(1, clan.getId());
-                    ps.setString(2, enemyId);
+                    ps.setString(2, value);
                     ps.addBatch();
                 }
                 ps.executeBatch();
             }
         }
+
+        if (plugin.isDebugMode()) {
+            plugin.getLogger().info("[Debug] Tabela " + table + " do clã " + clan.getName() + " salva - inseridos: " +
+                toInsert.size() + ", removidos: " + toDelete.size());
+        }
+
+        return saved;
+    }
+
+    /**
+     * Lê as relações gravadas de um clã. O valor no clã é o nome do clã relacionado quando a coluna
+     * aponta para um ID existente, ou o próprio valor da coluna caso contrário.
+     */
+    private Map<String, String> readPersistedRelations(Connection connection, String clanId, String table, String column) throws SQLException {
+        Map<String, String> persisted = new HashMap<>();
+        String query = String.format(
+            "SELECT r.%s AS raw_value, c.name FROM %s%s r LEFT JOIN %sclans c ON r.%s = c.id WHERE r.clan_id = ?",
+            column, tablePrefix, table, tablePrefix, column
+        );
+        try (PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setString(1, clanId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String raw = rs.getString("raw_value");
+                    String name = rs.getString("name");
+                    if (raw != null) {
+                        persisted.put(name != null ? name : raw, raw);
+                    }
+                }
+            }
+        }
+        return persisted;
     }
 
     public void close() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            plugin.getPluginLogger().severe("Erro ao fechar conexão com banco de dados: " + e.getMessage());
+        if (pool != null) {
+            pool.close();
+            pool = null;
         }
     }
 
+    /**
+     * Pool de conexões do banco de clãs, para componentes que gravam nas mesmas tabelas.
+     */
+    public ConnectionPool getConnectionPool() {
+        return pool;
+    }
+
     public void updateClan(Clan clan) {
         if (clan == null || clan.getId() == null) {
             plugin.getLogger().warning("Tentativa de atualizar clã nulo ou sem ID");
             return;
         }
 
-        try {
-            String query = String.format(
-                "UPDATE %sclans SET " +
-                "name = ?, " +
-                "tag = ?, " +
-                "leader = ?, " +
-                "level = ?, " +
-                "xp = ?, " +
-                "points = ?, " +
-                "kills = ?, " +
-                "deaths = ?, " +
-                "bank = ?, " +
-                "description = ?, " +
-                "last_activity = ? " +
-                "WHERE id = ?",
-                tablePrefix
-            );
-
-            try (PreparedStatement ps = connection.prepareStatement(query)) {
-                ps.setString(1, clan.getName());
-                ps.setString(2, clan.getTag());
-                ps.setString(3, clan.getLeader());
-                ps.setInt(4, clan.getLevel());
-                ps.setInt(5, clan.getXp());
-                ps.setInt(6, clan.getPoints());
-                ps.setInt(7, clan.getKills());
-                ps.setInt(8, clan.getDeaths());
-                ps.setDouble(9, clan.getBank());
-                ps.setString(10, clan.getDescription());
-                ps.setLong(11, System.currentTimeMillis());
-                ps.setString(12, clan.getId());
-
-                ps.executeUpdate();
-
-                // Atualizar membros, aliados e inimigos
-                saveClanMembers(clan);
-                saveClanAllies(clan);
-                saveClanEnemies(clan);
-
-                if (plugin.isDebugMode()) {
-                    plugin.getLogger().info("[Debug] Clã atualizado com sucesso: " + clan.getName() + " (ID: " + clan.getId() + ")");
-                }
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Erro ao atualizar clã " + clan.getName() + ": " + e.getMessage());
-            if (plugin.isDebugMode()) {
-                e.printStackTrace();
-            }
+        // As colunas e relações alteradas já estão marcadas no próprio clã
+        if (saveClan(clan) && plugin.isDebugMode()) {
+            plugin.getLogger().info("[Debug] Clã atualizado com sucesso: " + clan.getName() + " (ID: " + clan.getId() + ")");
         }
     }
 
@@ -1090,7 +1118,8 @@ public class DatabaseManager {
             tablePrefix
         );
 
-        try (PreparedStatement ps = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, clan.getName());
             ps.setString(2, clan.getTag());
             ps.setString(3, clan.getLeader());
@@ -1139,7 +1168,7 @@ public class DatabaseManager {
      * @return ID do clã ou null se o jogador não pertencer a nenhum clã
      */
     public String getPlayerClanId(String playerName) {
-        if (connection == null) {
+        if (pool == null) {
             plugin.getLogger().severe("Conexão com banco de dados é null ao tentar obter ID do clã do jogador");
             return null;
         }
@@ -1149,7 +1178,8 @@ public class DatabaseManager {
             tablePrefix
         );
         
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
             ps.setString(1, playerName.toLowerCase());
             
             try (ResultSet rs = ps.executeQuery()) {
@@ -1179,59 +1209,19 @@ public class DatabaseManager {
      * @return Objeto Clan ou null se não encontrado
      */
     public Clan getClan(String clanId) {
-        if (connection == null) {
+        if (pool == null) {
             plugin.getLogger().severe("Conexão com banco de dados é null ao tentar obter clã pelo ID");
             return null;
         }
         
-        String query = String.format("SELECT * FROM %sclans WHERE id = ?", tablePrefix);
-        
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
-            ps.setLong(1, Long.parseLong(clanId));
-            
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    String name = rs.getString("name");
-                    String tag = rs.getString("tag");
-                    String leader = rs.getString("leader");
-                    
-                    // Validar dados básicos
-                    if (name == null || tag == null || leader == null) {
-                        plugin.getLogger().warning("Dados inválidos encontrados no banco para clã. ID: " + clanId);
-                        return null;
-                    }
-                    
-                    // Criar objeto Clan
-                    Clan clan = new Clan(name, tag, leader);
-                    clan.setId(clanId);
-                    
-                    // Carregar dados numéricos
-                    clan.setBank(rs.getDouble("bank"));
-                    clan.setPoints(rs.getInt("points"));
-                    clan.setLevel(Math.max(1, rs.getInt("level")));
-                    clan.setXp(Math.max(0, rs.getInt("xp")));
-                    clan.setKills(Math.max(0, rs.getInt("kills")));
-                    clan.setDeaths(Math.max(0, rs.getInt("deaths")));
-                    
-                    // Carregar descrição
-                    String description = rs.getString("description");
-                    clan.setDescription(description != null ? description : "");
-                    
-                    // Carregar timestamps
-                    long createdAt = rs.getLong("created_at");
-                    long lastActivity = rs.getLong("last_activity");
-                    clan.setCreatedAt(createdAt > 0 ? createdAt : System.currentTimeMillis());
-                    clan.setLastActivity(lastActivity > 0 ? lastActivity : System.currentTimeMillis());
-                    
-                    // Carregar membros
-                    loadMembers(clan);
-                    
-                    if (plugin.isDebugMode()) {
-                        plugin.getLogger().info("[Debug] Clã carregado do banco de dados: " + clan.getName() + " (ID: " + clanId + ")");
-                    }
-                    
-                    return clan;
+        try (Connection connection = pool.getConnection()) {
+            List<Clan> loaded = loadClansBulk(connection, clanId);
+            if (!loaded.isEmpty()) {
+                Clan clan = loaded.get(0);
+                if (plugin.isDebugMode()) {
+                    plugin.getLogger().info("[Debug] Clã carregado do banco de dados: " + clan.getName() + " (ID: " + clanId + ")");
                 }
+                return clan;
             }
         } catch (SQLException e) {
             plugin.getLogger().warning("Erro ao carregar clã do banco de dados: " + e.getMessage());
@@ -1242,4 +1232,85 @@ public class DatabaseManager {
         
         return null;
     }
-} 
\ No newline at end of file
+
+    /**
+     * Carrega a pontuação de elo de todos os jogadores.
+     *
+     * @return Estatísticas de cada jogador registrado
+     */
+    public List<EloStats> loadEloPlayers() throws SQLException {
+        if (pool == null) {
+            throw new SQLException("Pool de conexões não inicializado");
+        }
+
+        List<EloStats> players = new ArrayList<>();
+        String query = String.format(
+            "SELECT name, elo, kills, deaths, wins, losses, badge FROM %selo_players", tablePrefix
+        );
+        try (Connection connection = pool.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            while (rs.next()) {
+                players.add(new EloStats(rs.getString("name"), rs.getInt("elo"), rs.getInt("kills"),
+                    rs.getInt("deaths"), rs.getInt("wins"), rs.getInt("losses"), rs.getString("badge")));
+            }
+        }
+        return players;
+    }
+
+    /**
+     * Grava a pontuação de elo de vários jogadores em uma única transação.
+     *
+     * @param players Cópias das estatísticas a gravar
+     * @return true se o lote foi gravado
+     */
+    public boolean saveEloPlayers(Collection<EloStats> players) {
+        if (players.isEmpty()) {
+            return true;
+        }
+        if (pool == null) {
+            plugin.getLogger().severe("Conexão com banco de dados é null ao tentar salvar elo");
+            return false;
+        }
+
+        String sql = String.format(
+            "INSERT OR REPLACE INTO %selo_players (player, name, elo, kills, deaths, wins, losses, badge) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", tablePrefix
+        );
+
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (EloStats stats : players) {
+                    ps.setString(1, stats.getKey());
+                    ps.setString(2, stats.getName());
+                    ps.setInt(3, stats.getElo());
+                    ps.setInt(4, stats.getKills());
+                    ps.setInt(5, stats.getDeaths());
+                    ps.setInt(6, stats.getWins());
+                    ps.setInt(7, stats.getLosses());
+                    ps.setString(8, stats.getBadge());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+
+            if (plugin.isDebugMode()) {
+                plugin.getLogger().info("[Debug] Elo de " + players.size() + " jogadores gravado no banco de dados");
+            }
+            return true;
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Erro ao salvar elo dos jogadores: " + e.getMessage());
+            if (plugin.isDebugMode()) {
+                e.printStackTrace();
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.seuservidor.primeleagueclans.managers;
+
+import com.seuservidor.primeleagueclans.PrimeLeagueClans;
+import com.seuservidor.primeleagueclans.models.EloStats;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pontuação de elo dos jogadores, guardada na tabela {@code elo_players}.
+ *
+ * Todas as estatísticas ficam em memória, com um ranking em skip list atualizado a cada mudança de
+ * elo. As alterações só marcam o jogador como pendente; a cada {@code elo.save-interval} segundos
+ * as pendências são copiadas na thread principal e gravadas em lote em segundo plano.
+ *
+ * Deve ser usado apenas na thread principal.
+ */
+public class EloManager {
+    private final PrimeLeagueClans plugin;
+    private final Map<String, EloStats> players = new HashMap<>();
+    private final EloRanking ranking = new EloRanking();
+    private final Set<String> dirty = new LinkedHashSet<>();
+    // Gravações em segundo plano e a gravação final não podem se sobrepor nem chegar fora de ordem
+    private final Object saveLock = new Object();
+    private boolean saving;
+    // Lote entregue à gravação em segundo plano e ainda não confirmado; protegido por saveLock
+    private List<EloStats> inFlight;
+    private volatile boolean closed;
+    private BukkitTask saveTask;
+
+    public EloManager(PrimeLeagueClans plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Carrega o elo do banco, migrando o antigo elo.yml na primeira vez, e inicia a gravação periódica.
+     *
+     * @return false se o elo não pôde ser lido; o manager não deve ser usado, para que jogadores
+     *         recomeçando do elo inicial não sobrescrevam o que está no banco
+     */
+    public boolean load() {
+        players.clear();
+        ranking.clear();
+
+        try {
+            for (EloStats stats : plugin.getDatabaseManager().loadEloPlayers()) {
+                players.put(stats.getKey(), stats);
+                ranking.insert(stats.getKey(), stats.getElo());
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Erro ao carregar elo dos jogadores: " + e.getMessage());
+            if (plugin.isDebugMode()) {
+                e.printStackTrace();
+            }
+            return false;
+        }
+
+        migrateYaml();
+
+        long interval = Math.max(1L, plugin.getConfig().getLong("elo.save-interval", 30)) * 20L;
+        saveTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::saveAsync, interval, interval);
+
+        if (plugin.isDebugMode()) {
+            plugin.getLogger().info("[Debug] Elo carregado: " + players.size() + " jogadores no ranking");
+        }
+        return true;
+    }
+
+    /**
+     * Para a gravação periódica e grava as pendências na thread atual, junto com um lote em
+     * segundo plano que ainda não foi gravado. Chamado no onDisable.
+     */
+    public void shutdown() {
+        if (saveTask != null) {
+            saveTask.cancel();
+            saveTask = null;
+        }
+
+        synchronized (saveLock) {
+            closed = true;
+            // O lote pendente sai de dirty ao ser entregue; o estado mais recente de cada jogador prevalece
+            Map<String, EloStats> merged = new LinkedHashMap<>();
+            if (inFlight != null) {
+                for (EloStats stats : inFlight) {
+                    merged.put(stats.getKey(), stats);
+                }
+                inFlight = null;
+            }
+            for (EloStats stats : drainDirty()) {
+                merged.put(stats.getKey(), stats);
+            }
+
+            List<EloStats> batch = new ArrayList<>(merged.values());
+            if (!batch.isEmpty() && !plugin.getDatabaseManager().saveEloPlayers(batch)) {
+                plugin.getLogger().severe("Não foi possível gravar o elo de " + batch.size() + " jogadores ao desligar");
+            }
+        }
+    }
+
+    /**
+     * @return Estatísticas do jogador, ou null se ele nunca teve elo registrado
+     */
+    public EloStats getStats(String playerName) {
+        return players.get(playerName.toLowerCase());
+    }
+
+    public int getElo(String playerName) {
+        EloStats stats = getStats(playerName);
+        return stats != null ? stats.getElo() : EloStats.DEFAULT_ELO;
+    }
+
+    public void setElo(String playerName, int elo) {
+        EloStats stats = getOrCreate(playerName);
+        if (stats.getElo() != elo) {
+            ranking.remove(stats.getKey(), stats.getElo());
+            stats.setElo(elo);
+            ranking.insert(stats.getKey(), elo);
+        }
+        markDirty(stats);
+    }
+
+    public int addElo(String playerName, int amount) {
+        int elo = getElo(playerName) + amount;
+        setElo(playerName, elo);
+        return elo;
+    }
+
+    /**
+     * Volta o jogador ao elo inicial e zera as estatísticas de combate.
+     */
+    public void reset(String playerName) {
+        setElo(playerName, EloStats.DEFAULT_ELO);
+        EloStats stats = getStats(playerName);
+        stats.setKills(0);
+        stats.setDeaths(0);
+        stats.setWins(0);
+        stats.setLosses(0);
+    }
+
+    public void setBadge(String playerName, String badge) {
+        EloStats stats = getOrCreate(playerName);
+        stats.setBadge(badge);
+        markDirty(stats);
+    }
+
+    /**
+     * @return Posição do jogador no ranking (a partir de 1), ou 0 se ele não tem elo registrado
+     */
+    public int getRank(String playerName) {
+        EloStats stats = getStats(playerName);
+        return stats != null ? ranking.rank(stats.getKey(), stats.getElo()) : 0;
+    }
+
+    public int getRankedCount() {
+        return ranking.size();
+    }
+
+    /**
+     * @return Os {@code limit} jogadores com maior elo, em ordem
+     */
+    public List<EloStats> getTop(int limit) {
+        List<EloStats> top = new ArrayList<>(limit);
+        for (String key : ranking.top(limit)) {
+            top.add(players.get(key));
+        }
+        return top;
+    }
+
+    public int getPendingCount() {
+        return dirty.size();
+    }
+
+    /**
+     * Atualiza o nome exibido no ranking com o do jogador online. O elo.yml guardava os nomes em
+     * minúsculas, então jogadores migrados recuperam o case ao entrar no servidor.
+     */
+    public void updateName(Player player) {
+        EloStats stats = players.get(player.getName().toLowerCase());
+        if (stats != null) {
+            refreshName(stats, player.getName());
+        }
+    }
+
+    private EloStats getOrCreate(String playerName) {
+        String key = playerName.toLowerCase();
+        EloStats stats = players.get(key);
+        if (stats == null) {
+            stats = new EloStats(playerName);
+            players.put(key, stats);
+            ranking.insert(key, stats.getElo());
+        } else {
+            // Nomes digitados em comandos podem vir com outro case; só o do jogador online vale
+            Player online = plugin.getServer().getPlayerExact(playerName);
+            if (online != null) {
+                refreshName(stats, online.getName());
+            }
+        }
+        return stats;
+    }
+
+    private void refreshName(EloStats stats, String name) {
+        if (!stats.getName().equals(name)) {
+            stats.setName(name);
+            markDirty(stats);
+        }
+    }
+
+    private void markDirty(EloStats stats) {
+        dirty.add(stats.getKey());
+    }
+
+    private List<EloStats> drainDirty() {
+        List<EloStats> batch = new ArrayList<>(dirty.size());
+        for (String key : dirty) {
+            EloStats stats = players.get(key);
+            if (stats != null) {
+                batch.add(stats.copy());
+            }
+        }
+        dirty.clear();
+        return batch;
+    }
+
+    private void saveAsync() {
+        // Um lote por vez: o próximo só sai quando o anterior terminar
+        if (saving || dirty.isEmpty()) {
+            return;
+        }
+
+        final List<EloStats> batch = drainDirty();
+        final DatabaseManager databaseManager = plugin.getDatabaseManager();
+        saving = true;
+        synchronized (saveLock) {
+            inFlight = batch;
+        }
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            boolean saved;
+            synchronized (saveLock) {
+                // Depois do shutdown a gravação final já levou este lote junto com o estado mais recente
+                if (closed) {
+                    return;
+                }
+                saved = databaseManager.saveEloPlayers(batch);
+                if (saved) {
+                    inFlight = null;
+                }
+            }
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                saving = false;
+                if (!saved) {
+                    // Tentar de novo no próximo ciclo; o estado atual em memória é o que será gravado
+                    synchronized (saveLock) {
+                        if (inFlight == batch) {
+                            inFlight = null;
+                        }
+                    }
+                    for (EloStats stats : batch) {
+                        dirty.add(stats.getKey());
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * Importa o elo.yml usado pelas versões anteriores e o renomeia para elo.yml.migrated.
+     * Jogadores que já estão no banco mantêm os valores do banco.
+     */
+    private void migrateYaml() {
+        File eloFile = new File(plugin.getDataFolder(), "elo.yml");
+        if (!eloFile.exists()) {
+            return;
+        }
+
+        FileConfiguration eloConfig = YamlConfiguration.loadConfiguration(eloFile);
+        ConfigurationSection section = eloConfig.getConfigurationSection("players");
+        int migrated = 0;
+        int skipped = 0;
+
+        if (section != null) {
+            for (String playerName : section.getKeys(false)) {
+                // Entradas com cara de UUID ou hash não eram exibidas no top e não são nomes de jogador
+                if (playerName.length() > 16) {
+                    skipped++;
+                    continue;
+                }
+                if (players.containsKey(playerName.toLowerCase())) {
+                    continue;
+                }
+
+                String path = playerName + ".";
+                EloStats stats = new EloStats(playerName,
+                    section.getInt(path + "elo", EloStats.DEFAULT_ELO),
+                    section.getInt(path + "stats.kills", 0),
+                    section.getInt(path + "stats.deaths", 0),
+                    section.getInt(path + "stats.wins", 0),
+                    section.getInt(path + "stats.losses", 0),
+                    section.getString(path + "badge"));
+                players.put(stats.getKey(), stats);
+                ranking.insert(stats.getKey(), stats.getElo());
+                markDirty(stats);
+                migrated++;
+            }
+        }
+
+        List<EloStats> batch = drainDirty();
+        if (!plugin.getDatabaseManager().saveEloPlayers(batch)) {
+            plugin.getLogger().severe("Falha ao migrar elo.yml para o banco de dados; a migração será repetida na próxima inicialização");
+            for (EloStats stats : batch) {
+                dirty.add(stats.getKey());
+            }
+            return;
+        }
+
+        File migratedFile = new File(plugin.getDataFolder(), "elo.yml.migrated");
+        if (!eloFile.renameTo(migratedFile)) {
+            plugin.getLogger().warning("Não foi possível renomear elo.yml após a migração");
+        }
+        plugin.getLogger().info("elo.yml migrado para o banco de dados: " + migrated + " jogadores" +
+            (skipped > 0 ? " (" + skipped + " entradas inválidas ignoradas)" : ""));
+    }
+}
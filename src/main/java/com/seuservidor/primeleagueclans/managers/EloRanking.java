@@ -0,0 +1,166 @@
+package com.seuservidor.primeleagueclans.managers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ranking de elo em uma skip list indexável: cada ponteiro guarda quantas posições ele pula, o
+ * que permite calcular a posição de um jogador durante a própria busca.
+ *
+ * Ordem: maior elo primeiro, empates pelo nome em ordem alfabética. Inserção, remoção e posição
+ * custam O(log n) esperado; os k primeiros saem em O(k).
+ *
+ * Não é thread-safe: usado apenas pelo EloManager na thread principal.
+ */
+class EloRanking {
+    private static final int MAX_LEVEL = 32;
+    private static final double LEVEL_PROBABILITY = 0.25;
+
+    private final Node head = new Node(null, 0, MAX_LEVEL);
+    private int level = 1;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    void insert(String key, int elo) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && precedes(x.next[i], elo, key)) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                update[i].span[i] = size;
+            }
+            level = nodeLevel;
+        }
+
+        Node node = new Node(key, elo, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+
+        // Níveis acima do novo nó passam a pular uma posição a mais
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    boolean remove(String key, int elo) {
+        Node[] update = new Node[MAX_LEVEL];
+
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && precedes(x.next[i], elo, key)) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        x = x.next[0];
+        if (x == null || x.elo != elo || !x.key.equals(key)) {
+            return false;
+        }
+
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == x) {
+                update[i].span[i] += x.span[i] - 1;
+                update[i].next[i] = x.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * @return Posição (a partir de 1) do jogador com este elo, ou 0 se ele não está no ranking
+     */
+    int rank(String key, int elo) {
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && (precedes(x.next[i], elo, key) || matches(x.next[i], elo, key))) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x != head && matches(x, elo, key)) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return Chaves dos {@code limit} primeiros colocados, em ordem
+     */
+    List<String> top(int limit) {
+        List<String> keys = new ArrayList<>(Math.min(limit, size));
+        for (Node x = head.next[0]; x != null && keys.size() < limit; x = x.next[0]) {
+            keys.add(x.key);
+        }
+        return keys;
+    }
+
+    void clear() {
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            head.next[i] = null;
+            head.span[i] = 0;
+        }
+        level = 1;
+        size = 0;
+    }
+
+    private static boolean precedes(Node node, int elo, String key) {
+        return node.elo > elo || (node.elo == elo && node.key.compareTo(key) < 0);
+    }
+
+    private static boolean matches(Node node, int elo, String key) {
+        return node.elo == elo && node.key.equals(key);
+    }
+
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (nodeLevel < MAX_LEVEL && random.nextDouble() < LEVEL_PROBABILITY) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    private static final class Node {
+        private final String key;
+        private final int elo;
+        private final Node[] next;
+        private final int[] span;
+
+        Node(String key, int elo, int level) {
+            this.key = key;
+            this.elo = elo;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+}
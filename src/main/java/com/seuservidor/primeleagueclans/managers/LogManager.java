@@ -1,16 +1,14 @@
 package com.seuservidor.primeleagueclans.managers;
 
 import com.seuservidor.primeleagueclans.PrimeLeagueClans;
-import org.bukkit.Bukkit;
+import com.seuservidor.primeleagueclans.logging.AsyncLogWriter;
+import com.seuservidor.primeleagueclans.logging.AuditLogIndex;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Date;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
 import java.util.List;
 import java.util.logging.Logger;
 
@@ -18,66 +16,82 @@ public class LogManager {
     private final PrimeLeagueClans plugin;
     private final Logger logger;
     private final File logFile;
-    private final SimpleDateFormat dateFormat;
+    private final DateTimeFormatter dateFormat;
+    private final AsyncLogWriter writer;
+    private final AuditLogIndex index;
 
     public LogManager(PrimeLeagueClans plugin) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
         this.logFile = new File(plugin.getDataFolder(), "clans.log");
-        this.dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        this.dateFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
         
-        if (!logFile.exists()) {
-            try {
-                logFile.createNewFile();
-            } catch (IOException e) {
-                logger.severe("Não foi possível criar o arquivo de log: " + e.getMessage());
-            }
-        }
+        // Sem rotação: o índice guarda deslocamentos dentro deste arquivo, que só é zerado por clearLogs
+        this.index = new AuditLogIndex(plugin, logFile, new File(plugin.getDataFolder(), "clans.log.idx"));
+        this.index.load();
+        this.writer = new AsyncLogWriter(plugin, "clans", logFile, 0L, 1);
+        this.writer.setListener(index);
+        this.writer.start();
     }
 
-    private void log(String message) {
-        String timestamp = dateFormat.format(new Date());
-        String logMessage = String.format("[%s] %s%n", timestamp, message);
-        
-        try (FileWriter writer = new FileWriter(logFile, true)) {
-            writer.write(logMessage);
-        } catch (IOException e) {
-            logger.severe("Erro ao escrever no arquivo de log: " + e.getMessage());
-        }
+    /**
+     * Grava as linhas pendentes e fecha o arquivo de log. Chamado no onDisable.
+     */
+    public void close() {
+        writer.shutdown();
+        index.close();
     }
 
+    public AsyncLogWriter getWriter() {
+        return writer;
+    }
+
+    private void write(String clanName, String player, String message) {
+        long now = System.currentTimeMillis();
+        String line = AuditLogIndex.formatLine(dateFormat.format(LocalDateTime.now()), clanName, player, message);
+        writer.append(line, new AuditLogIndex.Entry(now, clanName, player));
+    }
+
+    /**
+     * Registra uma ação de clã. Por convenção, {0} é o nome do clã e {1} o jogador envolvido;
+     * ações em que o jogador está em outra posição usam {@link #logAction}.
+     */
     public void log(String key, Object... args) {
+        logAction(args.length > 0 ? args[0] : null, args.length > 1 ? args[1] : null, key, args);
+    }
+
+    private void logAction(Object clanName, Object player, String key, Object... args) {
         String message = plugin.getMessages().getString(key);
         if (message != null) {
             for (int i = 0; i < args.length; i++) {
                 message = message.replace("{" + i + "}", String.valueOf(args[i]));
             }
-            log(message);
+            write(clanName != null ? String.valueOf(clanName) : null, player != null ? String.valueOf(player) : null, message);
         }
     }
 
     public void logClanCreation(String clanName, String leader) {
-        log("clan.created", clanName, leader);
+        logAction(clanName, leader, "clan.created", clanName, leader);
     }
 
     public void logClanDeletion(String clanName, String deletedBy) {
-        log("clan.deleted", clanName, deletedBy);
+        logAction(clanName, deletedBy, "clan.deleted", clanName, deletedBy);
     }
 
     public void logClanRename(String oldName, String newName, String player) {
-        log("clan.renamed", oldName, newName, player);
+        logAction(oldName, player, "clan.renamed", oldName, newName, player);
     }
 
     public void logTagChange(String clanName, String oldTag, String newTag, String player) {
-        log("clan.tagChanged", clanName, oldTag, newTag, player);
+        logAction(clanName, player, "clan.tagChanged", clanName, oldTag, newTag, player);
     }
 
     public void logMemberJoin(String clanName, String player) {
-        log("clan.memberJoined", clanName, player);
+        logAction(clanName, player, "clan.memberJoined", clanName, player);
     }
 
     public void logMemberLeave(String clanName, String player) {
-        log("clan.memberLeft", clanName, player);
+        logAction(clanName, player, "clan.memberLeft", clanName, player);
     }
 
     public void logMemberKick(String clanName, String player, String kickedBy) {
@@ -89,69 +103,89 @@ public class LogManager {
     }
 
     public void logAllyAdd(String clanName, String allyName) {
-        log("clan.allyAdded", clanName, allyName);
+        logAction(clanName, null, "clan.allyAdded", clanName, allyName);
     }
 
     public void logAllyRemove(String clanName, String allyName) {
-        log("clan.allyRemoved", clanName, allyName);
+        logAction(clanName, null, "clan.allyRemoved", clanName, allyName);
     }
 
     public void logEnemyAdd(String clanName, String enemyName) {
-        log("clan.enemyAdded", clanName, enemyName);
+        logAction(clanName, null, "clan.enemyAdded", clanName, enemyName);
     }
 
     public void logEnemyRemove(String clanName, String enemyName) {
-        log("clan.enemyRemoved", clanName, enemyName);
+        logAction(clanName, null, "clan.enemyRemoved", clanName, enemyName);
     }
 
     public void logBankDeposit(String clanName, double amount, String player) {
-        log("clan.bankDeposited", clanName, amount, player);
+        logAction(clanName, player, "clan.bankDeposited", clanName, amount, player);
     }
 
     public void logBankWithdraw(String clanName, double amount, String player) {
-        log("clan.bankWithdrawn", clanName, amount, player);
+        logAction(clanName, player, "clan.bankWithdrawn", clanName, amount, player);
     }
 
     public void logPointsAdd(String clanName, int amount, String player) {
-        log("clan.pointsAdded", clanName, amount, player);
+        logAction(clanName, player, "clan.pointsAdded", clanName, amount, player);
     }
 
     public void logPointsRemove(String clanName, int amount, String player) {
-        log("clan.pointsRemoved", clanName, amount, player);
+        logAction(clanName, player, "clan.pointsRemoved", clanName, amount, player);
     }
 
     public void logSettingChange(String clanName, String key, String value) {
-        log("clan.settingChanged", clanName, key, value);
+        logAction(clanName, null, "clan.settingChanged", clanName, key, value);
     }
 
     public void logSettingRemove(String clanName, String key) {
-        log("clan.settingRemoved", clanName, key);
+        logAction(clanName, null, "clan.settingRemoved", clanName, key);
     }
 
     public void clearLogs() {
-        if (logFile.exists()) {
-            logFile.delete();
-            try {
-                logFile.createNewFile();
-            } catch (IOException e) {
-                logger.severe("Não foi possível criar o arquivo de log: " + e.getMessage());
-            }
+        try {
+            writer.withFileClosed(file -> {
+                if (file.exists()) {
+                    file.delete();
+                }
+                index.reset();
+            });
+        } catch (IOException e) {
+            logger.severe("Não foi possível limpar o arquivo de log: " + e.getMessage());
         }
-        log("Logs limpos");
+        write(null, null, "Logs limpos");
     }
 
+    /**
+     * Obtém todos os logs de um clã, do mais antigo para o mais recente, pelo índice.
+     *
+     * @param clanName Nome exato do clã (sem diferenciar maiúsculas)
+     * @return Linhas do log do clã
+     */
     public List<String> getLogs(String clanName) {
-        List<String> logs = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(logFile))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.contains(clanName)) {
-                    logs.add(line);
-                }
-            }
-        } catch (IOException e) {
-            logger.severe("Erro ao ler logs: " + e.getMessage());
-        }
+        AuditLogIndex.LogPage page = index.queryClan(clanName, Long.MIN_VALUE, Long.MAX_VALUE, 1, Integer.MAX_VALUE);
+        List<String> logs = page.getLines();
+        Collections.reverse(logs);
         return logs;
     }
-} 
\ No newline at end of file
+
+    /**
+     * Consulta os logs de um clã em um intervalo de tempo, paginados do mais recente para o mais antigo.
+     *
+     * @param clanName Nome exato do clã (sem diferenciar maiúsculas)
+     * @param from Início do intervalo em milissegundos (inclusivo)
+     * @param to Fim do intervalo em milissegundos (inclusivo)
+     * @param page Página, começando em 1
+     * @param pageSize Linhas por página
+     */
+    public AuditLogIndex.LogPage getLogs(String clanName, long from, long to, int page, int pageSize) {
+        return index.queryClan(clanName, from, to, page, pageSize);
+    }
+
+    /**
+     * Consulta os logs em que um jogador aparece. Os parâmetros seguem {@link #getLogs(String, long, long, int, int)}.
+     */
+    public AuditLogIndex.LogPage getPlayerLogs(String player, long from, long to, int page, int pageSize) {
+        return index.queryPlayer(player, from, to, page, pageSize);
+    }
+}
@@ -0,0 +1,112 @@
+package com.seuservidor.primeleagueclans.managers;
+
+import com.seuservidor.primeleagueclans.models.Clan;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice dos jogadores online por clã, mantido pelos eventos de entrada e saída.
+ *
+ * Mensagens para um clã percorrem só os membros online, sem procurar cada membro gravado entre
+ * os jogadores do servidor. O agrupamento por clã é refeito, em O(jogadores online), quando a
+ * versão dos índices do ClanManager muda.
+ */
+public class OnlinePresence {
+    private final ClanManager clanManager;
+    // Jogador (minúsculo) -> handle do jogador online
+    private final Map<String, Player> online = new HashMap<>();
+    // ID do clã -> membros online
+    private final Map<String, List<Player>> byClan = new HashMap<>();
+    private long builtVersion = -1L;
+
+    public OnlinePresence(ClanManager clanManager) {
+        this.clanManager = clanManager;
+    }
+
+    public synchronized void playerJoined(Player player) {
+        online.put(player.getName().toLowerCase(), player);
+        builtVersion = -1L;
+    }
+
+    public synchronized void playerQuit(Player player) {
+        if (online.remove(player.getName().toLowerCase()) != null) {
+            builtVersion = -1L;
+        }
+    }
+
+    /**
+     * @return Jogador online com exatamente este nome (sem diferenciar maiúsculas), ou null
+     */
+    public synchronized Player getOnlinePlayer(String playerName) {
+        return playerName != null ? online.get(playerName.toLowerCase()) : null;
+    }
+
+    /**
+     * @return Cópia da lista de membros online do clã
+     */
+    public synchronized List<Player> getOnlineMembers(Clan clan) {
+        List<Player> members = members(clan);
+        return members.isEmpty() ? Collections.<Player>emptyList() : new ArrayList<>(members);
+    }
+
+    public synchronized int countOnlineMembers(Clan clan) {
+        return members(clan).size();
+    }
+
+    /**
+     * Envia a mensagem a todos os membros online do clã.
+     */
+    public synchronized void sendMessage(Clan clan, String message) {
+        for (Player player : members(clan)) {
+            player.sendMessage(message);
+        }
+    }
+
+    /**
+     * Envia a mensagem a todos os membros online do clã, exceto o jogador indicado.
+     */
+    public synchronized void sendMessage(Clan clan, String message, Player except) {
+        for (Player player : members(clan)) {
+            if (player != except) {
+                player.sendMessage(message);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        online.clear();
+        byClan.clear();
+        builtVersion = -1L;
+    }
+
+    private List<Player> members(Clan clan) {
+        if (clan == null || clan.getId() == null) {
+            return Collections.emptyList();
+        }
+
+        long version = clanManager.getIndexVersion();
+        if (version != builtVersion) {
+            rebuild();
+            builtVersion = version;
+        }
+
+        List<Player> members = byClan.get(clan.getId());
+        return members != null ? members : Collections.<Player>emptyList();
+    }
+
+    private void rebuild() {
+        byClan.clear();
+        Map<String, String> playerClans = clanManager.getPlayerClans();
+        for (Map.Entry<String, Player> entry : online.entrySet()) {
+            String clanId = playerClans.get(entry.getKey());
+            if (clanId != null) {
+                byClan.computeIfAbsent(clanId, k -> new ArrayList<>()).add(entry.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.seuservidor.primeleagueclans.managers;
+
+import com.seuservidor.primeleagueclans.PrimeLeagueClans;
+import com.seuservidor.primeleagueclans.models.Clan;
+import com.seuservidor.primeleagueclans.models.PlayerSession;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sessões de jogador usadas pelos comandos.
+ *
+ * A sessão é montada apenas a partir dos índices em memória do ClanManager e reaproveitada
+ * enquanto a versão dos índices não mudar. A conferência com o banco de dados roda em uma
+ * thread assíncrona, uma vez por sessão, e suas correções são aplicadas na thread principal.
+ */
+public class PlayerSessionManager {
+    private final PrimeLeagueClans plugin;
+    private final Map<String, PlayerSession> sessions = new ConcurrentHashMap<>();
+    // Mesmas sessões pelo nome exato, para o chat não precisar montar a chave em minúsculo
+    private final Map<String, PlayerSession> sessionsByExactName = new ConcurrentHashMap<>();
+    private final Set<String> reconciled = ConcurrentHashMap.newKeySet();
+    private final Set<String> reconciling = ConcurrentHashMap.newKeySet();
+
+    public PlayerSessionManager(PrimeLeagueClans plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Obtém a sessão atual do jogador, sem acesso ao banco de dados.
+     *
+     * @param player Jogador
+     * @return Sessão correspondente à versão atual dos índices
+     */
+    public PlayerSession getSession(Player player) {
+        String name = player.getName();
+        PlayerSession session = sessionsByExactName.get(name);
+        if (session != null && session.getVersion() == plugin.getClanManager().getIndexVersion()) {
+            return session;
+        }
+
+        session = getSession(name);
+        sessionsByExactName.put(name, session);
+        return session;
+    }
+
+    public PlayerSession getSession(String playerName) {
+        String playerKey = playerName.toLowerCase();
+        ClanManager clanManager = plugin.getClanManager();
+        long version = clanManager.getIndexVersion();
+
+        PlayerSession session = sessions.get(playerKey);
+        if (session != null && session.getVersion() == version) {
+            return session;
+        }
+
+        String clanId = clanManager.getPlayerClans().get(playerKey);
+        Clan clan = clanId != null ? clanManager.getClanById(clanId) : null;
+        session = new PlayerSession(playerKey, clan != null ? clanId : null, clan, clanManager.getRelations().slotOf(clan),
+            version, reconciled.contains(playerKey));
+        sessions.put(playerKey, session);
+        return session;
+    }
+
+    /**
+     * Confere o clã do jogador com o banco de dados em segundo plano. Pedidos repetidos enquanto
+     * uma conferência está em andamento são ignorados.
+     *
+     * @param player Jogador a conferir
+     */
+    public void reconcileAsync(Player player) {
+        final String playerName = player.getName();
+        final String playerKey = playerName.toLowerCase();
+        final DatabaseManager databaseManager = plugin.getDatabaseManager();
+        if (databaseManager == null || !reconciling.add(playerKey)) {
+            return;
+        }
+
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                String dbClanId = databaseManager.getPlayerClanId(playerName);
+                Clan loaded = null;
+                if (dbClanId != null) {
+                    loaded = plugin.getClanManager().fetchClan(dbClanId);
+                }
+
+                final Clan dbClan = loaded;
+                plugin.getServer().getScheduler().runTask(plugin, () -> {
+                    try {
+                        apply(playerName, dbClanId, dbClan);
+                    } finally {
+                        reconciling.remove(playerKey);
+                    }
+                });
+            } catch (Exception e) {
+                reconciling.remove(playerKey);
+                plugin.getLogger().warning("Erro ao sincronizar dados do jogador " + playerName + ": " + e.getMessage());
+                if (plugin.isDebugMode()) {
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+
+    /**
+     * Remove a sessão do jogador. Chamado quando ele sai do servidor.
+     */
+    public void removeSession(String playerName) {
+        String playerKey = playerName.toLowerCase();
+        sessions.remove(playerKey);
+        sessionsByExactName.remove(playerName);
+        reconciled.remove(playerKey);
+    }
+
+    public void clear() {
+        sessions.clear();
+        sessionsByExactName.clear();
+        reconciled.clear();
+    }
+
+    private void apply(String playerName, String dbClanId, Clan loaded) {
+        ClanManager clanManager = plugin.getClanManager();
+        String playerKey = playerName.toLowerCase();
+        String cachedClanId = clanManager.getPlayerClans().get(playerKey);
+        Clan cachedClan = cachedClanId != null ? clanManager.getClanById(cachedClanId) : null;
+        Clan dbClan = dbClanId != null ? clanManager.getClanById(dbClanId) : null;
+
+        // Membros alterados em memória ainda não gravados: o cache está à frente do banco
+        if (hasPendingMembers(cachedClan) || hasPendingMembers(dbClan)) {
+            if (plugin.isDebugMode()) {
+                plugin.getLogger().info("[Debug] Sincronização de " + playerName + " adiada: alterações de membros ainda não gravadas");
+            }
+        } else if (dbClanId != null) {
+            if (dbClan == null && loaded != null) {
+                dbClan = clanManager.cacheClan(loaded);
+            }
+            if (dbClan != null && (!dbClanId.equals(cachedClanId) || !dbClan.isMember(playerName))) {
+                if (plugin.isDebugMode()) {
+                    plugin.getLogger().info("[Debug] Sincronização: Atualizando mapeamento de " + playerName + " para clã " + dbClan.getName());
+                }
+                clanManager.moveMember(playerName, dbClanId);
+            }
+        } else if (cachedClanId != null) {
+            // O banco é a fonte verdadeira quando não há alterações pendentes
+            if (plugin.isDebugMode()) {
+                plugin.getLogger().info("[Debug] Sincronização: Removendo " + playerName + " do mapa de clãs (não existe no banco)");
+            }
+            clanManager.unmapPlayer(playerName);
+        }
+
+        // Quem saiu durante a conferência não deve deixar rastro
+        if (plugin.getServer().getPlayerExact(playerName) != null) {
+            reconciled.add(playerKey);
+        }
+        sessions.remove(playerKey);
+        sessionsByExactName.remove(playerName);
+    }
+
+    private boolean hasPendingMembers(Clan clan) {
+        return clan != null && (clan.getDirtyFields() & Clan.DIRTY_MEMBERS) != 0;
+    }
+}
@@ -0,0 +1,329 @@
+package com.seuservidor.primeleagueclans.managers;
+
+import com.seuservidor.primeleagueclans.models.Clan;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Tabela de alianças e inimizades entre os clãs dos índices do ClanManager.
+ *
+ * Cada clã recebe um índice inteiro estável enquanto estiver nos índices, e a linha dele guarda,
+ * ordenados, os índices dos clãs que ele lista como aliados e como inimigos. Os conjuntos têm poucos
+ * nomes, então a tabela ocupa memória proporcional ao número de relações, não ao quadrado do número
+ * de clãs. A relação é simétrica: dois clãs são aliados (ou inimigos) se qualquer um deles listar o
+ * outro, então a checagem de fogo amigo consulta duas linhas.
+ *
+ * As consultas leem linhas imutáveis de um {@link AtomicReferenceArray}, sem trava. As escritas são
+ * serializadas pelo monitor da tabela e trocam só as linhas afetadas: a do clã alterado e, na
+ * entrada, saída ou troca de nome de um clã, as dos clãs que listam aquele nome.
+ */
+public class RelationMatrix {
+    public static final int NO_SLOT = -1;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int[] NONE = new int[0];
+
+    // Estado de escrita; protegido pelo monitor da tabela
+    private final Map<Clan, Integer> slots = new IdentityHashMap<>();
+    private final Map<String, Integer> byName = new HashMap<>();
+    // Nome de clã -> índices dos clãs que listam esse nome como aliado ou inimigo
+    private final Map<String, Set<Integer>> listers = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private Clan[] clans = new Clan[INITIAL_CAPACITY];
+    // Nome com que cada clã foi indexado e nomes que ele listava no último cálculo da linha
+    private String[] names = new String[INITIAL_CAPACITY];
+    private Set<String>[] listed = newListedArray(INITIAL_CAPACITY);
+    private int highestSlot = -1;
+
+    private volatile AtomicReferenceArray<Row> rows = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+
+    /**
+     * Registra o clã e passa a acompanhar as mudanças de relações dele.
+     *
+     * @return Índice do clã na matriz
+     */
+    public synchronized int register(Clan clan) {
+        Integer existing = slots.get(clan);
+        if (existing != null) {
+            return existing;
+        }
+
+        int slot = add(clan);
+        computeRow(slot);
+        recomputeListersOf(names[slot]);
+        return slot;
+    }
+
+    public synchronized void unregister(Clan clan) {
+        Integer slot = slots.remove(clan);
+        if (slot == null) {
+            return;
+        }
+        clan.setRelationListener(null);
+
+        String name = names[slot];
+        if (name != null && slot.equals(byName.get(name))) {
+            byName.remove(name);
+        }
+        updateListers(slot, Collections.<String>emptySet());
+        clans[slot] = null;
+        names[slot] = null;
+        rows.set(slot, null);
+        freeSlots.push(slot);
+        // Nenhuma linha pode continuar apontando para um índice que será reaproveitado
+        recomputeListersOf(name);
+    }
+
+    /**
+     * Relações são gravadas pelo nome; após uma troca de nome são recalculadas as linhas dos clãs
+     * que listavam o nome antigo ou listam o novo.
+     */
+    public synchronized void clanRenamed(Clan clan) {
+        Integer slot = slots.get(clan);
+        if (slot == null) {
+            return;
+        }
+
+        String oldName = names[slot];
+        String newName = clan.getName();
+        if (oldName != null && slot.equals(byName.get(oldName))) {
+            byName.remove(oldName);
+        }
+        names[slot] = newName;
+        if (newName != null) {
+            byName.put(newName, slot);
+        }
+        recomputeListersOf(oldName);
+        recomputeListersOf(newName);
+    }
+
+    public synchronized void clear() {
+        replaceAll(Collections.<Clan>emptyList());
+    }
+
+    /**
+     * Troca todos os clãs registrados pelos informados, calculando cada linha uma única vez.
+     * Usado ao recarregar os índices.
+     */
+    public synchronized void replaceAll(Collection<Clan> loaded) {
+        for (Clan clan : slots.keySet()) {
+            clan.setRelationListener(null);
+        }
+        slots.clear();
+        byName.clear();
+        listers.clear();
+        freeSlots.clear();
+        highestSlot = -1;
+
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < loaded.size()) {
+            capacity *= 2;
+        }
+        clans = new Clan[capacity];
+        names = new String[capacity];
+        listed = newListedArray(capacity);
+        AtomicReferenceArray<Row> fresh = new AtomicReferenceArray<>(capacity);
+
+        for (Clan clan : loaded) {
+            if (!slots.containsKey(clan)) {
+                add(clan);
+            }
+        }
+        for (int i = 0; i <= highestSlot; i++) {
+            fresh.set(i, buildRow(i));
+        }
+        rows = fresh;
+    }
+
+    /**
+     * @return Índice do clã na matriz, ou {@link #NO_SLOT} se ele não está registrado
+     */
+    public synchronized int slotOf(Clan clan) {
+        if (clan == null) {
+            return NO_SLOT;
+        }
+        Integer slot = slots.get(clan);
+        return slot != null ? slot : NO_SLOT;
+    }
+
+    public boolean isAlly(int a, int b) {
+        if (a < 0 || b < 0 || a == b) {
+            return false;
+        }
+        AtomicReferenceArray<Row> current = rows;
+        Row first = a < current.length() ? current.get(a) : null;
+        if (first != null && contains(first.allies, b)) {
+            return true;
+        }
+        Row second = b < current.length() ? current.get(b) : null;
+        return second != null && contains(second.allies, a);
+    }
+
+    public boolean isEnemy(int a, int b) {
+        if (a < 0 || b < 0 || a == b) {
+            return false;
+        }
+        AtomicReferenceArray<Row> current = rows;
+        Row first = a < current.length() ? current.get(a) : null;
+        if (first != null && contains(first.enemies, b)) {
+            return true;
+        }
+        Row second = b < current.length() ? current.get(b) : null;
+        return second != null && contains(second.enemies, a);
+    }
+
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    private static boolean contains(int[] sorted, int slot) {
+        // Poucas relações por clã: busca linear em vez de binária
+        for (int value : sorted) {
+            if (value >= slot) {
+                return value == slot;
+            }
+        }
+        return false;
+    }
+
+    private synchronized void relationsChanged(Clan clan) {
+        Integer slot = slots.get(clan);
+        if (slot != null) {
+            computeRow(slot);
+        }
+    }
+
+    private int add(Clan clan) {
+        int slot = freeSlots.isEmpty() ? highestSlot + 1 : freeSlots.pop();
+        if (slot >= clans.length) {
+            grow(slot + 1);
+        }
+        clans[slot] = clan;
+        names[slot] = clan.getName();
+        if (clan.getName() != null) {
+            byName.put(clan.getName(), slot);
+        }
+        slots.put(clan, slot);
+        highestSlot = Math.max(highestSlot, slot);
+        clan.setRelationListener(this::relationsChanged);
+        return slot;
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = clans.length;
+        while (capacity < minCapacity) {
+            capacity *= 2;
+        }
+        clans = Arrays.copyOf(clans, capacity);
+        names = Arrays.copyOf(names, capacity);
+        listed = Arrays.copyOf(listed, capacity);
+
+        AtomicReferenceArray<Row> current = rows;
+        AtomicReferenceArray<Row> grown = new AtomicReferenceArray<>(capacity);
+        for (int i = 0; i < current.length(); i++) {
+            grown.set(i, current.get(i));
+        }
+        rows = grown;
+    }
+
+    private void computeRow(int slot) {
+        rows.set(slot, buildRow(slot));
+    }
+
+    /**
+     * Resolve os nomes listados pelo clã e atualiza o índice de quem lista cada nome.
+     */
+    private Row buildRow(int slot) {
+        Clan clan = clans[slot];
+        Set<String> allyNames = clan.getAllies();
+        Set<String> enemyNames = clan.getEnemies();
+
+        Set<String> current = new HashSet<>(allyNames);
+        current.addAll(enemyNames);
+        updateListers(slot, current);
+        return new Row(resolve(allyNames, slot), resolve(enemyNames, slot));
+    }
+
+    private void updateListers(int slot, Set<String> current) {
+        Set<String> previous = listed[slot];
+        if (previous != null) {
+            for (String name : previous) {
+                if (!current.contains(name)) {
+                    Set<Integer> slotsListing = listers.get(name);
+                    if (slotsListing != null && slotsListing.remove(slot) && slotsListing.isEmpty()) {
+                        listers.remove(name);
+                    }
+                }
+            }
+        }
+        for (String name : current) {
+            if (previous == null || !previous.contains(name)) {
+                listers.computeIfAbsent(name, key -> new HashSet<>()).add(slot);
+            }
+        }
+        listed[slot] = current.isEmpty() ? null : current;
+    }
+
+    private void recomputeListersOf(String name) {
+        if (name == null) {
+            return;
+        }
+        Set<Integer> slotsListing = listers.get(name);
+        if (slotsListing == null) {
+            return;
+        }
+        for (Integer slot : slotsListing.toArray(new Integer[0])) {
+            if (clans[slot] != null) {
+                computeRow(slot);
+            }
+        }
+    }
+
+    private int[] resolve(Collection<String> relationNames, int slot) {
+        if (relationNames.isEmpty()) {
+            return NONE;
+        }
+        int[] resolved = new int[relationNames.size()];
+        int count = 0;
+        for (String name : relationNames) {
+            Integer other = byName.get(name);
+            if (other != null && other != slot && count < resolved.length) {
+                resolved[count++] = other;
+            }
+        }
+        if (count == 0) {
+            return NONE;
+        }
+        int[] row = count < resolved.length ? Arrays.copyOf(resolved, count) : resolved;
+        Arrays.sort(row);
+        return row;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<String>[] newListedArray(int capacity) {
+        return (Set<String>[]) new Set[capacity];
+    }
+
+    /**
+     * Linha publicada para as consultas: índices ordenados dos aliados e dos inimigos listados pelo
+     * clã. Não muda depois de publicada.
+     */
+    private static final class Row {
+        private final int[] allies;
+        private final int[] enemies;
+
+        Row(int[] allies, int[] enemies) {
+            this.allies = allies;
+            this.enemies = enemies;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.seuservidor.primeleagueclans.managers;
+
+import com.seuservidor.primeleagueclans.PrimeLeagueClans;
+import com.seuservidor.primeleagueclans.events.ClanLevelUpEvent;
+import com.seuservidor.primeleagueclans.models.Clan;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Acumula o XP de quebrar e colocar blocos por clã e aplica o total de uma vez a cada
+ * {@code clan.xp-flush-interval} ticks.
+ *
+ * Cada bloco só soma um contador; {@link Clan#addXp(int)}, com a verificação de nível e a
+ * atualização da última atividade, roda uma vez por clã a cada aplicação, e no máximo um
+ * ClanLevelUpEvent é disparado por clã nesse momento.
+ *
+ * Deve ser usado apenas na thread principal.
+ */
+public class XpAccumulator {
+    private final PrimeLeagueClans plugin;
+    private final Map<String, Pending> pending = new HashMap<>();
+    private BukkitTask flushTask;
+
+    public XpAccumulator(PrimeLeagueClans plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() {
+        if (flushTask != null) {
+            return;
+        }
+        long interval = Math.max(1L, plugin.getConfig().getLong("clan.xp-flush-interval", 20));
+        flushTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::flush, interval, interval);
+    }
+
+    /**
+     * Para a aplicação periódica e aplica o XP ainda acumulado. Chamado no onDisable, antes do
+     * salvamento dos clãs.
+     */
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        flush();
+    }
+
+    public void add(Clan clan, int amount) {
+        if (clan == null || amount == 0) {
+            return;
+        }
+        if (clan.getId() == null) {
+            clan.addXp(amount);
+            return;
+        }
+        Pending entry = pending.get(clan.getId());
+        if (entry == null || entry.clan != clan) {
+            entry = new Pending(clan);
+            pending.put(clan.getId(), entry);
+        }
+        entry.xp += amount;
+    }
+
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        ClanManager clanManager = plugin.getClanManager();
+        Iterator<Pending> iterator = pending.values().iterator();
+        while (iterator.hasNext()) {
+            Pending entry = iterator.next();
+            // Entradas sem XP neste intervalo saem do mapa; clãs ativos reaproveitam a entrada
+            if (entry.xp == 0) {
+                iterator.remove();
+                continue;
+            }
+
+            int xp = entry.xp;
+            entry.xp = 0;
+
+            Clan clan = entry.clan;
+            if (clanManager.getClanById(clan.getId()) != clan) {
+                // Clã excluído ou recarregado desde que o XP foi acumulado
+                iterator.remove();
+                continue;
+            }
+
+            int oldLevel = clan.getLevel();
+            clan.addXp(xp);
+            int newLevel = clan.getLevel();
+            if (newLevel > oldLevel) {
+                plugin.getServer().getPluginManager().callEvent(new ClanLevelUpEvent(clan, oldLevel, newLevel));
+                if (plugin.isDebugMode()) {
+                    plugin.getLogger().info("[Debug] Clã " + clan.getName() + " subiu do nível " + oldLevel + " para " + newLevel);
+                }
+            }
+        }
+    }
+
+    private static final class Pending {
+        private final Clan clan;
+        private int xp;
+
+        Pending(Clan clan) {
+            this.clan = clan;
+        }
+    }
+}
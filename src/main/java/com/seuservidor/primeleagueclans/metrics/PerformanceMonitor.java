@@ -0,0 +1,228 @@
+package com.seuservidor.primeleagueclans.metrics;
+
+import com.seuservidor.primeleagueclans.PrimeLeagueClans;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mede o tempo gasto pelo plugin em cada listener e subcomando, e o tempo de thread principal
+ * somado por tick.
+ *
+ * Os listeners são registrados por {@link #registerEvents(Listener)}, que faz o mesmo que o
+ * {@code PluginManager.registerEvents} do Bukkit, mas com um {@link TimedEventExecutor} por
+ * handler. Com o monitor desligado ({@code performance.monitor.enabled}) nada é medido e não há
+ * tarefa por tick; ligado, os mais custosos aparecem no {@code /clan perf} e em um resumo
+ * periódico no log.
+ *
+ * Os comandos SQL são medidos à parte pelo {@link SqlProfiler}, que segue
+ * {@code performance.sql.enabled} e continua medindo com o monitor desligado.
+ */
+public class PerformanceMonitor {
+    private final PrimeLeagueClans plugin;
+    private final Map<String, TimingStats> stats = new ConcurrentHashMap<>();
+    private final TimingStats tickStats = new TimingStats("tick");
+    private final SqlProfiler sqlProfiler;
+    private volatile boolean enabled;
+    private volatile long since = System.currentTimeMillis();
+    // Tempo de thread principal do tick corrente; só é tocado na thread principal
+    private long tickNanos;
+    private BukkitTask tickTask;
+    private BukkitTask summaryTask;
+
+    public PerformanceMonitor(PrimeLeagueClans plugin) {
+        this.plugin = plugin;
+        this.sqlProfiler = new SqlProfiler(plugin);
+    }
+
+    public void start() {
+        setEnabled(plugin.getConfig().getBoolean("performance.monitor.enabled", false));
+
+        long interval = plugin.getConfig().getLong("performance.monitor.summary-interval", 300) * 20L;
+        if (interval > 0 && summaryTask == null) {
+            summaryTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::logSummary, interval, interval);
+        }
+    }
+
+    /**
+     * Para as tarefas do monitor. Chamado no onDisable; o log de comandos SQL lentos é fechado à
+     * parte, depois do último salvamento.
+     */
+    public void shutdown() {
+        if (summaryTask != null) {
+            summaryTask.cancel();
+            summaryTask = null;
+        }
+        setEnabled(false);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Liga ou desliga as medições. Ao ligar, passa a fechar o tempo de thread principal a cada
+     * tick; as medições anteriores são mantidas.
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled == this.enabled) {
+            return;
+        }
+
+        if (enabled) {
+            tickNanos = 0L;
+            tickTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::closeTick, 1L, 1L);
+        } else if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+        this.enabled = enabled;
+    }
+
+    public void reset() {
+        for (TimingStats entry : stats.values()) {
+            entry.reset();
+        }
+        tickStats.reset();
+        sqlProfiler.reset();
+        since = System.currentTimeMillis();
+    }
+
+    /**
+     * @return Momento, em milissegundos, desde o qual as medições são acumuladas
+     */
+    public long getSince() {
+        return since;
+    }
+
+    /**
+     * @return Medições de um ponto, criadas na primeira consulta
+     */
+    public TimingStats getStats(String name) {
+        return stats.computeIfAbsent(name, TimingStats::new);
+    }
+
+    /**
+     * @return Medições dos comandos SQL executados pelas conexões do pool
+     */
+    public SqlProfiler getSqlProfiler() {
+        return sqlProfiler;
+    }
+
+    /**
+     * @return Tempo de thread principal gasto pelo plugin em cada tick
+     */
+    public TimingStats getTickStats() {
+        return tickStats;
+    }
+
+    /**
+     * @return Até {@code limit} pontos medidos, do maior para o menor tempo total
+     */
+    public List<TimingStats> getTop(int limit) {
+        List<TimingStats> top = new ArrayList<>();
+        for (TimingStats entry : stats.values()) {
+            if (entry.getCount() > 0) {
+                top.add(entry);
+            }
+        }
+        top.sort((a, b) -> Long.compare(b.getTotalNanos(), a.getTotalNanos()));
+        return top.size() > limit ? new ArrayList<>(top.subList(0, limit)) : top;
+    }
+
+    /**
+     * Registra uma medição; chamadas na thread principal também contam no tick corrente.
+     */
+    public void record(TimingStats entry, long nanos) {
+        entry.record(nanos);
+        if (plugin.getServer().isPrimaryThread()) {
+            tickNanos += nanos;
+        }
+    }
+
+    /**
+     * Registra os métodos {@link EventHandler} do listener, cada um com o próprio executor medido.
+     * Segue as regras do Bukkit: métodos públicos e declarados, com um único parâmetro de evento.
+     */
+    public void registerEvents(Listener listener) {
+        Set<Method> methods = new HashSet<>();
+        Collections.addAll(methods, listener.getClass().getMethods());
+        Collections.addAll(methods, listener.getClass().getDeclaredMethods());
+
+        for (Method method : methods) {
+            EventHandler handler = method.getAnnotation(EventHandler.class);
+            if (handler == null || method.isBridge() || method.isSynthetic()) {
+                continue;
+            }
+            Class<?>[] parameters = method.getParameterTypes();
+            if (parameters.length != 1 || !Event.class.isAssignableFrom(parameters[0])) {
+                plugin.getLogger().severe("Handler inválido em " + listener.getClass().getName() + ": " + method.getName());
+                continue;
+            }
+
+            Class<? extends Event> eventClass = parameters[0].asSubclass(Event.class);
+            // Listeners declarados como classes internas privadas também são chamados pelo Bukkit
+            method.setAccessible(true);
+            TimingStats entry = getStats(listener.getClass().getSimpleName() + "." + method.getName());
+            plugin.getServer().getPluginManager().registerEvent(eventClass, listener, handler.priority(),
+                new TimedEventExecutor(this, method, eventClass, entry), plugin, handler.ignoreCancelled());
+        }
+    }
+
+    private void closeTick() {
+        tickStats.record(tickNanos);
+        tickNanos = 0L;
+    }
+
+    private void logSummary() {
+        if (!enabled || tickStats.getCount() == 0) {
+            return;
+        }
+
+        int limit = Math.max(1, plugin.getConfig().getInt("performance.monitor.summary-top", 5));
+        plugin.getLogger().info(String.format(Locale.ROOT,
+            "[Desempenho] Thread principal por tick: média %s, p99 %s, máx %s em %d ticks",
+            formatNanos(tickStats.getAverageNanos()), formatNanos(tickStats.getPercentileNanos(0.99)),
+            formatNanos(tickStats.getMaxNanos()), tickStats.getCount()));
+
+        int position = 1;
+        for (TimingStats entry : getTop(limit)) {
+            plugin.getLogger().info(String.format(Locale.ROOT, "[Desempenho] %d. %s", position++, describe(entry)));
+        }
+
+        position = 1;
+        for (SqlProfiler.SqlStats entry : sqlProfiler.getTop(limit)) {
+            plugin.getLogger().info(String.format(Locale.ROOT, "[Desempenho] SQL %d. %s", position++, SqlProfiler.describe(entry, 120)));
+        }
+    }
+
+    /**
+     * @return Linha de resumo: chamadas, total, média, p99 e máximo
+     */
+    public static String describe(TimingStats entry) {
+        return String.format(Locale.ROOT, "%s: %d chamadas, total %s, média %s, p99 %s, máx %s",
+            entry.getName(), entry.getCount(), formatNanos(entry.getTotalNanos()), formatNanos(entry.getAverageNanos()),
+            formatNanos(entry.getPercentileNanos(0.99)), formatNanos(entry.getMaxNanos()));
+    }
+
+    public static String formatNanos(long nanos) {
+        if (nanos >= 1_000_000_000L) {
+            return String.format(Locale.ROOT, "%.2f s", nanos / 1e9);
+        }
+        if (nanos >= 1_000_000L) {
+            return String.format(Locale.ROOT, "%.2f ms", nanos / 1e6);
+        }
+        return String.format(Locale.ROOT, "%.1f µs", nanos / 1e3);
+    }
+}
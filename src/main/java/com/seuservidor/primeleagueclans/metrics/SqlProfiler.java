@@ -0,0 +1,315 @@
+package com.seuservidor.primeleagueclans.metrics;
+
+import com.seuservidor.primeleagueclans.PrimeLeagueClans;
+import com.seuservidor.primeleagueclans.logging.AsyncLogWriter;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Perfil dos comandos SQL executados pelas conexões do {@code ConnectionPool}: chamadas, linhas e
+ * latência por modelo de comando. Comandos que passam de {@code performance.sql.slow-threshold}
+ * milissegundos vão para o {@code slow-queries.log}, com a operação do plugin que os executou.
+ *
+ * O modelo é o SQL com os espaços normalizados e, nos comandos não preparados, com os literais
+ * trocados por {@code ?}; assim cada consulta do DatabaseManager é uma linha só, qualquer que seja
+ * o parâmetro. Depois de {@code performance.sql.max-templates} modelos, os novos somam em
+ * "(outros)".
+ */
+public class SqlProfiler {
+    private static final String PACKAGE = "com.seuservidor.primeleagueclans.";
+    private static final String OTHERS = "(outros)";
+    private static final int CALLER_FRAMES = 3;
+    private static final long SLOW_LOG_MAX_SIZE = 10L * 1024L * 1024L;
+    private static final int SLOW_LOG_MAX_FILES = 2;
+
+    private final PrimeLeagueClans plugin;
+    private final Map<String, SqlStats> stats = new ConcurrentHashMap<>();
+    private final DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private final boolean enabled;
+    private final long slowThresholdNanos;
+    private final int maxTemplates;
+    private final LongAdder slowCount = new LongAdder();
+    // Aberto na primeira consulta lenta, para não manter uma thread de escrita sem uso
+    private AsyncLogWriter slowLog;
+    private boolean closed;
+
+    public SqlProfiler(PrimeLeagueClans plugin) {
+        this.plugin = plugin;
+        this.enabled = plugin.getConfig().getBoolean("performance.sql.enabled", true);
+        this.slowThresholdNanos = Math.max(0L, plugin.getConfig().getLong("performance.sql.slow-threshold", 50)) * 1_000_000L;
+        this.maxTemplates = Math.max(1, plugin.getConfig().getInt("performance.sql.max-templates", 500));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return Limite, em nanossegundos, a partir do qual um comando é lento; 0 se o log estiver desligado
+     */
+    public long getSlowThresholdNanos() {
+        return slowThresholdNanos;
+    }
+
+    public long getSlowCount() {
+        return slowCount.sum();
+    }
+
+    /**
+     * @param sql Comando como passado ao JDBC
+     * @param literals Se os literais devem ser trocados por {@code ?} (comandos não preparados)
+     * @return Medições do modelo do comando, criadas no primeiro uso
+     */
+    public SqlStats statsFor(String sql, boolean literals) {
+        String template = normalize(sql, literals);
+        SqlStats entry = stats.get(template);
+        if (entry != null) {
+            return entry;
+        }
+        if (stats.size() >= maxTemplates) {
+            return stats.computeIfAbsent(OTHERS, SqlStats::new);
+        }
+        return stats.computeIfAbsent(template, SqlStats::new);
+    }
+
+    /**
+     * Registra uma execução. Execuções lentas são gravadas no log de comandos lentos com a
+     * operação que as chamou, lida da pilha da thread atual.
+     */
+    public void record(SqlStats entry, long nanos, long rows, boolean failed) {
+        entry.timing.record(nanos);
+        if (rows > 0) {
+            entry.rows.add(rows);
+        }
+        if (failed) {
+            entry.errors.increment();
+        }
+
+        if (slowThresholdNanos > 0 && nanos >= slowThresholdNanos) {
+            logSlow(entry, nanos, rows, failed);
+        }
+    }
+
+    public void reset() {
+        stats.clear();
+        slowCount.reset();
+    }
+
+    /**
+     * @return Até {@code limit} modelos, do maior para o menor tempo total
+     */
+    public List<SqlStats> getTop(int limit) {
+        List<SqlStats> top = new ArrayList<>();
+        for (SqlStats entry : stats.values()) {
+            if (entry.getCount() > 0) {
+                top.add(entry);
+            }
+        }
+        top.sort((a, b) -> Long.compare(b.timing.getTotalNanos(), a.timing.getTotalNanos()));
+        return top.size() > limit ? new ArrayList<>(top.subList(0, limit)) : top;
+    }
+
+    /**
+     * Grava os comandos lentos pendentes e fecha o log. Chamado no onDisable, depois do último
+     * salvamento.
+     */
+    public synchronized void close() {
+        closed = true;
+        if (slowLog != null) {
+            slowLog.shutdown();
+            slowLog = null;
+        }
+    }
+
+    private void logSlow(SqlStats entry, long nanos, long rows, boolean failed) {
+        slowCount.increment();
+        String operation = caller();
+        String line = String.format(Locale.ROOT, "%s %.1f ms, %d linhas%s, %s (%s): %s",
+            dateFormat.format(LocalDateTime.now()), nanos / 1e6, rows, failed ? ", falhou" : "",
+            operation, Thread.currentThread().getName(), entry.template);
+
+        AsyncLogWriter writer = slowLogWriter();
+        if (writer != null) {
+            writer.append(line);
+        }
+        if (plugin.isDebugMode()) {
+            plugin.getLogger().info("[Debug] Comando SQL lento: " + line);
+        }
+    }
+
+    private synchronized AsyncLogWriter slowLogWriter() {
+        if (slowLog == null && !closed) {
+            slowLog = new AsyncLogWriter(plugin, "sql", new File(plugin.getDataFolder(), "slow-queries.log"),
+                SLOW_LOG_MAX_SIZE, SLOW_LOG_MAX_FILES);
+            slowLog.start();
+        }
+        return slowLog;
+    }
+
+    /**
+     * @return Os métodos do plugin mais próximos na pilha, do mais interno para o mais externo,
+     *         ex.: {@code DatabaseManager.saveClanMembers < DatabaseManager.saveClan < ClanSaveQueue.flush}
+     */
+    private static String caller() {
+        StringBuilder operation = new StringBuilder();
+        String last = null;
+        int frames = 0;
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            String className = element.getClassName();
+            if (!className.startsWith(PACKAGE)
+                || className.startsWith(PACKAGE + "metrics.")
+                || className.startsWith(PACKAGE + "database.ConnectionPool")
+                || className.startsWith(PACKAGE + "database.ProfiledStatement")) {
+                continue;
+            }
+
+            String frame = simpleName(className) + "." + methodName(element.getMethodName());
+            if (frame.equals(last)) {
+                continue;
+            }
+            if (last != null) {
+                operation.append(" < ");
+            }
+            operation.append(frame);
+            last = frame;
+            if (++frames == CALLER_FRAMES) {
+                break;
+            }
+        }
+        return frames > 0 ? operation.toString() : "?";
+    }
+
+    private static String simpleName(String className) {
+        String name = className.substring(className.lastIndexOf('.') + 1);
+        int inner = name.indexOf('$');
+        return inner > 0 ? name.substring(0, inner) : name;
+    }
+
+    private static String methodName(String method) {
+        // Lambdas aparecem como lambda$metodo$0
+        if (method.startsWith("lambda$")) {
+            int end = method.indexOf('$', 7);
+            return end > 7 ? method.substring(7, end) : method;
+        }
+        return method;
+    }
+
+    /**
+     * Normaliza o SQL em um modelo: espaços colapsados e, se pedido, literais de texto e números
+     * trocados por {@code ?}.
+     */
+    static String normalize(String sql, boolean literals) {
+        if (sql == null) {
+            return "?";
+        }
+
+        StringBuilder template = new StringBuilder(Math.min(sql.length(), 256));
+        boolean space = false;
+        int length = sql.length();
+        for (int i = 0; i < length; i++) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = template.length() > 0;
+                continue;
+            }
+            if (space) {
+                template.append(' ');
+                space = false;
+            }
+
+            if (literals && c == '\'') {
+                // Texto entre aspas, com '' como aspas escapadas
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                template.append('?');
+            } else if (literals && Character.isDigit(c) && !partOfIdentifier(template)) {
+                while (i + 1 < length && (Character.isDigit(sql.charAt(i + 1)) || sql.charAt(i + 1) == '.')) {
+                    i++;
+                }
+                template.append('?');
+            } else {
+                template.append(c);
+            }
+        }
+        return template.toString();
+    }
+
+    private static boolean partOfIdentifier(StringBuilder template) {
+        if (template.length() == 0) {
+            return false;
+        }
+        char previous = template.charAt(template.length() - 1);
+        return Character.isLetterOrDigit(previous) || previous == '_' || previous == '`' || previous == '"';
+    }
+
+    /**
+     * @return Linha de resumo: modelo (encurtado), chamadas, linhas, total, média, p99 e máximo
+     */
+    public static String describe(SqlStats entry, int maxLength) {
+        String template = entry.template.length() > maxLength
+            ? entry.template.substring(0, Math.max(0, maxLength - 3)) + "..."
+            : entry.template;
+        TimingStats timing = entry.timing;
+        return String.format(Locale.ROOT, "%s: %d chamadas, %d linhas, total %s, média %s, p99 %s, máx %s%s",
+            template, timing.getCount(), entry.getRows(), PerformanceMonitor.formatNanos(timing.getTotalNanos()),
+            PerformanceMonitor.formatNanos(timing.getAverageNanos()),
+            PerformanceMonitor.formatNanos(timing.getPercentileNanos(0.99)),
+            PerformanceMonitor.formatNanos(timing.getMaxNanos()),
+            entry.getErrors() > 0 ? ", " + entry.getErrors() + " falhas" : "");
+    }
+
+    /**
+     * Medições de um modelo de comando SQL.
+     */
+    public static class SqlStats {
+        private final String template;
+        private final TimingStats timing;
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        SqlStats(String template) {
+            this.template = template;
+            this.timing = new TimingStats(template);
+        }
+
+        public String getTemplate() {
+            return template;
+        }
+
+        public TimingStats getTiming() {
+            return timing;
+        }
+
+        public long getCount() {
+            return timing.getCount();
+        }
+
+        /**
+         * @return Linhas lidas (consultas) ou alteradas (atualizações e lotes)
+         */
+        public long getRows() {
+            return rows.sum();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+    }
+}
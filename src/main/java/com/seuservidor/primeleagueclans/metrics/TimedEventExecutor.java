@@ -0,0 +1,65 @@
+package com.seuservidor.primeleagueclans.metrics;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Executor de um método {@code @EventHandler} que mede cada chamada quando o monitor de
+ * desempenho está ligado. Desligado, custa uma leitura de campo volátil além da chamada
+ * reflexiva que o próprio Bukkit faria.
+ */
+public class TimedEventExecutor implements EventExecutor {
+    private final PerformanceMonitor monitor;
+    private final Method method;
+    private final Class<? extends Event> eventClass;
+    private final TimingStats stats;
+
+    TimedEventExecutor(PerformanceMonitor monitor, Method method, Class<? extends Event> eventClass, TimingStats stats) {
+        this.monitor = monitor;
+        this.method = method;
+        this.eventClass = eventClass;
+        this.stats = stats;
+    }
+
+    /**
+     * @return Nome do handler, no formato {@code Listener.metodo}
+     */
+    public String getName() {
+        return stats.getName();
+    }
+
+    @Override
+    public void execute(Listener listener, Event event) throws EventException {
+        // Subclasses do evento registrado chegam aqui pela HandlerList da classe base
+        if (!eventClass.isInstance(event)) {
+            return;
+        }
+
+        if (!monitor.isEnabled()) {
+            invoke(listener, event);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            invoke(listener, event);
+        } finally {
+            monitor.record(stats, System.nanoTime() - start);
+        }
+    }
+
+    private void invoke(Listener listener, Event event) throws EventException {
+        try {
+            method.invoke(listener, event);
+        } catch (InvocationTargetException e) {
+            throw new EventException(e.getCause());
+        } catch (Throwable t) {
+            throw new EventException(t);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.seuservidor.primeleagueclans.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contagem, tempo total, tempo máximo e histograma de duração de um ponto medido.
+ *
+ * O histograma é log-linear, no estilo do HdrHistogram: cada potência de dois de nanossegundos
+ * é dividida em 8 faixas, então um percentil fica no máximo 12,5% acima do valor real. Pode ser
+ * alimentado por várias threads (o chat é assíncrono) sem travas.
+ */
+public class TimingStats {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public TimingStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        buckets.incrementAndGet(bucket(value));
+        count.increment();
+        totalNanos.add(value);
+
+        long max;
+        while (value > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, value)) {
+            // Outra thread atualizou o máximo; tentar de novo
+        }
+    }
+
+    /**
+     * Zera as medições. Medições concorrentes com a limpeza podem ficar pela metade.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0L);
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0L);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public long getAverageNanos() {
+        long calls = count.sum();
+        return calls == 0 ? 0 : totalNanos.sum() / calls;
+    }
+
+    /**
+     * @param percentile Entre 0 e 1, ex.: 0.99
+     * @return Limite superior da faixa que contém o percentil, em nanossegundos
+     */
+    public long getPercentileNanos(double percentile) {
+        long total = count.sum();
+        if (total == 0) {
+            return 0L;
+        }
+
+        long target = Math.max(1L, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return Math.min(upperBound(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+    }
+}
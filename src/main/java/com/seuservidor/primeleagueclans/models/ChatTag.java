@@ -0,0 +1,60 @@
+package com.seuservidor.primeleagueclans.models;
+
+import org.bukkit.ChatColor;
+
+/**
+ * Tag de clã já renderizada para o chat.
+ *
+ * As strings são montadas uma vez por tag e lidas sem trava pelas threads de chat; o Clan troca a
+ * instância inteira quando a tag muda.
+ */
+public final class ChatTag {
+    private final String tag;
+    private final String legendChatTag;
+    private final String formatPrefix;
+    // Último formato de chat traduzido; o formato costuma ser sempre o mesmo objeto
+    private volatile FormatEntry lastFormat;
+
+    ChatTag(String tag) {
+        this.tag = tag;
+        this.legendChatTag = ChatColor.translateAlternateColorCodes('&', "&7[&6" + tag + "&7]&r");
+        this.formatPrefix = "[" + tag + "] %s";
+    }
+
+    /**
+     * @return Tag crua, usada para saber se esta renderização ainda vale para o clã
+     */
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * @return Valor da tag "clan" do LegendChat, com as cores já traduzidas
+     */
+    public String getLegendChatTag() {
+        return legendChatTag;
+    }
+
+    /**
+     * Insere a tag antes do nome do jogador no formato do AsyncPlayerChatEvent.
+     */
+    public String applyToFormat(String format) {
+        FormatEntry entry = lastFormat;
+        if (entry != null && entry.source.equals(format)) {
+            return entry.result;
+        }
+        String result = format.replace("%s", formatPrefix);
+        lastFormat = new FormatEntry(format, result);
+        return result;
+    }
+
+    private static final class FormatEntry {
+        private final String source;
+        private final String result;
+
+        FormatEntry(String source, String result) {
+            this.source = source;
+            this.result = result;
+        }
+    }
+}
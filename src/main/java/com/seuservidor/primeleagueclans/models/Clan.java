@@ -6,12 +6,33 @@ import org.bukkit.entity.Player;
 import org.bukkit.Location;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 public class Clan {
+    // Marcadores de alteração usados para gravar apenas o que mudou desde o último salvamento
+    public static final int DIRTY_NAME = 1;
+    public static final int DIRTY_TAG = 1 << 1;
+    public static final int DIRTY_LEADER = 1 << 2;
+    public static final int DIRTY_LEVEL = 1 << 3;
+    public static final int DIRTY_XP = 1 << 4;
+    public static final int DIRTY_POINTS = 1 << 5;
+    public static final int DIRTY_KILLS = 1 << 6;
+    public static final int DIRTY_DEATHS = 1 << 7;
+    public static final int DIRTY_BANK = 1 << 8;
+    public static final int DIRTY_DESCRIPTION = 1 << 9;
+    public static final int DIRTY_MEMBERS = 1 << 10;
+    public static final int DIRTY_ALLIES = 1 << 11;
+    public static final int DIRTY_ENEMIES = 1 << 12;
+    public static final int DIRTY_COLUMNS = (1 << 10) - 1; // colunas da tabela clans
+    public static final int DIRTY_ALL = (1 << 13) - 1;
+
     private String id;
-    private String name;
-    private String tag;
-    private String leader;
+    // Nome, tag, líder e os conjuntos abaixo são lidos por threads assíncronas (chat, sincronização)
+    private volatile String name;
+    private volatile String tag;
+    private volatile String leader;
     private Set<String> members;
     private Set<String> subLeaders;
     private Set<String> allies;
@@ -32,19 +53,24 @@ public class Clan {
     private boolean pvpEnabled;
     private List<String> allyInvites = new ArrayList<>();
     private List<String> allyRequests = new ArrayList<>();
+    private final AtomicInteger dirty = new AtomicInteger(DIRTY_ALL);
+    // Avisado quando aliados ou inimigos mudam; usado pela matriz de relações do ClanManager
+    private volatile Consumer<Clan> relationListener;
+    // Tag renderizada para o chat, refeita quando a tag muda
+    private volatile ChatTag chatTag;
 
     public Clan(String name, String tag, String leader) {
         this.name = name;
         this.tag = tag;
         this.leader = leader != null ? leader.toLowerCase() : null;
-        this.members = new HashSet<>();
-        this.subLeaders = new HashSet<>();
-        this.allies = new HashSet<>();
-        this.enemies = new HashSet<>();
+        this.members = ConcurrentHashMap.newKeySet();
+        this.subLeaders = ConcurrentHashMap.newKeySet();
+        this.allies = ConcurrentHashMap.newKeySet();
+        this.enemies = ConcurrentHashMap.newKeySet();
         this.bank = 0.0;
         this.points = 0;
-        this.settings = new HashMap<>();
-        this.invites = new HashSet<>();
+        this.settings = new ConcurrentHashMap<>();
+        this.invites = ConcurrentHashMap.newKeySet();
         this.createdAt = System.currentTimeMillis();
         this.lastActivity = System.currentTimeMillis();
         this.level = 1;
@@ -75,7 +101,10 @@ public class Clan {
     }
 
     public void setName(String name) {
-        this.name = name;
+        if (!Objects.equals(this.name, name)) {
+            this.name = name;
+            markDirty(DIRTY_NAME);
+        }
     }
 
     public String getTag() {
@@ -83,7 +112,25 @@ public class Clan {
     }
 
     public void setTag(String tag) {
-        this.tag = tag;
+        if (!Objects.equals(this.tag, tag)) {
+            this.tag = tag;
+            markDirty(DIRTY_TAG);
+        }
+    }
+
+    /**
+     * Tag pronta para o chat. Pode ser chamado de qualquer thread; enquanto a tag não muda,
+     * devolve sempre a mesma instância.
+     */
+    public ChatTag getChatTag() {
+        ChatTag current = chatTag;
+        String currentTag = tag;
+        // Comparação por referência: setTag troca o objeto, então uma tag antiga nunca passa
+        if (current == null || current.getTag() != currentTag) {
+            current = new ChatTag(currentTag);
+            chatTag = current;
+        }
+        return current;
     }
 
     public String getLeader() {
@@ -102,7 +149,11 @@ public class Clan {
             addMember(leaderKey);
         }
         
-        this.leader = leaderKey;
+        if (!leaderKey.equals(this.leader)) {
+            this.leader = leaderKey;
+            // O cargo dos membros também muda junto com o líder
+            markDirty(DIRTY_LEADER | DIRTY_MEMBERS);
+        }
     }
 
     public Set<String> getMembers() {
@@ -110,7 +161,8 @@ public class Clan {
     }
 
     public void setMembers(Set<String> members) {
-        this.members = members;
+        this.members = copyOf(members);
+        markDirty(DIRTY_MEMBERS);
     }
 
     public Set<String> getSubLeaders() {
@@ -118,7 +170,8 @@ public class Clan {
     }
 
     public void setSubLeaders(Set<String> subLeaders) {
-        this.subLeaders = subLeaders;
+        this.subLeaders = copyOf(subLeaders);
+        markDirty(DIRTY_MEMBERS);
     }
 
     public Set<String> getAllies() {
@@ -126,7 +179,9 @@ public class Clan {
     }
 
     public void setAllies(Set<String> allies) {
-        this.allies = allies;
+        this.allies = copyOf(allies);
+        markDirty(DIRTY_ALLIES);
+        relationsChanged();
     }
 
     public Set<String> getEnemies() {
@@ -134,7 +189,9 @@ public class Clan {
     }
 
     public void setEnemies(Set<String> enemies) {
-        this.enemies = enemies;
+        this.enemies = copyOf(enemies);
+        markDirty(DIRTY_ENEMIES);
+        relationsChanged();
     }
 
     public double getBank() {
@@ -142,7 +199,10 @@ public class Clan {
     }
 
     public void setBank(double bank) {
-        this.bank = bank;
+        if (this.bank != bank) {
+            this.bank = bank;
+            markDirty(DIRTY_BANK);
+        }
     }
 
     public int getPoints() {
@@ -150,7 +210,10 @@ public class Clan {
     }
 
     public void setPoints(int points) {
-        this.points = points;
+        if (this.points != points) {
+            this.points = points;
+            markDirty(DIRTY_POINTS);
+        }
     }
 
     public Map<String, String> getSettings() {
@@ -158,7 +221,7 @@ public class Clan {
     }
 
     public void setSettings(Map<String, String> settings) {
-        this.settings = settings;
+        this.settings = new ConcurrentHashMap<>(settings);
     }
 
     public long getCreatedAt() {
@@ -182,7 +245,10 @@ public class Clan {
     }
 
     public void setLevel(int level) {
-        this.level = level;
+        if (this.level != level) {
+            this.level = level;
+            markDirty(DIRTY_LEVEL);
+        }
         updateLastActivity();
     }
 
@@ -191,12 +257,19 @@ public class Clan {
     }
 
     public void setXp(int xp) {
-        this.xp = xp;
+        if (this.xp != xp) {
+            this.xp = xp;
+            markDirty(DIRTY_XP);
+        }
         updateLastActivity();
     }
 
     public void addXp(int amount) {
+        if (amount == 0) {
+            return;
+        }
         this.xp += amount;
+        markDirty(DIRTY_XP);
         checkLevelUp();
         updateLastActivity();
     }
@@ -206,12 +279,16 @@ public class Clan {
     }
 
     public void setKills(int kills) {
-        this.kills = kills;
+        if (this.kills != kills) {
+            this.kills = kills;
+            markDirty(DIRTY_KILLS);
+        }
         updateLastActivity();
     }
 
     public void addKill() {
         this.kills++;
+        markDirty(DIRTY_KILLS);
         addXp(10); // 10 XP por kill
         updateLastActivity();
     }
@@ -221,12 +298,16 @@ public class Clan {
     }
 
     public void setDeaths(int deaths) {
-        this.deaths = deaths;
+        if (this.deaths != deaths) {
+            this.deaths = deaths;
+            markDirty(DIRTY_DEATHS);
+        }
         updateLastActivity();
     }
 
     public void addDeath() {
         this.deaths++;
+        markDirty(DIRTY_DEATHS);
         addXp(5); // 5 XP por morte
         updateLastActivity();
     }
@@ -240,18 +321,23 @@ public class Clan {
     }
 
     public void setDescription(String description) {
-        this.description = description;
+        if (!Objects.equals(this.description, description)) {
+            this.description = description;
+            markDirty(DIRTY_DESCRIPTION);
+        }
         updateLastActivity();
     }
 
     public void addMoney(double amount) {
         this.bank += amount;
+        markDirty(DIRTY_BANK);
         updateLastActivity();
     }
 
     public void removeMoney(double amount) {
         if (this.bank >= amount) {
             this.bank -= amount;
+            markDirty(DIRTY_BANK);
             updateLastActivity();
         }
     }
@@ -270,6 +356,7 @@ public class Clan {
             xp -= xpNeeded;
             level++;
             xpNeeded = level * 1000;
+            markDirty(DIRTY_LEVEL);
         }
     }
 
@@ -280,7 +367,9 @@ public class Clan {
         }
         
         String playerKey = player.toLowerCase();
-        members.add(playerKey);
+        if (members.add(playerKey)) {
+            markDirty(DIRTY_MEMBERS);
+        }
         updateLastActivity();
     }
 
@@ -296,11 +385,15 @@ public class Clan {
             return;
         }
         
-        members.remove(playerKey);
+        boolean changed = members.remove(playerKey);
         
         // Remover também de sublíderes, se aplicável
         if (subLeaders != null) {
-            subLeaders.remove(playerKey);
+            changed |= subLeaders.remove(playerKey);
+        }
+        
+        if (changed) {
+            markDirty(DIRTY_MEMBERS);
         }
         
         updateLastActivity();
@@ -316,6 +409,7 @@ public class Clan {
         // Garantir que o membro existe antes de adicionar como sublíder
         if (members.contains(playerKey) && !isLeader(playerKey) && !subLeaders.contains(playerKey)) {
             subLeaders.add(playerKey);
+            markDirty(DIRTY_MEMBERS);
             updateLastActivity();
         }
     }
@@ -326,7 +420,9 @@ public class Clan {
         }
         
         String playerKey = player.toLowerCase();
-        subLeaders.remove(playerKey);
+        if (subLeaders.remove(playerKey)) {
+            markDirty(DIRTY_MEMBERS);
+        }
         updateLastActivity();
     }
 
@@ -338,6 +434,8 @@ public class Clan {
         // Para clãs não precisamos converter para minúsculo, pois o nome do clã é case-sensitive
         if (!allies.contains(clanName)) {
             allies.add(clanName);
+            markDirty(DIRTY_ALLIES);
+            relationsChanged();
             updateLastActivity();
         }
     }
@@ -347,7 +445,10 @@ public class Clan {
             return;
         }
         
-        allies.remove(clanName);
+        if (allies.remove(clanName)) {
+            markDirty(DIRTY_ALLIES);
+            relationsChanged();
+        }
         updateLastActivity();
     }
 
@@ -358,6 +459,8 @@ public class Clan {
         
         if (!enemies.contains(clanName)) {
             enemies.add(clanName);
+            markDirty(DIRTY_ENEMIES);
+            relationsChanged();
             updateLastActivity();
         }
     }
@@ -367,18 +470,23 @@ public class Clan {
             return;
         }
         
-        enemies.remove(clanName);
+        if (enemies.remove(clanName)) {
+            markDirty(DIRTY_ENEMIES);
+            relationsChanged();
+        }
         updateLastActivity();
     }
 
     public void deposit(double amount) {
         bank += amount;
+        markDirty(DIRTY_BANK);
         updateLastActivity();
     }
 
     public boolean withdraw(double amount) {
         if (bank >= amount) {
             bank -= amount;
+            markDirty(DIRTY_BANK);
             updateLastActivity();
             return true;
         }
@@ -387,11 +495,13 @@ public class Clan {
 
     public void addPoints(int amount) {
         points += amount;
+        markDirty(DIRTY_POINTS);
         updateLastActivity();
     }
 
     public void removePoints(int amount) {
         points = Math.max(0, points - amount);
+        markDirty(DIRTY_POINTS);
         updateLastActivity();
     }
 
@@ -413,6 +523,49 @@ public class Clan {
         lastActivity = System.currentTimeMillis();
     }
 
+    public void setRelationListener(Consumer<Clan> relationListener) {
+        this.relationListener = relationListener;
+    }
+
+    private void relationsChanged() {
+        Consumer<Clan> listener = relationListener;
+        if (listener != null) {
+            listener.accept(this);
+        }
+    }
+
+    // Controle de alterações pendentes de persistência
+
+    public void markDirty(int fields) {
+        if (fields != 0) {
+            dirty.getAndUpdate(current -> current | fields);
+        }
+    }
+
+    public boolean isDirty() {
+        return dirty.get() != 0;
+    }
+
+    public int getDirtyFields() {
+        return dirty.get();
+    }
+
+    /**
+     * Retorna os campos alterados e zera o controle. Quem consome deve devolver os campos
+     * com {@link #markDirty(int)} se o salvamento falhar.
+     */
+    public int consumeDirty() {
+        return dirty.getAndSet(0);
+    }
+
+    public void clearDirty() {
+        dirty.set(0);
+    }
+
+    public void clearDirty(int fields) {
+        dirty.getAndUpdate(current -> current & ~fields);
+    }
+
     // Métodos de Verificação
     public boolean isMember(String player) {
         if (player == null) {
@@ -486,7 +639,14 @@ public class Clan {
         return invites.contains(player);
     }
 
-    // Método de broadcast para membros online
+    /**
+     * Envia a mensagem aos membros online procurando cada membro entre os jogadores do servidor.
+     *
+     * @deprecated Use {@link com.seuservidor.primeleagueclans.managers.OnlinePresence#sendMessage(Clan, String)},
+     *             pelo {@code ClanManager.getPresence()}, que lê o índice de membros online em vez
+     *             de consultar o servidor para cada membro.
+     */
+    @Deprecated
     public void broadcastMessage(String message) {
         for (String member : members) {
             Player player = Bukkit.getPlayer(member);
@@ -521,6 +681,8 @@ public class Clan {
                 // Não precisa fazer nada, pois já foi removido dos outros cargos
                 break;
         }
+        
+        markDirty(DIRTY_LEADER | DIRTY_MEMBERS);
     }
 
     public Location getHome() {
@@ -573,11 +735,19 @@ public class Clan {
 
     public void addKills(int amount) {
         this.kills += amount;
+        markDirty(DIRTY_KILLS);
         updateLastActivity();
     }
 
     public void addDeaths(int amount) {
         this.deaths += amount;
+        markDirty(DIRTY_DEATHS);
         updateLastActivity();
     }
-} 
\ No newline at end of file
+
+    private static Set<String> copyOf(Set<String> values) {
+        Set<String> copy = ConcurrentHashMap.newKeySet();
+        copy.addAll(values);
+        return copy;
+    }
+}
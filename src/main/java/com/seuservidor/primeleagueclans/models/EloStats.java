@@ -0,0 +1,102 @@
+package com.seuservidor.primeleagueclans.models;
+
+/**
+ * Pontuação de elo e estatísticas de combate de um jogador.
+ *
+ * Alterado apenas na thread principal pelo EloManager; a gravação no banco recebe cópias.
+ */
+public class EloStats {
+    public static final int DEFAULT_ELO = 1000;
+
+    private String name;
+    private int elo;
+    private int kills;
+    private int deaths;
+    private int wins;
+    private int losses;
+    private String badge;
+
+    public EloStats(String name) {
+        this(name, DEFAULT_ELO, 0, 0, 0, 0, null);
+    }
+
+    public EloStats(String name, int elo, int kills, int deaths, int wins, int losses, String badge) {
+        this.name = name;
+        this.elo = elo;
+        this.kills = kills;
+        this.deaths = deaths;
+        this.wins = wins;
+        this.losses = losses;
+        this.badge = badge;
+    }
+
+    public EloStats copy() {
+        return new EloStats(name, elo, kills, deaths, wins, losses, badge);
+    }
+
+    /**
+     * @return Nome do jogador como foi visto pela última vez
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Troca o nome exibido; só o case pode mudar, a chave continua a mesma.
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getKey() {
+        return name.toLowerCase();
+    }
+
+    public int getElo() {
+        return elo;
+    }
+
+    public void setElo(int elo) {
+        this.elo = elo;
+    }
+
+    public int getKills() {
+        return kills;
+    }
+
+    public void setKills(int kills) {
+        this.kills = kills;
+    }
+
+    public int getDeaths() {
+        return deaths;
+    }
+
+    public void setDeaths(int deaths) {
+        this.deaths = deaths;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public void setWins(int wins) {
+        this.wins = wins;
+    }
+
+    public int getLosses() {
+        return losses;
+    }
+
+    public void setLosses(int losses) {
+        this.losses = losses;
+    }
+
+    public String getBadge() {
+        return badge;
+    }
+
+    public void setBadge(String badge) {
+        this.badge = badge;
+    }
+}
@@ -0,0 +1,65 @@
+package com.seuservidor.primeleagueclans.models;
+
+/**
+ * Contexto de clã de um jogador resolvido a partir dos índices em memória.
+ *
+ * Instâncias são imutáveis; cada uma guarda a versão dos índices do ClanManager em que foi
+ * montada e é substituída quando essa versão muda.
+ */
+public final class PlayerSession {
+    private final String playerName;
+    private final String clanId;
+    private final Clan clan;
+    private final int clanSlot;
+    private final long version;
+    private final boolean reconciled;
+
+    public PlayerSession(String playerName, String clanId, Clan clan, int clanSlot, long version, boolean reconciled) {
+        this.playerName = playerName;
+        this.clanId = clanId;
+        this.clan = clan;
+        this.clanSlot = clanSlot;
+        this.version = version;
+        this.reconciled = reconciled;
+    }
+
+    /**
+     * @return Nome do jogador em minúsculo
+     */
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public String getClanId() {
+        return clanId;
+    }
+
+    public Clan getClan() {
+        return clan;
+    }
+
+    public boolean hasClan() {
+        return clan != null;
+    }
+
+    /**
+     * @return Índice do clã na matriz de relações do ClanManager, ou -1 sem clã
+     */
+    public int getClanSlot() {
+        return clanSlot;
+    }
+
+    /**
+     * @return Versão dos índices do ClanManager usada para montar esta sessão
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return true se os dados do jogador já foram conferidos com o banco nesta sessão
+     */
+    public boolean isReconciled() {
+        return reconciled;
+    }
+}